@@ -5,14 +5,10 @@ import android.app.TimePickerDialog;
 import android.content.Intent;
 import android.content.SharedPreferences;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
-import android.graphics.Matrix;
-import android.media.ExifInterface;
 import android.net.Uri;
 import android.os.Bundle;
 import android.provider.MediaStore;
 import android.text.TextUtils;
-import android.util.Base64;
 import android.util.Log;
 import android.view.View;
 import android.widget.Button;
@@ -31,31 +27,22 @@ import androidx.core.graphics.Insets;
 import androidx.core.view.ViewCompat;
 import androidx.core.view.WindowInsetsCompat;
 
-import com.android.volley.DefaultRetryPolicy;
-import com.android.volley.Request;
-import com.android.volley.RequestQueue;
-import com.android.volley.Response;
-import com.android.volley.VolleyError;
-import com.android.volley.toolbox.JsonObjectRequest;
-import com.android.volley.toolbox.Volley;
+import com.example.samajconnectfrontend.images.ImageIngestor;
+import com.example.samajconnectfrontend.network.EventUploader;
+import com.example.samajconnectfrontend.network.NetworkClient;
+import com.example.samajconnectfrontend.utils.AppExecutors;
 import com.google.android.material.textfield.TextInputEditText;
+import com.google.gson.JsonObject;
 
-import org.json.JSONException;
-import org.json.JSONObject;
-
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.io.InputStream;
+import java.io.File;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
-import java.util.HashMap;
 import java.util.Locale;
-import java.util.Map;
+import java.util.UUID;
 
 public class CreateEventActivity extends AppCompatActivity {
 
     private static final String TAG = "CreateEventActivity";
-    private static final String BASE_URL = "http://10.0.2.2:8080/api/events";
 
     // UI Components
     private ImageView backArrow;
@@ -68,7 +55,11 @@ public class CreateEventActivity extends AppCompatActivity {
 
     // Data variables
     private Calendar selectedDateTime;
-    private String selectedImageBase64 = null;
+    // Compressed image and thumbnail waiting to be uploaded with the event
+    private ImageIngestor.Result selectedImage = null;
+    private ImageIngestor imageIngestor;
+    // Bumped on every pick, so a slow photo can't replace a newer one
+    private int imageGeneration = 0;
     private Long currentUserId;
     private Long currentSamajId;
     private SharedPreferences sharedPreferences;
@@ -81,8 +72,11 @@ public class CreateEventActivity extends AppCompatActivity {
     // Image picker launcher
     private ActivityResultLauncher<Intent> imagePickerLauncher;
 
-    // Volley components
-    private RequestQueue requestQueue;
+    // Upload components
+    private EventUploader uploader;
+    private EventUploader.Upload upload;
+    // Kept for every attempt at this form, so a resubmit can't create the event twice
+    private String uploadKey;
     private ProgressDialog progressDialog;
 
     @Override
@@ -105,7 +99,10 @@ public class CreateEventActivity extends AppCompatActivity {
         initializeViews();
         setupClickListeners();
         setupImagePicker();
-        setupVolley();
+        // Progress is reported from the upload thread, so hop to the main thread
+        uploader = new EventUploader(NetworkClient.api(this), AppExecutors.mainThread());
+        uploadKey = UUID.randomUUID().toString();
+        imageIngestor = new ImageIngestor(this);
 
         selectedDateTime = Calendar.getInstance();
 
@@ -153,6 +150,7 @@ public class CreateEventActivity extends AppCompatActivity {
         progressDialog = new ProgressDialog(this);
         progressDialog.setMessage("Creating event...");
         progressDialog.setCancelable(false);
+        progressDialog.setButton(ProgressDialog.BUTTON_NEGATIVE, "Cancel", (dialog, which) -> cancelUpload());
 
         // Initially hide image preview
         cardImagePreview.setVisibility(View.GONE);
@@ -195,11 +193,6 @@ public class CreateEventActivity extends AppCompatActivity {
         );
     }
 
-    private void setupVolley() {
-        // Initialize Volley RequestQueue (reuse if you already have one in your app)
-        requestQueue = Volley.newRequestQueue(this);
-    }
-
     private void showDatePicker() {
         Calendar calendar = Calendar.getInstance();
 
@@ -281,147 +274,62 @@ public class CreateEventActivity extends AppCompatActivity {
     }
 
     private void processCameraBitmap(Bitmap bitmap) {
-        try {
-            // Compress the camera bitmap
-            Bitmap compressedBitmap = compressBitmap(bitmap, 85);
-
-            // Convert to Base64
-            selectedImageBase64 = bitmapToBase64(compressedBitmap);
-
-            // Display preview
-            ivEventImagePreview.setImageBitmap(compressedBitmap);
-            cardImagePreview.setVisibility(View.VISIBLE);
-            btnUploadImage.setText("Change Image");
-
-            Log.d(TAG, "Camera image processed successfully, Base64 length: " + selectedImageBase64.length());
-        } catch (Exception e) {
-            Log.e(TAG, "Error processing camera image", e);
-            Toast.makeText(this, "Error processing image", Toast.LENGTH_SHORT).show();
-        }
+        imageIngestor.ingest(bitmap, ingestCallback(startIngest()));
     }
 
     private void processSelectedImage(Uri imageUri) {
-        try {
-            // Load and compress the image
-            Bitmap bitmap = loadAndCompressImage(imageUri);
-            if (bitmap != null) {
-                // Convert to Base64
-                selectedImageBase64 = bitmapToBase64(bitmap);
-
-                // Display preview
-                ivEventImagePreview.setImageBitmap(bitmap);
-                cardImagePreview.setVisibility(View.VISIBLE);
-                btnUploadImage.setText("Change Image");
-
-                Log.d(TAG, "Gallery image processed successfully, Base64 length: " + selectedImageBase64.length());
-            }
-        } catch (Exception e) {
-            Log.e(TAG, "Error processing image", e);
-            Toast.makeText(this, "Error processing image", Toast.LENGTH_SHORT).show();
-        }
+        // Decoding a large photo takes a while; it runs in the background and the form stays usable
+        imageIngestor.ingest(imageUri, ingestCallback(startIngest()));
     }
 
-    private Bitmap loadAndCompressImage(Uri imageUri) throws IOException {
-        InputStream inputStream = getContentResolver().openInputStream(imageUri);
-        if (inputStream == null) return null;
-
-        // First, get image dimensions
-        BitmapFactory.Options options = new BitmapFactory.Options();
-        options.inJustDecodeBounds = true;
-        BitmapFactory.decodeStream(inputStream, null, options);
-        inputStream.close();
-
-        // Calculate sample size for compression
-        int maxSize = 1024; // Max width/height
-        int sampleSize = 1;
-        while (options.outWidth / sampleSize > maxSize || options.outHeight / sampleSize > maxSize) {
-            sampleSize *= 2;
-        }
+    private int startIngest() {
+        btnCreateEvent.setEnabled(false);
+        btnUploadImage.setText("Processing image...");
+        return ++imageGeneration;
+    }
 
-        // Load the actual bitmap
-        inputStream = getContentResolver().openInputStream(imageUri);
-        options.inJustDecodeBounds = false;
-        options.inSampleSize = sampleSize;
-        Bitmap bitmap = BitmapFactory.decodeStream(inputStream, null, options);
-        inputStream.close();
+    private ImageIngestor.Callback ingestCallback(int generation) {
+        return new ImageIngestor.Callback() {
+            @Override
+            public void onIngested(ImageIngestor.Result result) {
+                if (generation != imageGeneration || isDestroyed()) {
+                    result.delete();
+                    return;
+                }
+                if (selectedImage != null) {
+                    selectedImage.delete();
+                }
+                selectedImage = result;
+                btnCreateEvent.setEnabled(true);
 
-        if (bitmap != null) {
-            // Handle rotation
-            bitmap = handleImageRotation(imageUri, bitmap);
+                // Display preview
+                ivEventImagePreview.setImageBitmap(result.preview);
+                cardImagePreview.setVisibility(View.VISIBLE);
+                btnUploadImage.setText("Change Image");
 
-            // Further compress if still too large
-            if (bitmap.getByteCount() > 500 * 1024) { // 500KB
-                bitmap = compressBitmap(bitmap, 80);
+                Log.d(TAG, "Image processed successfully, size: " + result.file.length());
             }
-        }
-
-        return bitmap;
-    }
-
-    private Bitmap handleImageRotation(Uri imageUri, Bitmap bitmap) {
-        try {
-            InputStream inputStream = getContentResolver().openInputStream(imageUri);
-            if (inputStream != null) {
-                ExifInterface exif = new ExifInterface(inputStream);
-                int orientation = exif.getAttributeInt(ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_NORMAL);
-                inputStream.close();
-
-                Matrix matrix = new Matrix();
-                switch (orientation) {
-                    case ExifInterface.ORIENTATION_ROTATE_90:
-                        matrix.postRotate(90);
-                        break;
-                    case ExifInterface.ORIENTATION_ROTATE_180:
-                        matrix.postRotate(180);
-                        break;
-                    case ExifInterface.ORIENTATION_ROTATE_270:
-                        matrix.postRotate(270);
-                        break;
-                }
 
-                if (!matrix.isIdentity()) {
-                    Bitmap rotatedBitmap = Bitmap.createBitmap(bitmap, 0, 0, bitmap.getWidth(), bitmap.getHeight(), matrix, true);
-                    bitmap.recycle();
-                    return rotatedBitmap;
+            @Override
+            public void onFailed(Exception e) {
+                if (generation != imageGeneration || isDestroyed()) {
+                    return;
                 }
+                btnCreateEvent.setEnabled(true);
+                btnUploadImage.setText(selectedImage != null ? "Change Image" : "Add Event Image");
+                Toast.makeText(CreateEventActivity.this, "Error processing image", Toast.LENGTH_SHORT).show();
             }
-        } catch (IOException e) {
-            Log.e(TAG, "Error handling image rotation", e);
-        }
-        return bitmap;
-    }
-
-    private Bitmap compressBitmap(Bitmap bitmap, int quality) {
-        ByteArrayOutputStream stream = new ByteArrayOutputStream();
-        bitmap.compress(Bitmap.CompressFormat.JPEG, quality, stream);
-        byte[] byteArray = stream.toByteArray();
-        return BitmapFactory.decodeByteArray(byteArray, 0, byteArray.length);
+        };
     }
 
-    private String bitmapToBase64(Bitmap bitmap) {
-        if (bitmap == null) {
-            Log.w(TAG, "Bitmap is null, cannot convert to Base64");
-            return null;
-        }
-
-        try {
-            ByteArrayOutputStream stream = new ByteArrayOutputStream();
-            bitmap.compress(Bitmap.CompressFormat.JPEG, 85, stream);
-            byte[] byteArray = stream.toByteArray();
-
-            // Use NO_WRAP to avoid newline characters that break JSON
-            String base64String = Base64.encodeToString(byteArray, Base64.NO_WRAP);
-
-            Log.d(TAG, "Base64 conversion successful, length: " + base64String.length());
-            return base64String;
-
-        } catch (Exception e) {
-            Log.e(TAG, "Error converting bitmap to Base64", e);
-            return null;
-        }
-    }
     private void removeSelectedImage() {
-        selectedImageBase64 = null;
+        // Drop a photo still being processed as well
+        imageGeneration++;
+        btnCreateEvent.setEnabled(true);
+        if (selectedImage != null) {
+            selectedImage.delete();
+            selectedImage = null;
+        }
         cardImagePreview.setVisibility(View.GONE);
         btnUploadImage.setText("Add Event Image");
     }
@@ -431,13 +339,7 @@ public class CreateEventActivity extends AppCompatActivity {
             return;
         }
 
-        try {
-            JSONObject eventJson = createEventJson();
-            sendCreateEventRequest(eventJson);
-        } catch (JSONException e) {
-            Log.e(TAG, "Error creating JSON", e);
-            Toast.makeText(this, "Error preparing event data", Toast.LENGTH_SHORT).show();
-        }
+        sendCreateEventRequest(createEventJson());
     }
 
     private boolean validateForm() {
@@ -465,104 +367,97 @@ public class CreateEventActivity extends AppCompatActivity {
         return true;
     }
 
-    private JSONObject createEventJson() throws JSONException {
-        JSONObject json = new JSONObject();
+    private JsonObject createEventJson() {
+        JsonObject json = new JsonObject();
 
-        json.put("eventTitle", etEventTitle.getText().toString().trim());
-        json.put("eventDescription", etEventDescription.getText().toString().trim());
-        json.put("location", etEventLocation.getText().toString().trim());
-        json.put("eventDate", apiDateFormat.format(selectedDateTime.getTime()));
-        json.put("createdBy", currentUserId);
-        json.put("samajId", currentSamajId);
-
-        if (selectedImageBase64 != null && !selectedImageBase64.isEmpty()) {
-            json.put("imageBase64", selectedImageBase64);
-        }
+        json.addProperty("eventTitle", etEventTitle.getText().toString().trim());
+        json.addProperty("eventDescription", etEventDescription.getText().toString().trim());
+        json.addProperty("location", etEventLocation.getText().toString().trim());
+        json.addProperty("eventDate", apiDateFormat.format(selectedDateTime.getTime()));
+        json.addProperty("createdBy", currentUserId);
+        json.addProperty("samajId", currentSamajId);
 
-        Log.d(TAG, "Event JSON created: " + json.toString());
+        // The image travels as its own part, not in here
+        Log.d(TAG, "Event JSON created: " + json);
         return json;
     }
 
-    private void sendCreateEventRequest(JSONObject eventJson) {
+    private void sendCreateEventRequest(JsonObject eventJson) {
+        progressDialog.setMessage("Creating event...");
         progressDialog.show();
 
-        Log.d(TAG, "Sending request to: " + BASE_URL);
-        Log.d(TAG, "Request body: " + eventJson.toString());
-
-        // Create JsonObjectRequest using Volley
-        JsonObjectRequest jsonObjectRequest = new JsonObjectRequest(
-                Request.Method.POST,
-                BASE_URL,
-                eventJson,
-                new Response.Listener<JSONObject>() {
-                    @Override
-                    public void onResponse(JSONObject response) {
-                        progressDialog.dismiss();
-                        Log.d(TAG, "Response: " + response.toString());
-
-                        boolean success = response.optBoolean("success", false);
-                        String message = response.optString("message", "Unknown error");
-
-                        if (success) {
-                            Toast.makeText(CreateEventActivity.this, "Event created successfully!", Toast.LENGTH_LONG).show();
-                            setResult(RESULT_OK);
-                            finish();
-                        } else {
-                            Toast.makeText(CreateEventActivity.this, "Error: " + message, Toast.LENGTH_LONG).show();
-                        }
-                    }
-                },
-                new Response.ErrorListener() {
-                    @Override
-                    public void onErrorResponse(VolleyError error) {
-                        progressDialog.dismiss();
-                        Log.e(TAG, "Volley error", error);
-
-                        String errorMessage = "Network error occurred";
-
-                        if (error.networkResponse != null) {
-                            int statusCode = error.networkResponse.statusCode;
-                            errorMessage = "Server error (" + statusCode + ")";
-
-                            // Try to parse error response
-                            try {
-                                String responseBody = new String(error.networkResponse.data, "utf-8");
-                                JSONObject errorJson = new JSONObject(responseBody);
-                                errorMessage = errorJson.optString("message", errorMessage);
-                            } catch (Exception e) {
-                                // Use default error message
-                            }
-                        } else if (error.getCause() != null) {
-                            errorMessage = "Connection error: " + error.getCause().getMessage();
-                        }
+        Log.d(TAG, "Creating event, image: " + (selectedImage != null ? selectedImage.file.length() + " bytes" : "none"));
 
-                        Toast.makeText(CreateEventActivity.this, errorMessage, Toast.LENGTH_LONG).show();
-                    }
-                }
-        ) {
+        File image = selectedImage != null ? selectedImage.file : null;
+        File thumbnail = selectedImage != null ? selectedImage.thumbnail : null;
+        upload = uploader.create(uploadKey, eventJson, image, thumbnail, new EventUploader.Listener() {
             @Override
-            public Map<String, String> getHeaders() {
-                Map<String, String> headers = new HashMap<>();
-                headers.put("Content-Type", "application/json");
-                return headers;
+            public void onProgress(long sent, long total) {
+                progressDialog.setMessage("Uploading image... " + (sent * 100 / Math.max(total, 1)) + "%");
             }
-        };
 
-        // Set retry policy for large payloads (Base64 images)
-        jsonObjectRequest.setRetryPolicy(new DefaultRetryPolicy(
-                30000, // 30 seconds timeout
-                DefaultRetryPolicy.DEFAULT_MAX_RETRIES,
-                DefaultRetryPolicy.DEFAULT_BACKOFF_MULT));
+            @Override
+            public void onUploaded(JsonObject response) {
+                progressDialog.dismiss();
+                Log.d(TAG, "Response: " + response);
+
+                boolean success = response.has("success") && response.get("success").getAsBoolean();
+                String message = response.has("message") && !response.get("message").isJsonNull()
+                        ? response.get("message").getAsString() : "Unknown error";
+
+                if (success) {
+                    removeSelectedImage();
+                    Toast.makeText(CreateEventActivity.this, "Event created successfully!", Toast.LENGTH_LONG).show();
+                    setResult(RESULT_OK);
+                    finish();
+                } else {
+                    // Nothing was created, the next submit is a new request
+                    uploadKey = UUID.randomUUID().toString();
+                    Toast.makeText(CreateEventActivity.this, "Error: " + message, Toast.LENGTH_LONG).show();
+                }
+            }
+
+            @Override
+            public void onFailed(int statusCode, String message) {
+                progressDialog.dismiss();
+
+                if (statusCode >= 400 && statusCode < 500) {
+                    // Refused, so nothing was created; the next submit is a new request
+                    uploadKey = UUID.randomUUID().toString();
+                }
+
+                String errorMessage = "Network error occurred";
+                if (message != null) {
+                    errorMessage = message;
+                } else if (statusCode > 0) {
+                    errorMessage = "Server error (" + statusCode + ")";
+                }
+                // The image file is kept, so trying again doesn't re-encode it
+                Toast.makeText(CreateEventActivity.this, errorMessage, Toast.LENGTH_LONG).show();
+            }
+        });
+    }
 
-        // Add request to queue
-        requestQueue.add(jsonObjectRequest);
+    private void cancelUpload() {
+        if (upload != null) {
+            upload.cancel();
+            upload = null;
+        }
+        Toast.makeText(this, "Upload cancelled", Toast.LENGTH_SHORT).show();
     }
 
     @Override
     protected void onDestroy() {
         super.onDestroy();
+        if (upload != null) {
+            upload.cancel();
+        }
         if (progressDialog != null && progressDialog.isShowing()) {
             progressDialog.dismiss();
         }
+        if (selectedImage != null) {
+            selectedImage.delete();
+        }
+        ImageIngestor.releasePooledMemory();
     }
 }
\ No newline at end of file
@@ -31,27 +31,28 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.PagerSnapHelper;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.android.volley.DefaultRetryPolicy;
-import com.android.volley.Request;
 import com.android.volley.RequestQueue;
-import com.android.volley.toolbox.JsonObjectRequest;
-import com.android.volley.toolbox.Volley;
+import com.example.samajconnectfrontend.data.ImageBlobStore;
+import com.example.samajconnectfrontend.data.local.LocalStore;
+import com.example.samajconnectfrontend.images.ImageLoader;
+import com.example.samajconnectfrontend.images.ImageOwner;
+import com.example.samajconnectfrontend.network.ConditionalCache;
+import com.example.samajconnectfrontend.network.DashboardBootstrap;
+import com.example.samajconnectfrontend.network.NetworkClient;
+import com.example.samajconnectfrontend.network.ReactionWriteQueue;
 import com.example.samajconnectfrontend.adapters.EventSliderAdapter;
 import com.example.samajconnectfrontend.models.Event;
 import com.example.samajconnectfrontend.models.EventResponse;
 import com.example.samajconnectfrontend.models.Samaj;
 import com.example.samajconnectfrontend.models.SamajResponse;
 import com.example.samajconnectfrontend.models.DetailedUserDto;
+import com.example.samajconnectfrontend.models.UserDetails;
+import com.example.samajconnectfrontend.models.UserResponse;
 import com.google.gson.Gson;
 
-import org.json.JSONObject;
-
 import java.util.ArrayList;
 import java.util.List;
 
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
-import android.util.Base64;
 import androidx.appcompat.app.AlertDialog;
 
 public class DashboardActivity extends AppCompatActivity implements SearchManager.SearchCallback {
@@ -67,6 +68,11 @@ public class DashboardActivity extends AppCompatActivity implements SearchManage
     private EventSliderAdapter eventSliderAdapter;
     private List<Event> eventsList;
     private RequestQueue requestQueue;
+    private ConditionalCache conditionalCache;
+    private DashboardBootstrap bootstrap;
+    private LocalStore localStore;
+    // Set once the samaj request has answered, so the cached name never overwrites it
+    private boolean samajLoaded = false;
     private Long currentUserId;
     private LinearLayoutManager layoutManager;
 
@@ -88,9 +94,6 @@ public class DashboardActivity extends AppCompatActivity implements SearchManage
     // Search functionality
     private SearchManager searchManager;
 
-    private static final String USER_URL = "http://10.0.2.2:8080/api/users/";
-    private static final String EVENT_URL = "http://10.0.2.2:8080/api/events/";
-    private static final String BASE_URL = "http://10.0.2.2:8080/api/";
     private Long currentSamajId = 6L;
 
     @Override
@@ -104,16 +107,50 @@ public class DashboardActivity extends AppCompatActivity implements SearchManage
             return insets;
         });
 
-        requestQueue = Volley.newRequestQueue(this);
+        requestQueue = NetworkClient.requestQueue(this);
+        conditionalCache = NetworkClient.conditionalCache(this);
+        // Retrofit already calls back on the main thread
+        bootstrap = new DashboardBootstrap(NetworkClient.api(this), conditionalCache, Runnable::run);
+        localStore = LocalStore.getInstance(this);
         initializeViews();
         setupSwipeRefresh();
         setupTouchListeners();
         setupRecyclerView();
         setupAutoScroll();
         setupSearchFunctionality();
+        showCachedData();
         loadAllData();
     }
 
+    /**
+     * Paint the samaj name and event cards saved last session while the requests are out
+     */
+    private void showCachedData() {
+        long samajId = getSharedPreferences("SamajConnect", MODE_PRIVATE).getLong("samaj_id", -1L);
+        if (samajId <= 0) {
+            return;
+        }
+
+        localStore.read(() -> localStore.samaj(samajId), samaj -> {
+            if (samaj != null && samaj.getName() != null && !samaj.getName().trim().isEmpty()
+                    && !samajLoaded) {
+                samajNameTextView.setText(samaj.getName());
+            }
+        });
+        localStore.read(() -> localStore.upcomingEvents(samajId), cached -> {
+            // The network may have answered first
+            if (cached == null || cached.isEmpty() || !eventsList.isEmpty() || isFinishing()) {
+                return;
+            }
+            Log.d("DashboardActivity", "Showing " + cached.size() + " cached events");
+            eventsList.addAll(cached);
+            eventSliderAdapter.updateEvents(eventsList);
+            if (eventsList.size() > 1) {
+                startAutoScroll();
+            }
+        });
+    }
+
     private void initializeViews() {
         userNameTextView = findViewById(R.id.textView10);
         samajNameTextView = findViewById(R.id.textView11);
@@ -154,7 +191,6 @@ public class DashboardActivity extends AppCompatActivity implements SearchManage
 
         searchManager = new SearchManager(
                 this,
-                requestQueue,
                 searchEditText,
                 searchResultsContainer,
                 searchResultsRecyclerView,
@@ -208,6 +244,14 @@ public class DashboardActivity extends AppCompatActivity implements SearchManage
             if (requestQueue != null) {
                 requestQueue.cancelAll(this);
             }
+            bootstrap.cancel();
+            // Validators and models belong to the old session
+            conditionalCache.clear();
+            NetworkClient.getInstance(this).getCoalescer().clear();
+            // Unsent reactions were made by this user and must not replay under the next one
+            ReactionWriteQueue.getInstance(this).clear();
+            // The cached events, roster and users are the old user's; cleared on the store's writer
+            localStore.write(localStore::clear);
 
             // Show logout message
             Toast.makeText(this, "Logged out successfully", Toast.LENGTH_SHORT).show();
@@ -304,10 +348,9 @@ public class DashboardActivity extends AppCompatActivity implements SearchManage
         // Stop auto-scroll during refresh
         stopAutoScroll();
 
-        // Clear existing data
+        // Clear existing data; the slider keeps showing the old events until the new list is diffed in
         if (eventsList != null) {
             eventsList.clear();
-            eventSliderAdapter.notifyDataSetChanged();
         }
 
         // Reload all data
@@ -318,7 +361,6 @@ public class DashboardActivity extends AppCompatActivity implements SearchManage
         Log.d("DashboardActivity", "Loading all data...");
         loadUserData();
         loadUserDetails();
-        // Events will be loaded after user details are loaded and samajId is obtained
     }
 
     private void onDataLoadComplete() {
@@ -456,6 +498,11 @@ public class DashboardActivity extends AppCompatActivity implements SearchManage
 
         userNameTextView.setText(userName);
 
+        // Paint the avatar from the thumbnail cache until the user request returns
+        if (currentUserId != -1L) {
+            ImageLoader.loadLastKnown(ImageOwner.USER, currentUserId, profileImageView);
+        }
+
         Log.d("DashboardActivity", "User: " + userName + ", Email: " + userEmail + ", UserId: " + currentUserId);
 
         // Debug SharedPreferences
@@ -487,98 +534,90 @@ public class DashboardActivity extends AppCompatActivity implements SearchManage
             return;
         }
 
-        String url = USER_URL + currentUserId;
-        Log.d("DashboardActivity", "Making API call to get user details: " + url);
-
-        JsonObjectRequest request = new JsonObjectRequest(
-                Request.Method.GET,
-                url,
-                null,
-                response -> {
-                    Log.d("DashboardActivity", "User details response: " + response.toString());
-                    handleUserDetailsResponse(response);
-                },
-                error -> {
-                    Log.e("DashboardActivity", "Error loading user details:");
-                    if (error.networkResponse != null) {
-                        Log.e("DashboardActivity", "Status Code: " + error.networkResponse.statusCode);
-                        Log.e("DashboardActivity", "Response Data: " + new String(error.networkResponse.data));
-                    }
-                    Log.e("DashboardActivity", "Error Message: " + error.getMessage());
-                    handleUserDetailsError(error);
-                }
-        ) {
+        // The samaj and events requests go out with the user request instead of after it
+        long cachedSamajId = getSharedPreferences("SamajConnect", MODE_PRIVATE).getLong("samaj_id", -1L);
+        if (cachedSamajId > 0) {
+            currentSamajId = cachedSamajId;
+        }
+        Log.d("DashboardActivity", "Loading user " + currentUserId + ", samaj guessed as " + cachedSamajId);
+        bootstrap.start(currentUserId, cachedSamajId, new DashboardBootstrap.Listener() {
             @Override
-            public java.util.Map<String, String> getHeaders() {
-                java.util.Map<String, String> headers = new java.util.HashMap<>();
-                headers.put("Content-Type", "application/json");
-
-                SharedPreferences sharedPrefs = getSharedPreferences("SamajConnect", MODE_PRIVATE);
-                String authToken = sharedPrefs.getString("auth_token", "");
-                if (!authToken.isEmpty()) {
-                    headers.put("Authorization", "Bearer " + authToken);
-                }
+            public void onUserLoaded(UserResponse response) {
+                handleUserDetailsResponse(response.getUser());
+            }
 
-                return headers;
+            @Override
+            public void onUserFailed(int statusCode) {
+                handleUserDetailsError(statusCode);
             }
-        };
 
-        requestQueue.add(request);
+            @Override
+            public void onSamajChanged(long samajId) {
+                // What was shown belongs to the previous samaj
+                currentSamajId = samajId;
+                samajLoaded = false;
+                eventsList.clear();
+                eventSliderAdapter.updateEvents(eventsList);
+            }
+
+            @Override
+            public void onNoSamaj() {
+                samajNameTextView.setText("No Samaj Assigned");
+                eventsList.clear();
+                eventSliderAdapter.updateEvents(eventsList);
+                onDataLoadError();
+            }
+
+            @Override
+            public void onSamajLoaded(SamajResponse response, boolean unchanged) {
+                handleSamajResponse(response, unchanged);
+            }
+
+            @Override
+            public void onSamajFailed(int statusCode) {
+                handleSamajError(statusCode);
+            }
+
+            @Override
+            public void onEventsLoaded(EventResponse response, boolean unchanged) {
+                handleEventsResponse(response, unchanged);
+            }
+
+            @Override
+            public void onEventsFailed(int statusCode) {
+                handleEventsError(statusCode);
+            }
+
+            @Override
+            public void onFinished(DashboardBootstrap.Timings timings) {
+                Log.d("DashboardActivity", "Dashboard loaded: " + timings);
+            }
+        });
     }
 
-    private void handleUserDetailsResponse(JSONObject response) {
+    private void handleUserDetailsResponse(UserDetails userData) {
         try {
             Log.d("DashboardActivity", "Parsing user details response...");
 
-            // Check if response has success field
-            if (response.has("success") && response.getBoolean("success")) {
-                JSONObject userData = response.getJSONObject("user");
-
-                // Set admin flag and shared prefs as you're already doing
-                SharedPreferences sharedPreferences = getSharedPreferences("SamajConnect", MODE_PRIVATE);
-                SharedPreferences.Editor editor = sharedPreferences.edit();
-                editor.putBoolean("is_admin", userData.getBoolean("isAdmin"));
-                editor.apply();
-
-                // ✅ Decode and set profile image
-                if (userData.has("profileImgBase64") && !userData.isNull("profileImgBase64")) {
-                    String base64Image = userData.getString("profileImgBase64");
-                    if (!base64Image.isEmpty()) {
-                        byte[] decodedBytes = Base64.decode(base64Image, Base64.DEFAULT);
-                        Bitmap bitmap = BitmapFactory.decodeByteArray(decodedBytes, 0, decodedBytes.length);
-                        profileImageView.setImageBitmap(bitmap); // <-- Your ImageView here
-                    }
-                }
+            // Set admin flag and shared prefs as you're already doing
+            SharedPreferences sharedPreferences = getSharedPreferences("SamajConnect", MODE_PRIVATE);
+            SharedPreferences.Editor editor = sharedPreferences.edit();
+            editor.putBoolean("is_admin", userData.isAdmin());
 
-                // Continue with samaj loading
-                if (userData.has("samaj") && !userData.isNull("samaj")) {
-                    JSONObject samajData = userData.getJSONObject("samaj");
-                    currentSamajId = samajData.getLong("id");
-                    editor.putLong("samaj_id", currentSamajId);
-                    editor.apply();
-                    loadSamajData();
-                    loadEvents();
-                } else {
-                    samajNameTextView.setText("No Samaj Assigned");
-                    onDataLoadError();
-                }
-            } else {
-                // If response doesn't have success field, try direct parsing
-                if (response.has("samaj") && !response.isNull("samaj")) {
-                    JSONObject samajData = response.getJSONObject("samaj");
-                    currentSamajId = samajData.getLong("id");
+            // ✅ Decode and set profile image
+            String base64Image = userData.getProfileImgBase64();
+            if (base64Image != null && !base64Image.isEmpty()) {
+                ImageLoader.load(ImageOwner.USER, currentUserId, base64Image, profileImageView, 0);
+            }
 
-                    Log.d("DashboardActivity", "Found samaj_id from direct parsing: " + currentSamajId);
+            cacheUser(userData);
 
-                    // Now load samaj details and events
-                    loadSamajData();
-                    loadEvents();
-                } else {
-                    Log.w("DashboardActivity", "No samaj data found in response");
-                    samajNameTextView.setText("No Samaj Assigned");
-                    onDataLoadError();
-                }
+            // The bootstrap loads the samaj and its events itself, reconciling if the samaj changed
+            if (userData.getSamaj() != null && userData.getSamaj().getId() != null) {
+                currentSamajId = userData.getSamaj().getId();
+                editor.putLong("samaj_id", currentSamajId);
             }
+            editor.apply();
 
         } catch (Exception e) {
             Log.e("DashboardActivity", "Exception while parsing user details response: " + e.getMessage());
@@ -588,12 +627,24 @@ public class DashboardActivity extends AppCompatActivity implements SearchManage
         }
     }
 
-    private void handleUserDetailsError(com.android.volley.VolleyError error) {
-        Log.e("DashboardActivity", "Error loading user details: " + error.toString());
+    private void cacheUser(UserDetails userData) {
+        Gson gson = new Gson();
+        DetailedUserDto user = gson.fromJson(gson.toJsonTree(userData), DetailedUserDto.class);
+        user.setId(currentUserId);
+        // The user endpoint names the image field differently from the member endpoints
+        user.setProfileImage(ImageBlobStore.getInstance().intern(userData.getProfileImgBase64()));
+        Long samajId = userData.getSamaj() != null ? userData.getSamaj().getId() : null;
+        localStore.write(() -> localStore.saveUsers(samajId, java.util.Collections.singletonList(user)));
+    }
+
+    /**
+     * @param statusCode HTTP status code, or -1 when the request never got a response
+     */
+    private void handleUserDetailsError(int statusCode) {
+        Log.e("DashboardActivity", "Error loading user details, status: " + statusCode);
 
         String errorMessage = "Failed to load user details";
-        if (error.networkResponse != null) {
-            int statusCode = error.networkResponse.statusCode;
+        if (statusCode > 0) {
             errorMessage += " (Status: " + statusCode + ")";
 
             if (statusCode == 404) {
@@ -607,71 +658,29 @@ public class DashboardActivity extends AppCompatActivity implements SearchManage
             errorMessage = "Network error - Check your connection";
         }
 
-        samajNameTextView.setText("Error Loading");
+        // The samaj may have loaded from last session's id regardless
+        if (!samajLoaded) {
+            samajNameTextView.setText("Error Loading");
+        }
         Toast.makeText(this, errorMessage, Toast.LENGTH_LONG).show();
         onDataLoadError();
     }
 
-    private void loadSamajData() {
-        if (currentSamajId == null || currentSamajId <= 0) {
-            Log.w("DashboardActivity", "Invalid samaj ID: " + currentSamajId);
-            samajNameTextView.setText("Your Samaj");
-            onDataLoadError();
-            return;
-        }
-
-        String url = BASE_URL + "samaj/" + currentSamajId;
-        Log.d("DashboardActivity", "Making API call to: " + url);
-
-        JsonObjectRequest request = new JsonObjectRequest(
-                Request.Method.GET,
-                url,
-                null,
-                response -> {
-                    Log.d("DashboardActivity", "Raw API Response: " + response.toString());
-                    handleSamajResponse(response);
-                },
-                error -> {
-                    Log.e("DashboardActivity", "API Error Details:");
-                    if (error.networkResponse != null) {
-                        Log.e("DashboardActivity", "Status Code: " + error.networkResponse.statusCode);
-                        Log.e("DashboardActivity", "Response Data: " + new String(error.networkResponse.data));
-                    }
-                    Log.e("DashboardActivity", "Error Message: " + error.getMessage());
-                    handleSamajError(error);
-                }
-        ) {
-            @Override
-            public java.util.Map<String, String> getHeaders() {
-                java.util.Map<String, String> headers = new java.util.HashMap<>();
-                headers.put("Content-Type", "application/json");
-
-                SharedPreferences sharedPrefs = getSharedPreferences("SamajConnect", MODE_PRIVATE);
-                String authToken = sharedPrefs.getString("auth_token", "");
-                if (!authToken.isEmpty()) {
-                    headers.put("Authorization", "Bearer " + authToken);
-                }
-
-                return headers;
-            }
-        };
-
-        requestQueue.add(request);
-    }
-
-    private void handleSamajResponse(JSONObject response) {
+    /**
+     * @param unchanged the server answered 304, so the samaj is already cached
+     */
+    private void handleSamajResponse(SamajResponse samajResponse, boolean unchanged) {
+        samajLoaded = true;
         try {
-            Log.d("DashboardActivity", "Parsing samaj response...");
-
-            Gson gson = new Gson();
-            SamajResponse samajResponse = gson.fromJson(response.toString(), SamajResponse.class);
-
             Log.d("DashboardActivity", "Parsed response - Success: " + samajResponse.isSuccess());
             Log.d("DashboardActivity", "Parsed response - Message: " + samajResponse.getMessage());
 
             if (samajResponse.isSuccess() && samajResponse.getSamaj() != null) {
                 Samaj samaj = samajResponse.getSamaj();
                 String samajName = samaj.getName();
+                if (!unchanged) {
+                    localStore.write(() -> localStore.saveSamaj(samaj));
+                }
 
                 Log.d("DashboardActivity", "Samaj object: " + samaj.toString());
                 Log.d("DashboardActivity", "Samaj name: " + samajName);
@@ -699,12 +708,15 @@ public class DashboardActivity extends AppCompatActivity implements SearchManage
         }
     }
 
-    private void handleSamajError(com.android.volley.VolleyError error) {
-        Log.e("DashboardActivity", "Error loading samaj: " + error.toString());
+    /**
+     * @param statusCode HTTP status code, or -1 when the request never got a response
+     */
+    private void handleSamajError(int statusCode) {
+        samajLoaded = true;
+        Log.e("DashboardActivity", "Error loading samaj, status: " + statusCode);
 
         String errorMessage = "Failed to load samaj information";
-        if (error.networkResponse != null) {
-            int statusCode = error.networkResponse.statusCode;
+        if (statusCode > 0) {
             errorMessage += " (Status: " + statusCode + ")";
 
             if (statusCode == 404) {
@@ -723,42 +735,18 @@ public class DashboardActivity extends AppCompatActivity implements SearchManage
         onDataLoadError();
     }
 
-    private void loadEvents() {
-        String url = EVENT_URL + "samaj/" + currentSamajId + "/upcoming";
-        Log.d("DashboardActivity", "Making API call to: " + url);
-
-        JsonObjectRequest request = new JsonObjectRequest(
-                Request.Method.GET,
-                url,
-                null,
-                response -> handleEventsResponse(response),
-                error -> handleEventsError(error)
-        ) {
-            @Override
-            public java.util.Map<String, String> getHeaders() {
-                java.util.Map<String, String> headers = new java.util.HashMap<>();
-                headers.put("Content-Type", "application/json");
-
-                SharedPreferences sharedPrefs = getSharedPreferences("SamajConnect", MODE_PRIVATE);
-                String authToken = sharedPrefs.getString("auth_token", "");
-                if (!authToken.isEmpty()) {
-                    headers.put("Authorization", "Bearer " + authToken);
-                }
-
-                return headers;
-            }
-        };
-        request.setRetryPolicy(new DefaultRetryPolicy(150000, 1, 1.0f));
-        requestQueue.add(request);
-    }
-
-    private void handleEventsResponse(JSONObject response) {
+    /**
+     * @param unchanged the server answered 304, so these events are already cached
+     */
+    private void handleEventsResponse(EventResponse eventResponse, boolean unchanged) {
         try {
-            Log.d("DashboardActivity", "Parsing events response..." + response.toString());
-            Gson gson = new Gson();
-            EventResponse eventResponse = gson.fromJson(response.toString(), EventResponse.class);
-
             if (eventResponse.isSuccess() && eventResponse.getEvents() != null) {
+                if (!unchanged) {
+                    long samajId = currentSamajId;
+                    List<Event> toSave = new ArrayList<>(eventResponse.getEvents());
+                    localStore.write(() -> localStore.saveUpcomingEvents(samajId, toSave));
+                }
+
                 eventsList.clear();
                 eventsList.addAll(eventResponse.getEvents());
                 eventSliderAdapter.updateEvents(eventsList);
@@ -791,12 +779,14 @@ public class DashboardActivity extends AppCompatActivity implements SearchManage
         }
     }
 
-    private void handleEventsError(com.android.volley.VolleyError error) {
-        Log.e("DashboardActivity", "Error loading events: " + error.toString());
+    /**
+     * @param statusCode HTTP status code, or -1 when the request never got a response
+     */
+    private void handleEventsError(int statusCode) {
+        Log.e("DashboardActivity", "Error loading events, status: " + statusCode);
 
         String errorMessage = "Failed to load events";
-        if (error.networkResponse != null) {
-            int statusCode = error.networkResponse.statusCode;
+        if (statusCode > 0) {
             if (statusCode == 401) {
                 errorMessage = "Unauthorized - Please login again";
             } else if (statusCode >= 500) {
@@ -853,6 +843,7 @@ public class DashboardActivity extends AppCompatActivity implements SearchManage
     @Override
     protected void onDestroy() {
         super.onDestroy();
+        bootstrap.cancel();
         // Clean up search manager
         if (searchManager != null) {
             searchManager.cleanup();
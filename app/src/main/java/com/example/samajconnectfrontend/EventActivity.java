@@ -21,32 +21,29 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 
-import com.android.volley.DefaultRetryPolicy;
-import com.android.volley.Request;
-import com.android.volley.RequestQueue;
-import com.android.volley.toolbox.JsonObjectRequest;
-import com.android.volley.toolbox.StringRequest;
-import com.android.volley.toolbox.Volley;
+import com.example.samajconnectfrontend.data.ImageBlobStore;
+import com.example.samajconnectfrontend.data.local.LocalStore;
+import com.example.samajconnectfrontend.network.NetworkClient;
+import com.example.samajconnectfrontend.network.SamajApi;
+import com.example.samajconnectfrontend.network.SyncEngine;
 import com.example.samajconnectfrontend.adapters.EventAdapter;
 import com.example.samajconnectfrontend.dialogs.EventDetailsDialog;
 import com.example.samajconnectfrontend.dialogs.FullScreenImageDialog;
 import com.example.samajconnectfrontend.models.Event;
-import com.example.samajconnectfrontend.models.EventResponse;
 import com.example.samajconnectfrontend.models.ReactionStats;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
-import com.google.gson.Gson;
-
-import org.json.JSONObject;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
 
 public class EventActivity extends AppCompatActivity implements EventAdapter.OnEventActionListener {
 
     private static final String TAG = "EventActivity";
-    private static final String EVENT_URL = "http://10.0.2.2:8080/api/events/";
 
     // UI Components
     private RecyclerView recyclerView;
@@ -61,7 +58,9 @@ public class EventActivity extends AppCompatActivity implements EventAdapter.OnE
     private boolean isAdmin;
     private long currentUserId;
     private long currentSamajId;
-    private RequestQueue requestQueue;
+    private SamajApi api;
+    private LocalStore localStore;
+    private SyncEngine syncEngine;
     private Context context;
     private boolean isFirstLoad = true;
     private boolean isLoadingEvents = false;
@@ -99,6 +98,7 @@ public class EventActivity extends AppCompatActivity implements EventAdapter.OnE
 
             // Show initial loading state
             showInitialLoadingState();
+            showCachedEvents();
             fetchEvents(false); // false = not a refresh
 
         } catch (Exception e) {
@@ -121,7 +121,9 @@ public class EventActivity extends AppCompatActivity implements EventAdapter.OnE
             }
 
             // Initialize data components
-            requestQueue = Volley.newRequestQueue(this);
+            api = NetworkClient.api(this);
+            localStore = LocalStore.getInstance(this);
+            syncEngine = SyncEngine.getInstance(this);
             eventList = new ArrayList<>();
             mainHandler = new Handler(Looper.getMainLooper());
 
@@ -248,18 +250,26 @@ public class EventActivity extends AppCompatActivity implements EventAdapter.OnE
         Log.d(TAG, "Showing initial loading state");
     }
 
+    /**
+     * Show the events saved last time while the network request is out
+     */
+    private void showCachedEvents() {
+        long samajId = currentSamajId;
+        localStore.read(() -> localStore.events(samajId), cached -> {
+            // The network may have answered first
+            if (cached == null || cached.isEmpty() || !eventList.isEmpty() || isFinishing()) {
+                return;
+            }
+            Log.d(TAG, "Showing " + cached.size() + " cached events");
+            eventList.addAll(cached);
+            hideEmptyState();
+            eventAdapter.updateEvents(new ArrayList<>(eventList));
+        });
+    }
+
     private void refreshEvents() {
         Log.d(TAG, "Refreshing events via swipe");
-        if (!isLoadingEvents) {
-            fetchEvents(true); // true = this is a refresh
-        } else {
-            // If already loading, just stop the refresh indicator after a delay
-            mainHandler.postDelayed(() -> {
-                if (swipeRefreshLayout.isRefreshing()) {
-                    swipeRefreshLayout.setRefreshing(false);
-                }
-            }, 1000);
-        }
+        fetchEvents(true); // true = this is a refresh
     }
 
     private void fetchEvents(boolean isRefresh) {
@@ -270,152 +280,85 @@ public class EventActivity extends AppCompatActivity implements EventAdapter.OnE
             return;
         }
 
-        // Prevent multiple simultaneous requests
-        if (isLoadingEvents) {
-            Log.d(TAG, "Already loading events, skipping request");
-            return;
-        }
-
+        // A fetch while another is running joins its sync instead of being dropped,
+        // so a refresh still gets its answer and its indicator stopped
         isLoadingEvents = true;
-        String url = EVENT_URL + "samaj/" + currentSamajId;
-        Log.d(TAG, "Making API call to: " + url + " (isRefresh: " + isRefresh + ")");
+        Log.d(TAG, "Fetching events for samaj: " + currentSamajId + " (isRefresh: " + isRefresh + ")");
 
         // Show refresh indicator if this is a refresh
         if (isRefresh && !swipeRefreshLayout.isRefreshing()) {
             swipeRefreshLayout.setRefreshing(true);
         }
 
-        JsonObjectRequest request = new JsonObjectRequest(
-                Request.Method.GET,
-                url,
-                null,
-                response -> {
-                    Log.d(TAG, "API response received");
-                    handleEventsResponse(response, isRefresh);
-                },
-                error -> {
-                    Log.e(TAG, "API error occurred");
-                    handleEventsError(error, isRefresh);
-                }
-        ) {
+        // Only events changed since the last sync are downloaded; the whole list comes from the local store
+        syncEngine.syncEvents(currentSamajId, new SyncEngine.Callback<List<Event>>() {
             @Override
-            public Map<String, String> getHeaders() {
-                Map<String, String> headers = new HashMap<>();
-                headers.put("Content-Type", "application/json");
-
-                String authToken = sharedPrefs.getString("auth_token", "");
-                if (!authToken.isEmpty()) {
-                    headers.put("Authorization", "Bearer " + authToken);
-                    Log.d(TAG, "Auth token added to request");
-                } else {
-                    Log.w(TAG, "No auth token found");
-                }
-
-                return headers;
+            public void onSynced(List<Event> events) {
+                if (isDestroyed()) return;
+                Log.d(TAG, "Events synced");
+                handleEventsResponse(events, isRefresh);
             }
-        };
-
-        // Set timeout and retry policy
-        request.setRetryPolicy(new DefaultRetryPolicy(
-                30000, // 30 seconds timeout
-                0,     // No retries to avoid duplicate requests
-                1.0f   // Backoff multiplier
-        ));
 
-        requestQueue.add(request);
-        Log.d(TAG, "Request added to queue");
+            @Override
+            public void onFailed(int statusCode) {
+                if (isDestroyed()) return;
+                Log.e(TAG, "Event sync failed, status: " + statusCode);
+                handleEventsError(statusCode, isRefresh);
+            }
+        });
     }
 
-    private void handleEventsResponse(JSONObject response, boolean isRefresh) {
+    private void handleEventsResponse(List<Event> newEvents, boolean isRefresh) {
         try {
-            Log.d(TAG, "Raw API response: " + response.toString());
+            Log.d(TAG, "Number of events after sync: " + newEvents.size());
 
-            Gson gson = new Gson();
-            EventResponse eventResponse = gson.fromJson(response.toString(), EventResponse.class);
+            // Update the main list
+            eventList.clear();
+            eventList.addAll(newEvents);
 
-            Log.d(TAG, "EventResponse parsed - Success: " + eventResponse.isSuccess() +
-                    ", Count: " + eventResponse.getCount() +
-                    ", Events null: " + (eventResponse.getEvents() == null));
+            Log.d(TAG, "EventList updated, size: " + eventList.size());
 
-            if (eventResponse.isSuccess() && eventResponse.getEvents() != null) {
-                List<Event> newEvents = eventResponse.getEvents();
-                Log.d(TAG, "Number of events in response: " + newEvents.size());
-
-                // Update the main list
-                eventList.clear();
-                eventList.addAll(newEvents);
-
-                Log.d(TAG, "EventList updated, size: " + eventList.size());
-
-                // Update UI on main thread
-                mainHandler.post(() -> {
-                    try {
-                        handleFetchEventsComplete(isRefresh);
-
-                        if (eventList.isEmpty()) {
-                            Log.d(TAG, "No events to display - showing empty state");
-                            showEmptyState();
-                        } else {
-                            Log.d(TAG, "Displaying " + eventList.size() + " events");
-                            hideEmptyState();
-
-                            // Update adapter with new data
-                            eventAdapter.updateEvents(new ArrayList<>(eventList));
+            handleFetchEventsComplete(isRefresh);
 
-                            // Show success message for refresh
-                            if (isRefresh) {
-                                Toast.makeText(EventActivity.this, "Events refreshed successfully", Toast.LENGTH_SHORT).show();
-                            }
+            if (eventList.isEmpty()) {
+                Log.d(TAG, "No events to display - showing empty state");
+                showEmptyState();
+                if (isRefresh) {
+                    Toast.makeText(EventActivity.this, "No events found", Toast.LENGTH_SHORT).show();
+                }
+            } else {
+                Log.d(TAG, "Displaying " + eventList.size() + " events");
+                hideEmptyState();
 
-                            Log.d(TAG, "UI update completed - Adapter item count: " + eventAdapter.getItemCount());
-                        }
-                    } catch (Exception e) {
-                        Log.e(TAG, "Error updating UI after successful response", e);
-                        handleFetchEventsComplete(isRefresh);
-                        showEmptyState();
-                    }
-                });
+                // Update adapter with new data
+                eventAdapter.updateEvents(new ArrayList<>(eventList));
 
-                Log.d(TAG, "Final loaded events count: " + eventList.size());
+                // Show success message for refresh
+                if (isRefresh) {
+                    Toast.makeText(EventActivity.this, "Events refreshed successfully", Toast.LENGTH_SHORT).show();
+                }
 
-            } else {
-                Log.w(TAG, "No events found or API call failed");
-                mainHandler.post(() -> {
-                    handleFetchEventsComplete(isRefresh);
-                    showEmptyState();
-                    if (isRefresh) {
-                        Toast.makeText(EventActivity.this, "No events found", Toast.LENGTH_SHORT).show();
-                    }
-                });
+                Log.d(TAG, "UI update completed - Adapter item count: " + eventAdapter.getItemCount());
             }
 
         } catch (Exception e) {
-            Log.e(TAG, "Error parsing events response", e);
-            mainHandler.post(() -> {
-                handleFetchEventsComplete(isRefresh);
-                Toast.makeText(EventActivity.this, "Error loading events: " + e.getMessage(), Toast.LENGTH_LONG).show();
-                showEmptyState();
-            });
+            Log.e(TAG, "Error displaying events", e);
+            handleFetchEventsComplete(isRefresh);
+            Toast.makeText(EventActivity.this, "Error loading events: " + e.getMessage(), Toast.LENGTH_LONG).show();
+            showEmptyState();
         }
     }
 
     // Fixed version of handleEventsError method in EventActivity.java
 
-    private void handleEventsError(com.android.volley.VolleyError error, boolean isRefresh) {
-        Log.e(TAG, "Error loading events: " + error.toString());
+    /**
+     * @param statusCode HTTP status code, or -1 when the request never got a response
+     */
+    private void handleEventsError(int statusCode, boolean isRefresh) {
+        Log.e(TAG, "Error loading events, status: " + statusCode);
 
         String errorMessage;
-        if (error.networkResponse != null) {
-            int statusCode = error.networkResponse.statusCode;
-            Log.e(TAG, "Status Code: " + statusCode);
-
-            try {
-                String responseData = new String(error.networkResponse.data);
-                Log.e(TAG, "Response Data: " + responseData);
-            } catch (Exception e) {
-                Log.e(TAG, "Could not parse error response data");
-            }
-
+        if (statusCode > 0) {
             if (statusCode == 401 || statusCode == 403) {
                 errorMessage = "Session expired - Please login again";
                 // Clear invalid auth data
@@ -440,7 +383,6 @@ public class EventActivity extends AppCompatActivity implements EventAdapter.OnE
             }
         } else {
             errorMessage = "Network error - Check your connection";
-            Log.e(TAG, "Network error details: " + error.getMessage());
         }
 
         mainHandler.post(() -> {
@@ -451,7 +393,10 @@ public class EventActivity extends AppCompatActivity implements EventAdapter.OnE
                 Toast.makeText(EventActivity.this, errorMessage, Toast.LENGTH_LONG).show();
             }
 
-            showEmptyState();
+            // Keep showing the cached events when offline
+            if (eventList.isEmpty()) {
+                showEmptyState();
+            }
         });
     }
 
@@ -490,7 +435,10 @@ public class EventActivity extends AppCompatActivity implements EventAdapter.OnE
             intent.putExtra("event_date", event.getEventDate());
             intent.putExtra("event_time", event.getEventTime());
             intent.putExtra("event_image_url", event.getImageUrl());
-            intent.putExtra("event_image_base64", event.getImageBase64());
+            // Listed events only carry the thumbnail, which is plenty for the edit preview.
+            // Only a handle goes into the extra; the payload stays where it is.
+            intent.putExtra("event_image_handle", ImageBlobStore.getInstance().handleOf(
+                    event.getImage() != null ? event.getImage() : event.getThumbnail()));
             startActivityForResult(intent, 1002);
         } catch (Exception e) {
             Log.e(TAG, "Error starting UpdateEvent activity", e);
@@ -574,50 +522,30 @@ public class EventActivity extends AppCompatActivity implements EventAdapter.OnE
     }
 
     private void deleteEvent(Event event) {
-        String url = EVENT_URL + event.getIdAsLong();
-        Log.d(TAG, "Deleting event with URL: " + url);
-
-        StringRequest deleteRequest = new StringRequest(
-                Request.Method.DELETE,
-                url,
-                response -> {
-                    Log.d(TAG, "Event deleted successfully: " + response);
-                    mainHandler.post(() -> {
-                        Toast.makeText(EventActivity.this, "Event deleted successfully", Toast.LENGTH_SHORT).show();
-                        fetchEvents(false); // Refresh the list
-                    });
-                },
-                error -> {
-                    Log.e(TAG, "Error deleting event", error);
-                    String errorMessage = "Failed to delete event";
-                    if (error.networkResponse != null) {
-                        Log.e(TAG, "Delete error status code: " + error.networkResponse.statusCode);
-                        try {
-                            Log.e(TAG, "Delete error response: " + new String(error.networkResponse.data));
-                        } catch (Exception e) {
-                            Log.e(TAG, "Could not parse delete error response");
-                        }
-                    }
-                    mainHandler.post(() -> {
-                        Toast.makeText(EventActivity.this, errorMessage, Toast.LENGTH_SHORT).show();
-                    });
-                }
-        ) {
-            @Override
-            public Map<String, String> getHeaders() {
-                Map<String, String> headers = new HashMap<>();
-                headers.put("Content-Type", "application/json");
+        Log.d(TAG, "Deleting event: " + event.getIdAsLong());
 
-                String authToken = sharedPrefs.getString("auth_token", "");
-                if (!authToken.isEmpty()) {
-                    headers.put("Authorization", "Bearer " + authToken);
+        api.deleteEvent(event.getIdAsLong()).enqueue(new Callback<ResponseBody>() {
+            @Override
+            public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
+                if (response.isSuccessful()) {
+                    Log.d(TAG, "Event deleted successfully");
+                    // The next sync reports the tombstone too; drop it now so the list never shows it again
+                    long eventId = event.getIdAsLong();
+                    localStore.write(() -> localStore.deleteEvent(eventId));
+                    Toast.makeText(EventActivity.this, "Event deleted successfully", Toast.LENGTH_SHORT).show();
+                    fetchEvents(false); // Refresh the list
+                } else {
+                    Log.e(TAG, "Delete error status code: " + response.code());
+                    Toast.makeText(EventActivity.this, "Failed to delete event", Toast.LENGTH_SHORT).show();
                 }
-
-                return headers;
             }
-        };
 
-        requestQueue.add(deleteRequest);
+            @Override
+            public void onFailure(Call<ResponseBody> call, Throwable t) {
+                Log.e(TAG, "Error deleting event", t);
+                Toast.makeText(EventActivity.this, "Failed to delete event", Toast.LENGTH_SHORT).show();
+            }
+        });
     }
 
     @Override
@@ -666,11 +594,6 @@ public class EventActivity extends AppCompatActivity implements EventAdapter.OnE
         super.onDestroy();
         Log.d(TAG, "onDestroy called");
 
-        // Cancel all pending requests
-        if (requestQueue != null) {
-            requestQueue.cancelAll(TAG);
-        }
-
         // Clean up handler
         if (mainHandler != null) {
             mainHandler.removeCallbacksAndMessages(null);
@@ -11,7 +11,7 @@ import com.android.volley.DefaultRetryPolicy;
 import com.android.volley.Request;
 import com.android.volley.RequestQueue;
 import com.android.volley.toolbox.JsonObjectRequest;
-import com.android.volley.toolbox.Volley;
+import com.example.samajconnectfrontend.network.NetworkClient;
 
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -38,7 +38,7 @@ public class ForgotPasswordActivity extends AppCompatActivity {
         newPasswordInput = findViewById(R.id.editTextNewPassword);
         actionButton = findViewById(R.id.button3);
 
-        requestQueue = Volley.newRequestQueue(this);
+        requestQueue = NetworkClient.requestQueue(this);
 
         // Disable OTP and password initially
         otpInput.setEnabled(false);
@@ -22,7 +22,7 @@ import androidx.core.view.WindowInsetsCompat;
 import com.android.volley.Request;
 import com.android.volley.RequestQueue;
 import com.android.volley.toolbox.JsonObjectRequest;
-import com.android.volley.toolbox.Volley;
+import com.example.samajconnectfrontend.network.NetworkClient;
 
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -62,7 +62,7 @@ public class LoginActivity extends AppCompatActivity {
         initializeViews();
         setupClickListeners();
 
-        requestQueue = Volley.newRequestQueue(this);
+        requestQueue = NetworkClient.requestQueue(this);
     }
 
     private boolean checkExistingLogin() {
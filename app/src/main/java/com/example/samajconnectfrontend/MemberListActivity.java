@@ -21,23 +21,27 @@ import androidx.core.view.WindowInsetsCompat;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.android.volley.Request;
-import com.android.volley.RequestQueue;
-import com.android.volley.Response;
-import com.android.volley.VolleyError;
-import com.android.volley.toolbox.JsonObjectRequest;
-import com.android.volley.toolbox.Volley;
+import androidx.paging.LoadState;
+import androidx.paging.Pager;
+import androidx.paging.PagingConfig;
+import androidx.paging.PagingLiveData;
+
+import com.example.samajconnectfrontend.adapters.MemberPagingAdapter;
+import com.example.samajconnectfrontend.data.local.LocalStore;
+import com.example.samajconnectfrontend.network.MemberPageLoader;
+import com.example.samajconnectfrontend.network.MemberPagingSource;
+import com.example.samajconnectfrontend.network.NetworkClient;
+import com.example.samajconnectfrontend.network.SyncEngine;
 import com.example.samajconnectfrontend.adapters.MemberAdapter;
+import com.example.samajconnectfrontend.models.DetailedUserDto;
 import com.example.samajconnectfrontend.models.Member;
-
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
+import com.example.samajconnectfrontend.models.MemberPage;
+import com.example.samajconnectfrontend.utils.AppExecutors;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+
+import kotlin.Unit;
 
 public class MemberListActivity extends AppCompatActivity {
 
@@ -49,16 +53,23 @@ public class MemberListActivity extends AppCompatActivity {
     private TextView tvSamajName, tvMemberCount, tvPageInfo;
     private EditText etSearch;
     private ImageView btnBack, btnFilter;
-    private Button btnPrevious, btnNext;
+    private Button btnPrevious, btnNext, btnShowAll;
     private LinearLayout layoutEmptyState, layoutPagination;
 
-    private RequestQueue requestQueue;
-    private String baseUrl = "http://10.0.2.2:8080/api/users/samaj/"; // Fixed the placeholder
+    private static final int PAGE_SIZE = 20;
+    private static final int MAX_SEARCH_RESULTS = 200;
+
+    private LocalStore localStore;
+    private MemberPageLoader pageLoader;
+    // Set once the list has switched to continuous scrolling
+    private MemberPagingAdapter pagingAdapter;
     private long samajId; // Changed from int to long
     private int currentPage = 0;
     private int totalPages = 1;
     private boolean hasNext = false;
     private boolean hasPrevious = false;
+    // Page last filled from the network, -1 until the first response
+    private int loadedPage = -1;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -91,8 +102,13 @@ public class MemberListActivity extends AppCompatActivity {
             return;
         }
 
-        requestQueue = Volley.newRequestQueue(this);
+        localStore = LocalStore.getInstance(this);
+        // Every page that arrives, prefetched or not, is also saved for next time
+        pageLoader = new MemberPageLoader(NetworkClient.api(this), samajId, PAGE_SIZE, Runnable::run,
+                page -> localStore.write(() -> localStore.saveMembersPage(samajId, PAGE_SIZE, page)));
         loadMembers();
+        // Keep the on-device roster current; after the first run this only fetches what changed
+        SyncEngine.getInstance(this).syncMembers(samajId, null);
     }
 
     private void initViews() {
@@ -105,6 +121,7 @@ public class MemberListActivity extends AppCompatActivity {
         btnFilter = findViewById(R.id.btnFilter);
         btnPrevious = findViewById(R.id.btnPrevious);
         btnNext = findViewById(R.id.btnNext);
+        btnShowAll = findViewById(R.id.btnShowAll);
         layoutEmptyState = findViewById(R.id.layoutEmptyState);
         layoutPagination = findViewById(R.id.layoutPagination);
 
@@ -152,117 +169,121 @@ public class MemberListActivity extends AppCompatActivity {
                 loadMembers();
             }
         });
+
+        btnShowAll.setOnClickListener(v -> showContinuousList());
     }
 
     private void loadMembers() {
-        String url = baseUrl + samajId + "/members?page=" + currentPage + "&size=20";
-
-        JsonObjectRequest request = new JsonObjectRequest(
-                Request.Method.GET,
-                url,
-                null,
-                new Response.Listener<JSONObject>() {
-                    @Override
-                    public void onResponse(JSONObject response) {
-                        try {
-                            if (response.getBoolean("success")) {
-                                parseResponse(response.getJSONObject("data"));
-                            } else {
-                                Toast.makeText(MemberListActivity.this,
-                                        response.getString("message"), Toast.LENGTH_SHORT).show();
-                            }
-                        } catch (JSONException e) {
-                            e.printStackTrace();
-                            Toast.makeText(MemberListActivity.this,
-                                    "Error parsing response", Toast.LENGTH_SHORT).show();
-                        }
-                    }
-                },
-                new Response.ErrorListener() {
-                    @Override
-                    public void onErrorResponse(VolleyError error) {
-                        String errorMessage = "Error loading members";
-                        if (error.networkResponse != null) {
-                            int statusCode = error.networkResponse.statusCode;
-                            if (statusCode == 404) {
-                                errorMessage = "Samaj not found";
-                            } else if (statusCode == 401) {
-                                errorMessage = "Unauthorized access";
-                            } else if (statusCode >= 500) {
-                                errorMessage = "Server error";
-                            }
-                        } else {
-                            errorMessage = "Network error - Check your connection";
-                        }
-                        Toast.makeText(MemberListActivity.this, errorMessage, Toast.LENGTH_LONG).show();
-                    }
+        int page = currentPage;
+        if (!pageLoader.isCached(page)) {
+            showCachedPage(page);
+        }
+
+        // A prefetched page is delivered right here, without a request
+        pageLoader.load(page, new MemberPageLoader.Callback() {
+            @Override
+            public void onLoaded(MemberPage<Member> loaded) {
+                // The user may have flipped on while this was loading
+                if (page != currentPage || pagingAdapter != null || isFinishing()) {
+                    return;
                 }
-        ) {
+                loadedPage = page;
+                showPage(loaded);
+                pageLoader.prefetchAround(loaded);
+            }
+
             @Override
-            public Map<String, String> getHeaders() {
-                Map<String, String> headers = new HashMap<>();
-                headers.put("Content-Type", "application/json");
-
-                // Add authorization header
-                SharedPreferences sharedPrefs = getSharedPreferences("SamajConnect", MODE_PRIVATE);
-                String authToken = sharedPrefs.getString("auth_token", "");
-                if (!authToken.isEmpty()) {
-                    headers.put("Authorization", "Bearer " + authToken);
+            public void onFailed(int statusCode) {
+                if (page != currentPage || isFinishing()) {
+                    return;
                 }
+                String errorMessage = "Error loading members";
+                if (statusCode > 0) {
+                    if (statusCode == 404) {
+                        errorMessage = "Samaj not found";
+                    } else if (statusCode == 401) {
+                        errorMessage = "Unauthorized access";
+                    } else if (statusCode >= 500) {
+                        errorMessage = "Server error";
+                    }
+                } else {
+                    errorMessage = "Network error - Check your connection";
+                }
+                Toast.makeText(MemberListActivity.this, errorMessage, Toast.LENGTH_LONG).show();
+            }
+        });
+    }
 
-                return headers;
+    /**
+     * Show the copy of a page saved last time while the request for it is out
+     */
+    private void showCachedPage(int page) {
+        localStore.read(() -> localStore.membersPage(samajId, page, PAGE_SIZE), cached -> {
+            // Skip if the network answered first or the user has moved to another page
+            if (cached == null || page != currentPage || loadedPage == page || pagingAdapter != null
+                    || isFinishing()) {
+                return;
             }
-        };
+            showPage(cached);
+        });
+    }
 
-        requestQueue.add(request);
+    /**
+     * Replace the Previous/Next pages with one list that loads more as it is scrolled,
+     * starting from the page on screen and reusing the pages already loaded
+     */
+    private void showContinuousList() {
+        if (pagingAdapter != null) {
+            return;
+        }
+        pagingAdapter = new MemberPagingAdapter(this);
+        pagingAdapter.addLoadStateListener(states -> {
+            if (states.getRefresh() instanceof LoadState.Error) {
+                Toast.makeText(this, "Error loading members", Toast.LENGTH_LONG).show();
+            } else if (states.getRefresh() instanceof LoadState.NotLoading && etSearch.getText().length() == 0) {
+                boolean empty = pagingAdapter.getItemCount() == 0;
+                layoutEmptyState.setVisibility(empty ? View.VISIBLE : View.GONE);
+                recyclerViewMembers.setVisibility(empty ? View.GONE : View.VISIBLE);
+            }
+            return Unit.INSTANCE;
+        });
+        layoutPagination.setVisibility(View.GONE);
+
+        Pager<Integer, Member> pager = new Pager<>(
+                new PagingConfig(PAGE_SIZE, PAGE_SIZE, false, PAGE_SIZE),
+                currentPage,
+                () -> new MemberPagingSource(pageLoader, AppExecutors.mainThread()));
+        PagingLiveData.getLiveData(pager).observe(this, data -> pagingAdapter.submitData(getLifecycle(), data));
+
+        // Puts the list on screen, or a search over it if something is typed
+        filterMembers(etSearch.getText().toString());
     }
 
-    private void parseResponse(JSONObject data) throws JSONException {
+    private void showPage(MemberPage<Member> page) {
         // Update UI with samaj info
-        String samajName = data.getString("samajName");
-        int totalMembers = data.getInt("totalMembers");
-        currentPage = data.getInt("currentPage");
-        totalPages = data.getInt("totalPages");
-        hasNext = data.getBoolean("hasNext");
-        hasPrevious = data.getBoolean("hasPrevious");
-
-        tvSamajName.setText(samajName + " Members");
-        tvMemberCount.setText(totalMembers + " Members");
-
-        // Parse members
-        JSONArray membersArray = data.getJSONArray("members");
+        currentPage = page.getCurrentPage();
+        totalPages = page.getTotalPages();
+        hasNext = page.hasNext();
+        hasPrevious = page.hasPrevious();
+
+        tvSamajName.setText(page.getSamajName() + " Members");
+        tvMemberCount.setText(page.getTotalMembers() + " Members");
+
         memberList.clear();
+        memberList.addAll(page.getMembers());
 
-        for (int i = 0; i < membersArray.length(); i++) {
-            JSONObject memberObj = membersArray.getJSONObject(i);
-            Member member = new Member();
-
-            member.setId(memberObj.getInt("id"));
-            member.setName(memberObj.getString("name"));
-            member.setEmail(memberObj.getString("email"));
-            member.setGender(memberObj.getString("gender"));
-            member.setPhoneNumber(memberObj.optString("phoneNumber", "N/A"));
-            member.setAddress(memberObj.optString("address", "N/A"));
-            member.setProfileImageBase64(memberObj.optString("profileImageBase64", ""));
-            member.setAdmin(memberObj.getBoolean("isAdmin"));
-            member.setCreatedAt(memberObj.getString("createdAt"));
-            member.setUpdatedAt(memberObj.getString("updatedAt"));
-
-            // Parse samaj info
-            JSONObject samajObj = memberObj.getJSONObject("samaj");
-            member.setSamajId(samajObj.getInt("id"));
-            member.setSamajName(samajObj.getString("name"));
-
-            memberList.add(member);
+        // Update pagination
+        updatePaginationUI();
+
+        // A search in progress covers the whole roster; leave its results on screen
+        if (etSearch.getText().toString().trim().length() > 0) {
+            return;
         }
 
         // Update filtered list and adapter
         filteredMemberList.clear();
         filteredMemberList.addAll(memberList);
-        memberAdapter.notifyDataSetChanged();
-
-        // Update pagination
-        updatePaginationUI();
+        memberAdapter.submitList(new ArrayList<>(filteredMemberList));
 
         // Show/hide empty state
         if (memberList.isEmpty()) {
@@ -288,20 +309,73 @@ public class MemberListActivity extends AppCompatActivity {
     private void filterMembers(String query) {
         filteredMemberList.clear();
 
-        if (query.isEmpty()) {
+        if (pagingAdapter != null) {
+            RecyclerView.Adapter<?> wanted = query.isEmpty() ? pagingAdapter : memberAdapter;
+            if (recyclerViewMembers.getAdapter() != wanted) {
+                recyclerViewMembers.setAdapter(wanted);
+            }
+            if (query.isEmpty()) {
+                layoutEmptyState.setVisibility(View.GONE);
+                recyclerViewMembers.setVisibility(View.VISIBLE);
+                return;
+            }
+            // Otherwise the search results are shown in its place
+        }
+
+        if (query.trim().isEmpty()) {
             filteredMemberList.addAll(memberList);
-        } else {
-            String lowerCaseQuery = query.toLowerCase();
-            for (Member member : memberList) {
-                if (member.getName().toLowerCase().contains(lowerCaseQuery) ||
-                        member.getEmail().toLowerCase().contains(lowerCaseQuery) ||
-                        member.getPhoneNumber().contains(query)) {
-                    filteredMemberList.add(member);
+            showFiltered();
+            return;
+        }
+
+        // Search the whole roster synced to the device, not just the members loaded so far
+        localStore.read(() -> localStore.searchRoster(samajId, query, MAX_SEARCH_RESULTS), found -> {
+            // A later keystroke has its own search coming
+            if (!query.equals(etSearch.getText().toString()) || isFinishing()) {
+                return;
+            }
+            filteredMemberList.clear();
+            if (found != null) {
+                for (DetailedUserDto user : found) {
+                    filteredMemberList.add(toMember(user));
                 }
+            } else {
+                // Roster not synced yet
+                filteredMemberList.addAll(scanLoaded(query));
+            }
+            showFiltered();
+        });
+    }
+
+    private List<Member> scanLoaded(String query) {
+        List<Member> searched = pagingAdapter != null ? pagingAdapter.snapshot().getItems() : memberList;
+        List<Member> matches = new ArrayList<>();
+        String lowerCaseQuery = query.toLowerCase();
+        for (Member member : searched) {
+            if (member.getName().toLowerCase().contains(lowerCaseQuery) ||
+                    member.getEmail().toLowerCase().contains(lowerCaseQuery) ||
+                    member.getPhoneNumber().contains(query)) {
+                matches.add(member);
             }
         }
+        return matches;
+    }
 
-        memberAdapter.notifyDataSetChanged();
+    private static Member toMember(DetailedUserDto user) {
+        Member member = new Member();
+        member.setId(user.getId().intValue());
+        member.setName(user.getName());
+        member.setEmail(user.getEmail());
+        member.setGender(user.getGender());
+        member.setPhoneNumber(user.getPhoneNumber() != null ? user.getPhoneNumber() : "N/A");
+        member.setAddress(user.getAddress() != null ? user.getAddress() : "N/A");
+        member.setProfileImage(user.getProfileImage());
+        member.setAdmin(Boolean.TRUE.equals(user.getIsAdmin()));
+        return member;
+    }
+
+    private void showFiltered() {
+        memberAdapter.submitList(new ArrayList<>(filteredMemberList));
 
         // Show/hide empty state based on filtered results
         if (filteredMemberList.isEmpty()) {
@@ -312,4 +386,12 @@ public class MemberListActivity extends AppCompatActivity {
             recyclerViewMembers.setVisibility(View.VISIBLE);
         }
     }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (pageLoader != null) {
+            pageLoader.cancel();
+        }
+    }
 }
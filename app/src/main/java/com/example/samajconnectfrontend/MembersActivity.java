@@ -7,7 +7,6 @@ import android.content.SharedPreferences;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.os.Bundle;
-import android.util.Base64;
 import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -27,16 +26,35 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.android.volley.*;
 import com.android.volley.toolbox.JsonObjectRequest;
-import com.android.volley.toolbox.Volley;
+import com.example.samajconnectfrontend.data.FamilyTreeData;
+import com.example.samajconnectfrontend.data.FamilyTreeDecoder;
+import com.example.samajconnectfrontend.data.ImageRef;
+import com.example.samajconnectfrontend.data.ImageSpool;
+import com.example.samajconnectfrontend.data.TreeMemberRecord;
+import com.example.samajconnectfrontend.images.ImageLoader;
+import com.example.samajconnectfrontend.images.ImageOwner;
+import com.example.samajconnectfrontend.models.ApiResponse;
+import com.example.samajconnectfrontend.models.MemberPage;
+import com.example.samajconnectfrontend.models.MemberSearchRequest;
+import com.example.samajconnectfrontend.models.SamajMember;
+import com.example.samajconnectfrontend.network.NetworkClient;
+import com.example.samajconnectfrontend.network.SamajApi;
+import com.example.samajconnectfrontend.utils.AppExecutors;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
-import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
 import androidx.viewpager2.adapter.FragmentStateAdapter;
 import androidx.viewpager2.widget.ViewPager2;
 import com.google.android.material.tabs.TabLayout;
@@ -54,6 +72,7 @@ public class MembersActivity extends AppCompatActivity {
     private Button btnFamilyTree, btnAddRelationship, btnApproveRequests;
     private FrameLayout contentFrame;
     private RequestQueue requestQueue;
+    private SamajApi api;
     private ProgressDialog progressDialog;
     private SharedPreferences sharedPreferences;
     private Long currentUserId; // The logged-in user
@@ -67,7 +86,7 @@ public class MembersActivity extends AppCompatActivity {
     private Button btnListView, btnTreeView;
     private TextView tvInstructions;
     private boolean isTreeViewMode = false;
-    private JSONObject currentTreeData; // Store current tree data
+    private FamilyTreeData currentTreeData; // Store current tree data
 
     // Current view state
     private String currentView = "family_tree";
@@ -94,7 +113,8 @@ public class MembersActivity extends AppCompatActivity {
         btnApproveRequests = findViewById(R.id.btnApproveRequests);
         contentFrame = findViewById(R.id.contentFrame);
 
-        requestQueue = Volley.newRequestQueue(this);
+        requestQueue = NetworkClient.requestQueue(this);
+        api = NetworkClient.api(this);
         sharedPreferences = getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
         currentUserId = sharedPreferences.getLong(USER_ID_KEY, 1L); // The logged-in user
         currentTreeOwnerId = currentUserId; // Initially viewing own tree
@@ -254,7 +274,7 @@ public class MembersActivity extends AppCompatActivity {
             // Convert FamilyNode to FamilyMember for existing dialog
             FamilyMember member = new FamilyMember();
             member.userId = node.userId;
-            member.profileImageBase64 = encodeImageToBase64(node.profileBitmap);
+            member.profileImage = node.profileImage;
             member.name = node.name;
             member.email = node.email;
             member.relationshipDisplayName = node.relationshipDisplayName;
@@ -266,13 +286,6 @@ public class MembersActivity extends AppCompatActivity {
         });
     }
 
-    private String encodeImageToBase64(Bitmap bitmap) {
-        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-        bitmap.compress(Bitmap.CompressFormat.JPEG, 100, byteArrayOutputStream);
-        byte[] byteArray = byteArrayOutputStream.toByteArray();
-        return Base64.encodeToString(byteArray, Base64.NO_WRAP);
-    }
-
     private void loadTreeOwnerInfo(TextView tvCurrentUser, ImageView ivCurrentUserProfile) {
         // Load the tree owner's information
         String url = USER_BASE_URL + "/" + currentTreeOwnerId;
@@ -310,6 +323,7 @@ public class MembersActivity extends AppCompatActivity {
 
                                     Bitmap bitmap = BitmapFactory.decodeByteArray(imageBytes, 0, imageBytes.length);
                                     if (bitmap != null) {
+                                        ImageLoader.cancel(ivCurrentUserProfile);
                                         ivCurrentUserProfile.setImageBitmap(bitmap);
                                         imageSet = true;
                                         Log.d(TAG, "Profile image set from profileImg byte array");
@@ -324,13 +338,11 @@ public class MembersActivity extends AppCompatActivity {
                                 try {
                                     String base64Image = userData.getString("profileImg");
                                     if (base64Image != null && !base64Image.isEmpty()) {
-                                        byte[] decodedString = Base64.decode(base64Image, Base64.DEFAULT);
-                                        Bitmap bitmap = BitmapFactory.decodeByteArray(decodedString, 0, decodedString.length);
-                                        if (bitmap != null) {
-                                            ivCurrentUserProfile.setImageBitmap(bitmap);
-                                            imageSet = true;
-                                            Log.d(TAG, "Profile image set from profileImg base64 string");
-                                        }
+                                        // Decoded off the main thread, falls back to the placeholder on failure
+                                        ImageLoader.load(ImageOwner.USER, currentTreeOwner.userId, base64Image, ivCurrentUserProfile,
+                                                R.drawable.ic_person_placeholder);
+                                        imageSet = true;
+                                        Log.d(TAG, "Profile image set from profileImg base64 string");
                                     }
                                 } catch (Exception e) {
                                     Log.e(TAG, "Error processing profileImg base64 string", e);
@@ -376,129 +388,132 @@ public class MembersActivity extends AppCompatActivity {
     private void loadFamilyTreeData() {
         progressDialog.show();
 
-        String url = BASE_URL + "/user/" + currentTreeOwnerId;
-        Log.d(TAG, "Loading family tree for user ID: " + currentTreeOwnerId + " (current logged-in user: " + currentUserId + ")");
+        final Long treeOwnerId = currentTreeOwnerId;
+        Log.d(TAG, "Loading family tree for user ID: " + treeOwnerId + " (current logged-in user: " + currentUserId + ")");
 
-        JsonObjectRequest request = new JsonObjectRequest(Request.Method.GET, url, null,
-                response -> {
-                    progressDialog.dismiss();
+        // Decode the response as it streams in; images are spooled to disk rather than held as Strings
+        AppExecutors.networkIO().execute(() -> {
+            FamilyTreeData data = null;
+            String error = null;
+            ImageSpool spool = null;
+
+            try {
+                retrofit2.Response<ResponseBody> response = api.getFamilyTree(treeOwnerId).execute();
+                if (response.isSuccessful() && response.body() != null) {
+                    try (ResponseBody body = response.body()) {
+                        File spoolDir = new File(getCacheDir(), "tree-spool");
+                        // Trees spooled before the process was last killed were never released
+                        ImageSpool.deleteLeftovers(spoolDir);
+                        spool = new ImageSpool(spoolDir, "tree-" + treeOwnerId + "-" + System.nanoTime());
+                        data = new FamilyTreeDecoder(spool).decode(body.charStream());
+                    }
+                } else {
+                    error = "HTTP " + response.code();
+                }
+            } catch (IOException | RuntimeException e) {
+                Log.e(TAG, "Error loading family tree", e);
+                error = e.getMessage();
+                if (spool != null) {
                     try {
-                        Log.d(TAG, "Family tree API response: " + response.toString());
+                        spool.close();
+                    } catch (IOException ignored) {
+                    }
+                }
+            }
 
-                        if (response.getBoolean("success")) {
-                            JSONObject data = response.getJSONObject("data");
+            final FamilyTreeData result = data;
+            final String errorMessage = error;
+            AppExecutors.mainThread().execute(() -> onFamilyTreeLoaded(treeOwnerId, result, errorMessage));
+        });
+    }
 
-                            // Store current tree data
-                            currentTreeData = data;
+    private void onFamilyTreeLoaded(Long treeOwnerId, FamilyTreeData data, String error) {
+        if (isDestroyed() || !treeOwnerId.equals(currentTreeOwnerId)) {
+            // Screen is gone or the user already moved to another tree
+            if (data != null) data.release();
+            return;
+        }
 
-                            Log.d(TAG, "Family tree data received: " + data.toString());
+        progressDialog.dismiss();
 
-                            // Also update tree owner info from family tree response if available
-                            if (data.has("rootUser")) {
-                                JSONObject rootUser = data.getJSONObject("rootUser");
-                                Log.d(TAG, "Root user from API: " + rootUser.toString());
-                                updateTreeOwnerFromRootUser(rootUser);
-                            }
+        if (data == null) {
+            showError("Error loading family tree: " + error);
+            return;
+        }
 
-                            // Load list view data
-                            List<FamilyMember> familyMembers = parseFamilyTreeData(data);
-                            Log.d(TAG, "Parsed " + familyMembers.size() + " family members for list view:");
-                            for (FamilyMember member : familyMembers) {
-                                Log.d(TAG, "  - " + member.name + " (ID: " + member.userId + ") " + member.relationshipDisplayName + " level: " + member.generationLevel);
-                            }
+        if (!data.success) {
+            data.release();
+            showError("Failed to load family tree: " + data.message);
+            return;
+        }
 
-                            FamilyTreeAdapter adapter = new FamilyTreeAdapter(familyMembers, this::onFamilyMemberClick, this::onFamilyMemberLongClick);
-                            recyclerViewFamilyTree.setAdapter(adapter);
+        // Store current tree data
+        if (currentTreeData != null) {
+            currentTreeData.release();
+        }
+        currentTreeData = data;
 
-                            // Load tree view data if in tree mode
-                            if (isTreeViewMode && familyTreeView != null) {
-                                Log.d(TAG, "Loading data into tree view...");
-                                familyTreeView.loadFamilyTreeData(data);
-                            } else {
-                                Log.d(TAG, "Not loading tree view - isTreeViewMode: " + isTreeViewMode + ", familyTreeView: " + (familyTreeView != null ? "not null" : "null"));
-                            }
-                        } else {
-                            showError("Failed to load family tree: " + response.getString("message"));
-                        }
-                    } catch (JSONException e) {
-                        Log.e(TAG, "Error parsing family tree data", e);
-                        showError("Error parsing family tree data");
-                    }
-                },
-                error -> {
-                    progressDialog.dismiss();
-                    Log.e(TAG, "Error loading family tree", error);
-                    showError("Error loading family tree: " + error.getMessage());
-                }
-        );
+        // Also update tree owner info from family tree response if available
+        if (data.rootUser != null) {
+            updateTreeOwnerFromRootUser(data.rootUser);
+        }
 
-        requestQueue.add(request);
+        // Load list view data
+        List<FamilyMember> familyMembers = buildFamilyMembers(data);
+        Log.d(TAG, "Decoded " + familyMembers.size() + " family members for list view");
+
+        FamilyTreeAdapter adapter = new FamilyTreeAdapter(familyMembers, this::onFamilyMemberClick, this::onFamilyMemberLongClick);
+        recyclerViewFamilyTree.setAdapter(adapter);
+
+        // Load tree view data if in tree mode
+        if (isTreeViewMode && familyTreeView != null) {
+            Log.d(TAG, "Loading data into tree view...");
+            familyTreeView.loadFamilyTreeData(data);
+        } else {
+            Log.d(TAG, "Not loading tree view - isTreeViewMode: " + isTreeViewMode + ", familyTreeView: " + (familyTreeView != null ? "not null" : "null"));
+        }
     }
 
-    private void updateTreeOwnerFromRootUser(JSONObject rootUser) {
-        try {
-            // Update the UI with root user info if we have the views
-            TextView tvCurrentUser = findViewById(R.id.tvCurrentUser);
-            ImageView ivCurrentUserProfile = findViewById(R.id.ivCurrentUserProfile);
+    private void updateTreeOwnerFromRootUser(TreeMemberRecord rootUser) {
+        // Update the UI with root user info if we have the views
+        TextView tvCurrentUser = findViewById(R.id.tvCurrentUser);
+        ImageView ivCurrentUserProfile = findViewById(R.id.ivCurrentUserProfile);
 
-            if (tvCurrentUser != null && ivCurrentUserProfile != null) {
-                String name = rootUser.getString("name");
+        if (tvCurrentUser != null && ivCurrentUserProfile != null) {
+            String name = rootUser.name;
 
-                // Set the text
-                if (currentTreeOwnerId.equals(currentUserId)) {
-                    tvCurrentUser.setText(name + " (You)");
-                } else {
-                    tvCurrentUser.setText(name);
-                }
+            // Set the text
+            if (currentTreeOwnerId.equals(currentUserId)) {
+                tvCurrentUser.setText(name + " (You)");
+            } else {
+                tvCurrentUser.setText(name);
+            }
 
-                // Set profile image if available
-                if (rootUser.has("profileImageBase64") && !rootUser.isNull("profileImageBase64")) {
-                    try {
-                        String base64Image = rootUser.getString("profileImageBase64");
-                        byte[] decodedString = Base64.decode(base64Image, Base64.DEFAULT);
-                        Bitmap bitmap = BitmapFactory.decodeByteArray(decodedString, 0, decodedString.length);
-                        ivCurrentUserProfile.setImageBitmap(bitmap);
-                        Log.d(TAG, "Updated tree owner image from rootUser");
-                    } catch (Exception e) {
-                        Log.e(TAG, "Error decoding rootUser profile image", e);
-                    }
-                }
+            // Set profile image if available
+            if (rootUser.profileImage != null) {
+                ImageLoader.load(ImageOwner.USER, rootUser.userId, rootUser.profileImage, ivCurrentUserProfile, 0);
+                Log.d(TAG, "Updated tree owner image from rootUser");
             }
-        } catch (JSONException e) {
-            Log.e(TAG, "Error updating tree owner from rootUser", e);
         }
     }
 
-    private List<FamilyMember> parseFamilyTreeData(JSONObject data) throws JSONException {
+    private List<FamilyMember> buildFamilyMembers(FamilyTreeData data) {
         List<FamilyMember> familyMembers = new ArrayList<>();
 
-        // Parse generations
-        if (data.has("generations")) {
-            JSONArray generations = data.getJSONArray("generations");
-            for (int i = 0; i < generations.length(); i++) {
-                JSONObject generation = generations.getJSONObject(i);
-                JSONArray allMembers = generation.getJSONArray("allMembers");
-
-                for (int j = 0; j < allMembers.length(); j++) {
-                    JSONObject member = allMembers.getJSONObject(j);
-                    FamilyMember familyMember = new FamilyMember();
-                    familyMember.userId = member.getLong("userId");
-                    familyMember.name = member.getString("name");
-                    familyMember.email = member.optString("email", "");
-                    familyMember.relationshipDisplayName = member.optString("relationshipDisplayName", "");
-                    familyMember.generationLevel = member.optInt("generationLevel", 0);
-                    familyMember.generationName = member.optString("generationName", "");
-
-                    // Mark if this is the logged-in user viewing someone else's tree
-                    familyMember.isCurrentLoggedInUser = familyMember.userId.equals(currentUserId) && !currentTreeOwnerId.equals(currentUserId);
-
-                    if (member.has("profileImageBase64") && !member.isNull("profileImageBase64")) {
-                        familyMember.profileImageBase64 = member.getString("profileImageBase64");
-                    }
+        for (TreeMemberRecord record : data.allMembers()) {
+            FamilyMember familyMember = new FamilyMember();
+            familyMember.userId = record.userId;
+            familyMember.name = record.name;
+            familyMember.email = record.email;
+            familyMember.relationshipDisplayName = record.relationshipDisplayName;
+            familyMember.generationLevel = record.generationLevel;
+            familyMember.generationName = record.generationName;
+            familyMember.profileImage = record.profileImage;
 
-                    familyMembers.add(familyMember);
-                }
-            }
+            // Mark if this is the logged-in user viewing someone else's tree
+            familyMember.isCurrentLoggedInUser = currentUserId.equals(familyMember.userId) && !currentTreeOwnerId.equals(currentUserId);
+
+            familyMembers.add(familyMember);
         }
 
         return familyMembers;
@@ -541,9 +556,6 @@ public class MembersActivity extends AppCompatActivity {
         Button btnViewFamilyTree = dialogView.findViewById(R.id.btnViewFamilyTree);
         Button btnClose = dialogView.findViewById(R.id.btnClose);
 
-        // Store the bitmap for full-screen viewing
-        Bitmap profileBitmap = null;
-
         // Add "(You)" if this is the logged-in user
         String displayName = member.name;
         if (member.isCurrentLoggedInUser) {
@@ -557,37 +569,28 @@ public class MembersActivity extends AppCompatActivity {
         tvGeneration.setText(member.generationName);
 
         // Set profile image and enable click for full-screen view
-        if (member.profileImageBase64 != null && !member.profileImageBase64.isEmpty()) {
-            try {
-                byte[] decodedString = Base64.decode(member.profileImageBase64, Base64.DEFAULT);
-                profileBitmap = BitmapFactory.decodeByteArray(decodedString, 0, decodedString.length);
-                if (profileBitmap != null) {
-                    ivProfile.setImageBitmap(profileBitmap);
-
-                    // Enable click for full-screen view
-                    final Bitmap finalProfileBitmap = profileBitmap;
-                    ivProfile.setOnClickListener(v -> {
-                        FullScreenImageDialog fullScreenDialog = new FullScreenImageDialog(
-                                MembersActivity.this,
-                                finalProfileBitmap,
-                                R.drawable.ic_person_placeholder
-                        );
-                        fullScreenDialog.show();
-                    });
-
-                    // Add visual indication that image is clickable
-                    ivProfile.setClickable(true);
-                    ivProfile.setFocusable(true);
-                } else {
-                    ivProfile.setImageResource(R.drawable.ic_person_placeholder);
-                }
-            } catch (Exception e) {
-                Log.e(TAG, "Error decoding profile image", e);
-                ivProfile.setImageResource(R.drawable.ic_person_placeholder);
+        ImageLoader.load(ImageOwner.USER, member.userId, member.profileImage, ivProfile, R.drawable.ic_person_placeholder, new ImageLoader.Callback() {
+            @Override
+            public void onLoaded(Bitmap bitmap) {
+                // Enable click for full-screen view, which decodes its own screen sized copy
+                ivProfile.setOnClickListener(v -> {
+                    FullScreenImageDialog fullScreenDialog = new FullScreenImageDialog(
+                            MembersActivity.this,
+                            member.profileImage,
+                            R.drawable.ic_person_placeholder
+                    );
+                    fullScreenDialog.show();
+                });
+
+                // Add visual indication that image is clickable
+                ivProfile.setClickable(true);
+                ivProfile.setFocusable(true);
             }
-        } else {
-            ivProfile.setImageResource(R.drawable.ic_person_placeholder);
-        }
+
+            @Override
+            public void onFailed() {
+            }
+        });
 
         // Load additional user details from API
         loadUserDetailsFromAPI(member.userId, tvPhone, tvGender, tvDateOfBirth,
@@ -840,64 +843,38 @@ public class MembersActivity extends AppCompatActivity {
     private void searchUsers(String query, RecyclerView recyclerView) {
         progressDialog.show();
 
-        String url = BASE_URL.replace("/family-tree", "/users") + "/" + currentUserId + "/search-samaj-members";
-
-        JSONObject searchParams = new JSONObject();
-        try {
-            searchParams.put("query", query);
-            searchParams.put("page", 0);
-            searchParams.put("size", 20);
-        } catch (JSONException e) {
-            Log.e(TAG, "Error creating search params", e);
-            progressDialog.dismiss();
-            return;
-        }
-
-        JsonObjectRequest request = new JsonObjectRequest(Request.Method.POST, url, searchParams,
-                response -> {
-                    progressDialog.dismiss();
-                    try {
-                        if (response.getBoolean("success")) {
-                            JSONObject data = response.getJSONObject("data");
-                            JSONArray members = data.getJSONArray("members");
-
-                            List<SamajMember> searchResults = new ArrayList<>();
-                            for (int i = 0; i < members.length(); i++) {
-                                JSONObject member = members.getJSONObject(i);
-                                SamajMember samajMember = new SamajMember();
-                                samajMember.userId = member.getLong("userId");
-                                samajMember.name = member.getString("name");
-                                samajMember.email = member.optString("email", "");
-                                samajMember.gender = member.optString("gender", "");
-                                samajMember.phoneNumber = member.optString("phoneNumber", "");
-                                samajMember.relationshipStatus = member.optString("relationshipStatus", "AVAILABLE");
-                                samajMember.relationshipStatusText = member.optString("relationshipStatusText", "Available");
-
-                                if (member.has("profileImageBase64") && !member.isNull("profileImageBase64")) {
-                                    samajMember.profileImageBase64 = member.getString("profileImageBase64");
-                                }
-
-                                searchResults.add(samajMember);
-                            }
-
-                            SamajMemberSearchAdapter adapter = new SamajMemberSearchAdapter(searchResults, this::onSamajMemberSelected);
-                            recyclerView.setAdapter(adapter);
-                        } else {
-                            showError("Search failed: " + response.getString("message"));
-                        }
-                    } catch (JSONException e) {
-                        Log.e(TAG, "Error parsing search results", e);
-                        showError("Error parsing search results");
+        MemberSearchRequest searchParams = new MemberSearchRequest(null, query, 0, 20);
+
+        api.searchSamajMembersForTree(currentUserId, searchParams).enqueue(new Callback<ApiResponse<MemberPage<SamajMember>>>() {
+            @Override
+            public void onResponse(Call<ApiResponse<MemberPage<SamajMember>>> call,
+                                   Response<ApiResponse<MemberPage<SamajMember>>> response) {
+                progressDialog.dismiss();
+                ApiResponse<MemberPage<SamajMember>> body = response.body();
+
+                if (!response.isSuccessful() || body == null) {
+                    Log.e(TAG, "Error searching samaj members: HTTP " + response.code());
+                    showError("Error searching samaj members: HTTP " + response.code());
+                } else if (body.isSuccess()) {
+                    List<SamajMember> searchResults = new ArrayList<>();
+                    if (body.getData() != null && body.getData().getMembers() != null) {
+                        searchResults.addAll(body.getData().getMembers());
                     }
-                },
-                error -> {
-                    progressDialog.dismiss();
-                    Log.e(TAG, "Error searching samaj members", error);
-                    showError("Error searching samaj members: " + error.getMessage());
+
+                    SamajMemberSearchAdapter adapter = new SamajMemberSearchAdapter(searchResults, MembersActivity.this::onSamajMemberSelected);
+                    recyclerView.setAdapter(adapter);
+                } else {
+                    showError("Search failed: " + body.getMessage());
                 }
-        );
+            }
 
-        requestQueue.add(request);
+            @Override
+            public void onFailure(Call<ApiResponse<MemberPage<SamajMember>>> call, Throwable t) {
+                progressDialog.dismiss();
+                Log.e(TAG, "Error searching samaj members", t);
+                showError("Error searching samaj members: " + t.getMessage());
+            }
+        });
     }
 
     private void onSamajMemberSelected(SamajMember member) {
@@ -1303,6 +1280,16 @@ public class MembersActivity extends AppCompatActivity {
         Log.e(TAG, "Error: " + message);
     }
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        // Delete the spooled profile images of the last loaded tree
+        if (currentTreeData != null) {
+            currentTreeData.release();
+            currentTreeData = null;
+        }
+    }
+
     // ==================== DATA CLASSES ====================
 
     public static class UserInfo {
@@ -1319,22 +1306,10 @@ public class MembersActivity extends AppCompatActivity {
         public String relationshipDisplayName;
         public Integer generationLevel;
         public String generationName;
-        public String profileImageBase64;
+        public ImageRef profileImage;
         public boolean isCurrentLoggedInUser = false;
     }
 
-    public static class SamajMember {
-        public Long userId;
-        public String name;
-        public String email;
-        public String gender;
-        public String phoneNumber;
-        public String relationshipStatus;
-        public String relationshipStatusText;
-        public String profileImageBase64;
-        public boolean isSelected = false;
-    }
-
     public static class RelationshipRequest {
         public Long id;
         public String requesterName;
@@ -1378,6 +1353,12 @@ public class MembersActivity extends AppCompatActivity {
             holder.bind(member);
         }
 
+        @Override
+        public void onViewRecycled(@NonNull ViewHolder holder) {
+            super.onViewRecycled(holder);
+            ImageLoader.cancel(holder.ivProfile);
+        }
+
         @Override
         public int getItemCount() {
             return familyMembers.size();
@@ -1424,18 +1405,8 @@ public class MembersActivity extends AppCompatActivity {
                 tvRelationship.setText(member.relationshipDisplayName);
                 tvGeneration.setText(member.generationName);
 
-                if (member.profileImageBase64 != null && !member.profileImageBase64.isEmpty()) {
-                    try {
-                        byte[] decodedString = Base64.decode(member.profileImageBase64, Base64.DEFAULT);
-                        Bitmap bitmap = BitmapFactory.decodeByteArray(decodedString, 0, decodedString.length);
-                        ivProfile.setImageBitmap(bitmap);
-                    } catch (Exception e) {
-                        Log.e(TAG, "Error decoding profile image", e);
-                        ivProfile.setImageResource(R.drawable.ic_person_placeholder);
-                    }
-                } else {
-                    ivProfile.setImageResource(R.drawable.ic_person_placeholder);
-                }
+                ImageLoader.load(ImageOwner.USER, member.userId, member.profileImage, ivProfile,
+                        R.drawable.ic_person_placeholder);
             }
         }
     }
@@ -1465,6 +1436,12 @@ public class MembersActivity extends AppCompatActivity {
             holder.bind(member, position);
         }
 
+        @Override
+        public void onViewRecycled(@NonNull ViewHolder holder) {
+            super.onViewRecycled(holder);
+            ImageLoader.cancel(holder.ivProfile);
+        }
+
         @Override
         public int getItemCount() {
             return members.size();
@@ -1492,18 +1469,8 @@ public class MembersActivity extends AppCompatActivity {
                 tvGender.setText("Gender: " + member.gender);
 
                 // Set profile image
-                if (member.profileImageBase64 != null && !member.profileImageBase64.isEmpty()) {
-                    try {
-                        byte[] decodedString = Base64.decode(member.profileImageBase64, Base64.DEFAULT);
-                        Bitmap bitmap = BitmapFactory.decodeByteArray(decodedString, 0, decodedString.length);
-                        ivProfile.setImageBitmap(bitmap);
-                    } catch (Exception e) {
-                        Log.e(TAG, "Error decoding profile image", e);
-                        ivProfile.setImageResource(R.drawable.ic_person_placeholder);
-                    }
-                } else {
-                    ivProfile.setImageResource(R.drawable.ic_person_placeholder);
-                }
+                ImageLoader.load(ImageOwner.USER, member.userId, member.profileImage, ivProfile,
+                        R.drawable.ic_person_placeholder);
 
                 // Set button state based on relationship status
                 setupActionButton(member, position);
@@ -1586,6 +1553,12 @@ public class MembersActivity extends AppCompatActivity {
             holder.bind(user);
         }
 
+        @Override
+        public void onViewRecycled(@NonNull ViewHolder holder) {
+            super.onViewRecycled(holder);
+            ImageLoader.cancel(holder.ivProfile);
+        }
+
         @Override
         public int getItemCount() {
             return users.size();
@@ -1609,18 +1582,8 @@ public class MembersActivity extends AppCompatActivity {
                 tvName.setText(user.name);
                 tvEmail.setText(user.email);
 
-                if (user.profileImageBase64 != null && !user.profileImageBase64.isEmpty()) {
-                    try {
-                        byte[] decodedString = Base64.decode(user.profileImageBase64, Base64.DEFAULT);
-                        Bitmap bitmap = BitmapFactory.decodeByteArray(decodedString, 0, decodedString.length);
-                        ivProfile.setImageBitmap(bitmap);
-                    } catch (Exception e) {
-                        Log.e(TAG, "Error decoding profile image", e);
-                        ivProfile.setImageResource(R.drawable.ic_person_placeholder);
-                    }
-                } else {
-                    ivProfile.setImageResource(R.drawable.ic_person_placeholder);
-                }
+                ImageLoader.load(ImageOwner.USER, user.userId, user.profileImage, ivProfile,
+                        R.drawable.ic_person_placeholder);
 
                 btnSelect.setOnClickListener(v -> {
                     if (listener != null) {
@@ -18,7 +18,7 @@ import androidx.core.view.WindowInsetsCompat;
 import com.android.volley.Request;
 import com.android.volley.RequestQueue;
 import com.android.volley.toolbox.JsonObjectRequest;
-import com.android.volley.toolbox.Volley;
+import com.example.samajconnectfrontend.network.NetworkClient;
 
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -57,7 +57,7 @@ public class OtpActivity extends AppCompatActivity {
         getIntentData();
         setupClickListeners();
         startOtpTimer();
-        requestQueue = Volley.newRequestQueue(this);
+        requestQueue = NetworkClient.requestQueue(this);
     }
 
     private void initializeViews() {
@@ -6,7 +6,6 @@ import android.content.Intent;
 import android.content.pm.PackageManager;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
-import android.net.Uri;
 import android.os.Build;
 import android.os.Bundle;
 import android.provider.MediaStore;
@@ -35,16 +34,14 @@ import com.android.volley.RequestQueue;
 import com.android.volley.Response;
 import com.android.volley.VolleyError;
 import com.android.volley.toolbox.JsonObjectRequest;
-import com.android.volley.toolbox.Volley;
+import com.example.samajconnectfrontend.images.ImageIngestor;
+import com.example.samajconnectfrontend.network.NetworkClient;
 
 import com.example.samajconnectfrontend.dialogs.FullScreenImageDialog;
 
 import org.json.JSONException;
 import org.json.JSONObject;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-
 public class ProfileActivity extends AppCompatActivity {
 
     private static final String TAG = "ProfileActivity";
@@ -65,6 +62,9 @@ public class ProfileActivity extends AppCompatActivity {
     private String baseUrl = "http://10.0.2.2:8080/api"; // Replace with your server URL
     private boolean hasImageChanged = false;
     private String encodedImageString = "";
+    private ImageIngestor imageIngestor;
+    // Bumped on every pick, so a slow photo can't replace a newer one
+    private int imageGeneration = 0;
 
     // Variables to store current profile image data for fullscreen display
     private String currentProfileImageBase64 = "";
@@ -84,7 +84,9 @@ public class ProfileActivity extends AppCompatActivity {
         initializeViews();
         setupClickListeners();
 
-        requestQueue = Volley.newRequestQueue(this);
+        requestQueue = NetworkClient.requestQueue(this);
+        // The photo goes inside the profile JSON, so it is encoded in memory, not to a file
+        imageIngestor = new ImageIngestor(this, ImageIngestor.PROFILE_PHOTO, null, null);
 
         // Get user ID from intent or SharedPreferences
         userId = getSharedPreferences("SamajConnect", MODE_PRIVATE).getLong("user_id", -1);
@@ -285,60 +287,59 @@ public class ProfileActivity extends AppCompatActivity {
     protected void onActivityResult(int requestCode, int resultCode, @Nullable Intent data) {
         super.onActivityResult(requestCode, resultCode, data);
 
-        if (resultCode == Activity.RESULT_OK) {
-            Bitmap bitmap = null;
-
-            if (requestCode == PICK_IMAGE_REQUEST && data != null && data.getData() != null) {
-                Uri uri = data.getData();
-                try {
-                    bitmap = MediaStore.Images.Media.getBitmap(getContentResolver(), uri);
-                } catch (IOException e) {
-                    Log.e(TAG, "Error getting image from gallery: " + e.getMessage());
-                }
-            } else if (requestCode == CAMERA_REQUEST && data != null) {
-                Bundle extras = data.getExtras();
-                if (extras != null) {
-                    bitmap = (Bitmap) extras.get("data");
-                }
+        if (resultCode != Activity.RESULT_OK || data == null) {
+            return;
+        }
+        if (requestCode == PICK_IMAGE_REQUEST && data.getData() != null) {
+            imageIngestor.ingest(data.getData(), ingestCallback(startIngest()));
+        } else if (requestCode == CAMERA_REQUEST && data.getExtras() != null) {
+            Bitmap bitmap = (Bitmap) data.getExtras().get("data");
+            if (bitmap != null) {
+                imageIngestor.ingest(bitmap, ingestCallback(startIngest()));
             }
+        }
+    }
 
-            if (bitmap != null) {
-                // Resize bitmap to reduce size
-                bitmap = resizeBitmap(bitmap, 400, 400);
-                profileImage.setImageBitmap(bitmap);
-                encodedImageString = encodeImageToBase64(bitmap);
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        ImageIngestor.releasePooledMemory();
+    }
+
+    private int startIngest() {
+        saveButton.setEnabled(false);
+        return ++imageGeneration;
+    }
+
+    private ImageIngestor.Callback ingestCallback(int generation) {
+        return new ImageIngestor.Callback() {
+            @Override
+            public void onIngested(ImageIngestor.Result result) {
+                if (generation != imageGeneration || isDestroyed()) {
+                    return;
+                }
+                saveButton.setEnabled(true);
+                profileImage.setImageBitmap(result.preview);
+                encodedImageString = Base64.encodeToString(result.encoded.toByteArray(), Base64.NO_WRAP);
                 hasImageChanged = true;
 
                 // Store current bitmap for fullscreen display
-                currentProfileBitmap = bitmap;
+                currentProfileBitmap = result.preview;
                 currentProfileImageBase64 = ""; // Clear base64 since we have new bitmap
 
                 Log.d(TAG, "Image selected and encoded");
                 Log.d(TAG, "Encoded Image Length: " + encodedImageString.length());
-                Log.d(TAG, "Has Image Changed: " + hasImageChanged);
             }
-        }
-    }
-
-    private Bitmap resizeBitmap(Bitmap bitmap, int maxWidth, int maxHeight) {
-        int width = bitmap.getWidth();
-        int height = bitmap.getHeight();
 
-        float scaleWidth = ((float) maxWidth) / width;
-        float scaleHeight = ((float) maxHeight) / height;
-        float scale = Math.min(scaleWidth, scaleHeight);
-
-        int newWidth = Math.round(width * scale);
-        int newHeight = Math.round(height * scale);
-
-        return Bitmap.createScaledBitmap(bitmap, newWidth, newHeight, true);
-    }
-
-    private String encodeImageToBase64(Bitmap bitmap) {
-        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-        bitmap.compress(Bitmap.CompressFormat.JPEG, 70, byteArrayOutputStream);
-        byte[] byteArray = byteArrayOutputStream.toByteArray();
-        return Base64.encodeToString(byteArray, Base64.NO_WRAP);
+            @Override
+            public void onFailed(Exception e) {
+                if (generation != imageGeneration || isDestroyed()) {
+                    return;
+                }
+                saveButton.setEnabled(true);
+                Toast.makeText(ProfileActivity.this, "Error processing image", Toast.LENGTH_SHORT).show();
+            }
+        };
     }
 
     private void saveProfile() {
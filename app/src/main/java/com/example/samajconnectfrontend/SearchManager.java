@@ -17,25 +17,31 @@ import androidx.appcompat.app.AlertDialog;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.android.volley.DefaultRetryPolicy;
-import com.android.volley.Request;
-import com.android.volley.RequestQueue;
-import com.android.volley.toolbox.JsonObjectRequest;
 import com.example.samajconnectfrontend.adapters.SearchResultsAdapter;
+import com.example.samajconnectfrontend.data.local.LocalStore;
 import com.example.samajconnectfrontend.dialogs.MemberDetailsDialog;
+import com.example.samajconnectfrontend.models.ApiResponse;
 import com.example.samajconnectfrontend.models.DetailedUserDto;
-
-import org.json.JSONArray;
-import org.json.JSONObject;
+import com.example.samajconnectfrontend.models.MemberPage;
+import com.example.samajconnectfrontend.models.MemberSearchRequest;
+import com.example.samajconnectfrontend.network.NetworkClient;
+import com.example.samajconnectfrontend.network.SamajApi;
+import com.example.samajconnectfrontend.network.SyncEngine;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
 
 public class SearchManager {
-    private static final String BASE_URL = "http://10.0.2.2:8080/api/";
+    private static final int MAX_RESULTS = 20;
 
     private Context context;
-    private RequestQueue requestQueue;
+    private SamajApi api;
+    private LocalStore localStore;
     private EditText searchEditText;
     private LinearLayout searchResultsContainer;
     private RecyclerView searchResultsRecyclerView;
@@ -47,6 +53,7 @@ public class SearchManager {
     private SearchResultsAdapter searchResultsAdapter;
     private boolean isSearching = false;
     private boolean isSearchResultsVisible = false;
+    private boolean rosterSyncRequested = false;
 
     public interface SearchCallback {
         Long getCurrentSamajId();
@@ -54,11 +61,12 @@ public class SearchManager {
         void onMemberClicked(DetailedUserDto member);
     }
 
-    public SearchManager(Context context, RequestQueue requestQueue, EditText searchEditText,
+    public SearchManager(Context context, EditText searchEditText,
                          LinearLayout searchResultsContainer, RecyclerView searchResultsRecyclerView,
                          TextView searchResultsTitle, ScrollView mainScrollView, SearchCallback callback) {
         this.context = context;
-        this.requestQueue = requestQueue;
+        this.api = NetworkClient.api(context);
+        this.localStore = LocalStore.getInstance(context);
         this.searchEditText = searchEditText;
         this.searchResultsContainer = searchResultsContainer;
         this.searchResultsRecyclerView = searchResultsRecyclerView;
@@ -105,16 +113,25 @@ public class SearchManager {
                     searchHandler.removeCallbacks(searchRunnable);
                 }
 
+                String query = s.toString().trim();
+                if (query.isEmpty()) {
+                    hideSearchResults();
+                    return;
+                }
+
+                // Answer from the synced roster straight away; only ask the server, once typing
+                // pauses, when the roster has nothing for it
                 searchRunnable = () -> {
-                    String query = s.toString().trim();
                     if (query.length() >= 2) {
                         performSearch();
-                    } else if (query.isEmpty()) {
-                        hideSearchResults();
                     }
                 };
-
-                searchHandler.postDelayed(searchRunnable, 500);
+                Runnable serverSearch = searchRunnable;
+                searchLocally(query, found -> {
+                    if (!found && serverSearch == searchRunnable) {
+                        searchHandler.postDelayed(serverSearch, 500);
+                    }
+                });
             }
         });
 
@@ -158,113 +175,103 @@ public class SearchManager {
         searchMembers(query, currentSamajId);
     }
 
-    private void searchMembers(String query, Long samajId) {
-        String url = BASE_URL + "users/samaj/search-members";
+    /**
+     * Search the roster cached on the device, showing any matches at once
+     *
+     * @param onDone told whether anything was found, not called if the query has changed since
+     */
+    private void searchLocally(String query, Consumer<Boolean> onDone) {
+        Long samajId = callback.getCurrentSamajId();
+        if (samajId == null || samajId <= 0) {
+            onDone.accept(false);
+            return;
+        }
 
+        long started = System.nanoTime();
+        localStore.read(() -> localStore.searchRoster(samajId, query, MAX_RESULTS), members -> {
+            if (!query.equals(searchEditText.getText().toString().trim())) {
+                return;
+            }
+            if (members == null) {
+                // Nothing synced yet; fetch the roster so the next searches stay on the device
+                if (!rosterSyncRequested) {
+                    rosterSyncRequested = true;
+                    SyncEngine.getInstance(context).syncMembers(samajId, null);
+                }
+                onDone.accept(false);
+                return;
+            }
+            Log.d("SearchManager", "Local search for " + query + ": " + members.size() + " results in "
+                    + (System.nanoTime() - started) / 1_000_000 + " ms");
+            if (members.isEmpty()) {
+                // The roster may just not have them yet, so the server is still asked
+                showNoResults(query);
+                onDone.accept(false);
+                return;
+            }
+            searchResults.clear();
+            searchResults.addAll(members);
+            showSearchResults(query);
+            onDone.accept(true);
+        });
+    }
+
+    private void searchMembers(String query, Long samajId) {
         Log.d("SearchManager", "Searching members with query: " + query + " for samaj: " + samajId);
 
-        try {
-            JSONObject requestBody = new JSONObject();
-            requestBody.put("samajId", samajId);
-            requestBody.put("query", query);
-            requestBody.put("page", 0);
-            requestBody.put("size", 20);
-
-            JsonObjectRequest request = new JsonObjectRequest(
-                    Request.Method.POST,
-                    url,
-                    requestBody,
-                    response -> {
-                        Log.d("SearchManager", "Search response: " + response.toString());
-                        handleSearchResponse(response, query);
-                    },
-                    error -> {
-                        Log.e("SearchManager", "Search error: " + error.toString());
-                        handleSearchError(error);
-                    }
-            ) {
-                @Override
-                public java.util.Map<String, String> getHeaders() {
-                    java.util.Map<String, String> headers = new java.util.HashMap<>();
-                    headers.put("Content-Type", "application/json");
-
-                    String authToken = callback.getAuthToken();
-                    if (!authToken.isEmpty()) {
-                        headers.put("Authorization", "Bearer " + authToken);
-                    }
+        MemberSearchRequest requestBody = new MemberSearchRequest(samajId, query, 0, MAX_RESULTS);
 
-                    return headers;
+        api.searchMembers(requestBody).enqueue(new Callback<ApiResponse<MemberPage<DetailedUserDto>>>() {
+            @Override
+            public void onResponse(Call<ApiResponse<MemberPage<DetailedUserDto>>> call,
+                                   Response<ApiResponse<MemberPage<DetailedUserDto>>> response) {
+                if (response.isSuccessful() && response.body() != null) {
+                    handleSearchResponse(response.body(), query);
+                } else {
+                    Log.e("SearchManager", "Search error: HTTP " + response.code());
+                    handleSearchError(response.code());
                 }
-            };
-
-            request.setRetryPolicy(new DefaultRetryPolicy(10000, 1, 1.0f));
-            requestQueue.add(request);
+            }
 
-        } catch (Exception e) {
-            Log.e("SearchManager", "Error creating search request: " + e.getMessage());
-            isSearching = false;
-            Toast.makeText(context, "Error performing search", Toast.LENGTH_SHORT).show();
-        }
+            @Override
+            public void onFailure(Call<ApiResponse<MemberPage<DetailedUserDto>>> call, Throwable t) {
+                Log.e("SearchManager", "Search error: " + t.toString());
+                handleSearchError(-1);
+            }
+        });
     }
 
-    private void handleSearchResponse(JSONObject response, String query) {
-        try {
-            isSearching = false;
+    private void handleSearchResponse(ApiResponse<MemberPage<DetailedUserDto>> response, String query) {
+        isSearching = false;
 
-            if (response.has("success") && response.getBoolean("success")) {
-                JSONObject data = response.getJSONObject("data");
-                JSONArray membersArray = data.getJSONArray("members");
+        // Typing has moved on and the local search is already showing the newer query
+        if (!query.equals(searchEditText.getText().toString().trim())) {
+            return;
+        }
 
-                searchResults.clear();
+        if (response.isSuccess() && response.getData() != null) {
+            List<DetailedUserDto> members = response.getData().getMembers();
 
-                for (int i = 0; i < membersArray.length(); i++) {
-                    JSONObject memberJson = membersArray.getJSONObject(i);
-                    DetailedUserDto member = parseDetailedUserDto(memberJson);
-                    searchResults.add(member);
-                }
-
-                Log.d("SearchManager", "Found " + searchResults.size() + " search results");
+            searchResults.clear();
+            if (members != null) {
+                searchResults.addAll(members);
+            }
 
-                if (searchResults.isEmpty()) {
-                    showNoResults(query);
-                } else {
-                    showSearchResults(query);
-                }
+            Log.d("SearchManager", "Found " + searchResults.size() + " search results");
 
+            if (searchResults.isEmpty()) {
+                showNoResults(query);
             } else {
-                String message = response.optString("message", "Search failed");
-                Toast.makeText(context, message, Toast.LENGTH_SHORT).show();
-                hideSearchResults();
+                showSearchResults(query);
             }
 
-        } catch (Exception e) {
-            Log.e("SearchManager", "Error parsing search response: " + e.getMessage());
-            isSearching = false;
+        } else {
+            String message = response.getMessage() != null ? response.getMessage() : "Search failed";
+            Toast.makeText(context, message, Toast.LENGTH_SHORT).show();
             hideSearchResults();
-            Toast.makeText(context, "Error processing search results", Toast.LENGTH_SHORT).show();
         }
     }
 
-    private DetailedUserDto parseDetailedUserDto(JSONObject memberJson) throws Exception {
-        DetailedUserDto member = new DetailedUserDto();
-
-        member.setId(memberJson.getLong("id"));
-        member.setName(memberJson.getString("name"));
-        member.setEmail(memberJson.getString("email"));
-        member.setGender(memberJson.optString("gender", ""));
-        member.setPhoneNumber(memberJson.optString("phoneNumber", ""));
-        member.setAddress(memberJson.optString("address", ""));
-        member.setIsAdmin(memberJson.optBoolean("isAdmin", false));
-
-        // Handle profile image
-        if (memberJson.has("profileImageBase64") && !memberJson.isNull("profileImageBase64")) {
-            String base64Image = memberJson.getString("profileImageBase64");
-            member.setProfileImageBase64(base64Image);
-        }
-
-        return member;
-    }
-
     private void showSearchResults(String query) {
         searchResultsTitle.setText("Found " + searchResults.size() + " member(s) for '" + query + "'");
         searchResultsAdapter.notifyDataSetChanged();
@@ -369,12 +376,14 @@ public class SearchManager {
         }
     }
 
-    private void handleSearchError(com.android.volley.VolleyError error) {
+    /**
+     * @param statusCode HTTP status code, or -1 when the request never got a response
+     */
+    private void handleSearchError(int statusCode) {
         isSearching = false;
 
         String errorMessage = "Search failed";
-        if (error.networkResponse != null) {
-            int statusCode = error.networkResponse.statusCode;
+        if (statusCode > 0) {
             if (statusCode == 401) {
                 errorMessage = "Unauthorized - Please login again";
             } else if (statusCode == 404) {
@@ -387,7 +396,6 @@ public class SearchManager {
         }
 
         Toast.makeText(context, errorMessage, Toast.LENGTH_LONG).show();
-        Log.e("SearchManager", "Search error: " + error.toString());
     }
 
     private void onMemberClicked(DetailedUserDto member) {
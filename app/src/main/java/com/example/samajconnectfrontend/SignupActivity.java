@@ -30,7 +30,7 @@ import com.android.volley.DefaultRetryPolicy;
 import com.android.volley.Request;
 import com.android.volley.RequestQueue;
 import com.android.volley.toolbox.JsonObjectRequest;
-import com.android.volley.toolbox.Volley;
+import com.example.samajconnectfrontend.network.NetworkClient;
 
 import org.json.JSONArray;
 import org.json.JSONException;
@@ -102,7 +102,7 @@ public class SignupActivity extends AppCompatActivity implements SamajSuggestion
         setupClickListeners();
         setupSearchFunctionality();
 
-        requestQueue = Volley.newRequestQueue(this);
+        requestQueue = NetworkClient.requestQueue(this);
 
         // Load samajs when activity is created
         loadAvailableSamajs();
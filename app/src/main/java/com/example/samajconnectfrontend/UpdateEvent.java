@@ -5,14 +5,10 @@ import android.app.TimePickerDialog;
 import android.content.Intent;
 import android.content.SharedPreferences;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
-import android.graphics.Matrix;
-import android.media.ExifInterface;
 import android.net.Uri;
 import android.os.Bundle;
 import android.provider.MediaStore;
 import android.text.TextUtils;
-import android.util.Base64;
 import android.util.Log;
 import android.view.View;
 import android.widget.ImageView;
@@ -26,34 +22,31 @@ import androidx.core.graphics.Insets;
 import androidx.core.view.ViewCompat;
 import androidx.core.view.WindowInsetsCompat;
 
-import com.android.volley.DefaultRetryPolicy;
-import com.android.volley.Request;
-import com.android.volley.RequestQueue;
-import com.android.volley.toolbox.JsonObjectRequest;
-import com.android.volley.toolbox.Volley;
+import com.example.samajconnectfrontend.data.ImageBlobStore;
+import com.example.samajconnectfrontend.data.ImageRef;
+import com.example.samajconnectfrontend.images.ImageIngestor;
+import com.example.samajconnectfrontend.images.ImageLoader;
+import com.example.samajconnectfrontend.images.ImageOwner;
+import com.example.samajconnectfrontend.network.EventUploader;
+import com.example.samajconnectfrontend.network.NetworkClient;
+import com.example.samajconnectfrontend.utils.AppExecutors;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 import com.google.android.material.textfield.TextInputEditText;
+import com.google.gson.JsonObject;
 import com.squareup.picasso.Picasso;
 
-import org.json.JSONException;
-import org.json.JSONObject;
-
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.io.InputStream;
+import java.io.File;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.Locale;
-import java.util.Map;
+import java.util.UUID;
 
 public class UpdateEvent extends AppCompatActivity {
 
     private static final String TAG = "UpdateEvent";
-    private static final String EVENT_URL = "http://10.0.2.2:8080/api/events/";
 
     // UI Components
     private ImageView eventImagePreview;
@@ -68,11 +61,18 @@ public class UpdateEvent extends AppCompatActivity {
 
     // Data
     private long eventId;
-    private String selectedImageBase64;
+    // Compressed new image and its thumbnail, streamed with the update
+    private ImageIngestor.Result selectedImage;
+    private ImageIngestor imageIngestor;
+    // Bumped on every pick, so a slow photo can't replace a newer one
+    private int imageGeneration = 0;
     private String originalImageUrl;
     private Calendar selectedCalendar;
     private SharedPreferences sharedPrefs;
-    private RequestQueue requestQueue;
+    private EventUploader uploader;
+    private EventUploader.Upload upload;
+    // Kept for every attempt at this update, so the server can recognise a retry
+    private String uploadKey;
     private boolean hasNewImage = false;
     private ImageView backArrow;
 
@@ -121,7 +121,10 @@ public class UpdateEvent extends AppCompatActivity {
 
         // Initialize other components
         sharedPrefs = getSharedPreferences("SamajConnect", MODE_PRIVATE);
-        requestQueue = Volley.newRequestQueue(this);
+        // Progress is reported from the upload thread, so hop to the main thread
+        uploader = new EventUploader(NetworkClient.api(this), AppExecutors.mainThread());
+        uploadKey = UUID.randomUUID().toString();
+        imageIngestor = new ImageIngestor(this);
         selectedCalendar = Calendar.getInstance();
 
         Log.d(TAG, "Components initialized successfully");
@@ -162,11 +165,8 @@ public class UpdateEvent extends AppCompatActivity {
             String eventDate = intent.getStringExtra("event_date");
             String eventTime = intent.getStringExtra("event_time");
             originalImageUrl = intent.getStringExtra("event_image_url");
-            // **ADD THIS LINE** to get Base64 image data
-            String base64Image = intent.getStringExtra("event_image_base64");
 
             Log.d(TAG, "Received event data - ID: " + eventId + ", Title: " + eventTitle);
-            Log.d(TAG, "Base64 image available: " + (base64Image != null && !base64Image.isEmpty()));
 
             // Populate the fields
             if (!TextUtils.isEmpty(eventTitle)) {
@@ -193,34 +193,38 @@ public class UpdateEvent extends AppCompatActivity {
     }
 
     private void loadExistingImage() {
-        // Get the Base64 image from intent if available
-        String base64Image = getIntent().getStringExtra("event_image_base64");
-
-        Log.d(TAG, "Base64 image length: " + (base64Image != null ? base64Image.length() : "null"));
-        Log.d(TAG, "Image URL: " + originalImageUrl);
+        // The event list hands over its copy of the image by handle. The handle is gone if the
+        // process was restarted since, and then the URL or placeholder below is shown instead.
+        long imageHandle = getIntent().getLongExtra("event_image_handle", ImageBlobStore.NO_HANDLE);
+        ImageRef image = ImageBlobStore.getInstance().resolve(imageHandle);
+
+        Log.d(TAG, "Image handle resolved: " + (image != null) + ", URL: " + originalImageUrl);
+
+        if (image != null) {
+            ImageLoader.load(ImageOwner.EVENT, eventId, image, eventImagePreview, R.drawable.placeholder_image,
+                    new ImageLoader.Callback() {
+                        @Override
+                        public void onLoaded(Bitmap bitmap) {
+                            Log.d(TAG, "Loaded existing event image");
+                        }
 
-        // First try to load from Base64 (from API)
-        if (base64Image != null && !base64Image.isEmpty()) {
-            try {
-                byte[] decodedString = Base64.decode(base64Image, Base64.DEFAULT);
-                Bitmap decodedBitmap = BitmapFactory.decodeByteArray(decodedString, 0, decodedString.length);
-                if (decodedBitmap != null) {
-                    eventImagePreview.setImageBitmap(decodedBitmap);
-                    Log.d(TAG, "Successfully loaded Base64 image");
-                    return;
-                } else {
-                    Log.e(TAG, "Decoded bitmap is null");
-                }
-            } catch (IllegalArgumentException e) {
-                Log.e(TAG, "Failed to decode base64 image", e);
-            }
+                        @Override
+                        public void onFailed() {
+                            Log.e(TAG, "Failed to decode existing event image");
+                            loadImageFromUrl();
+                        }
+                    });
+            return;
         }
+        loadImageFromUrl();
+    }
 
-        // Fallback to URL if Base64 fails or is not available
+    private void loadImageFromUrl() {
         if (!TextUtils.isEmpty(originalImageUrl)) {
             Log.d(TAG, "Loading image from URL: " + originalImageUrl);
 
             // If you want to use Glide instead of Picasso, replace this section
+            ImageLoader.cancel(eventImagePreview);
             try {
                 Picasso.get()
                         .load(originalImageUrl)
@@ -284,6 +288,15 @@ public class UpdateEvent extends AppCompatActivity {
         // Cancel button
         cancelButton.setOnClickListener(v -> {
             Log.d(TAG, "Cancel button clicked");
+            if (upload != null) {
+                // Stop the upload but stay on the form
+                upload.cancel();
+                upload = null;
+                saveChangesButton.setEnabled(true);
+                saveChangesButton.setText("Save Changes");
+                Toast.makeText(this, "Update cancelled", Toast.LENGTH_SHORT).show();
+                return;
+            }
             navigateToEventActivity();
         });
 
@@ -349,146 +362,51 @@ public class UpdateEvent extends AppCompatActivity {
         imagePickerLauncher.launch(galleryIntent);
     }
 
-    // Use the same image processing methods as CreateEventActivity
+    // Same ingestion as CreateEventActivity
     private void processCameraBitmap(Bitmap bitmap) {
-        try {
-            // Compress the camera bitmap
-            Bitmap compressedBitmap = compressBitmap(bitmap, 85);
-
-            // Convert to Base64 using the same method as CreateEventActivity
-            selectedImageBase64 = bitmapToBase64(compressedBitmap);
-            hasNewImage = true;
-
-            // Display preview
-            eventImagePreview.setImageBitmap(compressedBitmap);
-
-            Log.d(TAG, "Camera image processed successfully, Base64 length: " + selectedImageBase64.length());
-        } catch (Exception e) {
-            Log.e(TAG, "Error processing camera image", e);
-            Toast.makeText(this, "Error processing image", Toast.LENGTH_SHORT).show();
-        }
+        imageIngestor.ingest(bitmap, ingestCallback(startIngest()));
     }
 
     private void processSelectedImage(Uri imageUri) {
-        try {
-            // Load and compress the image using the same method as CreateEventActivity
-            Bitmap bitmap = loadAndCompressImage(imageUri);
-            if (bitmap != null) {
-                // Convert to Base64
-                selectedImageBase64 = bitmapToBase64(bitmap);
-                hasNewImage = true;
-
-                // Display preview
-                eventImagePreview.setImageBitmap(bitmap);
-
-                Log.d(TAG, "Gallery image processed successfully, Base64 length: " + selectedImageBase64.length());
-            }
-        } catch (Exception e) {
-            Log.e(TAG, "Error processing image", e);
-            Toast.makeText(this, "Error processing image", Toast.LENGTH_SHORT).show();
-        }
+        imageIngestor.ingest(imageUri, ingestCallback(startIngest()));
     }
 
-    // Copy the exact image processing methods from CreateEventActivity
-    private Bitmap loadAndCompressImage(Uri imageUri) throws IOException {
-        InputStream inputStream = getContentResolver().openInputStream(imageUri);
-        if (inputStream == null) return null;
-
-        // First, get image dimensions
-        BitmapFactory.Options options = new BitmapFactory.Options();
-        options.inJustDecodeBounds = true;
-        BitmapFactory.decodeStream(inputStream, null, options);
-        inputStream.close();
-
-        // Calculate sample size for compression
-        int maxSize = 1024; // Max width/height
-        int sampleSize = 1;
-        while (options.outWidth / sampleSize > maxSize || options.outHeight / sampleSize > maxSize) {
-            sampleSize *= 2;
-        }
-
-        // Load the actual bitmap
-        inputStream = getContentResolver().openInputStream(imageUri);
-        options.inJustDecodeBounds = false;
-        options.inSampleSize = sampleSize;
-        Bitmap bitmap = BitmapFactory.decodeStream(inputStream, null, options);
-        inputStream.close();
-
-        if (bitmap != null) {
-            // Handle rotation
-            bitmap = handleImageRotation(imageUri, bitmap);
-
-            // Further compress if still too large
-            if (bitmap.getByteCount() > 500 * 1024) { // 500KB
-                bitmap = compressBitmap(bitmap, 80);
-            }
-        }
-
-        return bitmap;
+    private int startIngest() {
+        saveChangesButton.setEnabled(false);
+        return ++imageGeneration;
     }
 
-    private Bitmap handleImageRotation(Uri imageUri, Bitmap bitmap) {
-        try {
-            InputStream inputStream = getContentResolver().openInputStream(imageUri);
-            if (inputStream != null) {
-                ExifInterface exif = new ExifInterface(inputStream);
-                int orientation = exif.getAttributeInt(ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_NORMAL);
-                inputStream.close();
-
-                Matrix matrix = new Matrix();
-                switch (orientation) {
-                    case ExifInterface.ORIENTATION_ROTATE_90:
-                        matrix.postRotate(90);
-                        break;
-                    case ExifInterface.ORIENTATION_ROTATE_180:
-                        matrix.postRotate(180);
-                        break;
-                    case ExifInterface.ORIENTATION_ROTATE_270:
-                        matrix.postRotate(270);
-                        break;
+    private ImageIngestor.Callback ingestCallback(int generation) {
+        return new ImageIngestor.Callback() {
+            @Override
+            public void onIngested(ImageIngestor.Result result) {
+                if (generation != imageGeneration || isDestroyed()) {
+                    result.delete();
+                    return;
                 }
-
-                if (!matrix.isIdentity()) {
-                    Bitmap rotatedBitmap = Bitmap.createBitmap(bitmap, 0, 0, bitmap.getWidth(), bitmap.getHeight(), matrix, true);
-                    bitmap.recycle();
-                    return rotatedBitmap;
+                if (selectedImage != null) {
+                    selectedImage.delete();
                 }
-            }
-        } catch (IOException e) {
-            Log.e(TAG, "Error handling image rotation", e);
-        }
-        return bitmap;
-    }
-
-    private Bitmap compressBitmap(Bitmap bitmap, int quality) {
-        ByteArrayOutputStream stream = new ByteArrayOutputStream();
-        bitmap.compress(Bitmap.CompressFormat.JPEG, quality, stream);
-        byte[] byteArray = stream.toByteArray();
-        return BitmapFactory.decodeByteArray(byteArray, 0, byteArray.length);
-    }
-
-    // Use the exact same Base64 conversion method as CreateEventActivity
-    private String bitmapToBase64(Bitmap bitmap) {
-        if (bitmap == null) {
-            Log.w(TAG, "Bitmap is null, cannot convert to Base64");
-            return null;
-        }
-
-        try {
-            ByteArrayOutputStream stream = new ByteArrayOutputStream();
-            bitmap.compress(Bitmap.CompressFormat.JPEG, 85, stream);
-            byte[] byteArray = stream.toByteArray();
+                selectedImage = result;
+                hasNewImage = true;
+                saveChangesButton.setEnabled(true);
 
-            // Use NO_WRAP to avoid newline characters that break JSON
-            String base64String = Base64.encodeToString(byteArray, Base64.NO_WRAP);
+                // Display preview; a late load of the old image must not replace it
+                ImageLoader.cancel(eventImagePreview);
+                eventImagePreview.setImageBitmap(result.preview);
 
-            Log.d(TAG, "Base64 conversion successful, length: " + base64String.length());
-            return base64String;
+                Log.d(TAG, "Image processed successfully, size: " + result.file.length());
+            }
 
-        } catch (Exception e) {
-            Log.e(TAG, "Error converting bitmap to Base64", e);
-            return null;
-        }
+            @Override
+            public void onFailed(Exception e) {
+                if (generation != imageGeneration || isDestroyed()) {
+                    return;
+                }
+                saveChangesButton.setEnabled(true);
+                Toast.makeText(UpdateEvent.this, "Error processing image", Toast.LENGTH_SHORT).show();
+            }
+        };
     }
 
     private void showDatePicker() {
@@ -588,109 +506,75 @@ public class UpdateEvent extends AppCompatActivity {
         Long currentUserId = sharedPrefs.getLong("user_id", -1);
         Long currentSamajId = sharedPrefs.getLong("samaj_id", -1);
 
-        // Prepare JSON data (same structure as CreateEventActivity)
-        JSONObject eventData = new JSONObject();
-        try {
-            eventData.put("eventTitle", title);
-            eventData.put("eventDescription", description);
-            eventData.put("location", location);
-            eventData.put("eventDate", formattedDateTime);
-            eventData.put("createdBy", currentUserId);
-            eventData.put("samajId", currentSamajId);
-
-            // Add image data only if a new image was selected
-            if (hasNewImage && !TextUtils.isEmpty(selectedImageBase64)) {
-                eventData.put("imageBase64", selectedImageBase64);
-                Log.d(TAG, "Adding new image to update request, Base64 length: " + selectedImageBase64.length());
-            }
-
-            Log.d(TAG, "Update data prepared: " + eventData.toString());
-
-        } catch (JSONException e) {
-            Log.e(TAG, "Error creating JSON data", e);
-            Toast.makeText(this, "Error preparing data", Toast.LENGTH_SHORT).show();
-            return;
+        // Prepare JSON data (same structure as CreateEventActivity); a new image goes as its own part
+        JsonObject eventData = new JsonObject();
+        eventData.addProperty("eventTitle", title);
+        eventData.addProperty("eventDescription", description);
+        eventData.addProperty("location", location);
+        eventData.addProperty("eventDate", formattedDateTime);
+        eventData.addProperty("createdBy", currentUserId);
+        eventData.addProperty("samajId", currentSamajId);
+
+        File image = hasNewImage ? selectedImage.file : null;
+        File thumbnail = hasNewImage ? selectedImage.thumbnail : null;
+        if (image != null) {
+            Log.d(TAG, "Adding new image to update request, size: " + image.length());
         }
-
-        // Make API call
-        String url = EVENT_URL + eventId;
-        Log.d(TAG, "Update URL: " + url);
+        Log.d(TAG, "Update data prepared: " + eventData);
 
         // Show loading state
         saveChangesButton.setEnabled(false);
         saveChangesButton.setText("Updating...");
 
-        JsonObjectRequest updateRequest = new JsonObjectRequest(
-                Request.Method.PUT,
-                url,
-                eventData,
-                response -> {
-                    Log.d(TAG, "Event updated successfully: " + response.toString());
-                    Toast.makeText(UpdateEvent.this, "Event updated successfully", Toast.LENGTH_SHORT).show();
-
-                    // Set result and finish
-                    setResult(RESULT_OK);
-                    finish();
-                },
-                error -> {
-                    Log.e(TAG, "Error updating event", error);
-                    String errorMessage = "Failed to update event";
-
-                    if (error.networkResponse != null) {
-                        int statusCode = error.networkResponse.statusCode;
-                        String responseData = new String(error.networkResponse.data);
-                        Log.e(TAG, "Status Code: " + statusCode);
-                        Log.e(TAG, "Response Data: " + responseData);
-
-                        try {
-                            JSONObject errorJson = new JSONObject(responseData);
-                            errorMessage = errorJson.optString("message", errorMessage);
-                        } catch (JSONException e) {
-                            // Use default error message
-                        }
-
-                        if (statusCode == 401) {
-                            errorMessage = "Unauthorized - Please login again";
-                        } else if (statusCode == 404) {
-                            errorMessage = "Event not found";
-                        } else if (statusCode >= 500) {
-                            errorMessage = "Server error - Please try again later";
-                        }
-                    }
-
-                    Toast.makeText(UpdateEvent.this, errorMessage, Toast.LENGTH_LONG).show();
+        upload = uploader.update(uploadKey, eventId, eventData, image, thumbnail, new EventUploader.Listener() {
+            @Override
+            public void onProgress(long sent, long total) {
+                saveChangesButton.setText("Updating... " + (sent * 100 / Math.max(total, 1)) + "%");
+            }
 
-                    // **FIX 1: Restore button state on failure**
-                    runOnUiThread(() -> {
-                        saveChangesButton.setEnabled(true);
-                        saveChangesButton.setText("Save Changes");
-                    });
-                }
-        ) {
             @Override
-            public Map<String, String> getHeaders() {
-                Map<String, String> headers = new HashMap<>();
-                headers.put("Content-Type", "application/json");
-                return headers;
+            public void onUploaded(JsonObject response) {
+                upload = null;
+                Log.d(TAG, "Event updated successfully: " + response);
+                Toast.makeText(UpdateEvent.this, "Event updated successfully", Toast.LENGTH_SHORT).show();
+
+                // Set result and finish
+                setResult(RESULT_OK);
+                finish();
             }
-        };
 
-        // Set retry policy for large payloads (Base64 images) - same as CreateEventActivity
-        updateRequest.setRetryPolicy(new DefaultRetryPolicy(
-                30000, // 30 seconds timeout
-                DefaultRetryPolicy.DEFAULT_MAX_RETRIES,
-                DefaultRetryPolicy.DEFAULT_BACKOFF_MULT));
+            @Override
+            public void onFailed(int statusCode, String message) {
+                upload = null;
+                String errorMessage = message != null ? message : "Failed to update event";
+                Log.e(TAG, "Error updating event, status code: " + statusCode);
+
+                if (statusCode == 401) {
+                    errorMessage = "Unauthorized - Please login again";
+                } else if (statusCode == 404) {
+                    errorMessage = "Event not found";
+                } else if (statusCode >= 500) {
+                    errorMessage = "Server error - Please try again later";
+                }
 
-        // Add to request queue
-        requestQueue.add(updateRequest);
+                // The image file is kept, so trying again doesn't re-encode it
+                Toast.makeText(UpdateEvent.this, errorMessage, Toast.LENGTH_LONG).show();
+                saveChangesButton.setEnabled(true);
+                saveChangesButton.setText("Save Changes");
+            }
+        });
     }
 
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        if (requestQueue != null) {
-            requestQueue.cancelAll(TAG);
+        if (upload != null) {
+            upload.cancel();
+        }
+        if (selectedImage != null) {
+            selectedImage.delete();
         }
+        ImageIngestor.releasePooledMemory();
     }
     @Override
     public void onBackPressed() {
@@ -0,0 +1,71 @@
+package com.example.samajconnectfrontend.adapters;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.DiffUtil;
+
+import com.example.samajconnectfrontend.data.ImageRef;
+import com.example.samajconnectfrontend.models.Event;
+import com.example.samajconnectfrontend.models.Member;
+import com.example.samajconnectfrontend.utils.AppExecutors;
+
+import java.util.Objects;
+
+/**
+ * Item identity and content checks for the list adapters, so a new list only rebinds the rows
+ * that actually changed. Contents compare what the rows display, including the image payload.
+ */
+public final class DiffCallbacks {
+
+    public static final DiffUtil.ItemCallback<Event> EVENTS = new DiffUtil.ItemCallback<Event>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Event oldItem, @NonNull Event newItem) {
+            return oldItem.getIdAsLong() == newItem.getIdAsLong();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Event oldItem, @NonNull Event newItem) {
+            return Objects.equals(oldItem.getUpdatedAt(), newItem.getUpdatedAt())
+                    && Objects.equals(oldItem.getEventTitle(), newItem.getEventTitle())
+                    && Objects.equals(oldItem.getEventDescription(), newItem.getEventDescription())
+                    && Objects.equals(oldItem.getEventDate(), newItem.getEventDate())
+                    && Objects.equals(oldItem.getEventTime(), newItem.getEventTime())
+                    && Objects.equals(oldItem.getLocation(), newItem.getLocation())
+                    && Objects.equals(oldItem.getImageUrl(), newItem.getImageUrl())
+                    && ImageRef.sameContent(oldItem.getThumbnail(), newItem.getThumbnail())
+                    && ImageRef.sameContent(oldItem.getImage(), newItem.getImage());
+        }
+    };
+
+    public static final DiffUtil.ItemCallback<Member> MEMBERS = new DiffUtil.ItemCallback<Member>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Member oldItem, @NonNull Member newItem) {
+            return oldItem.getId() == newItem.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Member oldItem, @NonNull Member newItem) {
+            return oldItem.isAdmin() == newItem.isAdmin()
+                    && Objects.equals(oldItem.getUpdatedAt(), newItem.getUpdatedAt())
+                    && Objects.equals(oldItem.getName(), newItem.getName())
+                    && Objects.equals(oldItem.getEmail(), newItem.getEmail())
+                    && Objects.equals(oldItem.getPhoneNumber(), newItem.getPhoneNumber())
+                    && Objects.equals(oldItem.getGender(), newItem.getGender())
+                    && Objects.equals(oldItem.getAddress(), newItem.getAddress())
+                    && Objects.equals(oldItem.getCreatedAt(), newItem.getCreatedAt())
+                    && ImageRef.sameContent(oldItem.getProfileImage(), newItem.getProfileImage());
+        }
+    };
+
+    private DiffCallbacks() {
+    }
+
+    /**
+     * Diffs run on the shared background pool; results are dispatched on the main thread
+     */
+    public static <T> AsyncDifferConfig<T> backgroundConfig(DiffUtil.ItemCallback<T> callback) {
+        return new AsyncDifferConfig.Builder<>(callback)
+                .setBackgroundThreadExecutor(AppExecutors.background())
+                .build();
+    }
+}
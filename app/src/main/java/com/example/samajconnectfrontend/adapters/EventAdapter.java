@@ -2,14 +2,11 @@ package com.example.samajconnectfrontend.adapters;
 
 import com.example.samajconnectfrontend.R;
 
-import android.annotation.SuppressLint;
 import android.content.Context;
 import android.content.SharedPreferences;
 import android.content.res.ColorStateList;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.text.TextUtils;
-import android.util.Base64;
 import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -22,48 +19,57 @@ import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.core.content.ContextCompat;
 import androidx.core.widget.ImageViewCompat;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.android.volley.Request;
-import com.android.volley.RequestQueue;
-import com.android.volley.toolbox.JsonObjectRequest;
-import com.android.volley.toolbox.Volley;
+import com.example.samajconnectfrontend.network.EventImages;
+import com.example.samajconnectfrontend.network.ReactionStatsLoader;
+import com.example.samajconnectfrontend.network.ReactionWriteQueue;
 import com.bumptech.glide.Glide;
 import com.bumptech.glide.load.resource.bitmap.RoundedCorners;
 import com.bumptech.glide.request.RequestOptions;
 import com.example.samajconnectfrontend.models.Event;
 import com.example.samajconnectfrontend.models.EventReaction;
-import com.example.samajconnectfrontend.models.ReactionRequest;
 import com.example.samajconnectfrontend.models.ReactionStats;
 import com.example.samajconnectfrontend.models.ReactionType;
-import com.example.samajconnectfrontend.models.UserIdRequest;
 import com.example.samajconnectfrontend.dialogs.EventDetailsDialog;
 import com.example.samajconnectfrontend.dialogs.FullScreenImageDialog;
+import com.example.samajconnectfrontend.images.ImageLoader;
 import com.google.android.material.button.MaterialButton;
-import com.google.gson.Gson;
-
-import org.json.JSONException;
-import org.json.JSONObject;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 
-public class EventAdapter extends RecyclerView.Adapter<EventAdapter.EventViewHolder> {
+public class EventAdapter extends ListAdapter<Event, EventAdapter.EventViewHolder> {
 
     private static final String TAG = "EventAdapter";
-    private static final String REACTION_BASE_URL = "http://10.0.2.2:8080/api/events/";
+    // Shown instead of a count when reaction stats could not be loaded
+    private static final String UNKNOWN_COUNT = "–";
+
+    // Partial rebind: only the admin controls changed, keep the image and reaction stats
+    private static final Object PAYLOAD_ADMIN = new Object();
 
     private Context context;
-    private List<Event> eventList;
     private boolean isAdmin;
     private OnEventActionListener listener;
-    private RequestQueue requestQueue;
+    private ReactionStatsLoader reactionStatsLoader;
+    private ReactionWriteQueue reactionWriteQueue;
+
+    // A reaction the server rejected: rebind the event so it shows the server's state again
+    private final ReactionWriteQueue.Listener rollbackListener = eventId -> {
+        List<Event> events = getCurrentList();
+        for (int i = 0; i < events.size(); i++) {
+            if (events.get(i).getIdAsLong() == eventId) {
+                notifyItemChanged(i);
+                Toast.makeText(context, "Failed to update reaction", Toast.LENGTH_SHORT).show();
+                return;
+            }
+        }
+    };
     private SharedPreferences sharedPrefs;
     private long currentUserId;
 
@@ -78,13 +84,18 @@ public class EventAdapter extends RecyclerView.Adapter<EventAdapter.EventViewHol
     }
 
     public EventAdapter(Context context, List<Event> eventList, boolean isAdmin, OnEventActionListener listener) {
+        super(DiffCallbacks.backgroundConfig(DiffCallbacks.EVENTS));
         this.context = context;
-        this.eventList = eventList;
         this.isAdmin = isAdmin;
         this.listener = listener;
-        this.requestQueue = Volley.newRequestQueue(context);
+        this.reactionStatsLoader = ReactionStatsLoader.getInstance(context);
+        this.reactionWriteQueue = ReactionWriteQueue.getInstance(context);
         this.sharedPrefs = context.getSharedPreferences("SamajConnect", Context.MODE_PRIVATE);
         this.currentUserId = sharedPrefs.getLong("user_id", -1L);
+        setHasStableIds(true);
+        if (eventList != null) {
+            submitList(new ArrayList<>(eventList));
+        }
     }
 
     @NonNull
@@ -96,15 +107,40 @@ public class EventAdapter extends RecyclerView.Adapter<EventAdapter.EventViewHol
 
     @Override
     public void onBindViewHolder(@NonNull EventViewHolder holder, int position) {
-        Event event = eventList.get(position);
+        Event event = getItem(position);
         holder.bind(event);
     }
 
     @Override
-    public int getItemCount() {
-        int count = eventList != null ? eventList.size() : 0;
-        Log.d(TAG, "getItemCount() returning: " + count);
-        return count;
+    public void onBindViewHolder(@NonNull EventViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.contains(PAYLOAD_ADMIN)) {
+            holder.bindAdminState(getItem(position));
+        } else {
+            super.onBindViewHolder(holder, position, payloads);
+        }
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return getItem(position).getIdAsLong();
+    }
+
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onAttachedToRecyclerView(recyclerView);
+        reactionWriteQueue.addListener(rollbackListener);
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onDetachedFromRecyclerView(recyclerView);
+        reactionWriteQueue.removeListener(rollbackListener);
+    }
+
+    @Override
+    public void onViewRecycled(@NonNull EventViewHolder holder) {
+        super.onViewRecycled(holder);
+        ImageLoader.cancel(holder.eventImageView);
     }
 
     public class EventViewHolder extends RecyclerView.ViewHolder {
@@ -135,7 +171,7 @@ public class EventAdapter extends RecyclerView.Adapter<EventAdapter.EventViewHol
 
         // Current reaction state
         private ReactionStats currentStats;
-        private boolean isLoadingReaction = false;
+        private long boundEventId = -1L;
 
         public EventViewHolder(@NonNull View itemView) {
             super(itemView);
@@ -201,27 +237,39 @@ public class EventAdapter extends RecyclerView.Adapter<EventAdapter.EventViewHol
             // Load event image - prioritize Base64 over URL
             loadEventImage(finalEvent);
 
-            // Show/hide admin buttons based on admin status
-            if (isAdmin) {
-                adminButtonsLayout.setVisibility(View.VISIBLE);
-                setupAdminButtonClickListeners(finalEvent);
-            } else {
-                adminButtonsLayout.setVisibility(View.GONE);
-            }
-
             // Setup click listeners for dialogs
             setupClickListeners(finalEvent);
 
             // Setup reaction functionality
             setupReactionListeners(finalEvent);
+            currentStats = null;
             loadReactionStats(finalEvent);
 
+            bindAdminState(finalEvent);
+        }
+
+        /**
+         * Everything that depends on isAdmin; rebinding it leaves the image and stats alone
+         */
+        void bindAdminState(Event event) {
+            // Show/hide admin buttons based on admin status
+            if (isAdmin) {
+                adminButtonsLayout.setVisibility(View.VISIBLE);
+                setupAdminButtonClickListeners(event);
+            } else {
+                adminButtonsLayout.setVisibility(View.GONE);
+            }
+
             // Show/hide view reactions for admin only
             if (isAdmin) {
                 viewReactionsContainer.setVisibility(View.VISIBLE);
             } else {
                 viewReactionsContainer.setVisibility(View.GONE);
             }
+
+            if (currentStats != null) {
+                updateReactionUI();
+            }
         }
 
         // Enhanced setupClickListeners method in EventAdapter.java - EventViewHolder class
@@ -388,17 +436,9 @@ public class EventAdapter extends RecyclerView.Adapter<EventAdapter.EventViewHol
             // Create final reference for lambda expressions
             final Event finalEvent = event;
 
-            likeButtonContainer.setOnClickListener(v -> {
-                if (!isLoadingReaction) {
-                    handleReactionClick(finalEvent, ReactionType.LIKE);
-                }
-            });
+            likeButtonContainer.setOnClickListener(v -> handleReactionClick(finalEvent, ReactionType.LIKE));
 
-            dislikeButtonContainer.setOnClickListener(v -> {
-                if (!isLoadingReaction) {
-                    handleReactionClick(finalEvent, ReactionType.DISLIKE);
-                }
-            });
+            dislikeButtonContainer.setOnClickListener(v -> handleReactionClick(finalEvent, ReactionType.DISLIKE));
 
             viewReactionsContainer.setOnClickListener(v -> {
                 if (listener != null && currentStats != null) {
@@ -414,168 +454,55 @@ public class EventAdapter extends RecyclerView.Adapter<EventAdapter.EventViewHol
                 return;
             }
 
-            isLoadingReaction = true;
-            updateReactionButtonsLoadingState(true);
-
-            // Check if user is toggling the same reaction (remove) or changing reaction
-            boolean isTogglingSame;
-            if (currentStats != null && currentStats.hasUserReacted()) {
-                String currentUserReaction = currentStats.getUserReaction();
-                isTogglingSame = currentUserReaction != null &&
-                        currentUserReaction.equalsIgnoreCase(reactionType.name());
-            } else {
-                isTogglingSame = false;
-            }
-
-            String url = REACTION_BASE_URL + event.getIdAsLong() + "/reactions";
+            ReactionStats shownStats = currentStats != null ? currentStats : new ReactionStats(0, 0);
+            String shownReaction = shownStats.getUserReaction();
 
-            ReactionRequest reactionRequest = new ReactionRequest(currentUserId, reactionType.name());
-            Gson gson = new Gson();
-            String requestBody = gson.toJson(reactionRequest);
+            // Tapping the reaction the user already has removes it
+            String desiredReaction = reactionType.name().equalsIgnoreCase(shownReaction) ? null : reactionType.name();
 
-            try {
-                JSONObject jsonBody = new JSONObject(requestBody);
-
-                JsonObjectRequest request = new JsonObjectRequest(
-                        Request.Method.POST,
-                        url,
-                        jsonBody,
-                        response -> {
-                            Log.d(TAG, "Reaction response: " + response.toString());
-                            isLoadingReaction = false;
-                            updateReactionButtonsLoadingState(false);
-
-                            // Reload reaction stats after successful reaction
-                            loadReactionStats(event);
-
-                            String message = isTogglingSame ? "Reaction removed" : "Reaction added";
-                            Toast.makeText(context, message, Toast.LENGTH_SHORT).show();
-                        },
-                        error -> {
-                            Log.e(TAG, "Error adding/removing reaction", error);
-                            isLoadingReaction = false;
-                            updateReactionButtonsLoadingState(false);
-
-                            String errorMessage = "Failed to update reaction";
-                            if (error.networkResponse != null) {
-                                int statusCode = error.networkResponse.statusCode;
-                                if (statusCode == 401) {
-                                    errorMessage = "Please login again";
-                                } else if (statusCode == 404) {
-                                    errorMessage = "Event not found";
-                                }
-                            }
-                            Toast.makeText(context, errorMessage, Toast.LENGTH_SHORT).show();
-                        }
-                ) {
-                    @Override
-                    public Map<String, String> getHeaders() {
-                        Map<String, String> headers = new HashMap<>();
-                        headers.put("Content-Type", "application/json");
-
-                        String authToken = sharedPrefs.getString("auth_token", "");
-                        if (!authToken.isEmpty()) {
-                            headers.put("Authorization", "Bearer " + authToken);
-                        }
-
-                        return headers;
-                    }
-                };
-
-                requestQueue.add(request);
-
-            } catch (Exception e) {
-                Log.e(TAG, "Error creating reaction request", e);
-                isLoadingReaction = false;
-                updateReactionButtonsLoadingState(false);
-                Toast.makeText(context, "Error updating reaction", Toast.LENGTH_SHORT).show();
-            }
+            // Show it right away; the queue sends the settled choice and rolls back on failure
+            currentStats = shownStats.withUserReaction(currentUserId, event.getIdAsLong(), desiredReaction);
+            updateReactionUI();
+            reactionWriteQueue.submit(event.getIdAsLong(), currentUserId, shownReaction, desiredReaction);
         }
 
-        // Alternative approach if reaction stats should be public
         private void loadReactionStats(Event event) {
-            Log.d(TAG, "Loading public reaction stats for event: " + event.getIdAsLong());
-
-            String url = REACTION_BASE_URL + event.getIdAsLong() + "/reactions/stats";
+            long eventId = event.getIdAsLong();
+            boundEventId = eventId;
 
-            JSONObject jsonBody = null;
-
-            // Include userId in request body only if available
-            if (currentUserId != -1L) {
-                UserIdRequest userIdRequest = new UserIdRequest(currentUserId);
-                Gson gson = new Gson();
-                String json = gson.toJson(userIdRequest);
-                try {
-                    jsonBody = new JSONObject(json);
-                } catch (JSONException e) {
-                    e.printStackTrace();
+            // Batched with the other bound holders; userId is left out when not logged in
+            reactionStatsLoader.load(eventId, currentUserId != -1L ? currentUserId : null, new ReactionStatsLoader.Callback() {
+                @Override
+                public void onLoaded(long loadedId, ReactionStats stats) {
+                    showStats(loadedId, stats);
                 }
-            }
 
-            Log.d(TAG, "Making request to URL: " + url);
-
-            JsonObjectRequest request = new JsonObjectRequest(
-                    Request.Method.POST,
-                    url,
-                    jsonBody, // This can be null if no userId
-                    response -> {
-                        Log.d(TAG, "✅ Reaction stats response: " + response.toString());
-                        handleReactionStatsResponse(response);
-                    },
-                    error -> {
-                        Log.e(TAG, "❌ Error loading reaction stats", error);
-                        currentStats = new ReactionStats(0, 0);
-                        updateReactionUI();
-                    }
-            ) {
                 @Override
-                public Map<String, String> getHeaders() {
-                    Map<String, String> headers = new HashMap<>();
-                    headers.put("Content-Type", "application/json");
-                    headers.put("Accept", "application/json");
-
-                    String token = sharedPrefs.getString("auth_token", "");
-                    if (!token.isEmpty()) {
-                        headers.put("Authorization", "Bearer " + token);
-                        Log.d(TAG, "📤 Added optional auth header");
-                    } else {
-                        Log.d(TAG, "📤 Making request without auth");
-                    }
-
-                    return headers;
+                public void onFailed(long loadedId) {
+                    showStatsUnavailable(loadedId);
                 }
-            };
-
-            requestQueue.add(request);
+            });
         }
 
+        void showStats(long loadedId, ReactionStats stats) {
+            // The holder may have been rebound to another event meanwhile
+            if (loadedId != boundEventId) return;
+            // Taps not yet confirmed by the server stay visible
+            currentStats = reactionWriteQueue.overlay(loadedId, stats);
+            updateReactionUI();
+        }
 
-
-        private void handleReactionStatsResponse(JSONObject response) {
-            try {
-                boolean success = response.optBoolean("success", false);
-                if (success && response.has("data")) {
-                    JSONObject data = response.getJSONObject("data");
-
-                    Gson gson = new Gson();
-                    currentStats = gson.fromJson(data.toString(), ReactionStats.class);
-
-                    if (currentStats == null) {
-                        currentStats = new ReactionStats(0, 0);
-                    }
-
-                    Log.d(TAG, "Parsed reaction stats: " + currentStats.toString());
-                } else {
-                    currentStats = new ReactionStats(0, 0);
-                }
-
-                updateReactionUI();
-
-            } catch (Exception e) {
-                Log.e(TAG, "Error parsing reaction stats", e);
-                currentStats = new ReactionStats(0, 0);
-                updateReactionUI();
-            }
+        /**
+         * Stats could not be loaded. Counts already on screen are kept; with none yet they are
+         * shown as unknown rather than as 0, and a tap still waiting to be sent stays highlighted.
+         */
+        void showStatsUnavailable(long loadedId) {
+            if (loadedId != boundEventId || currentStats != null) return;
+            likeCountText.setText(UNKNOWN_COUNT);
+            dislikeCountText.setText(UNKNOWN_COUNT);
+            reactionProgressContainer.setVisibility(View.GONE);
+            reactionSummaryText.setVisibility(View.GONE);
+            updateReactionButtonStates(reactionWriteQueue.overlay(loadedId, new ReactionStats(0, 0)));
         }
 
         private void updateReactionUI() {
@@ -591,7 +518,7 @@ public class EventAdapter extends RecyclerView.Adapter<EventAdapter.EventViewHol
             dislikeCountText.setText(String.valueOf(currentStats.getDislikeCount()));
 
             // Update button states based on user's reaction
-            updateReactionButtonStates();
+            updateReactionButtonStates(currentStats);
 
             // Update progress bars and summary (only show if admin or has reactions)
             if (isAdmin || currentStats.getTotalReactions() > 0) {
@@ -608,7 +535,7 @@ public class EventAdapter extends RecyclerView.Adapter<EventAdapter.EventViewHol
                 viewReactionsText.setText(reactionsText);
             }
         }
-        private void updateReactionButtonStates() {
+        private void updateReactionButtonStates(ReactionStats stats) {
             // Reset to default state first
             likeIcon.setImageResource(R.drawable.ic_thumb_up_outline);
             dislikeIcon.setImageResource(R.drawable.ic_thumb_down_outline);
@@ -618,14 +545,14 @@ public class EventAdapter extends RecyclerView.Adapter<EventAdapter.EventViewHol
             ImageViewCompat.setImageTintList(dislikeIcon, null);
 
             // Update based on user's current reaction
-            if (currentStats != null && currentStats.hasUserReacted()) {
-                if (currentStats.hasUserLiked()) {
+            if (stats != null && stats.hasUserReacted()) {
+                if (stats.hasUserLiked()) {
                     // User has liked - show filled like icon
                     likeIcon.setImageResource(R.drawable.ic_thumb_up_filled);
                     // Optionally set a different color for active state
                     ImageViewCompat.setImageTintList(likeIcon,
                             ColorStateList.valueOf(ContextCompat.getColor(context, R.color.like_active_color)));
-                } else if (currentStats.hasUserDisliked()) {
+                } else if (stats.hasUserDisliked()) {
                     // User has disliked - show filled dislike icon
                     dislikeIcon.setImageResource(R.drawable.ic_thumb_down_filled);
                     // Optionally set a different color for active state
@@ -665,41 +592,25 @@ public class EventAdapter extends RecyclerView.Adapter<EventAdapter.EventViewHol
                 reactionSummaryText.setVisibility(View.GONE);
             }
         }
-        private void updateReactionButtonsLoadingState(boolean isLoading) {
-            likeButtonContainer.setEnabled(!isLoading);
-            dislikeButtonContainer.setEnabled(!isLoading);
-
-            if (isLoading) {
-                likeButtonContainer.setAlpha(0.6f);
-                dislikeButtonContainer.setAlpha(0.6f);
-            } else {
-                likeButtonContainer.setAlpha(1.0f);
-                dislikeButtonContainer.setAlpha(1.0f);
-            }
-        }
 
         private void loadEventImage(Event event) {
-            // First try to load from Base64 (from API)
-            String base64Image = event.getImageBase64();
-            Log.d(TAG, "Base64 image length: " + (base64Image != null ? base64Image.length() : "null"));
+            // Lists only ever get the thumbnail; the full image is for the dialogs
+            Glide.with(context).clear(eventImageView);
+            EventImages.loadThumbnail(event, eventImageView, R.drawable.logo_banner, new ImageLoader.Callback() {
+                @Override
+                public void onLoaded(Bitmap bitmap) {
+                    Log.d(TAG, "Successfully loaded Base64 image");
+                }
 
-            if (base64Image != null && !base64Image.isEmpty()) {
-                try {
-                    byte[] decodedString = Base64.decode(base64Image, Base64.DEFAULT);
-                    Bitmap decodedBitmap = BitmapFactory.decodeByteArray(decodedString, 0, decodedString.length);
-                    if (decodedBitmap != null) {
-                        eventImageView.setImageBitmap(decodedBitmap);
-                        Log.d(TAG, "Successfully loaded Base64 image");
-                        return;
-                    } else {
-                        Log.e(TAG, "Decoded bitmap is null");
-                    }
-                } catch (IllegalArgumentException e) {
-                    Log.e(TAG, "Failed to decode base64 image", e);
+                @Override
+                public void onFailed() {
+                    // Fallback to URL if Base64 fails or is not available
+                    loadEventImageFromUrl(event);
                 }
-            }
+            });
+        }
 
-            // Fallback to URL if Base64 fails or is not available
+        private void loadEventImageFromUrl(Event event) {
             String imageUrl = event.getImageUrl();
             if (!TextUtils.isEmpty(imageUrl)) {
                 Log.d(TAG, "Loading image from URL: " + imageUrl);
@@ -744,50 +655,39 @@ public class EventAdapter extends RecyclerView.Adapter<EventAdapter.EventViewHol
             });
         }
     }
-    // FIXED: Method to update the dataset
-    @SuppressLint("NotifyDataSetChanged")
+    /**
+     * Show a new list; the diff runs in the background and only changed rows are rebound
+     */
     public void updateEvents(List<Event> newEventList) {
         Log.d(TAG, "Updating events list. New size: " + (newEventList != null ? newEventList.size() : 0));
-
-        // Create a new ArrayList to avoid reference issues
-        if (newEventList != null) {
-            this.eventList = new ArrayList<>(newEventList);
-            Log.d(TAG, "EventList updated, new size: " + this.eventList.size());
-        } else {
-            this.eventList = new ArrayList<>();
-            Log.d(TAG, "EventList set to empty list");
-        }
-
-        notifyDataSetChanged();
-        Log.d(TAG, "notifyDataSetChanged() called");
+        submitList(newEventList != null ? new ArrayList<>(newEventList) : new ArrayList<>());
     }
 
     // Method to add a single event
     public void addEvent(Event event) {
-        if (this.eventList == null) {
-            this.eventList = new ArrayList<>();
-        }
-
         if (event != null) {
-            this.eventList.add(0, event); // Add to top
-            notifyItemInserted(0);
+            List<Event> events = new ArrayList<>(getCurrentList());
+            events.add(0, event); // Add to top
+            submitList(events);
             Log.d(TAG, "Added event: " + event.getEventTitle());
         }
     }
 
     // Method to remove an event
     public void removeEvent(int position) {
-        if (eventList != null && position >= 0 && position < eventList.size()) {
-            Event removedEvent = eventList.remove(position);
-            notifyItemRemoved(position);
+        List<Event> events = new ArrayList<>(getCurrentList());
+        if (position >= 0 && position < events.size()) {
+            Event removedEvent = events.remove(position);
+            submitList(events);
             Log.d(TAG, "Removed event: " + (removedEvent != null ? removedEvent.getEventTitle() : "unknown"));
         }
     }
 
     // Method to update admin status
     public void setAdminStatus(boolean isAdmin) {
+        if (this.isAdmin == isAdmin) return;
         this.isAdmin = isAdmin;
-        notifyDataSetChanged();
+        notifyItemRangeChanged(0, getItemCount(), PAYLOAD_ADMIN);
         Log.d(TAG, "Admin status updated: " + isAdmin);
     }
-}
\ No newline at end of file
+}
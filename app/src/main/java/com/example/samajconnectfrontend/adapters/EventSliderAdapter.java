@@ -1,13 +1,10 @@
 package com.example.samajconnectfrontend.adapters;
 
-import android.annotation.SuppressLint;
 import android.content.Context;
 import android.content.SharedPreferences;
 import android.content.res.ColorStateList;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.text.TextUtils;
-import android.util.Base64;
 import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -20,47 +17,53 @@ import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.core.content.ContextCompat;
 import androidx.core.widget.ImageViewCompat;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.android.volley.Request;
-import com.android.volley.RequestQueue;
-import com.android.volley.toolbox.JsonObjectRequest;
-import com.android.volley.toolbox.Volley;
+import com.example.samajconnectfrontend.network.EventImages;
+import com.example.samajconnectfrontend.network.ReactionStatsLoader;
+import com.example.samajconnectfrontend.network.ReactionWriteQueue;
 import com.bumptech.glide.Glide;
 import com.bumptech.glide.load.resource.bitmap.RoundedCorners;
 import com.bumptech.glide.request.RequestOptions;
 import com.example.samajconnectfrontend.R;
 import com.example.samajconnectfrontend.models.Event;
-import com.example.samajconnectfrontend.models.ReactionRequest;
 import com.example.samajconnectfrontend.models.ReactionStats;
 import com.example.samajconnectfrontend.models.ReactionType;
-import com.example.samajconnectfrontend.models.UserIdRequest;
 import com.example.samajconnectfrontend.dialogs.EventDetailsDialog;
 import com.example.samajconnectfrontend.dialogs.FullScreenImageDialog;
+import com.example.samajconnectfrontend.images.ImageLoader;
 import com.example.samajconnectfrontend.utils.CalendarReminderHelper;
-import com.google.gson.Gson;
-
-import org.json.JSONException;
-import org.json.JSONObject;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 
-public class EventSliderAdapter extends RecyclerView.Adapter<EventSliderAdapter.EventViewHolder> {
+public class EventSliderAdapter extends ListAdapter<Event, EventSliderAdapter.EventViewHolder> {
 
     private static final String TAG = "EventSliderAdapter";
-    private static final String REACTION_BASE_URL = "http://10.0.2.2:8080/api/events/";
+    // Shown instead of a count when reaction stats could not be loaded
+    private static final String UNKNOWN_COUNT = "–";
 
     private Context context;
-    private List<Event> events;
     private OnEventActionListener onEventActionListener;
-    private RequestQueue requestQueue;
+    private ReactionStatsLoader reactionStatsLoader;
+    private ReactionWriteQueue reactionWriteQueue;
+
+    // A reaction the server rejected: rebind the event so it shows the server's state again
+    private final ReactionWriteQueue.Listener rollbackListener = eventId -> {
+        List<Event> events = getCurrentList();
+        for (int i = 0; i < events.size(); i++) {
+            if (events.get(i).getIdAsLong() == eventId) {
+                notifyItemChanged(i);
+                Toast.makeText(context, "Failed to update reaction", Toast.LENGTH_SHORT).show();
+                return;
+            }
+        }
+    };
     private SharedPreferences sharedPrefs;
     private long currentUserId;
 
@@ -84,11 +87,16 @@ public class EventSliderAdapter extends RecyclerView.Adapter<EventSliderAdapter.
     }
 
     public EventSliderAdapter(Context context, List<Event> events) {
+        super(DiffCallbacks.backgroundConfig(DiffCallbacks.EVENTS));
         this.context = context;
-        this.events = events != null ? events : new ArrayList<>();
-        this.requestQueue = Volley.newRequestQueue(context);
+        this.reactionStatsLoader = ReactionStatsLoader.getInstance(context);
+        this.reactionWriteQueue = ReactionWriteQueue.getInstance(context);
         this.sharedPrefs = context.getSharedPreferences("SamajConnect", Context.MODE_PRIVATE);
         this.currentUserId = sharedPrefs.getLong("user_id", -1L);
+        setHasStableIds(true);
+        if (events != null) {
+            submitList(new ArrayList<>(events));
+        }
     }
 
     public void setOnEventActionListener(OnEventActionListener listener) {
@@ -108,27 +116,45 @@ public class EventSliderAdapter extends RecyclerView.Adapter<EventSliderAdapter.
 
     @Override
     public void onBindViewHolder(@NonNull EventViewHolder holder, int position) {
-        Event event = events.get(position);
+        Event event = getItem(position);
         holder.bind(event);
 
         // Check if we need to load more items (when reaching near the end)
-        if (position >= events.size() - 2 && !isLoading && hasMorePages && loadMoreListener != null) {
+        if (position >= getItemCount() - 2 && !isLoading && hasMorePages && loadMoreListener != null) {
             isLoading = true;
             loadMoreListener.onLoadMore(currentPage + 1);
         }
     }
 
     @Override
-    public int getItemCount() {
-        return events != null ? events.size() : 0;
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onAttachedToRecyclerView(recyclerView);
+        reactionWriteQueue.addListener(rollbackListener);
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onDetachedFromRecyclerView(recyclerView);
+        reactionWriteQueue.removeListener(rollbackListener);
+    }
+
+    @Override
+    public void onViewRecycled(@NonNull EventViewHolder holder) {
+        super.onViewRecycled(holder);
+        ImageLoader.cancel(holder.eventImageView);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return getItem(position).getIdAsLong();
     }
 
     // Pagination methods
     public void addMoreEvents(List<Event> newEvents, boolean hasMore) {
         if (newEvents != null && !newEvents.isEmpty()) {
-            int startPosition = this.events.size();
-            this.events.addAll(newEvents);
-            notifyItemRangeInserted(startPosition, newEvents.size());
+            List<Event> events = new ArrayList<>(getCurrentList());
+            events.addAll(newEvents);
+            submitList(events);
             currentPage++;
         }
         this.hasMorePages = hasMore;
@@ -139,14 +165,14 @@ public class EventSliderAdapter extends RecyclerView.Adapter<EventSliderAdapter.
         this.currentPage = 0;
         this.hasMorePages = true;
         this.isLoading = false;
-        this.events.clear();
-        notifyDataSetChanged();
+        submitList(new ArrayList<>());
     }
 
-    @SuppressLint("NotifyDataSetChanged")
+    /**
+     * Show a new list; the diff runs in the background and only changed rows are rebound
+     */
     public void updateEvents(List<Event> newEvents) {
-        this.events = newEvents != null ? new ArrayList<>(newEvents) : new ArrayList<>();
-        notifyDataSetChanged();
+        submitList(newEvents != null ? new ArrayList<>(newEvents) : new ArrayList<>());
     }
 
     public class EventViewHolder extends RecyclerView.ViewHolder {
@@ -167,7 +193,7 @@ public class EventSliderAdapter extends RecyclerView.Adapter<EventSliderAdapter.
 
         // Current reaction state
         private ReactionStats currentStats;
-        private boolean isLoadingReaction = false;
+        private long boundEventId = -1L;
 
         public EventViewHolder(@NonNull View itemView) {
             super(itemView);
@@ -270,6 +296,7 @@ public class EventSliderAdapter extends RecyclerView.Adapter<EventSliderAdapter.
 
             // Setup reaction functionality
             setupReactionListeners(finalEvent);
+            currentStats = null;
             loadReactionStats(finalEvent);
 
             setupReminderListener(event);
@@ -328,17 +355,9 @@ public class EventSliderAdapter extends RecyclerView.Adapter<EventSliderAdapter.
             // Create final reference for lambda expressions
             final Event finalEvent = event;
 
-            likeButtonContainer.setOnClickListener(v -> {
-                if (!isLoadingReaction) {
-                    handleReactionClick(finalEvent, ReactionType.LIKE);
-                }
-            });
+            likeButtonContainer.setOnClickListener(v -> handleReactionClick(finalEvent, ReactionType.LIKE));
 
-            dislikeButtonContainer.setOnClickListener(v -> {
-                if (!isLoadingReaction) {
-                    handleReactionClick(finalEvent, ReactionType.DISLIKE);
-                }
-            });
+            dislikeButtonContainer.setOnClickListener(v -> handleReactionClick(finalEvent, ReactionType.DISLIKE));
         }
 
         private void handleReactionClick(Event event, ReactionType reactionType) {
@@ -348,160 +367,53 @@ public class EventSliderAdapter extends RecyclerView.Adapter<EventSliderAdapter.
                 return;
             }
 
-            isLoadingReaction = true;
-            updateReactionButtonsLoadingState(true);
-
-            // Check if user is toggling the same reaction
-            boolean isTogglingSame;
-            if (currentStats != null && currentStats.hasUserReacted()) {
-                String currentUserReaction = currentStats.getUserReaction();
-                isTogglingSame = currentUserReaction != null &&
-                        currentUserReaction.equalsIgnoreCase(reactionType.name());
-            } else {
-                isTogglingSame = false;
-            }
-
-            String url = REACTION_BASE_URL + event.getIdAsLong() + "/reactions";
+            ReactionStats shownStats = currentStats != null ? currentStats : new ReactionStats(0, 0);
+            String shownReaction = shownStats.getUserReaction();
 
-            ReactionRequest reactionRequest = new ReactionRequest(currentUserId, reactionType.name());
-            Gson gson = new Gson();
-            String requestBody = gson.toJson(reactionRequest);
+            // Tapping the reaction the user already has removes it
+            String desiredReaction = reactionType.name().equalsIgnoreCase(shownReaction) ? null : reactionType.name();
 
-            try {
-                JSONObject jsonBody = new JSONObject(requestBody);
-
-                JsonObjectRequest request = new JsonObjectRequest(
-                        Request.Method.POST,
-                        url,
-                        jsonBody,
-                        response -> {
-                            Log.d(TAG, "Reaction response: " + response.toString());
-                            isLoadingReaction = false;
-                            updateReactionButtonsLoadingState(false);
-
-                            // Reload reaction stats after successful reaction
-                            loadReactionStats(event);
-
-                            String message = isTogglingSame ? "Reaction removed" : "Reaction added";
-                            Toast.makeText(context, message, Toast.LENGTH_SHORT).show();
-                        },
-                        error -> {
-                            Log.e(TAG, "Error adding/removing reaction", error);
-                            isLoadingReaction = false;
-                            updateReactionButtonsLoadingState(false);
-
-                            String errorMessage = "Failed to update reaction";
-                            if (error.networkResponse != null) {
-                                int statusCode = error.networkResponse.statusCode;
-                                if (statusCode == 401) {
-                                    errorMessage = "Please login again";
-                                } else if (statusCode == 404) {
-                                    errorMessage = "Event not found";
-                                }
-                            }
-                            Toast.makeText(context, errorMessage, Toast.LENGTH_SHORT).show();
-                        }
-                ) {
-                    @Override
-                    public Map<String, String> getHeaders() {
-                        Map<String, String> headers = new HashMap<>();
-                        headers.put("Content-Type", "application/json");
-
-                        String authToken = sharedPrefs.getString("auth_token", "");
-                        if (!authToken.isEmpty()) {
-                            headers.put("Authorization", "Bearer " + authToken);
-                        }
-
-                        return headers;
-                    }
-                };
-
-                requestQueue.add(request);
-
-            } catch (Exception e) {
-                Log.e(TAG, "Error creating reaction request", e);
-                isLoadingReaction = false;
-                updateReactionButtonsLoadingState(false);
-                Toast.makeText(context, "Error updating reaction", Toast.LENGTH_SHORT).show();
-            }
+            // Show it right away; the queue sends the settled choice and rolls back on failure
+            currentStats = shownStats.withUserReaction(currentUserId, event.getIdAsLong(), desiredReaction);
+            updateReactionUI();
+            reactionWriteQueue.submit(event.getIdAsLong(), currentUserId, shownReaction, desiredReaction);
         }
 
         private void loadReactionStats(Event event) {
-            Log.d(TAG, "Loading reaction stats for event: " + event.getIdAsLong());
+            long eventId = event.getIdAsLong();
+            boundEventId = eventId;
 
-            String url = REACTION_BASE_URL + event.getIdAsLong() + "/reactions/stats";
-
-            JSONObject jsonBody = null;
-
-            // Include userId in request body only if available
-            if (currentUserId != -1L) {
-                UserIdRequest userIdRequest = new UserIdRequest(currentUserId);
-                Gson gson = new Gson();
-                String json = gson.toJson(userIdRequest);
-                try {
-                    jsonBody = new JSONObject(json);
-                } catch (JSONException e) {
-                    e.printStackTrace();
+            // Batched with the other bound holders; userId is left out when not logged in
+            reactionStatsLoader.load(eventId, currentUserId != -1L ? currentUserId : null, new ReactionStatsLoader.Callback() {
+                @Override
+                public void onLoaded(long loadedId, ReactionStats stats) {
+                    showStats(loadedId, stats);
                 }
-            }
 
-            JsonObjectRequest request = new JsonObjectRequest(
-                    Request.Method.POST,
-                    url,
-                    jsonBody,
-                    response -> {
-                        Log.d(TAG, "Reaction stats response: " + response.toString());
-                        handleReactionStatsResponse(response);
-                    },
-                    error -> {
-                        Log.e(TAG, "Error loading reaction stats", error);
-                        currentStats = new ReactionStats(0, 0);
-                        updateReactionUI();
-                    }
-            ) {
                 @Override
-                public Map<String, String> getHeaders() {
-                    Map<String, String> headers = new HashMap<>();
-                    headers.put("Content-Type", "application/json");
-                    headers.put("Accept", "application/json");
-
-                    String token = sharedPrefs.getString("auth_token", "");
-                    if (!token.isEmpty()) {
-                        headers.put("Authorization", "Bearer " + token);
-                    }
-
-                    return headers;
+                public void onFailed(long loadedId) {
+                    showStatsUnavailable(loadedId);
                 }
-            };
-
-            requestQueue.add(request);
+            });
         }
 
-        private void handleReactionStatsResponse(JSONObject response) {
-            try {
-                boolean success = response.optBoolean("success", false);
-                if (success && response.has("data")) {
-                    JSONObject data = response.getJSONObject("data");
-
-                    Gson gson = new Gson();
-                    currentStats = gson.fromJson(data.toString(), ReactionStats.class);
-
-                    if (currentStats == null) {
-                        currentStats = new ReactionStats(0, 0);
-                    }
-
-                    Log.d(TAG, "Parsed reaction stats: " + currentStats.toString());
-                } else {
-                    currentStats = new ReactionStats(0, 0);
-                }
-
-                updateReactionUI();
+        void showStats(long loadedId, ReactionStats stats) {
+            // The holder may have been rebound to another event meanwhile
+            if (loadedId != boundEventId) return;
+            // Taps not yet confirmed by the server stay visible
+            currentStats = reactionWriteQueue.overlay(loadedId, stats);
+            updateReactionUI();
+        }
 
-            } catch (Exception e) {
-                Log.e(TAG, "Error parsing reaction stats", e);
-                currentStats = new ReactionStats(0, 0);
-                updateReactionUI();
-            }
+        /**
+         * Stats could not be loaded. Counts already on screen are kept; with none yet they are
+         * shown as unknown rather than as 0, and a tap still waiting to be sent stays highlighted.
+         */
+        void showStatsUnavailable(long loadedId) {
+            if (loadedId != boundEventId || currentStats != null) return;
+            likeCountText.setText(UNKNOWN_COUNT);
+            dislikeCountText.setText(UNKNOWN_COUNT);
+            updateReactionButtonStates(reactionWriteQueue.overlay(loadedId, new ReactionStats(0, 0)));
         }
 
         private void updateReactionUI() {
@@ -517,10 +429,10 @@ public class EventSliderAdapter extends RecyclerView.Adapter<EventSliderAdapter.
             dislikeCountText.setText(String.valueOf(currentStats.getDislikeCount()));
 
             // Update button states based on user's reaction
-            updateReactionButtonStates();
+            updateReactionButtonStates(currentStats);
         }
 
-        private void updateReactionButtonStates() {
+        private void updateReactionButtonStates(ReactionStats stats) {
             // Reset to default state first
             likeIcon.setImageResource(R.drawable.ic_thumb_up_outline);
             dislikeIcon.setImageResource(R.drawable.ic_thumb_down_outline);
@@ -530,13 +442,13 @@ public class EventSliderAdapter extends RecyclerView.Adapter<EventSliderAdapter.
             ImageViewCompat.setImageTintList(dislikeIcon, null);
 
             // Update based on user's current reaction
-            if (currentStats != null && currentStats.hasUserReacted()) {
-                if (currentStats.hasUserLiked()) {
+            if (stats != null && stats.hasUserReacted()) {
+                if (stats.hasUserLiked()) {
                     // User has liked - show filled like icon
                     likeIcon.setImageResource(R.drawable.ic_thumb_up_filled);
                     ImageViewCompat.setImageTintList(likeIcon,
                             ColorStateList.valueOf(ContextCompat.getColor(context, R.color.like_active_color)));
-                } else if (currentStats.hasUserDisliked()) {
+                } else if (stats.hasUserDisliked()) {
                     // User has disliked - show filled dislike icon
                     dislikeIcon.setImageResource(R.drawable.ic_thumb_down_filled);
                     ImageViewCompat.setImageTintList(dislikeIcon,
@@ -545,41 +457,24 @@ public class EventSliderAdapter extends RecyclerView.Adapter<EventSliderAdapter.
             }
         }
 
-        private void updateReactionButtonsLoadingState(boolean isLoading) {
-            likeButtonContainer.setEnabled(!isLoading);
-            dislikeButtonContainer.setEnabled(!isLoading);
-
-            if (isLoading) {
-                likeButtonContainer.setAlpha(0.6f);
-                dislikeButtonContainer.setAlpha(0.6f);
-            } else {
-                likeButtonContainer.setAlpha(1.0f);
-                dislikeButtonContainer.setAlpha(1.0f);
-            }
-        }
-
         private void loadEventImage(Event event) {
-            // First try to load from Base64 (from API)
-            String base64Image = event.getImageBase64();
-            Log.d(TAG, "Base64 image length: " + (base64Image != null ? base64Image.length() : "null"));
-
-            if (base64Image != null && !base64Image.isEmpty()) {
-                try {
-                    byte[] decodedString = Base64.decode(base64Image, Base64.DEFAULT);
-                    Bitmap decodedBitmap = BitmapFactory.decodeByteArray(decodedString, 0, decodedString.length);
-                    if (decodedBitmap != null) {
-                        eventImageView.setImageBitmap(decodedBitmap);
-                        Log.d(TAG, "Successfully loaded Base64 image");
-                        return;
-                    } else {
-                        Log.e(TAG, "Decoded bitmap is null");
-                    }
-                } catch (IllegalArgumentException e) {
-                    Log.e(TAG, "Failed to decode base64 image", e);
+            // Lists only ever get the thumbnail; the full image is for the dialogs
+            Glide.with(context).clear(eventImageView);
+            EventImages.loadThumbnail(event, eventImageView, R.drawable.logo_banner, new ImageLoader.Callback() {
+                @Override
+                public void onLoaded(Bitmap bitmap) {
+                    Log.d(TAG, "Successfully loaded Base64 image");
                 }
-            }
 
-            // Fallback to URL if Base64 fails or is not available
+                @Override
+                public void onFailed() {
+                    // Fallback to URL if Base64 fails or is not available
+                    loadEventImageFromUrl(event);
+                }
+            });
+        }
+
+        private void loadEventImageFromUrl(Event event) {
             String imageUrl = event.getImageUrl();
             if (!TextUtils.isEmpty(imageUrl)) {
                 Log.d(TAG, "Loading image from URL: " + imageUrl);
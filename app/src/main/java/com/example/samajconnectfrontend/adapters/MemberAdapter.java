@@ -1,9 +1,6 @@
 package com.example.samajconnectfrontend.adapters;
 
 import android.content.Context;
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
-import android.util.Base64;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -12,27 +9,35 @@ import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.samajconnectfrontend.R;
+import com.example.samajconnectfrontend.data.ImageRef;
+import com.example.samajconnectfrontend.images.ImageLoader;
+import com.example.samajconnectfrontend.images.ImageOwner;
 import com.example.samajconnectfrontend.models.Member;
 
 import de.hdodenhof.circleimageview.CircleImageView;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 
-public class MemberAdapter extends RecyclerView.Adapter<MemberAdapter.MemberViewHolder> {
+public class MemberAdapter extends ListAdapter<Member, MemberAdapter.MemberViewHolder> {
 
     private Context context;
-    private List<Member> memberList;
 
     public MemberAdapter(Context context, List<Member> memberList) {
+        super(DiffCallbacks.backgroundConfig(DiffCallbacks.MEMBERS));
         this.context = context;
-        this.memberList = memberList;
+        setHasStableIds(true);
+        if (memberList != null) {
+            submitList(new ArrayList<>(memberList));
+        }
     }
 
     @NonNull
@@ -44,8 +49,13 @@ public class MemberAdapter extends RecyclerView.Adapter<MemberAdapter.MemberView
 
     @Override
     public void onBindViewHolder(@NonNull MemberViewHolder holder, int position) {
-        Member member = memberList.get(position);
+        bind(context, holder, getItem(position));
+    }
 
+    /**
+     * Shared with MemberPagingAdapter, which shows the same rows
+     */
+    static void bind(Context context, MemberViewHolder holder, Member member) {
         holder.tvMemberName.setText(member.getName());
         holder.tvEmail.setText(member.getEmail());
         holder.tvPhone.setText(member.getPhoneNumber());
@@ -64,7 +74,7 @@ public class MemberAdapter extends RecyclerView.Adapter<MemberAdapter.MemberView
         holder.tvJoinedDate.setText("Joined: " + formattedDate);
 
         // Load profile image
-        loadProfileImage(holder.ivProfileImage, member.getProfileImageBase64());
+        loadProfileImage(holder.ivProfileImage, member.getId(), member.getProfileImage());
 
         // Set click listeners
         holder.itemView.setOnClickListener(v -> {
@@ -75,26 +85,25 @@ public class MemberAdapter extends RecyclerView.Adapter<MemberAdapter.MemberView
     }
 
     @Override
-    public int getItemCount() {
-        return memberList.size();
+    public void onViewRecycled(@NonNull MemberViewHolder holder) {
+        super.onViewRecycled(holder);
+        ImageLoader.cancel(holder.ivProfileImage);
     }
 
-    private void loadProfileImage(CircleImageView imageView, String base64Image) {
-        if (base64Image != null && !base64Image.isEmpty()) {
-            try {
-                byte[] decodedString = Base64.decode(base64Image, Base64.DEFAULT);
-                Bitmap decodedByte = BitmapFactory.decodeByteArray(decodedString, 0, decodedString.length);
-                imageView.setImageBitmap(decodedByte);
-            } catch (Exception e) {
-                e.printStackTrace();
-                imageView.setImageResource(R.drawable.ic_person_placeholder);
-            }
-        } else {
-            imageView.setImageResource(R.drawable.ic_person_placeholder);
-        }
+    @Override
+    public long getItemId(int position) {
+        return getItem(position).getId();
+    }
+
+    private static void loadProfileImage(CircleImageView imageView, long memberId, ImageRef image) {
+        ImageLoader.load(ImageOwner.USER, memberId, image, imageView, R.drawable.ic_person_placeholder);
     }
 
-    private String formatDate(String dateString) {
+    private static String formatDate(String dateString) {
+        // Members found through the roster search carry no join date
+        if (dateString == null) {
+            return "N/A";
+        }
         try {
             SimpleDateFormat inputFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSSSS", Locale.getDefault());
             SimpleDateFormat outputFormat = new SimpleDateFormat("MMM dd, yyyy", Locale.getDefault());
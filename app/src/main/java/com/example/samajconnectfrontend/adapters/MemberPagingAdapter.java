@@ -0,0 +1,49 @@
+package com.example.samajconnectfrontend.adapters;
+
+import android.content.Context;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.paging.PagingDataAdapter;
+
+import com.example.samajconnectfrontend.R;
+import com.example.samajconnectfrontend.images.ImageLoader;
+import com.example.samajconnectfrontend.models.Member;
+
+/**
+ * MemberAdapter's rows for the continuous scroll mode of the member list, fed page by page
+ * by the Paging library
+ */
+public class MemberPagingAdapter extends PagingDataAdapter<Member, MemberAdapter.MemberViewHolder> {
+
+    private final Context context;
+
+    public MemberPagingAdapter(Context context) {
+        super(DiffCallbacks.MEMBERS);
+        this.context = context;
+    }
+
+    @NonNull
+    @Override
+    public MemberAdapter.MemberViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(context).inflate(R.layout.item_member, parent, false);
+        return new MemberAdapter.MemberViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull MemberAdapter.MemberViewHolder holder, int position) {
+        // Placeholders are off, so every position has a member
+        Member member = getItem(position);
+        if (member != null) {
+            MemberAdapter.bind(context, holder, member);
+        }
+    }
+
+    @Override
+    public void onViewRecycled(@NonNull MemberAdapter.MemberViewHolder holder) {
+        super.onViewRecycled(holder);
+        ImageLoader.cancel(holder.ivProfileImage);
+    }
+}
@@ -1,9 +1,6 @@
 package com.example.samajconnectfrontend.adapters;
 
 import android.content.Context;
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
-import android.util.Base64;
 import android.view.ViewGroup;
 import android.widget.ImageView;
 import android.widget.LinearLayout;
@@ -12,6 +9,8 @@ import android.widget.TextView;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.samajconnectfrontend.R;
+import com.example.samajconnectfrontend.images.ImageLoader;
+import com.example.samajconnectfrontend.images.ImageOwner;
 import com.example.samajconnectfrontend.models.DetailedUserDto;
 
 import java.util.List;
@@ -57,6 +56,12 @@ public class SearchResultsAdapter extends RecyclerView.Adapter<SearchResultsAdap
         holder.bind(member, context, clickListener);
     }
 
+    @Override
+    public void onViewRecycled(ViewHolder holder) {
+        super.onViewRecycled(holder);
+        ImageLoader.cancel(holder.profileImage);
+    }
+
     @Override
     public int getItemCount() {
         return members.size();
@@ -142,17 +147,8 @@ public class SearchResultsAdapter extends RecyclerView.Adapter<SearchResultsAdap
 
         public void bind(DetailedUserDto member, Context context, OnMemberClickListener clickListener) {
             // Set profile image
-            if (member.getProfileImageBase64() != null && !member.getProfileImageBase64().isEmpty()) {
-                try {
-                    byte[] decodedBytes = Base64.decode(member.getProfileImageBase64(), Base64.DEFAULT);
-                    Bitmap bitmap = BitmapFactory.decodeByteArray(decodedBytes, 0, decodedBytes.length);
-                    profileImage.setImageBitmap(bitmap);
-                } catch (Exception e) {
-                    profileImage.setImageResource(R.drawable.ic_person_placeholder);
-                }
-            } else {
-                profileImage.setImageResource(R.drawable.ic_person_placeholder);
-            }
+            ImageLoader.load(ImageOwner.USER, member.getId(), member.getProfileImage(), profileImage,
+                    R.drawable.ic_person_placeholder);
 
             // Set member details
             nameText.setText(member.getName());
@@ -0,0 +1,72 @@
+package com.example.samajconnectfrontend.data;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fully decoded family tree: root user plus members grouped by generation level
+ */
+public class FamilyTreeData implements FamilyTreeDecoder.Listener {
+    public boolean success;
+    public String message;
+    public TreeMemberRecord rootUser;
+    public final Map<Integer, List<TreeMemberRecord>> generations = new LinkedHashMap<>();
+
+    // Backing store for the members' ImageRefs, if they were spooled to disk
+    private final ImageSpool spool;
+
+    public FamilyTreeData() {
+        this(null);
+    }
+
+    public FamilyTreeData(ImageSpool spool) {
+        this.spool = spool;
+    }
+
+    @Override
+    public void onEnvelope(boolean success, String message) {
+        this.success = success;
+        this.message = message;
+    }
+
+    @Override
+    public void onRootUser(TreeMemberRecord root) {
+        this.rootUser = root;
+    }
+
+    @Override
+    public void onMember(int level, TreeMemberRecord member) {
+        List<TreeMemberRecord> members = generations.get(level);
+        if (members == null) {
+            members = new ArrayList<>();
+            generations.put(level, members);
+        }
+        members.add(member);
+    }
+
+    /**
+     * @return every non-root member in generation order
+     */
+    public List<TreeMemberRecord> allMembers() {
+        List<TreeMemberRecord> all = new ArrayList<>();
+        for (List<TreeMemberRecord> members : generations.values()) {
+            all.addAll(members);
+        }
+        return all;
+    }
+
+    /**
+     * Drop the spooled image payloads once this tree is no longer displayed
+     */
+    public void release() {
+        if (spool == null) return;
+        try {
+            spool.close();
+        } catch (IOException ignored) {
+            // Scratch file only
+        }
+    }
+}
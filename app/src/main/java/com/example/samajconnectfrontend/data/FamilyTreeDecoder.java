@@ -0,0 +1,239 @@
+package com.example.samajconnectfrontend.data;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming decoder for GET /family-tree/user/{id}.
+ * Walks {success, message, data: {rootUser, generations[].allMembers[]}} with a JsonReader,
+ * emitting each member as soon as it is read. No JSONObject tree is built and profile
+ * images go to the ImageSpool (when one is given) instead of staying on the heap.
+ * With a spool, each image is copied there by a SpoolingReader while it is still being
+ * read, so not even a single image has to fit in memory as a String.
+ */
+public class FamilyTreeDecoder {
+
+    public interface Listener {
+        void onEnvelope(boolean success, String message);
+        void onRootUser(TreeMemberRecord root);
+        void onMember(int level, TreeMemberRecord member);
+    }
+
+    private final ImageSpool spool;
+    // Set for the duration of decode() when there is a spool
+    private SpoolingReader spooling;
+
+    /**
+     * @param spool where to put image payloads, or null to keep them in memory
+     */
+    public FamilyTreeDecoder(ImageSpool spool) {
+        this.spool = spool;
+    }
+
+    public void decode(Reader source, Listener listener) throws IOException {
+        spooling = spool != null ? new SpoolingReader(source, spool) : null;
+        JsonReader reader = new JsonReader(spooling != null ? spooling : source);
+
+        boolean success = false;
+        String message = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "success":
+                    success = nextBoolean(reader);
+                    break;
+                case "message":
+                    message = nextString(reader);
+                    break;
+                case "data":
+                    if (reader.peek() == JsonToken.NULL) {
+                        reader.nextNull();
+                    } else {
+                        readData(reader, listener);
+                    }
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+
+        spooling = null;
+        listener.onEnvelope(success, message);
+    }
+
+    /**
+     * Convenience wrapper that collects everything into a FamilyTreeData
+     */
+    public FamilyTreeData decode(Reader source) throws IOException {
+        FamilyTreeData data = new FamilyTreeData(spool);
+        decode(source, data);
+        return data;
+    }
+
+    private void readData(JsonReader reader, Listener listener) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "rootUser":
+                    if (reader.peek() == JsonToken.NULL) {
+                        reader.nextNull();
+                    } else {
+                        TreeMemberRecord root = readMember(reader);
+                        root.generationLevel = 0;
+                        listener.onRootUser(root);
+                    }
+                    break;
+                case "generations":
+                    if (reader.peek() == JsonToken.NULL) {
+                        reader.nextNull();
+                        break;
+                    }
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        readGeneration(reader, listener);
+                    }
+                    reader.endArray();
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+    }
+
+    private void readGeneration(JsonReader reader, Listener listener) throws IOException {
+        Integer level = null;
+        // Only used if the server sends allMembers before level
+        List<TreeMemberRecord> pending = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "level":
+                    level = reader.nextInt();
+                    if (pending != null) {
+                        for (TreeMemberRecord member : pending) {
+                            listener.onMember(level, member);
+                        }
+                        pending = null;
+                    }
+                    break;
+                case "allMembers":
+                    if (reader.peek() == JsonToken.NULL) {
+                        reader.nextNull();
+                        break;
+                    }
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        TreeMemberRecord member = readMember(reader);
+                        if (level != null) {
+                            listener.onMember(level, member);
+                        } else {
+                            if (pending == null) pending = new ArrayList<>();
+                            pending.add(member);
+                        }
+                    }
+                    reader.endArray();
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+
+        if (pending != null) {
+            // No level at all: fall back to each member's own generationLevel
+            for (TreeMemberRecord member : pending) {
+                listener.onMember(member.generationLevel, member);
+            }
+        }
+    }
+
+    private TreeMemberRecord readMember(JsonReader reader) throws IOException {
+        TreeMemberRecord member = new TreeMemberRecord();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "userId":
+                    if (reader.peek() == JsonToken.NULL) {
+                        reader.nextNull();
+                    } else {
+                        member.userId = reader.nextLong();
+                    }
+                    break;
+                case "name":
+                    member.name = nextString(reader);
+                    break;
+                case "email":
+                    member.email = orEmpty(nextString(reader));
+                    break;
+                case "relationshipDisplayName":
+                    member.relationshipDisplayName = orEmpty(nextString(reader));
+                    break;
+                case "generationLevel":
+                    if (reader.peek() == JsonToken.NULL) {
+                        reader.nextNull();
+                    } else {
+                        member.generationLevel = reader.nextInt();
+                    }
+                    break;
+                case "generationName":
+                    member.generationName = orEmpty(nextString(reader));
+                    break;
+                case "relationshipSide":
+                    member.relationshipSide = orEmpty(nextString(reader));
+                    break;
+                case "profileImageBase64":
+                    member.profileImage = readImage(reader);
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        return member;
+    }
+
+    private ImageRef readImage(JsonReader reader) throws IOException {
+        String base64 = nextString(reader);
+        if (spooling != null && SpoolingReader.isToken(base64)) {
+            return spooling.take(base64);
+        }
+        if (base64 == null || base64.isEmpty()) {
+            return null;
+        }
+        // Only escaped field names get here with a spool; the String is dropped once written
+        return spool != null ? spool.write(base64) : ImageRef.ofBase64(base64);
+    }
+
+    private static String nextString(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        return reader.nextString();
+    }
+
+    private static boolean nextBoolean(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return false;
+        }
+        return reader.nextBoolean();
+    }
+
+    private static String orEmpty(String value) {
+        return value != null ? value : "";
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.samajconnectfrontend.data;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Process-local home for image payloads that arrive inside JSON models.
+ * Each distinct payload is held once, however many models refer to it, and can be handed
+ * to another screen as a small handle instead of being copied into an Intent extra.
+ * Entries are only weakly held: a payload lives as long as some model still refers to it,
+ * so resolve() returns null once every holder is gone, or after the process was restarted.
+ */
+public final class ImageBlobStore {
+
+    /**
+     * Never given out, so it can stand for "no image" in an Intent extra
+     */
+    public static final long NO_HANDLE = 0;
+
+    private static volatile ImageBlobStore instance;
+
+    // Handles from an earlier process must not resolve to whatever reuses their number
+    private final long epoch;
+    private int nextId = 1;
+    private final Map<Long, Entry> byHandle = new HashMap<>();
+    private final Map<Long, Entry> byContent = new HashMap<>();
+    private final ReferenceQueue<ImageRef> released = new ReferenceQueue<>();
+
+    public static ImageBlobStore getInstance() {
+        if (instance == null) {
+            synchronized (ImageBlobStore.class) {
+                if (instance == null) {
+                    instance = new ImageBlobStore(new SecureRandom().nextInt());
+                }
+            }
+        }
+        return instance;
+    }
+
+    ImageBlobStore(int epoch) {
+        this.epoch = (long) epoch << 32;
+    }
+
+    /**
+     * Store a Base64 payload, or find the copy already stored
+     * @return reference, or null for a null/empty payload
+     */
+    public ImageRef intern(String base64) {
+        if (base64 == null || base64.isEmpty()) {
+            return null;
+        }
+        return intern(base64.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    synchronized ImageRef intern(byte[] encoded) {
+        purge();
+        long hash = ImageRef.fnv1a(encoded, 0, encoded.length);
+        Entry existing = byContent.get(hash);
+        ImageRef stored = existing != null ? existing.get() : null;
+        if (stored instanceof Blob && Arrays.equals(((Blob) stored).encoded, encoded)) {
+            return stored;
+        }
+
+        Blob blob = new Blob(encoded, hash, nextHandle());
+        Entry entry = new Entry(blob, blob.handle, hash, released);
+        byHandle.put(blob.handle, entry);
+        byContent.put(hash, entry);
+        return blob;
+    }
+
+    /**
+     * @return a handle another screen in this process can resolve, or NO_HANDLE for null
+     */
+    public synchronized long handleOf(ImageRef image) {
+        if (image == null) {
+            return NO_HANDLE;
+        }
+        if (image instanceof Blob) {
+            return ((Blob) image).handle;
+        }
+        // Spooled and other references can be shared too, they just aren't deduplicated
+        purge();
+        long handle = nextHandle();
+        byHandle.put(handle, new Entry(image, handle, 0, released));
+        return handle;
+    }
+
+    /**
+     * @return the image, or null if the handle is unknown or nothing holds its payload any more
+     */
+    public synchronized ImageRef resolve(long handle) {
+        purge();
+        Entry entry = byHandle.get(handle);
+        return entry != null ? entry.get() : null;
+    }
+
+    synchronized int size() {
+        purge();
+        return byHandle.size();
+    }
+
+    private long nextHandle() {
+        return epoch | (nextId++ & 0xffffffffL);
+    }
+
+    private void purge() {
+        Entry entry;
+        while ((entry = (Entry) released.poll()) != null) {
+            byHandle.remove(entry.handle);
+            if (byContent.get(entry.hash) == entry) {
+                byContent.remove(entry.hash);
+            }
+        }
+    }
+
+    private static final class Entry extends WeakReference<ImageRef> {
+        final long handle;
+        final long hash;
+
+        Entry(ImageRef image, long handle, long hash, ReferenceQueue<ImageRef> queue) {
+            super(image, queue);
+            this.handle = handle;
+            this.hash = hash;
+        }
+    }
+
+    private static final class Blob extends ImageRef {
+        private final byte[] encoded;
+        private final long hash;
+        private final long handle;
+
+        Blob(byte[] encoded, long hash, long handle) {
+            this.encoded = encoded;
+            this.hash = hash;
+            this.handle = handle;
+        }
+
+        @Override
+        public byte[] readEncoded() {
+            return encoded;
+        }
+
+        @Override
+        public int length() {
+            return encoded.length;
+        }
+
+        @Override
+        public long contentHash() {
+            return hash;
+        }
+    }
+
+    /**
+     * For model fields that arrive as Base64 Strings:
+     * {@code @JsonAdapter(ImageBlobStore.Base64Adapter.class) private ImageRef image;}
+     * Writing turns the payload back into the same String, so stored JSON is unchanged.
+     */
+    public static final class Base64Adapter extends TypeAdapter<ImageRef> {
+
+        @Override
+        public void write(JsonWriter out, ImageRef image) throws IOException {
+            if (image == null) {
+                out.nullValue();
+                return;
+            }
+            out.value(new String(image.readEncoded(), StandardCharsets.US_ASCII));
+        }
+
+        @Override
+        public ImageRef read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            return getInstance().intern(in.nextString());
+        }
+    }
+}
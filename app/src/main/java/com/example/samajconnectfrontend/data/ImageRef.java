@@ -0,0 +1,87 @@
+package com.example.samajconnectfrontend.data;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Lazy reference to a Base64 image payload.
+ * Decoders hand these out instead of keeping every image as a String on the heap;
+ * the bytes are only read back when something actually needs to show the image.
+ */
+public abstract class ImageRef {
+
+    /**
+     * @return the ASCII Base64 payload, ready for android.util.Base64.decode(byte[], int)
+     */
+    public abstract byte[] readEncoded() throws IOException;
+
+    /**
+     * @return length of the encoded payload in bytes
+     */
+    public abstract int length();
+
+    /**
+     * Stable identity for the payload, usable as a cache key component
+     */
+    public abstract long contentHash();
+
+    /**
+     * Wrap an already materialized Base64 String
+     * @return reference, or null for a null/empty payload
+     */
+    public static ImageRef ofBase64(String base64) {
+        if (base64 == null || base64.isEmpty()) {
+            return null;
+        }
+        return new InMemory(base64.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Compares payloads by hash and length, without reading them back
+     */
+    public static boolean sameContent(ImageRef a, ImageRef b) {
+        if (a == b) return true;
+        if (a == null || b == null) return false;
+        return a.length() == b.length() && a.contentHash() == b.contentHash();
+    }
+
+    static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * 64-bit FNV-1a over the encoded payload
+     */
+    static long fnv1a(byte[] data, int offset, int length) {
+        long hash = FNV_OFFSET;
+        for (int i = offset; i < offset + length; i++) {
+            hash ^= (data[i] & 0xff);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    static final class InMemory extends ImageRef {
+        private final byte[] encoded;
+        private final long hash;
+
+        InMemory(byte[] encoded) {
+            this.encoded = encoded;
+            this.hash = fnv1a(encoded, 0, encoded.length);
+        }
+
+        @Override
+        public byte[] readEncoded() {
+            return encoded;
+        }
+
+        @Override
+        public int length() {
+            return encoded.length;
+        }
+
+        @Override
+        public long contentHash() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.samajconnectfrontend.data;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Append-only scratch file that keeps image payloads off the Java heap while a
+ * large response is decoded. Each payload is written once and handed back as an ImageRef.
+ */
+public class ImageSpool implements Closeable {
+
+    // Directories already swept of files from earlier processes
+    private static final Set<File> SWEPT = new HashSet<>();
+
+    private final File file;
+    private final RandomAccessFile raf;
+    private long writePosition = 0;
+    private boolean closed = false;
+    private boolean appending = false;
+
+    public ImageSpool(File directory, String name) throws IOException {
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Cannot create spool directory " + directory);
+        }
+        this.file = new File(directory, name);
+        this.raf = new RandomAccessFile(file, "rw");
+        this.raf.setLength(0);
+    }
+
+    /**
+     * Delete spool files an earlier process left in a directory. A spool deletes its file on close,
+     * so only a process killed with a tree on screen leaves one; the first call per directory in a
+     * process removes them all, later calls do nothing so the spools of this process are kept.
+     */
+    public static synchronized void deleteLeftovers(File directory) {
+        if (!SWEPT.add(directory.getAbsoluteFile())) {
+            return;
+        }
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+        }
+    }
+
+    /**
+     * Store a Base64 payload and return a lazy reference to it
+     */
+    public synchronized ImageRef write(String base64) throws IOException {
+        if (base64 == null || base64.isEmpty()) {
+            return null;
+        }
+        checkNotAppending();
+        byte[] encoded = base64.getBytes(StandardCharsets.US_ASCII);
+        long offset = writePosition;
+        raf.seek(offset);
+        raf.write(encoded);
+        writePosition += encoded.length;
+        return new Spooled(this, offset, encoded.length, ImageRef.fnv1a(encoded, 0, encoded.length));
+    }
+
+    /**
+     * Start a payload that arrives a character at a time, so it never has to exist as a String.
+     * Only one can be open at once, and write() is refused until it is finished.
+     */
+    synchronized Appender begin() {
+        checkNotAppending();
+        appending = true;
+        return new Appender(writePosition);
+    }
+
+    private synchronized void writeAt(long offset, byte[] buffer, int length) throws IOException {
+        if (closed) {
+            throw new IOException("Spool " + file.getName() + " is closed");
+        }
+        raf.seek(offset);
+        raf.write(buffer, 0, length);
+    }
+
+    private synchronized ImageRef end(long offset, int length, long hash) {
+        appending = false;
+        writePosition = offset + length;
+        return length > 0 ? new Spooled(this, offset, length, hash) : null;
+    }
+
+    private void checkNotAppending() {
+        if (appending) {
+            throw new IllegalStateException("Spool " + file.getName() + " has an unfinished payload");
+        }
+    }
+
+    synchronized byte[] read(long offset, int length) throws IOException {
+        if (closed) {
+            throw new IOException("Spool " + file.getName() + " is closed");
+        }
+        byte[] buffer = new byte[length];
+        raf.seek(offset);
+        raf.readFully(buffer);
+        return buffer;
+    }
+
+    public synchronized long size() {
+        return writePosition;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        raf.close();
+        //noinspection ResultOfMethodCallIgnored
+        file.delete();
+    }
+
+    /**
+     * Writes one payload through a small buffer, hashing it on the way
+     */
+    final class Appender {
+        private final long offset;
+        private final byte[] buffer = new byte[8192];
+        private int buffered = 0;
+        private int length = 0;
+        private long hash = ImageRef.FNV_OFFSET;
+
+        private Appender(long offset) {
+            this.offset = offset;
+        }
+
+        void append(char c) throws IOException {
+            // Same substitution String.getBytes(US_ASCII) makes in write()
+            byte b = c < 0x80 ? (byte) c : (byte) '?';
+            hash ^= (b & 0xff);
+            hash *= ImageRef.FNV_PRIME;
+            buffer[buffered++] = b;
+            length++;
+            if (buffered == buffer.length) {
+                flush();
+            }
+        }
+
+        /**
+         * @return reference to everything appended, or null if nothing was
+         */
+        ImageRef finish() throws IOException {
+            flush();
+            return end(offset, length, hash);
+        }
+
+        private void flush() throws IOException {
+            if (buffered == 0) return;
+            writeAt(offset + length - buffered, buffer, buffered);
+            buffered = 0;
+        }
+    }
+
+    private static final class Spooled extends ImageRef {
+        private final ImageSpool spool;
+        private final long offset;
+        private final int length;
+        private final long hash;
+
+        Spooled(ImageSpool spool, long offset, int length, long hash) {
+            this.spool = spool;
+            this.offset = offset;
+            this.length = length;
+            this.hash = hash;
+        }
+
+        @Override
+        public byte[] readEncoded() throws IOException {
+            return spool.read(offset, length);
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public long contentHash() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.example.samajconnectfrontend.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory search over a samaj's member roster by name, email and phone number, fast enough
+ * to run on every keystroke. Queries of three or more characters match anywhere in a field,
+ * like a contains() scan; they are answered from a trigram index and only the candidates it
+ * yields are checked. Shorter queries match the start of a word, from a sorted word list.
+ *
+ * Holds only ids and the searched text, not the members themselves, so a long-lived index
+ * doesn't keep profile images alive; load the matched members by id.
+ *
+ * Immutable once built; build it off the main thread, then share it freely.
+ */
+public class MemberSearchIndex {
+
+    private static final int[] NO_MEMBERS = new int[0];
+    private static final Pattern WORD_SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern NON_DIGITS = Pattern.compile("\\D");
+
+    private final long samajId;
+    private final long[] ids;
+    // Per member: lower-cased name, email and digits of the phone number, in that order
+    private final String[][] fields;
+    // Trigram -> ascending member indexes
+    private final Map<String, int[]> trigrams = new HashMap<>();
+    // Every word of every field, sorted, with the member it came from
+    private final String[] words;
+    private final int[] wordMembers;
+
+    /**
+     * The searched fields of one member. Field names match the member JSON, so a stored
+     * member can be read straight into one without decoding the rest of it.
+     */
+    public static final class Entry {
+        final long id;
+        final String name;
+        final String email;
+        final String phoneNumber;
+
+        public Entry(long id, String name, String email, String phoneNumber) {
+            this.id = id;
+            this.name = name;
+            this.email = email;
+            this.phoneNumber = phoneNumber;
+        }
+    }
+
+    public MemberSearchIndex(long samajId, List<Entry> members) {
+        this.samajId = samajId;
+        this.ids = new long[members.size()];
+        this.fields = new String[members.size()][];
+
+        Map<String, IntList> postings = new HashMap<>();
+        List<WordEntry> wordEntries = new ArrayList<>();
+        for (int i = 0; i < members.size(); i++) {
+            Entry member = members.get(i);
+            ids[i] = member.id;
+            fields[i] = new String[]{normalize(member.name), normalize(member.email), digits(member.phoneNumber)};
+            for (String field : fields[i]) {
+                for (int start = 0; start + 3 <= field.length(); start++) {
+                    String trigram = field.substring(start, start + 3);
+                    IntList list = postings.get(trigram);
+                    if (list == null) {
+                        list = new IntList();
+                        postings.put(trigram, list);
+                    }
+                    list.addOnce(i);
+                }
+                for (String word : WORD_SEPARATORS.split(field)) {
+                    if (!word.isEmpty()) {
+                        wordEntries.add(new WordEntry(word, i));
+                    }
+                }
+            }
+        }
+        for (Map.Entry<String, IntList> posting : postings.entrySet()) {
+            trigrams.put(posting.getKey(), posting.getValue().toArray());
+        }
+
+        Collections.sort(wordEntries, (a, b) -> a.word.compareTo(b.word));
+        words = new String[wordEntries.size()];
+        wordMembers = new int[wordEntries.size()];
+        for (int i = 0; i < wordEntries.size(); i++) {
+            words[i] = wordEntries.get(i).word;
+            wordMembers[i] = wordEntries.get(i).member;
+        }
+    }
+
+    public long getSamajId() {
+        return samajId;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * @return ids of the members matching the query, those whose name starts with it first,
+     * otherwise in roster order; at most limit of them
+     */
+    public List<Long> search(String query, int limit) {
+        String text = normalize(query).trim();
+        if (text.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String phone = digits(text);
+
+        boolean[] matched = new boolean[ids.length];
+        if (text.length() >= 3) {
+            matchSubstring(text, matched);
+        } else {
+            matchWordPrefix(text, matched);
+        }
+        // A query like "98 76" is looked for as a phone number too
+        if (!phone.isEmpty() && !phone.equals(text)) {
+            if (phone.length() >= 3) {
+                matchSubstring(phone, matched);
+            } else {
+                matchWordPrefix(phone, matched);
+            }
+        }
+
+        List<Long> first = new ArrayList<>();
+        List<Long> rest = new ArrayList<>();
+        for (int i = 0; i < matched.length && first.size() < limit; i++) {
+            if (matched[i]) {
+                (fields[i][0].startsWith(text) ? first : rest).add(ids[i]);
+            }
+        }
+        first.addAll(rest);
+        return first.size() > limit ? new ArrayList<>(first.subList(0, limit)) : first;
+    }
+
+    private void matchSubstring(String text, boolean[] matched) {
+        // Intersect the posting lists, shortest first; what survives is a candidate only
+        List<int[]> lists = new ArrayList<>();
+        for (int start = 0; start + 3 <= text.length(); start++) {
+            int[] list = trigrams.get(text.substring(start, start + 3));
+            if (list == null) {
+                return;
+            }
+            lists.add(list);
+        }
+        Collections.sort(lists, (a, b) -> Integer.compare(a.length, b.length));
+        int[] candidates = lists.get(0);
+        for (int i = 1; i < lists.size() && candidates.length > 0; i++) {
+            candidates = intersect(candidates, lists.get(i));
+        }
+
+        for (int member : candidates) {
+            for (String field : fields[member]) {
+                if (field.contains(text)) {
+                    matched[member] = true;
+                    break;
+                }
+            }
+        }
+    }
+
+    private void matchWordPrefix(String prefix, boolean[] matched) {
+        int from = Arrays.binarySearch(words, prefix);
+        if (from < 0) {
+            from = -from - 1;
+        }
+        // Equal words sort together, so step back to the first of them
+        while (from > 0 && words[from - 1].startsWith(prefix)) {
+            from--;
+        }
+        for (int i = from; i < words.length && words[i].startsWith(prefix); i++) {
+            matched[wordMembers[i]] = true;
+        }
+    }
+
+    /**
+     * The plain contains() scan the index replaces, kept as the reference for tests
+     */
+    static List<Long> scan(List<Entry> members, String query) {
+        String text = normalize(query).trim();
+        List<Long> result = new ArrayList<>();
+        for (Entry member : members) {
+            if (normalize(member.name).contains(text) || normalize(member.email).contains(text)
+                    || (member.phoneNumber != null && member.phoneNumber.contains(text))) {
+                result.add(member.id);
+            }
+        }
+        return result;
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int size = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[size++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return size == 0 ? NO_MEMBERS : Arrays.copyOf(result, size);
+    }
+
+    private static String normalize(String value) {
+        return value != null ? value.toLowerCase(Locale.ROOT) : "";
+    }
+
+    private static String digits(String value) {
+        return value != null ? NON_DIGITS.matcher(value).replaceAll("") : "";
+    }
+
+    private static class WordEntry {
+        final String word;
+        final int member;
+
+        WordEntry(String word, int member) {
+            this.word = word;
+            this.member = member;
+        }
+    }
+
+    /**
+     * Growable ascending int list; members are added in order, so a repeat is always the last one
+     */
+    private static class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void addOnce(int value) {
+            if (size > 0 && values[size - 1] == value) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
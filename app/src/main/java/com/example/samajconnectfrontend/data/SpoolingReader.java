@@ -0,0 +1,193 @@
+package com.example.samajconnectfrontend.data;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sits between the response body and the JsonReader and copies every "profileImageBase64"
+ * string straight into the ImageSpool as it arrives, so no image is ever held as a String.
+ * The JsonReader only sees a short token in its place, which take() turns back into the ImageRef.
+ * Everything else passes through unchanged.
+ */
+final class SpoolingReader extends Reader {
+
+    // Tokens are written as a JSON \u0000 escape, so the JsonReader hands them back starting with NUL
+    private static final char TOKEN_MARK = '\u0000';
+    private static final String FIELD = "profileImageBase64";
+
+    private static final int OUTSIDE = 0;
+    private static final int IN_STRING = 1;
+    private static final int STRING_ESCAPE = 2;
+    // A string just closed; a ':' makes it a key
+    private static final int AFTER_STRING = 3;
+    // After "profileImageBase64":
+    private static final int BEFORE_VALUE = 4;
+    private static final int IN_IMAGE = 5;
+    private static final int IMAGE_ESCAPE = 6;
+    private static final int IMAGE_UNICODE = 7;
+
+    private final Reader in;
+    private final ImageSpool spool;
+    private final char[] input = new char[8192];
+    private final StringBuilder output = new StringBuilder();
+    private int outputPosition = 0;
+    private final List<ImageRef> images = new ArrayList<>();
+
+    private int state = OUTSIDE;
+    // How much of the current string matches FIELD so far, or -1 once it can't
+    private int matched = -1;
+    private ImageSpool.Appender image;
+    private int unicode;
+    private int unicodeDigits;
+
+    SpoolingReader(Reader in, ImageSpool spool) {
+        this.in = in;
+        this.spool = spool;
+    }
+
+    static boolean isToken(String value) {
+        return value != null && !value.isEmpty() && value.charAt(0) == TOKEN_MARK;
+    }
+
+    /**
+     * @return the image a token stands for (null for an empty payload); each can be taken once
+     */
+    ImageRef take(String token) {
+        int index = Integer.parseInt(token.substring(1));
+        ImageRef image = images.get(index);
+        images.set(index, null);
+        return image;
+    }
+
+    @Override
+    public int read(char[] buffer, int offset, int length) throws IOException {
+        if (length == 0) return 0;
+        while (outputPosition == output.length()) {
+            output.setLength(0);
+            outputPosition = 0;
+            int read = in.read(input, 0, input.length);
+            if (read < 0) return -1;
+            for (int i = 0; i < read; i++) {
+                consume(input[i]);
+            }
+        }
+        int count = Math.min(length, output.length() - outputPosition);
+        output.getChars(outputPosition, outputPosition + count, buffer, offset);
+        outputPosition += count;
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private void consume(char c) throws IOException {
+        switch (state) {
+            case IN_STRING:
+                output.append(c);
+                if (c == '"') {
+                    state = AFTER_STRING;
+                } else if (c == '\\') {
+                    // Escaped keys are rare enough to leave to the JsonReader
+                    matched = -1;
+                    state = STRING_ESCAPE;
+                } else if (matched >= 0) {
+                    matched = matched < FIELD.length() && FIELD.charAt(matched) == c ? matched + 1 : -1;
+                }
+                return;
+            case STRING_ESCAPE:
+                output.append(c);
+                state = IN_STRING;
+                return;
+            case AFTER_STRING:
+                if (isWhitespace(c)) {
+                    output.append(c);
+                    return;
+                }
+                if (c == ':' && matched == FIELD.length()) {
+                    output.append(c);
+                    state = BEFORE_VALUE;
+                    return;
+                }
+                state = OUTSIDE;
+                break;
+            case BEFORE_VALUE:
+                if (isWhitespace(c)) {
+                    output.append(c);
+                    return;
+                }
+                if (c == '"') {
+                    image = spool.begin();
+                    state = IN_IMAGE;
+                    return;
+                }
+                // null, or something the JsonReader will reject itself
+                state = OUTSIDE;
+                break;
+            case IN_IMAGE:
+                if (c == '"') {
+                    endImage();
+                } else if (c == '\\') {
+                    state = IMAGE_ESCAPE;
+                } else {
+                    image.append(c);
+                }
+                return;
+            case IMAGE_ESCAPE:
+                if (c == 'u') {
+                    unicode = 0;
+                    unicodeDigits = 0;
+                    state = IMAGE_UNICODE;
+                } else {
+                    image.append(unescape(c));
+                    state = IN_IMAGE;
+                }
+                return;
+            case IMAGE_UNICODE:
+                int digit = Character.digit(c, 16);
+                if (digit < 0) {
+                    throw new IOException("Malformed \\u escape in " + FIELD);
+                }
+                unicode = unicode * 16 + digit;
+                if (++unicodeDigits == 4) {
+                    image.append((char) unicode);
+                    state = IN_IMAGE;
+                }
+                return;
+            default:
+                break;
+        }
+
+        output.append(c);
+        if (c == '"') {
+            matched = 0;
+            state = IN_STRING;
+        }
+    }
+
+    private void endImage() throws IOException {
+        images.add(image.finish());
+        image = null;
+        output.append("\"\\u0000").append(images.size() - 1).append('"');
+        state = OUTSIDE;
+    }
+
+    private static char unescape(char c) {
+        switch (c) {
+            case 'b': return '\b';
+            case 'f': return '\f';
+            case 'n': return '\n';
+            case 'r': return '\r';
+            case 't': return '\t';
+            // \" \\ \/
+            default: return c;
+        }
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+    }
+}
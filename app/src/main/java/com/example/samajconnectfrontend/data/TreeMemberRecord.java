@@ -0,0 +1,15 @@
+package com.example.samajconnectfrontend.data;
+
+/**
+ * One person from a family-tree response, with the profile image left as a lazy reference
+ */
+public class TreeMemberRecord {
+    public Long userId;
+    public String name;
+    public String email = "";
+    public String relationshipDisplayName = "";
+    public int generationLevel;
+    public String generationName = "";
+    public String relationshipSide = "";
+    public ImageRef profileImage;
+}
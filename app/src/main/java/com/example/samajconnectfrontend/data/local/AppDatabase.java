@@ -0,0 +1,34 @@
+package com.example.samajconnectfrontend.data.local;
+
+import android.content.Context;
+
+import androidx.room.Database;
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+
+@Database(entities = {EventRecord.class, MemberRecord.class, MemberPageRecord.class,
+        SamajRecord.class, UserRecord.class, SyncStateRecord.class}, version = 2, exportSchema = false)
+public abstract class AppDatabase extends RoomDatabase {
+
+    private static volatile AppDatabase instance;
+
+    public abstract EventDao events();
+    public abstract MemberDao members();
+    public abstract SamajDao samaj();
+    public abstract UserDao users();
+    public abstract SyncStateDao syncState();
+
+    public static AppDatabase getInstance(Context context) {
+        if (instance == null) {
+            synchronized (AppDatabase.class) {
+                if (instance == null) {
+                    // Everything here is a cache of the server, so a schema change just starts over
+                    instance = Room.databaseBuilder(context.getApplicationContext(), AppDatabase.class, "samaj_connect.db")
+                            .fallbackToDestructiveMigration()
+                            .build();
+                }
+            }
+        }
+        return instance;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.samajconnectfrontend.data.local;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Dao
+public abstract class EventDao {
+
+    @Query("SELECT * FROM events WHERE samajId = :samajId ORDER BY position")
+    public abstract List<EventRecord> forSamaj(long samajId);
+
+    /**
+     * @param fromDate events on or after this date; same format as eventDate
+     */
+    @Query("SELECT * FROM events WHERE samajId = :samajId AND eventDate >= :fromDate ORDER BY eventDate")
+    public abstract List<EventRecord> upcoming(long samajId, String fromDate);
+
+    @Query("SELECT id FROM events WHERE samajId = :samajId AND eventDate >= :fromDate")
+    public abstract List<Long> upcomingIds(long samajId, String fromDate);
+
+    @Query("SELECT id, position FROM events WHERE id IN (:ids)")
+    public abstract List<Position> positions(List<Long> ids);
+
+    @Query("SELECT MIN(position) FROM events WHERE samajId = :samajId")
+    public abstract Integer firstPosition(long samajId);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    public abstract void insertAll(List<EventRecord> events);
+
+    @Query("DELETE FROM events WHERE samajId = :samajId")
+    public abstract void deleteForSamaj(long samajId);
+
+    @Query("DELETE FROM events WHERE id IN (:ids)")
+    public abstract void deleteAll(List<Long> ids);
+
+    /**
+     * Make the cached list for a samaj exactly the given one
+     */
+    @Transaction
+    public void replaceForSamaj(long samajId, List<EventRecord> events) {
+        deleteForSamaj(samajId);
+        insertAll(events);
+    }
+
+    /**
+     * Replace only the upcoming events, leaving past ones from the full list alone
+     */
+    @Transaction
+    public void replaceUpcoming(long samajId, String fromDate, List<EventRecord> events) {
+        Set<Long> kept = new HashSet<>();
+        for (EventRecord event : events) {
+            kept.add(event.id);
+        }
+        List<Long> gone = new ArrayList<>();
+        for (Long id : upcomingIds(samajId, fromDate)) {
+            if (!kept.contains(id)) gone.add(id);
+        }
+        merge(samajId, events, gone);
+    }
+
+    /**
+     * Apply a change set: upsert changed events and drop deleted ones. Events already cached
+     * keep their place in the list; new ones go to the top, as the server lists newest first.
+     */
+    @Transaction
+    public void merge(long samajId, List<EventRecord> changed, List<Long> deletedIds) {
+        if (!deletedIds.isEmpty()) {
+            deleteAll(deletedIds);
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        List<Long> ids = new ArrayList<>();
+        for (EventRecord event : changed) {
+            ids.add(event.id);
+        }
+        Map<Long, Integer> existing = new HashMap<>();
+        for (Position position : positions(ids)) {
+            existing.put(position.id, position.position);
+        }
+        Integer first = firstPosition(samajId);
+        int next = first != null ? first : 0;
+        // Walk backwards so new events keep their relative order at the top
+        for (int i = changed.size() - 1; i >= 0; i--) {
+            EventRecord event = changed.get(i);
+            Integer position = existing.get(event.id);
+            event.position = position != null ? position : --next;
+        }
+        insertAll(changed);
+    }
+
+    public static class Position {
+        public long id;
+        public int position;
+    }
+}
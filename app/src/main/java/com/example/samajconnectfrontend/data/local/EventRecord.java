@@ -0,0 +1,23 @@
+package com.example.samajconnectfrontend.data.local;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * A cached event. The columns queries filter and sort on are copied out; the event itself
+ * is kept as the JSON the server sent.
+ */
+@Entity(tableName = "events", indices = {@Index("samajId"), @Index("eventDate")})
+public class EventRecord {
+    @PrimaryKey
+    public long id;
+    public long samajId;
+    public String eventDate;
+    public String updatedAt;
+    // Position in the list the server returned
+    public int position;
+    @NonNull
+    public String json = "";
+}
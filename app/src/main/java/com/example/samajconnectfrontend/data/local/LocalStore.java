@@ -0,0 +1,444 @@
+package com.example.samajconnectfrontend.data.local;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.example.samajconnectfrontend.data.MemberSearchIndex;
+import com.example.samajconnectfrontend.models.DetailedUserDto;
+import com.example.samajconnectfrontend.models.Event;
+import com.example.samajconnectfrontend.models.Member;
+import com.example.samajconnectfrontend.models.MemberPage;
+import com.example.samajconnectfrontend.models.Samaj;
+import com.example.samajconnectfrontend.utils.AppExecutors;
+import com.google.gson.Gson;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Last known copy of what the screens show, so they can render straight away and then
+ * reconcile with the server (stale while revalidate). Reads and writes here hit the disk;
+ * use {@link #read} and {@link #write} from the UI thread.
+ */
+public class LocalStore {
+
+    private static final String TAG = "LocalStore";
+
+    private static volatile LocalStore instance;
+
+    private final AppDatabase db;
+    private final Gson gson = new Gson();
+    // One writer, so an older response can never land after a newer one
+    private final Executor writer;
+    // Built from the roster on first search, dropped whenever the roster changes
+    private volatile MemberSearchIndex searchIndex;
+    private final AtomicInteger rosterVersion = new AtomicInteger();
+    // Events deleted from this device. A list fetched before the delete may still have them,
+    // so they are kept out of saves until the server's own lists stop reporting them.
+    private final Set<Long> deletedEventIds = Collections.synchronizedSet(new HashSet<>());
+
+    public LocalStore(AppDatabase db, Executor writer) {
+        this.db = db;
+        this.writer = writer;
+    }
+
+    public static LocalStore getInstance(Context context) {
+        if (instance == null) {
+            synchronized (LocalStore.class) {
+                if (instance == null) {
+                    instance = new LocalStore(AppDatabase.getInstance(context),
+                            Executors.newSingleThreadExecutor(AppExecutors.namedThreads("local-store")));
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Run a query in the background and hand the result to the main thread.
+     * A failed read is reported as null, the screen then just waits for the network.
+     */
+    public <T> void read(Callable<T> query, Consumer<T> onLoaded) {
+        AppExecutors.background().execute(() -> {
+            T result;
+            try {
+                result = query.call();
+            } catch (Exception e) {
+                Log.e(TAG, "Error reading local store", e);
+                result = null;
+            }
+            T loaded = result;
+            AppExecutors.mainThread().execute(() -> onLoaded.accept(loaded));
+        });
+    }
+
+    public void write(Runnable update) {
+        writer.execute(() -> {
+            try {
+                update.run();
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Error writing local store", e);
+            }
+        });
+    }
+
+    /**
+     * Run several updates atomically on the writer, in order with every other write, and wait
+     * until they are applied. For background threads that read back what they wrote; never
+     * call it from a write.
+     */
+    public void writeInTransaction(Runnable updates) {
+        FutureTask<Void> task = new FutureTask<>(() -> db.runInTransaction(updates), null);
+        writer.execute(task);
+        try {
+            task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for a local store write", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Forget everything cached for the signed-in user; run it through write() on logout
+     */
+    public void clear() {
+        db.clearAllTables();
+        rosterVersion.incrementAndGet();
+        searchIndex = null;
+        deletedEventIds.clear();
+    }
+
+    // Events
+
+    public List<Event> events(long samajId) {
+        return toEvents(db.events().forSamaj(samajId));
+    }
+
+    public List<Event> upcomingEvents(long samajId) {
+        return toEvents(db.events().upcoming(samajId, today()));
+    }
+
+    public void saveEvents(long samajId, List<Event> events) {
+        db.events().replaceForSamaj(samajId, toEventRecords(samajId, events));
+        // Deleted events missing from a full list are gone on the server too
+        forgetDeletedEventsNotIn(events);
+    }
+
+    public void saveUpcomingEvents(long samajId, List<Event> events) {
+        db.events().replaceUpcoming(samajId, today(), toEventRecords(samajId, events));
+    }
+
+    public void mergeEvents(long samajId, List<Event> changed, List<Long> deletedIds) {
+        db.events().merge(samajId, toEventRecords(samajId, changed), deletedIds);
+        deletedEventIds.removeAll(deletedIds);
+    }
+
+    /**
+     * Drop an event deleted from this device without waiting for the next sync to report it
+     */
+    public void deleteEvent(long eventId) {
+        deletedEventIds.add(eventId);
+        db.events().deleteAll(Collections.singletonList(eventId));
+    }
+
+    private void forgetDeletedEventsNotIn(List<Event> events) {
+        synchronized (deletedEventIds) {
+            if (deletedEventIds.isEmpty()) return;
+            Set<Long> listed = new HashSet<>();
+            for (Event event : events) {
+                listed.add(event.getId());
+            }
+            deletedEventIds.retainAll(listed);
+        }
+    }
+
+    // Sync watermarks
+
+    /**
+     * @param kind {@link SyncStateRecord#EVENTS} or {@link SyncStateRecord#MEMBERS}
+     * @return null when the samaj has never been synced
+     */
+    public String watermark(String kind, long samajId) {
+        return db.syncState().watermark(kind, samajId);
+    }
+
+    public void setWatermark(String kind, long samajId, String watermark) {
+        if (watermark == null) {
+            db.syncState().clear(kind, samajId);
+            return;
+        }
+        SyncStateRecord state = new SyncStateRecord();
+        state.kind = kind;
+        state.samajId = samajId;
+        state.watermark = watermark;
+        db.syncState().insert(state);
+    }
+
+    /**
+     * @return whether the server was found to have no changes endpoint for the kind
+     */
+    public boolean changesUnsupported(String kind, long samajId) {
+        return db.syncState().watermark(kind + SyncStateRecord.CHANGES_UNSUPPORTED, samajId) != null;
+    }
+
+    public void setChangesUnsupported(String kind, long samajId) {
+        setWatermark(kind + SyncStateRecord.CHANGES_UNSUPPORTED, samajId, "true");
+    }
+
+    /**
+     * @return when the kind was last downloaded in full, or 0 if never
+     */
+    public long downloadedAt(String kind, long samajId) {
+        String time = db.syncState().watermark(kind + SyncStateRecord.DOWNLOADED_AT, samajId);
+        return time != null ? Long.parseLong(time) : 0L;
+    }
+
+    public void setDownloadedAt(String kind, long samajId, long time) {
+        setWatermark(kind + SyncStateRecord.DOWNLOADED_AT, samajId, String.valueOf(time));
+    }
+
+    // Members
+
+    /**
+     * @return the cached page, or null if it was never fetched
+     */
+    public MemberPage<Member> membersPage(long samajId, int page, int pageSize) {
+        MemberPageRecord pageRecord = db.members().page(samajId, page);
+        if (pageRecord == null || pageRecord.pageSize != pageSize) {
+            return null;
+        }
+
+        int start = page * pageSize;
+        List<Member> members = new ArrayList<>();
+        for (MemberRecord record : db.members().range(samajId, start, start + pageSize)) {
+            members.add(gson.fromJson(record.json, Member.class));
+        }
+
+        MemberPage<Member> result = new MemberPage<>();
+        result.setSamajName(pageRecord.samajName);
+        result.setTotalMembers(pageRecord.totalMembers);
+        result.setCurrentPage(page);
+        result.setTotalPages(pageRecord.totalPages);
+        result.setHasNext(pageRecord.hasNext);
+        result.setHasPrevious(pageRecord.hasPrevious);
+        result.setMembers(members);
+        return result;
+    }
+
+    public void saveMembersPage(long samajId, int pageSize, MemberPage<Member> page) {
+        MemberPageRecord pageRecord = new MemberPageRecord();
+        pageRecord.samajId = samajId;
+        pageRecord.page = page.getCurrentPage();
+        pageRecord.pageSize = pageSize;
+        pageRecord.samajName = page.getSamajName();
+        pageRecord.totalMembers = page.getTotalMembers();
+        pageRecord.totalPages = page.getTotalPages();
+        pageRecord.hasNext = page.hasNext();
+        pageRecord.hasPrevious = page.hasPrevious();
+
+        List<MemberRecord> records = new ArrayList<>();
+        List<Member> members = page.getMembers() != null ? page.getMembers() : new ArrayList<>();
+        int start = pageRecord.page * pageSize;
+        for (int i = 0; i < members.size(); i++) {
+            Member member = members.get(i);
+            MemberRecord record = new MemberRecord();
+            record.id = member.getId();
+            record.samajId = samajId;
+            record.position = start + i;
+            record.updatedAt = member.getUpdatedAt();
+            record.json = gson.toJson(member);
+            records.add(record);
+        }
+        db.members().replacePage(pageRecord, records);
+    }
+
+    // Member roster: every member of a samaj, kept current by SyncEngine
+
+    public List<DetailedUserDto> roster(long samajId) {
+        List<DetailedUserDto> users = new ArrayList<>();
+        for (UserRecord record : db.users().forSamaj(samajId)) {
+            users.add(gson.fromJson(record.json, DetailedUserDto.class));
+        }
+        return users;
+    }
+
+    /**
+     * Search the cached roster as the user types; call from a background thread
+     * @return matching members, loaded with their images, or null if the roster hasn't been synced
+     */
+    public List<DetailedUserDto> searchRoster(long samajId, String query, int limit) {
+        MemberSearchIndex index = searchIndex(samajId);
+        if (index.size() == 0) {
+            return null;
+        }
+        List<Long> ids = index.search(query, limit);
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, DetailedUserDto> byId = new HashMap<>();
+        for (UserRecord record : db.users().getAll(ids)) {
+            byId.put(record.id, gson.fromJson(record.json, DetailedUserDto.class));
+        }
+        List<DetailedUserDto> users = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            DetailedUserDto user = byId.get(id);
+            // Gone if the roster changed since the index was built
+            if (user != null) users.add(user);
+        }
+        return users;
+    }
+
+    /**
+     * Index over the cached roster; building it reads the whole roster, so call from a
+     * background thread. Empty until the roster has been synced.
+     */
+    MemberSearchIndex searchIndex(long samajId) {
+        MemberSearchIndex index = searchIndex;
+        if (index == null || index.getSamajId() != samajId) {
+            int version = rosterVersion.get();
+            List<MemberSearchIndex.Entry> entries = new ArrayList<>();
+            for (UserRecord record : db.users().forSamaj(samajId)) {
+                // Reads only the searched fields; the profile image is skipped, not decoded
+                entries.add(gson.fromJson(record.json, MemberSearchIndex.Entry.class));
+            }
+            index = new MemberSearchIndex(samajId, entries);
+            // A save during the build may have been missed; use this one but don't keep it
+            if (rosterVersion.get() == version) {
+                searchIndex = index;
+            }
+        }
+        return index;
+    }
+
+    public int rosterSize(long samajId) {
+        return db.users().count(samajId);
+    }
+
+    public void saveRoster(long samajId, List<Member> members) {
+        db.runInTransaction(() -> {
+            db.users().deleteForSamaj(samajId);
+            mergeRoster(samajId, members, Collections.emptyList());
+        });
+    }
+
+    public void mergeRoster(long samajId, List<Member> changed, List<Long> deletedIds) {
+        if (!deletedIds.isEmpty()) {
+            db.users().deleteAll(deletedIds);
+            // Cached pages would otherwise keep showing them until refetched
+            db.members().deleteAll(deletedIds);
+        }
+        List<DetailedUserDto> users = new ArrayList<>(changed.size());
+        for (Member member : changed) {
+            users.add(toUser(member));
+        }
+        saveUsers(samajId, users);
+    }
+
+    // Samaj
+
+    public Samaj samaj(long samajId) {
+        SamajRecord record = db.samaj().get(samajId);
+        return record != null ? gson.fromJson(record.json, Samaj.class) : null;
+    }
+
+    public void saveSamaj(Samaj samaj) {
+        if (samaj == null || samaj.getId() == null) return;
+        SamajRecord record = new SamajRecord();
+        record.id = samaj.getId();
+        record.json = gson.toJson(samaj);
+        db.samaj().insert(record);
+    }
+
+    // Users
+
+    public DetailedUserDto user(long userId) {
+        UserRecord record = db.users().get(userId);
+        return record != null ? gson.fromJson(record.json, DetailedUserDto.class) : null;
+    }
+
+    /**
+     * @return the samaj the user belonged to when last fetched, or null
+     */
+    public Long samajIdOfUser(long userId) {
+        UserRecord record = db.users().get(userId);
+        return record != null ? record.samajId : null;
+    }
+
+    public void saveUsers(Long samajId, List<DetailedUserDto> users) {
+        List<UserRecord> records = new ArrayList<>();
+        for (DetailedUserDto user : users) {
+            if (user.getId() == null) continue;
+            UserRecord record = new UserRecord();
+            record.id = user.getId();
+            record.samajId = samajId;
+            record.json = gson.toJson(user);
+            records.add(record);
+        }
+        db.users().insertAll(records);
+        rosterVersion.incrementAndGet();
+        searchIndex = null;
+    }
+
+    private static DetailedUserDto toUser(Member member) {
+        DetailedUserDto user = new DetailedUserDto();
+        user.setId((long) member.getId());
+        user.setName(member.getName());
+        user.setEmail(member.getEmail());
+        user.setGender(member.getGender());
+        user.setPhoneNumber(member.getPhoneNumber());
+        user.setAddress(member.getAddress());
+        user.setProfileImage(member.getProfileImage());
+        user.setIsAdmin(member.isAdmin());
+        return user;
+    }
+
+    private List<Event> toEvents(List<EventRecord> records) {
+        List<Event> events = new ArrayList<>(records.size());
+        for (EventRecord record : records) {
+            events.add(gson.fromJson(record.json, Event.class));
+        }
+        return events;
+    }
+
+    private List<EventRecord> toEventRecords(long samajId, List<Event> events) {
+        List<EventRecord> records = new ArrayList<>(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            Event event = events.get(i);
+            if (event.getId() == null || deletedEventIds.contains(event.getId())) continue;
+            EventRecord record = new EventRecord();
+            record.id = event.getId();
+            record.samajId = samajId;
+            record.eventDate = event.getEventDate();
+            record.updatedAt = event.getUpdatedAt();
+            record.position = i;
+            record.json = gson.toJson(event);
+            records.add(record);
+        }
+        return records;
+    }
+
+    // Event dates are "yyyy-MM-dd HH:mm:ss" or ISO, so comparing against the day sorts correctly
+    private static String today() {
+        return new SimpleDateFormat("yyyy-MM-dd", Locale.US).format(new Date());
+    }
+}
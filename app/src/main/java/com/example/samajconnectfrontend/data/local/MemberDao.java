@@ -0,0 +1,45 @@
+package com.example.samajconnectfrontend.data.local;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import java.util.List;
+
+@Dao
+public abstract class MemberDao {
+
+    @Query("SELECT * FROM members WHERE samajId = :samajId AND position >= :start AND position < :end ORDER BY position")
+    public abstract List<MemberRecord> range(long samajId, int start, int end);
+
+    @Query("SELECT * FROM member_pages WHERE samajId = :samajId AND page = :page")
+    public abstract MemberPageRecord page(long samajId, int page);
+
+    @Query("SELECT COUNT(*) FROM members WHERE samajId = :samajId")
+    public abstract int count(long samajId);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    public abstract void insertAll(List<MemberRecord> members);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    public abstract void insertPage(MemberPageRecord page);
+
+    @Query("DELETE FROM members WHERE id IN (:ids)")
+    public abstract void deleteAll(List<Long> ids);
+
+    @Query("DELETE FROM members WHERE samajId = :samajId AND position >= :start AND position < :end")
+    public abstract void deleteRange(long samajId, int start, int end);
+
+    /**
+     * Store one page of the member list, dropping whatever was cached at those positions
+     */
+    @Transaction
+    public void replacePage(MemberPageRecord page, List<MemberRecord> members) {
+        int start = page.page * page.pageSize;
+        deleteRange(page.samajId, start, start + page.pageSize);
+        insertAll(members);
+        insertPage(page);
+    }
+}
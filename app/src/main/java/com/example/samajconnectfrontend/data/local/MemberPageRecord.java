@@ -0,0 +1,18 @@
+package com.example.samajconnectfrontend.data.local;
+
+import androidx.room.Entity;
+
+/**
+ * Paging details of a cached member page, so it can be shown without the server
+ */
+@Entity(tableName = "member_pages", primaryKeys = {"samajId", "page"})
+public class MemberPageRecord {
+    public long samajId;
+    public int page;
+    public int pageSize;
+    public String samajName;
+    public int totalMembers;
+    public int totalPages;
+    public boolean hasNext;
+    public boolean hasPrevious;
+}
@@ -0,0 +1,21 @@
+package com.example.samajconnectfrontend.data.local;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * A cached samaj member, stored at its position in the paged member list
+ */
+@Entity(tableName = "members", indices = {@Index({"samajId", "position"})})
+public class MemberRecord {
+    @PrimaryKey
+    public long id;
+    public long samajId;
+    // page * page size + index within the page
+    public int position;
+    public String updatedAt;
+    @NonNull
+    public String json = "";
+}
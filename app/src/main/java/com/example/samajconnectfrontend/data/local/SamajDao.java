@@ -0,0 +1,16 @@
+package com.example.samajconnectfrontend.data.local;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+@Dao
+public interface SamajDao {
+
+    @Query("SELECT * FROM samaj WHERE id = :id")
+    SamajRecord get(long id);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insert(SamajRecord samaj);
+}
@@ -0,0 +1,13 @@
+package com.example.samajconnectfrontend.data.local;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+@Entity(tableName = "samaj")
+public class SamajRecord {
+    @PrimaryKey
+    public long id;
+    @NonNull
+    public String json = "";
+}
@@ -0,0 +1,19 @@
+package com.example.samajconnectfrontend.data.local;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+@Dao
+public interface SyncStateDao {
+
+    @Query("SELECT watermark FROM sync_state WHERE kind = :kind AND samajId = :samajId")
+    String watermark(String kind, long samajId);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insert(SyncStateRecord state);
+
+    @Query("DELETE FROM sync_state WHERE kind = :kind AND samajId = :samajId")
+    void clear(String kind, long samajId);
+}
@@ -0,0 +1,25 @@
+package com.example.samajconnectfrontend.data.local;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+
+/**
+ * High-water mark of an incremental sync: the server time up to which a samaj's
+ * records of one kind are known to be in the local store
+ */
+@Entity(tableName = "sync_state", primaryKeys = {"kind", "samajId"})
+public class SyncStateRecord {
+    public static final String EVENTS = "events";
+    public static final String MEMBERS = "members";
+
+    // Not watermarks: other sync bookkeeping per kind, stored under kinds of its own.
+    // Set once the server has no changes endpoint for the kind
+    static final String CHANGES_UNSUPPORTED = "_changes_unsupported";
+    // When the kind was last downloaded in full, as System.currentTimeMillis()
+    static final String DOWNLOADED_AT = "_downloaded_at";
+
+    @NonNull
+    public String kind = EVENTS;
+    public long samajId;
+    public String watermark;
+}
@@ -0,0 +1,33 @@
+package com.example.samajconnectfrontend.data.local;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+@Dao
+public interface UserDao {
+
+    @Query("SELECT * FROM users WHERE id = :id")
+    UserRecord get(long id);
+
+    @Query("SELECT * FROM users WHERE id IN (:ids)")
+    List<UserRecord> getAll(List<Long> ids);
+
+    @Query("SELECT * FROM users WHERE samajId = :samajId")
+    List<UserRecord> forSamaj(long samajId);
+
+    @Query("SELECT COUNT(*) FROM users WHERE samajId = :samajId")
+    int count(long samajId);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertAll(List<UserRecord> users);
+
+    @Query("DELETE FROM users WHERE samajId = :samajId")
+    void deleteForSamaj(long samajId);
+
+    @Query("DELETE FROM users WHERE id IN (:ids)")
+    void deleteAll(List<Long> ids);
+}
@@ -0,0 +1,18 @@
+package com.example.samajconnectfrontend.data.local;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * A cached user profile; samajId is null when the user has not joined a samaj
+ */
+@Entity(tableName = "users", indices = {@Index("samajId")})
+public class UserRecord {
+    @PrimaryKey
+    public long id;
+    public Long samajId;
+    @NonNull
+    public String json = "";
+}
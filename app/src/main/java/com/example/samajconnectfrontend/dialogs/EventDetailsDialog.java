@@ -2,9 +2,7 @@ package com.example.samajconnectfrontend.dialogs;
 import android.app.Dialog;
 import android.content.Context;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.text.TextUtils;
-import android.util.Base64;
 import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -19,7 +17,10 @@ import com.bumptech.glide.Glide;
 import com.bumptech.glide.load.resource.bitmap.RoundedCorners;
 import com.bumptech.glide.request.RequestOptions;
 import com.example.samajconnectfrontend.R;
+import com.example.samajconnectfrontend.images.ImageLoader;
 import com.example.samajconnectfrontend.models.Event;
+import com.example.samajconnectfrontend.network.EventImages;
+import com.example.samajconnectfrontend.network.NetworkClient;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
@@ -126,27 +127,22 @@ public class EventDetailsDialog extends Dialog {
     }
 
     private void loadEventImage() {
-        // First try to load from Base64 (from API)
-        String base64Image = event.getImageBase64();
-        Log.d(TAG, "Base64 image length: " + (base64Image != null ? base64Image.length() : "null"));
-
-        if (base64Image != null && !base64Image.isEmpty()) {
-            try {
-                byte[] decodedString = Base64.decode(base64Image, Base64.DEFAULT);
-                Bitmap decodedBitmap = BitmapFactory.decodeByteArray(decodedString, 0, decodedString.length);
-                if (decodedBitmap != null) {
-                    eventImageView.setImageBitmap(decodedBitmap);
-                    Log.d(TAG, "Successfully loaded Base64 image");
-                    return;
-                } else {
-                    Log.e(TAG, "Decoded bitmap is null");
-                }
-            } catch (IllegalArgumentException e) {
-                Log.e(TAG, "Failed to decode base64 image", e);
+        // The list only had the thumbnail; the full image is fetched now that it is shown
+        EventImages.loadFull(NetworkClient.api(context), event, eventImageView, R.drawable.logo_banner, new ImageLoader.Callback() {
+            @Override
+            public void onLoaded(Bitmap bitmap) {
+                Log.d(TAG, "Successfully loaded event image");
             }
-        }
 
-        // Fallback to URL if Base64 fails or is not available
+            @Override
+            public void onFailed() {
+                // Fallback to URL if Base64 fails or is not available
+                loadEventImageFromUrl();
+            }
+        });
+    }
+
+    private void loadEventImageFromUrl() {
         String imageUrl = event.getImageUrl();
         if (!TextUtils.isEmpty(imageUrl)) {
             Log.d(TAG, "Loading image from URL: " + imageUrl);
@@ -164,6 +160,12 @@ public class EventDetailsDialog extends Dialog {
         }
     }
 
+    @Override
+    protected void onStop() {
+        super.onStop();
+        ImageLoader.cancel(eventImageView);
+    }
+
     private String[] formatDateTime(String dateString) {
         String[] result = new String[2];
 
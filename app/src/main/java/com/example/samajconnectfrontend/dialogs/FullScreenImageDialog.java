@@ -3,9 +3,7 @@ package com.example.samajconnectfrontend.dialogs;
 import android.app.Dialog;
 import android.content.Context;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.text.TextUtils;
-import android.util.Base64;
 import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -17,7 +15,11 @@ import androidx.annotation.NonNull;
 import com.bumptech.glide.Glide;
 import com.bumptech.glide.request.RequestOptions;
 import com.example.samajconnectfrontend.R;
+import com.example.samajconnectfrontend.data.ImageRef;
+import com.example.samajconnectfrontend.images.ImageLoader;
 import com.example.samajconnectfrontend.models.Event;
+import com.example.samajconnectfrontend.network.EventImages;
+import com.example.samajconnectfrontend.network.NetworkClient;
 import com.github.chrisbanes.photoview.PhotoView;
 
 public class FullScreenImageDialog extends Dialog {
@@ -29,6 +31,7 @@ public class FullScreenImageDialog extends Dialog {
 
     // New variables for profile image support
     private String base64Image;
+    private ImageRef imageRef;
     private Bitmap profileBitmap;
     private int defaultImageResource;
 
@@ -59,6 +62,17 @@ public class FullScreenImageDialog extends Dialog {
         initializeDialog();
     }
 
+    // Constructor for profile images that are still encoded (e.g. spooled family tree images)
+    public FullScreenImageDialog(@NonNull Context context, ImageRef imageRef, int defaultImageResource) {
+        super(context, android.R.style.Theme_Black_NoTitleBar_Fullscreen);
+        this.context = context;
+        this.imageRef = imageRef;
+        this.defaultImageResource = defaultImageResource;
+
+        requestWindowFeature(Window.FEATURE_NO_TITLE);
+        initializeDialog();
+    }
+
     // New constructor for profile images (Bitmap)
     public FullScreenImageDialog(@NonNull Context context, Bitmap bitmap, int defaultImageResource) {
         super(context, android.R.style.Theme_Black_NoTitleBar_Fullscreen);
@@ -87,7 +101,7 @@ public class FullScreenImageDialog extends Dialog {
             loadEventImage();
         } else if (profileBitmap != null) {
             loadBitmapImage();
-        } else if (base64Image != null) {
+        } else if (base64Image != null || imageRef != null) {
             loadBase64Image();
         } else {
             loadDefaultImage();
@@ -120,33 +134,17 @@ public class FullScreenImageDialog extends Dialog {
     }
 
     private void loadBase64Image() {
-        if (base64Image != null && !base64Image.isEmpty() && photoView != null) {
-            try {
-                // Remove data URL prefix if present
-                String cleanBase64 = base64Image;
-                if (base64Image.startsWith("data:image")) {
-                    cleanBase64 = base64Image.substring(base64Image.indexOf(",") + 1);
-                }
-
-                byte[] decodedString = Base64.decode(cleanBase64, Base64.DEFAULT);
-                Bitmap decodedBitmap = BitmapFactory.decodeByteArray(decodedString, 0, decodedString.length);
-
-                if (decodedBitmap != null) {
-                    photoView.setImageBitmap(decodedBitmap);
-                    Log.d(TAG, "Successfully loaded Base64 image");
-                    return;
-                } else {
-                    Log.e(TAG, "Decoded bitmap is null");
-                }
-            } catch (IllegalArgumentException e) {
-                Log.e(TAG, "Failed to decode base64 image", e);
-            } catch (Exception e) {
-                Log.e(TAG, "Error processing base64 image", e);
-            }
+        if (photoView == null) {
+            loadDefaultImage();
+            return;
         }
 
-        // Fallback to default if Base64 loading fails
-        loadDefaultImage();
+        // Data URL prefixes are stripped by the decoder; falls back to the default image on failure
+        if (imageRef != null) {
+            ImageLoader.load(imageRef, photoView, defaultImageResource);
+        } else {
+            ImageLoader.load(base64Image, photoView, defaultImageResource);
+        }
     }
 
     private void loadDefaultImage() {
@@ -162,36 +160,22 @@ public class FullScreenImageDialog extends Dialog {
             return;
         }
 
-        // First try to load from Base64 (from API)
-        String base64Image = event.getImageBase64();
-        Log.d(TAG, "Base64 image length: " + (base64Image != null ? base64Image.length() : "null"));
+        // The list only had the thumbnail; the full image is fetched now that it is shown
+        EventImages.loadFull(NetworkClient.api(context), event, photoView, 0, new ImageLoader.Callback() {
+            @Override
+            public void onLoaded(Bitmap bitmap) {
+                Log.d(TAG, "Successfully loaded event image");
+            }
 
-        if (base64Image != null && !base64Image.isEmpty()) {
-            try {
-                // Remove data URL prefix if present
-                String cleanBase64 = base64Image;
-                if (base64Image.startsWith("data:image")) {
-                    cleanBase64 = base64Image.substring(base64Image.indexOf(",") + 1);
-                }
-
-                byte[] decodedString = Base64.decode(cleanBase64, Base64.DEFAULT);
-                Bitmap decodedBitmap = BitmapFactory.decodeByteArray(decodedString, 0, decodedString.length);
-
-                if (decodedBitmap != null) {
-                    photoView.setImageBitmap(decodedBitmap);
-                    Log.d(TAG, "Successfully loaded Base64 image");
-                    return;
-                } else {
-                    Log.e(TAG, "Decoded bitmap is null");
-                }
-            } catch (IllegalArgumentException e) {
-                Log.e(TAG, "Failed to decode base64 image", e);
-            } catch (Exception e) {
-                Log.e(TAG, "Error processing base64 image", e);
+            @Override
+            public void onFailed() {
+                // Fallback to URL if Base64 fails or is not available
+                loadEventImageFromUrl();
             }
-        }
+        });
+    }
 
-        // Fallback to URL if Base64 fails or is not available
+    private void loadEventImageFromUrl() {
         String imageUrl = event.getImageUrl();
         if (!TextUtils.isEmpty(imageUrl)) {
             Log.d(TAG, "Loading image from URL: " + imageUrl);
@@ -211,4 +195,12 @@ public class FullScreenImageDialog extends Dialog {
             loadDefaultImage();
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        if (photoView != null) {
+            ImageLoader.cancel(photoView);
+        }
+    }
+}
@@ -3,10 +3,8 @@ package com.example.samajconnectfrontend.dialogs;
 import android.content.Context;
 import android.content.Intent;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.graphics.Color;
 import android.graphics.drawable.GradientDrawable;
-import android.util.Base64;
 import android.view.Gravity;
 import android.view.View;
 import android.view.ViewGroup;
@@ -23,6 +21,8 @@ import androidx.appcompat.app.AlertDialog;
 import androidx.cardview.widget.CardView;
 
 import com.example.samajconnectfrontend.R;
+import com.example.samajconnectfrontend.images.ImageLoader;
+import com.example.samajconnectfrontend.images.ImageOwner;
 import com.example.samajconnectfrontend.models.DetailedUserDto;
 
 import java.util.ArrayList;
@@ -75,23 +75,24 @@ public class MemberDetailsDialog {
                 CardView.LayoutParams.MATCH_PARENT));
         profileImage.setScaleType(ImageView.ScaleType.CENTER_CROP);
 
-        // Set profile image and store bitmap for full screen
-        Bitmap profileBitmap = null;
-        if (member.getProfileImageBase64() != null && !member.getProfileImageBase64().isEmpty()) {
-            try {
-                byte[] decodedBytes = Base64.decode(member.getProfileImageBase64(), Base64.DEFAULT);
-                profileBitmap = BitmapFactory.decodeByteArray(decodedBytes, 0, decodedBytes.length);
-                profileImage.setImageBitmap(profileBitmap);
-            } catch (Exception e) {
-                profileImage.setImageResource(R.drawable.ic_person_placeholder);
-            }
-        } else {
-            profileImage.setImageResource(R.drawable.ic_person_placeholder);
-        }
+        // Set profile image and store bitmap for full screen.
+        // The image view fills its card, so this decodes at screen size and one bitmap serves both.
+        final Bitmap[] profileBitmap = new Bitmap[1];
+        ImageLoader.load(ImageOwner.USER, member.getId(), member.getProfileImage(), profileImage,
+                R.drawable.ic_person_placeholder, new ImageLoader.Callback() {
+                    @Override
+                    public void onLoaded(Bitmap bitmap) {
+                        profileBitmap[0] = bitmap;
+                    }
+
+                    @Override
+                    public void onFailed() {
+                        profileBitmap[0] = null;
+                    }
+                });
 
         // Add click listener for full screen
-        final Bitmap finalBitmap = profileBitmap;
-        profileImageCard.setOnClickListener(v -> showFullScreenImage(finalBitmap));
+        profileImageCard.setOnClickListener(v -> showFullScreenImage(profileBitmap[0]));
 
         profileImageCard.addView(profileImage);
         profileContent.addView(profileImageCard);
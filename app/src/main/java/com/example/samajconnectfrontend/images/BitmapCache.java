@@ -0,0 +1,109 @@
+package com.example.samajconnectfrontend.images;
+
+import android.graphics.Bitmap;
+import android.util.Log;
+import android.util.LruCache;
+
+import java.util.Map;
+
+/**
+ * Process wide memory cache of decoded bitmaps, bounded by their byte size.
+ * Entries are keyed by the owning entity (user or event id), a hash of the encoded payload
+ * and the size they were decoded for, so a changed picture never hits a stale entry.
+ * LruCache is synchronized, so this is safe to use from the decode threads.
+ */
+public final class BitmapCache extends LruCache<BitmapCache.Key, Bitmap> {
+
+    private static final String TAG = "BitmapCache";
+
+    private static BitmapCache instance;
+
+    public static final class Key {
+        final ImageOwner owner;
+        final long entityId;
+        final long contentHash;
+        final int sizeBucket;
+
+        Key(ImageOwner owner, long entityId, long contentHash, int reqWidth, int reqHeight) {
+            this.owner = owner;
+            this.entityId = entityId;
+            this.contentHash = contentHash;
+            this.sizeBucket = sizeBucket(Math.max(reqWidth, reqHeight));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return owner == key.owner && entityId == key.entityId && contentHash == key.contentHash
+                    && sizeBucket == key.sizeBucket;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = owner.hashCode();
+            result = 31 * result + Long.hashCode(entityId);
+            result = 31 * result + Long.hashCode(contentHash);
+            result = 31 * result + sizeBucket;
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return owner.prefix + Long.toString(entityId) + "/" + Long.toHexString(contentHash) + "@" + sizeBucket;
+        }
+    }
+
+    private BitmapCache(int maxBytes) {
+        super(maxBytes);
+    }
+
+    public static synchronized BitmapCache getInstance() {
+        if (instance == null) {
+            // An eighth of the heap, the usual budget for an image memory cache
+            long maxBytes = Runtime.getRuntime().maxMemory() / 8;
+            instance = new BitmapCache((int) Math.min(maxBytes, Integer.MAX_VALUE));
+            Log.d(TAG, "Bitmap cache size: " + (maxBytes / 1024) + " KB");
+        }
+        return instance;
+    }
+
+    @Override
+    protected int sizeOf(Key key, Bitmap bitmap) {
+        return bitmap.getAllocationByteCount();
+    }
+
+    /**
+     * Drop every cached size of an entity's images, e.g. after the user uploads a new picture
+     */
+    public void removeEntity(long entityId) {
+        for (Map.Entry<Key, Bitmap> entry : snapshot().entrySet()) {
+            if (entry.getKey().entityId == entityId) {
+                remove(entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * One line summary of the counters for logs and debug screens
+     */
+    public synchronized String stats() {
+        int lookups = hitCount() + missCount();
+        int hitRate = lookups != 0 ? (100 * hitCount() / lookups) : 0;
+        return "BitmapCache[size=" + (size() / 1024) + "KB/" + (maxSize() / 1024) + "KB"
+                + ", entries=" + snapshot().size()
+                + ", hits=" + hitCount()
+                + ", misses=" + missCount()
+                + ", hitRate=" + hitRate + "%"
+                + ", evictions=" + evictionCount() + "]";
+    }
+
+    /**
+     * Sizes are bucketed to the next power of two, which is also the granularity of inSampleSize
+     */
+    static int sizeBucket(int size) {
+        if (size <= 1) return 1;
+        return Integer.highestOneBit(size - 1) << 1;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.samajconnectfrontend.images;
+
+import android.graphics.Bitmap;
+import android.os.Build;
+
+import java.io.OutputStream;
+
+/**
+ * BudgetEncoder's view of a Bitmap
+ */
+final class BitmapCodec implements BudgetEncoder.Codec<Bitmap> {
+
+    static final BitmapCodec INSTANCE = new BitmapCodec();
+
+    private BitmapCodec() {
+    }
+
+    @Override
+    public int width(Bitmap image) {
+        return image.getWidth();
+    }
+
+    @Override
+    public int height(Bitmap image) {
+        return image.getHeight();
+    }
+
+    @Override
+    public Bitmap scaled(Bitmap image, int width, int height) {
+        return Bitmap.createScaledBitmap(image, width, height, true);
+    }
+
+    @Override
+    public boolean encode(Bitmap image, BudgetEncoder.Format format, int quality, OutputStream out) {
+        return image.compress(compressFormat(format), quality, out);
+    }
+
+    @Override
+    public void release(Bitmap image) {
+        image.recycle();
+    }
+
+    @SuppressWarnings("deprecation")
+    private static Bitmap.CompressFormat compressFormat(BudgetEncoder.Format format) {
+        if (format == BudgetEncoder.Format.JPEG) {
+            return Bitmap.CompressFormat.JPEG;
+        }
+        // Before API 30 the combined WEBP format is lossy for any quality below 100
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.R
+                ? Bitmap.CompressFormat.WEBP_LOSSY : Bitmap.CompressFormat.WEBP;
+    }
+}
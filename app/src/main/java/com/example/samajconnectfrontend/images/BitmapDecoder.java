@@ -0,0 +1,115 @@
+package com.example.samajconnectfrontend.images;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.util.Base64;
+
+/**
+ * Decodes Base64 image payloads at (roughly) the size they will be displayed at.
+ * Everything here is blocking, call it from the image decode executor.
+ */
+public final class BitmapDecoder {
+
+    private static final byte[] DATA_URI_PREFIX = {'d', 'a', 't', 'a', ':'};
+
+    private BitmapDecoder() {
+    }
+
+    /**
+     * @param encoded   ASCII Base64 payload, optionally prefixed with "data:image/...;base64,"
+     * @param reqWidth  target width in pixels, or <= 0 for no limit
+     * @param reqHeight target height in pixels, or <= 0 for no limit
+     * @return the decoded bitmap, or null if the payload is not an image
+     * @throws IllegalArgumentException if the payload is not valid Base64
+     */
+    public static Bitmap decode(byte[] encoded, int reqWidth, int reqHeight) {
+        return decode(encoded, reqWidth, reqHeight, null);
+    }
+
+    /**
+     * @param pool when given, the result is decoded into a reused buffer from the pool if one fits
+     */
+    public static Bitmap decode(byte[] encoded, int reqWidth, int reqHeight, BitmapPool pool) {
+        int offset = dataUriPrefixLength(encoded);
+        byte[] bytes = Base64.decode(encoded, offset, encoded.length - offset, Base64.DEFAULT);
+        return decodeSampled(bytes, reqWidth, reqHeight, pool);
+    }
+
+    /**
+     * Decode binary (JPEG/PNG/WebP) image data, downsampled to the requested size
+     */
+    public static Bitmap decodeSampled(byte[] bytes, int reqWidth, int reqHeight, BitmapPool pool) {
+        // Bounds only first, so the full size bitmap is never allocated
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeByteArray(bytes, 0, bytes.length, options);
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            return null;
+        }
+
+        options.inSampleSize = calculateInSampleSize(options.outWidth, options.outHeight, reqWidth, reqHeight);
+        options.inJustDecodeBounds = false;
+        if (pool != null) {
+            options.inMutable = true;
+            options.inBitmap = pool.get(sampledByteCount(options.outWidth, options.outHeight, options.inSampleSize));
+        }
+
+        try {
+            return BitmapFactory.decodeByteArray(bytes, 0, bytes.length, options);
+        } catch (IllegalArgumentException e) {
+            if (options.inBitmap == null) throw e;
+            // The buffer couldn't be reused for this image, decode into a new one
+            pool.put(options.inBitmap);
+            options.inBitmap = null;
+            return BitmapFactory.decodeByteArray(bytes, 0, bytes.length, options);
+        }
+    }
+
+    /**
+     * Upper bound of the ARGB_8888 allocation for a sampled decode; decoders may round either way
+     */
+    static int sampledByteCount(int width, int height, int inSampleSize) {
+        int sampledWidth = (width + inSampleSize - 1) / inSampleSize;
+        int sampledHeight = (height + inSampleSize - 1) / inSampleSize;
+        return sampledWidth * sampledHeight * 4;
+    }
+
+    /**
+     * Largest power of two that keeps both sides at or above the requested size
+     */
+    static int calculateInSampleSize(int width, int height, int reqWidth, int reqHeight) {
+        if (reqWidth <= 0 && reqHeight <= 0) {
+            return 1;
+        }
+        if (reqWidth <= 0) reqWidth = 1;
+        if (reqHeight <= 0) reqHeight = 1;
+
+        int inSampleSize = 1;
+        while (width / (inSampleSize * 2) >= reqWidth && height / (inSampleSize * 2) >= reqHeight) {
+            inSampleSize *= 2;
+        }
+        return inSampleSize;
+    }
+
+    /**
+     * @return number of bytes to skip for a "data:...," URI header, 0 if there is none
+     */
+    static int dataUriPrefixLength(byte[] encoded) {
+        if (encoded.length < DATA_URI_PREFIX.length) {
+            return 0;
+        }
+        for (int i = 0; i < DATA_URI_PREFIX.length; i++) {
+            if (encoded[i] != DATA_URI_PREFIX[i]) {
+                return 0;
+            }
+        }
+        // The header is short, don't scan the whole payload looking for a comma
+        int limit = Math.min(encoded.length, 128);
+        for (int i = DATA_URI_PREFIX.length; i < limit; i++) {
+            if (encoded[i] == ',') {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.samajconnectfrontend.images;
+
+import android.graphics.Bitmap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Free list of mutable bitmaps whose memory can be handed to BitmapFactory through inBitmap.
+ * Only give back bitmaps nothing else references any more: not shown in a view and not in
+ * BitmapCache. Thread safe, buffers are taken on the decode threads and returned on the main thread.
+ */
+public class BitmapPool {
+
+    // Don't hand out a buffer more than this many times larger than needed
+    private static final int MAX_OVERSIZE = 4;
+
+    private final long maxBytes;
+    private final List<Bitmap> free = new ArrayList<>();
+    private long currentBytes = 0;
+    private int hitCount = 0;
+    private int missCount = 0;
+
+    public BitmapPool(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @return the smallest pooled bitmap with at least minBytes of storage, or null
+     */
+    public synchronized Bitmap get(int minBytes) {
+        Bitmap best = null;
+        for (Bitmap candidate : free) {
+            int size = candidate.getAllocationByteCount();
+            if (size >= minBytes && size <= (long) minBytes * MAX_OVERSIZE
+                    && (best == null || size < best.getAllocationByteCount())) {
+                best = candidate;
+            }
+        }
+        if (best == null) {
+            missCount++;
+            return null;
+        }
+        free.remove(best);
+        currentBytes -= best.getAllocationByteCount();
+        hitCount++;
+        return best;
+    }
+
+    public synchronized void put(Bitmap bitmap) {
+        if (bitmap == null || bitmap.isRecycled() || !bitmap.isMutable()) {
+            return;
+        }
+        int size = bitmap.getAllocationByteCount();
+        if (size > maxBytes) {
+            bitmap.recycle();
+            return;
+        }
+        // Oldest buffers go first
+        while (currentBytes + size > maxBytes && !free.isEmpty()) {
+            Bitmap eldest = free.remove(0);
+            currentBytes -= eldest.getAllocationByteCount();
+            eldest.recycle();
+        }
+        free.add(bitmap);
+        currentBytes += size;
+    }
+
+    public synchronized void clear() {
+        for (Bitmap bitmap : free) {
+            bitmap.recycle();
+        }
+        free.clear();
+        currentBytes = 0;
+    }
+
+    public synchronized String stats() {
+        return "BitmapPool[size=" + (currentBytes / 1024) + "KB/" + (maxBytes / 1024) + "KB"
+                + ", free=" + free.size()
+                + ", hits=" + hitCount
+                + ", misses=" + missCount + "]";
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.samajconnectfrontend.images;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Encodes an image to at most a given number of bytes, keeping as much quality and size as
+ * that allows. Quality is searched first (binary search between MIN_QUALITY and MAX_QUALITY);
+ * only when even MIN_QUALITY is too big is the image shrunk, by an amount estimated from how
+ * far over the budget it was, and the search repeated. Below MIN_QUALITY JPEG artifacts show
+ * more than a smaller picture does.
+ *
+ * Immutable and thread safe; encode() is blocking, call it from the image decode executor.
+ *
+ * @param <T> the image type, Bitmap in the app
+ */
+public final class BudgetEncoder<T> {
+
+    static final int MAX_QUALITY = 85;
+    static final int MIN_QUALITY = 50;
+    // Quality differences below this are not worth another encode
+    static final int QUALITY_STEP = 5;
+    // Every shrink takes at least this much off, so a stubborn image can't take many rounds
+    private static final float MAX_SHRINK = 0.9f;
+    private static final float MIN_SHRINK = 0.5f;
+
+    public enum Format {
+        JPEG("image/jpeg", ".jpg"),
+        WEBP("image/webp", ".webp");
+
+        public final String mimeType;
+        public final String extension;
+
+        Format(String mimeType, String extension) {
+            this.mimeType = mimeType;
+            this.extension = extension;
+        }
+
+        /**
+         * @return the format a file written by Encoded was saved in, JPEG if unknown
+         */
+        public static Format of(File file) {
+            return file.getName().endsWith(WEBP.extension) ? WEBP : JPEG;
+        }
+    }
+
+    /**
+     * What the encoder needs from an image type
+     */
+    public interface Codec<T> {
+        int width(T image);
+
+        int height(T image);
+
+        T scaled(T image, int width, int height);
+
+        /**
+         * @param quality 0-100, as for Bitmap.compress
+         * @return false if the image could not be encoded
+         */
+        boolean encode(T image, Format format, int quality, OutputStream out) throws IOException;
+
+        /**
+         * Called for scaled copies the encoder made and did not keep
+         */
+        void release(T image);
+    }
+
+    public static final class Encoded<T> {
+        // The image as encoded: the source, or a scaled copy when it had to shrink
+        public final T image;
+        public final Format format;
+        public final int width;
+        public final int height;
+        public final int quality;
+        // False when the image is over budget even at the smallest allowed size
+        public final boolean withinBudget;
+        private final ByteArrayOutputStream bytes;
+
+        private Encoded(T image, Format format, int width, int height, int quality, boolean withinBudget,
+                        ByteArrayOutputStream bytes) {
+            this.image = image;
+            this.format = format;
+            this.width = width;
+            this.height = height;
+            this.quality = quality;
+            this.withinBudget = withinBudget;
+            this.bytes = bytes;
+        }
+
+        public int size() {
+            return bytes.size();
+        }
+
+        public void writeTo(OutputStream out) throws IOException {
+            bytes.writeTo(out);
+        }
+
+        public byte[] toByteArray() {
+            return bytes.toByteArray();
+        }
+    }
+
+    private final Codec<T> codec;
+    private final Format format;
+    private final int maxSide;
+    private final int minSide;
+    private final int budgetBytes;
+
+    /**
+     * @param maxSide     longest side of the output; larger images are scaled down first
+     * @param minSide     the encoder gives up shrinking here and returns an over-budget result
+     * @param budgetBytes most bytes the encoded image may take
+     */
+    public BudgetEncoder(Codec<T> codec, Format format, int maxSide, int minSide, int budgetBytes) {
+        if (minSide <= 0 || minSide > maxSide || budgetBytes <= 0) {
+            throw new IllegalArgumentException("Invalid budget: " + minSide + "-" + maxSide + "px, " + budgetBytes + " bytes");
+        }
+        this.codec = codec;
+        this.format = format;
+        this.maxSide = maxSide;
+        this.minSide = minSide;
+        this.budgetBytes = budgetBytes;
+    }
+
+    public int getMaxSide() {
+        return maxSide;
+    }
+
+    public int getBudgetBytes() {
+        return budgetBytes;
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    public Encoded<T> encode(T source) throws IOException {
+        int sourceWidth = codec.width(source);
+        int sourceHeight = codec.height(source);
+        int longest = Math.max(sourceWidth, sourceHeight);
+        int side = Math.min(longest, maxSide);
+        Search search = new Search(source);
+
+        while (true) {
+            T current = side < longest
+                    ? codec.scaled(source, scaledSide(sourceWidth, side, longest), scaledSide(sourceHeight, side, longest))
+                    : source;
+            int smallest = search.fit(current);
+            search.drop(current);
+            if (search.withinBudget || side <= minSide) {
+                return search.result();
+            }
+            // Still over at the lowest quality; bytes grow about with the pixel count
+            float shrink = (float) Math.sqrt((double) budgetBytes / smallest) * 0.95f;
+            side = Math.max(minSide, Math.round(side * Math.max(MIN_SHRINK, Math.min(MAX_SHRINK, shrink))));
+        }
+    }
+
+    private static int scaledSide(int length, int side, int longest) {
+        return Math.max(1, Math.round((float) length * side / longest));
+    }
+
+    /**
+     * The state of one encode() call: the best encoding so far and a scratch buffer, swapped
+     * when an attempt becomes the best so the bytes are never copied
+     */
+    private final class Search {
+        final T source;
+        ByteArrayOutputStream attempt = new ByteArrayOutputStream(budgetBytes);
+        ByteArrayOutputStream bestBytes = new ByteArrayOutputStream(budgetBytes);
+        T current;
+        T best;
+        int bestQuality;
+        boolean withinBudget;
+
+        Search(T source) {
+            this.source = source;
+        }
+
+        /**
+         * Find the highest quality of this image that fits
+         * @return the size at MIN_QUALITY when nothing fits
+         */
+        int fit(T image) throws IOException {
+            current = image;
+            if (attempt(MAX_QUALITY) <= budgetBytes) {
+                keep(MAX_QUALITY, true);
+                return bestBytes.size();
+            }
+            int smallest = attempt(MIN_QUALITY);
+            if (smallest > budgetBytes) {
+                // Keep the smallest over-budget try in case nothing ever fits
+                if (best == null || smallest < bestBytes.size()) {
+                    keep(MIN_QUALITY, false);
+                }
+                return smallest;
+            }
+            keep(MIN_QUALITY, true);
+            int fits = MIN_QUALITY;
+            int tooBig = MAX_QUALITY;
+            while (tooBig - fits > QUALITY_STEP) {
+                int quality = (fits + tooBig) / 2;
+                if (attempt(quality) <= budgetBytes) {
+                    keep(quality, true);
+                    fits = quality;
+                } else {
+                    tooBig = quality;
+                }
+            }
+            return bestBytes.size();
+        }
+
+        private int attempt(int quality) throws IOException {
+            attempt.reset();
+            if (!codec.encode(current, format, quality, attempt)) {
+                throw new IOException("Could not encode image");
+            }
+            return attempt.size();
+        }
+
+        private void keep(int quality, boolean fits) {
+            T previous = best;
+            ByteArrayOutputStream swap = bestBytes;
+            bestBytes = attempt;
+            attempt = swap;
+            best = current;
+            bestQuality = quality;
+            withinBudget = fits;
+            if (previous != current) {
+                drop(previous);
+            }
+        }
+
+        /**
+         * Release a scaled copy unless it is still needed
+         */
+        void drop(T image) {
+            if (image != null && image != source && image != best) {
+                codec.release(image);
+            }
+        }
+
+        Encoded<T> result() {
+            return new Encoded<>(best, format, codec.width(best), codec.height(best), bestQuality, withinBudget, bestBytes);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.samajconnectfrontend.images;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Size capped, least recently used store of small encoded files (thumbnails) in one directory.
+ * Every file carries a length and CRC32 header; a truncated or corrupted entry is deleted and
+ * reported as a miss. Writes go through a temp file and a rename, so a crash mid write leaves
+ * at most a stray .tmp file, which is removed the next time the cache is opened.
+ * Access order survives restarts through file modification times.
+ * Plain java.io so it can be tested on the JVM; callers keep it off the main thread.
+ */
+public class DiskThumbnailCache {
+
+    private static final int MAGIC = 0x53544831; // "STH1"
+    private static final int HEADER_SIZE = 4 + 4 + 8;
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final File directory;
+    private final long maxBytes;
+    // Key -> file size on disk, eldest first
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalBytes = 0;
+    private int hitCount = 0;
+    private int missCount = 0;
+    private int evictionCount = 0;
+    private boolean opened = false;
+
+    public DiskThumbnailCache(File directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @return the stored bytes, or null on a miss or a corrupted entry
+     */
+    public synchronized byte[] get(String key) {
+        ensureOpen();
+        // get() rather than containsKey() so the entry moves to the most recent end
+        if (entries.get(key) == null) {
+            missCount++;
+            return null;
+        }
+
+        File file = fileFor(key);
+        try {
+            byte[] data = readVerified(file);
+            //noinspection ResultOfMethodCallIgnored
+            file.setLastModified(System.currentTimeMillis());
+            hitCount++;
+            return data;
+        } catch (IOException e) {
+            // Missing, truncated or corrupted: drop it and let the caller decode again
+            removeEntry(key);
+            missCount++;
+            return null;
+        }
+    }
+
+    public synchronized void put(String key, byte[] data) {
+        ensureOpen();
+        long fileSize = HEADER_SIZE + data.length;
+        if (fileSize > maxBytes) {
+            return;
+        }
+
+        File file = fileFor(key);
+        File temp = new File(directory, key + TEMP_SUFFIX);
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(data.length);
+            out.writeLong(crc.getValue());
+            out.write(data);
+        } catch (IOException e) {
+            //noinspection ResultOfMethodCallIgnored
+            temp.delete();
+            return;
+        }
+
+        Long previous = entries.remove(key);
+        if (previous != null) {
+            totalBytes -= previous;
+        }
+        if (!temp.renameTo(file)) {
+            //noinspection ResultOfMethodCallIgnored
+            temp.delete();
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+            return;
+        }
+        entries.put(key, fileSize);
+        totalBytes += fileSize;
+        trimToSize();
+    }
+
+    public synchronized void remove(String key) {
+        ensureOpen();
+        removeEntry(key);
+    }
+
+    /**
+     * @return the most recently used key starting with the prefix, or null
+     */
+    public synchronized String mostRecentKeyWithPrefix(String prefix) {
+        ensureOpen();
+        String found = null;
+        for (String key : entries.keySet()) {
+            if (key.startsWith(prefix)) {
+                found = key;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @return keys from least to most recently used
+     */
+    public synchronized List<String> keys() {
+        ensureOpen();
+        return new ArrayList<>(entries.keySet());
+    }
+
+    public synchronized long size() {
+        ensureOpen();
+        return totalBytes;
+    }
+
+    public synchronized String stats() {
+        return "DiskThumbnailCache[size=" + (totalBytes / 1024) + "KB/" + (maxBytes / 1024) + "KB"
+                + ", entries=" + entries.size()
+                + ", hits=" + hitCount
+                + ", misses=" + missCount
+                + ", evictions=" + evictionCount + "]";
+    }
+
+    /**
+     * Index the directory lazily, so constructing the cache never touches the disk
+     */
+    private void ensureOpen() {
+        if (opened) return;
+        opened = true;
+
+        if (!directory.exists() && !directory.mkdirs()) {
+            return;
+        }
+        File[] files = directory.listFiles();
+        if (files == null) return;
+
+        // Oldest first, so the LinkedHashMap ends up in access order
+        Arrays.sort(files, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        for (File file : files) {
+            if (file.getName().endsWith(TEMP_SUFFIX) || file.length() < HEADER_SIZE) {
+                // Interrupted write
+                //noinspection ResultOfMethodCallIgnored
+                file.delete();
+                continue;
+            }
+            entries.put(file.getName(), file.length());
+            totalBytes += file.length();
+        }
+        trimToSize();
+    }
+
+    private void trimToSize() {
+        Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<String, Long> eldest = iterator.next();
+            iterator.remove();
+            totalBytes -= eldest.getValue();
+            //noinspection ResultOfMethodCallIgnored
+            fileFor(eldest.getKey()).delete();
+            evictionCount++;
+        }
+    }
+
+    private void removeEntry(String key) {
+        Long size = entries.remove(key);
+        if (size != null) {
+            totalBytes -= size;
+        }
+        //noinspection ResultOfMethodCallIgnored
+        fileFor(key).delete();
+    }
+
+    private File fileFor(String key) {
+        return new File(directory, key);
+    }
+
+    private static byte[] readVerified(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Bad header in " + file.getName());
+            }
+            int length = in.readInt();
+            long expectedCrc = in.readLong();
+            if (length < 0 || length != file.length() - HEADER_SIZE) {
+                throw new IOException("Bad length in " + file.getName());
+            }
+            byte[] data = new byte[length];
+            in.readFully(data);
+
+            CRC32 crc = new CRC32();
+            crc.update(data, 0, data.length);
+            if (crc.getValue() != expectedCrc) {
+                throw new IOException("Checksum mismatch in " + file.getName());
+            }
+            return data;
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package com.example.samajconnectfrontend.images;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Matrix;
+import android.net.Uri;
+import android.util.Log;
+
+import androidx.exifinterface.media.ExifInterface;
+
+import com.example.samajconnectfrontend.utils.AppExecutors;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.Executor;
+
+/**
+ * Turns a photo picked for upload into a preview bitmap and a JPEG file, off the main thread
+ * and in one pass: the content is read once into a pooled buffer, and the bounds, the EXIF
+ * orientation and the pixels all come from that buffer. The bitmap is decoded close to the
+ * target size, rotated and scaled in a single step, then encoded to fit a byte budget by a
+ * BudgetEncoder.
+ */
+public class ImageIngestor {
+
+    private static final String TAG = "ImageIngestor";
+
+    // Event images: shown full width and in the full screen viewer
+    public static final BudgetEncoder<Bitmap> EVENT_IMAGE =
+            new BudgetEncoder<>(BitmapCodec.INSTANCE, BudgetEncoder.Format.JPEG, 1024, 480, 300 * 1024);
+    // What event lists and the dashboard carousel download instead of the full image
+    public static final BudgetEncoder<Bitmap> EVENT_THUMBNAIL =
+            new BudgetEncoder<>(BitmapCodec.INSTANCE, BudgetEncoder.Format.JPEG, 480, 240, 32 * 1024);
+    // Profile photos: only ever shown as avatars, and sent Base64 inside the profile JSON
+    public static final BudgetEncoder<Bitmap> PROFILE_PHOTO =
+            new BudgetEncoder<>(BitmapCodec.INSTANCE, BudgetEncoder.Format.JPEG, 400, 160, 48 * 1024);
+
+    public static class Result {
+        public final Bitmap preview;
+        // Ready to upload; the caller owns it and calls delete() when done. Null when ingesting to memory
+        public final File file;
+        // Small version of the same image, when the ingestor makes one
+        public final File thumbnail;
+        public final BudgetEncoder.Encoded<Bitmap> encoded;
+
+        Result(File file, File thumbnail, BudgetEncoder.Encoded<Bitmap> encoded) {
+            this.preview = encoded.image;
+            this.file = file;
+            this.thumbnail = thumbnail;
+            this.encoded = encoded;
+        }
+
+        public void delete() {
+            if (file != null) file.delete();
+            if (thumbnail != null) thumbnail.delete();
+        }
+    }
+
+    public interface Callback {
+        void onIngested(Result result);
+
+        void onFailed(Exception e);
+    }
+
+    private interface Step {
+        Result run() throws Exception;
+    }
+
+    private final ContentResolver resolver;
+    private final BudgetEncoder<Bitmap> encoder;
+    private final BudgetEncoder<Bitmap> thumbnailEncoder;
+    private final File outputDir;
+    private final Executor worker;
+    private final Executor callbackExecutor;
+
+    /**
+     * Event images and their thumbnails, written to files in the cache dir
+     */
+    public ImageIngestor(Context context) {
+        this(context, EVENT_IMAGE, EVENT_THUMBNAIL, context.getCacheDir());
+    }
+
+    /**
+     * @param thumbnailEncoder encodes the thumbnail from the encoded image, or null for none
+     * @param outputDir        where the encoded files go, or null to keep the encoding in memory only
+     */
+    public ImageIngestor(Context context, BudgetEncoder<Bitmap> encoder, BudgetEncoder<Bitmap> thumbnailEncoder,
+                         File outputDir) {
+        this(context.getContentResolver(), encoder, thumbnailEncoder, outputDir,
+                AppExecutors.imageDecode(), AppExecutors.mainThread());
+    }
+
+    ImageIngestor(ContentResolver resolver, BudgetEncoder<Bitmap> encoder, BudgetEncoder<Bitmap> thumbnailEncoder,
+                  File outputDir, Executor worker, Executor callbackExecutor) {
+        this.resolver = resolver;
+        this.encoder = encoder;
+        this.thumbnailEncoder = thumbnailEncoder;
+        this.outputDir = outputDir;
+        this.worker = worker;
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    /**
+     * Ingest a photo from the gallery or a document provider
+     */
+    public void ingest(Uri uri, Callback callback) {
+        submit(() -> fromUri(uri), callback);
+    }
+
+    /**
+     * Ingest a bitmap already in memory, e.g. the camera's result
+     */
+    public void ingest(Bitmap bitmap, Callback callback) {
+        submit(() -> encode(orientAndFit(bitmap, ExifInterface.ORIENTATION_NORMAL)), callback);
+    }
+
+    private void submit(Step step, Callback callback) {
+        worker.execute(() -> {
+            try {
+                Result result = step.run();
+                callbackExecutor.execute(() -> callback.onIngested(result));
+            } catch (Exception | OutOfMemoryError e) {
+                Log.e(TAG, "Error ingesting image", e);
+                Exception failure = e instanceof Exception ? (Exception) e : new IOException("Image too large", e);
+                callbackExecutor.execute(() -> callback.onFailed(failure));
+            }
+        });
+    }
+
+    /**
+     * Let go of the pooled read buffer; the photo forms call this when they close
+     */
+    public static void releasePooledMemory() {
+        PooledBuffer.clearPool();
+    }
+
+    private Result fromUri(Uri uri) throws IOException {
+        PooledBuffer buffer;
+        try (InputStream in = resolver.openInputStream(uri)) {
+            if (in == null) {
+                throw new FileNotFoundException("Cannot open " + uri);
+            }
+            buffer = PooledBuffer.read(in);
+        }
+
+        Bitmap decoded;
+        int orientation;
+        try {
+            BitmapFactory.Options options = new BitmapFactory.Options();
+            options.inJustDecodeBounds = true;
+            BitmapFactory.decodeByteArray(buffer.data, 0, buffer.length, options);
+            if (options.outWidth <= 0 || options.outHeight <= 0) {
+                throw new IOException("Not an image: " + uri);
+            }
+
+            // The EXIF reader only looks at the header
+            orientation = new ExifInterface(new ByteArrayInputStream(buffer.data, 0, buffer.length))
+                    .getAttributeInt(ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_NORMAL);
+
+            options.inJustDecodeBounds = false;
+            options.inSampleSize = sampleSizeToFit(options.outWidth, options.outHeight, encoder.getMaxSide());
+            decoded = BitmapFactory.decodeByteArray(buffer.data, 0, buffer.length, options);
+        } finally {
+            buffer.release();
+        }
+        if (decoded == null) {
+            throw new IOException("Cannot decode " + uri);
+        }
+        Bitmap fitted = orientAndFit(decoded, orientation);
+        if (fitted != decoded) {
+            // Nothing else has seen the decoded copy
+            decoded.recycle();
+        }
+        return encode(fitted);
+    }
+
+    /**
+     * Apply the EXIF orientation and shrink to the encoder's max side with one matrix, so one
+     * bitmap is made
+     * @return the source itself when it is already upright and small enough
+     */
+    private Bitmap orientAndFit(Bitmap source, int orientation) {
+        Matrix matrix = new Matrix();
+        float scale = fitScale(source.getWidth(), source.getHeight(), encoder.getMaxSide());
+        if (scale < 1f) {
+            matrix.postScale(scale, scale);
+        }
+        switch (orientation) {
+            case ExifInterface.ORIENTATION_FLIP_HORIZONTAL:
+                matrix.postScale(-1, 1);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_180:
+                matrix.postRotate(180);
+                break;
+            case ExifInterface.ORIENTATION_FLIP_VERTICAL:
+                matrix.postScale(1, -1);
+                break;
+            case ExifInterface.ORIENTATION_TRANSPOSE:
+                matrix.postRotate(90);
+                matrix.postScale(-1, 1);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_90:
+                matrix.postRotate(90);
+                break;
+            case ExifInterface.ORIENTATION_TRANSVERSE:
+                matrix.postRotate(270);
+                matrix.postScale(-1, 1);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_270:
+                matrix.postRotate(270);
+                break;
+            default:
+                break;
+        }
+        if (matrix.isIdentity()) {
+            return source;
+        }
+        return Bitmap.createBitmap(source, 0, 0, source.getWidth(), source.getHeight(), matrix, true);
+    }
+
+    private Result encode(Bitmap bitmap) throws IOException {
+        BudgetEncoder.Encoded<Bitmap> encoded = encoder.encode(bitmap);
+        Log.d(TAG, "Ingested " + encoded.width + "x" + encoded.height + " image at quality " + encoded.quality
+                + ", " + encoded.size() + " bytes" + (encoded.withinBudget ? "" : " (over budget)"));
+        if (outputDir == null) {
+            return new Result(null, null, encoded);
+        }
+
+        File file = write("upload-", encoded);
+        if (thumbnailEncoder == null) {
+            return new Result(file, null, encoded);
+        }
+        try {
+            // From the already shrunk image, which is a fraction of the original's pixels
+            BudgetEncoder.Encoded<Bitmap> thumbnail = thumbnailEncoder.encode(encoded.image);
+            File thumbnailFile = write("thumb-", thumbnail);
+            if (thumbnail.image != encoded.image) {
+                thumbnail.image.recycle();
+            }
+            return new Result(file, thumbnailFile, encoded);
+        } catch (IOException | RuntimeException e) {
+            file.delete();
+            throw e;
+        }
+    }
+
+    private File write(String prefix, BudgetEncoder.Encoded<Bitmap> encoded) throws IOException {
+        File file = File.createTempFile(prefix, encoded.format.extension, outputDir);
+        try (OutputStream out = new FileOutputStream(file)) {
+            encoded.writeTo(out);
+        } catch (IOException e) {
+            file.delete();
+            throw e;
+        }
+        return file;
+    }
+
+    /**
+     * Largest power of two that keeps the longest side at or above maxSide, so the decode is
+     * as small as possible without having to scale up afterwards
+     */
+    static int sampleSizeToFit(int width, int height, int maxSide) {
+        int longest = Math.max(width, height);
+        int sampleSize = 1;
+        while (longest / (sampleSize * 2) >= maxSide) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+
+    /**
+     * @return factor that brings the longest side down to maxSide, never more than 1
+     */
+    static float fitScale(int width, int height, int maxSide) {
+        int longest = Math.max(width, height);
+        return longest > maxSide ? (float) maxSide / longest : 1f;
+    }
+
+    /**
+     * A whole stream read into a byte array borrowed from a small pool. Photos are several MB,
+     * so reusing the array saves allocating (and later collecting) one per pick.
+     */
+    static final class PooledBuffer {
+
+        // The forms read one photo at a time
+        static final int MAX_POOLED = 1;
+        // Bigger arrays are dropped after use instead of pinning the memory
+        static final int MAX_POOLED_BYTES = 8 * 1024 * 1024;
+        private static final int INITIAL_BYTES = 256 * 1024;
+        private static final Deque<byte[]> FREE = new ArrayDeque<>();
+
+        byte[] data;
+        int length;
+
+        private PooledBuffer(byte[] data) {
+            this.data = data;
+        }
+
+        static PooledBuffer read(InputStream in) throws IOException {
+            // One spare byte, so a stream that reports its size is read without growing the array
+            PooledBuffer buffer = new PooledBuffer(take(Math.max(in.available() + 1, INITIAL_BYTES)));
+            try {
+                int read;
+                while ((read = in.read(buffer.data, buffer.length, buffer.data.length - buffer.length)) != -1) {
+                    buffer.length += read;
+                    if (buffer.length == buffer.data.length) {
+                        buffer.data = Arrays.copyOf(buffer.data, buffer.data.length * 2);
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                buffer.release();
+                throw e;
+            }
+            return buffer;
+        }
+
+        void release() {
+            if (data == null) {
+                return;
+            }
+            synchronized (FREE) {
+                if (data.length <= MAX_POOLED_BYTES && FREE.size() < MAX_POOLED) {
+                    FREE.push(data);
+                }
+            }
+            data = null;
+        }
+
+        private static byte[] take(int minBytes) {
+            synchronized (FREE) {
+                for (byte[] candidate : FREE) {
+                    if (candidate.length >= minBytes) {
+                        FREE.remove(candidate);
+                        return candidate;
+                    }
+                }
+            }
+            return new byte[minBytes];
+        }
+
+        static void clearPool() {
+            synchronized (FREE) {
+                FREE.clear();
+            }
+        }
+    }
+}
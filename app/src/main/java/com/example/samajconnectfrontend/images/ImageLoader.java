@@ -0,0 +1,357 @@
+package com.example.samajconnectfrontend.images;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.util.DisplayMetrics;
+import android.util.Log;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+
+import com.example.samajconnectfrontend.data.ImageRef;
+import com.example.samajconnectfrontend.utils.AppExecutors;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Future;
+
+/**
+ * Loads Base64 images into ImageViews without blocking the UI thread.
+ * Payloads are decoded on AppExecutors.imageDecode(), downsampled to the target view size,
+ * and dropped if the view was recycled or given another image in the meantime.
+ * Loads that name the owning user/event id go through the shared BitmapCache and the
+ * on-disk ThumbnailStore before falling back to a full decode.
+ * All methods must be called on the main thread.
+ */
+public final class ImageLoader {
+
+    private static final String TAG = "ImageLoader";
+
+    public interface Callback {
+        void onLoaded(Bitmap bitmap);
+
+        void onFailed();
+    }
+
+    /**
+     * A decode started by decode(); cancel() on the main thread guarantees the callback won't run
+     */
+    public interface Pending {
+        void cancel();
+    }
+
+    interface EncodedSource {
+        byte[] read() throws IOException;
+    }
+
+    /**
+     * Binary image data (JPEG/PNG/WebP) that has to be fetched, e.g. over the network
+     */
+    public interface Fetcher {
+        /**
+         * Blocking, called on a background thread
+         * @return the image data, or null if there is no image
+         */
+        byte[] fetch() throws IOException;
+    }
+
+    // Only touched from the main thread
+    private static final Map<ImageView, Task> TASKS = new WeakHashMap<>();
+
+    private ImageLoader() {
+    }
+
+    public static void load(String base64, ImageView target, int placeholderRes) {
+        load(base64, target, placeholderRes, null);
+    }
+
+    /**
+     * Uncached load, for one-off large images such as the full screen viewer
+     * @param placeholderRes shown while decoding and on failure, 0 to leave the view as is
+     */
+    public static void load(String base64, ImageView target, int placeholderRes, Callback callback) {
+        start(null, sourceOf(base64), target, placeholderRes, callback);
+    }
+
+    public static void load(ImageOwner owner, Long entityId, String base64, ImageView target, int placeholderRes) {
+        load(owner, entityId, base64, target, placeholderRes, null);
+    }
+
+    /**
+     * Cached load of an image owned by a user or event
+     */
+    public static void load(ImageOwner owner, Long entityId, String base64, ImageView target, int placeholderRes,
+                            Callback callback) {
+        EncodedSource source = sourceOf(base64);
+        long contentHash = source != null ? hashOf(base64) : 0;
+        start(owner, entityId, contentHash, source, target, placeholderRes, callback);
+    }
+
+    /**
+     * Cached load of an image that is only fetched when shown, such as an event's full image.
+     * The memory and disk caches are tried first, so the fetch only runs on a miss; it runs on
+     * the network executor so a slow network can't hold up the decode or background threads.
+     * @param version changes whenever the image does; stands in for the content hash
+     */
+    public static void loadFetched(ImageOwner owner, long entityId, long version, Fetcher fetcher, ImageView target,
+                                   int placeholderRes, Callback callback) {
+        int[] size = targetSize(target);
+        BitmapCache.Key key = new BitmapCache.Key(owner, entityId, version, size[0], size[1]);
+        Bitmap cached = BitmapCache.getInstance().get(key);
+        if (cached != null) {
+            cancel(target);
+            target.setImageBitmap(cached);
+            if (callback != null) callback.onLoaded(cached);
+            return;
+        }
+        cancel(target);
+        if (placeholderRes != 0) {
+            target.setImageResource(placeholderRes);
+        }
+
+        Task task = new Task(fetcher::fetch, target, size[0], size[1], placeholderRes, key,
+                ThumbnailStore.getInstance(target.getContext()), callback);
+        task.binary = true;
+        TASKS.put(target, task);
+        task.future = AppExecutors.networkIO().submit(task);
+    }
+
+    public static void load(ImageRef image, ImageView target, int placeholderRes) {
+        start(null, image == null ? null : image::readEncoded, target, placeholderRes, null);
+    }
+
+    public static void load(ImageOwner owner, Long entityId, ImageRef image, ImageView target, int placeholderRes) {
+        load(owner, entityId, image, target, placeholderRes, null);
+    }
+
+    public static void load(ImageOwner owner, Long entityId, ImageRef image, ImageView target, int placeholderRes,
+                            Callback callback) {
+        long contentHash = image != null ? image.contentHash() : 0;
+        start(owner, entityId, contentHash, image == null ? null : image::readEncoded, target,
+                placeholderRes, callback);
+    }
+
+    /**
+     * Decode without a target view, e.g. for custom drawn views.
+     * With a pool the bitmap is decoded into a reused buffer and belongs to the caller, who
+     * returns it to the pool when done; it is never put in BitmapCache. Without one a cache hit
+     * calls back immediately on the calling thread.
+     * @return the pending decode, or null if the callback already ran
+     */
+    public static Pending decode(Context context, ImageOwner owner, Long entityId, ImageRef image,
+                                 int reqWidth, int reqHeight, BitmapPool pool, Callback callback) {
+        BitmapCache.Key key = new BitmapCache.Key(owner, idOf(entityId), image.contentHash(), reqWidth, reqHeight);
+        if (pool == null) {
+            Bitmap cached = BitmapCache.getInstance().get(key);
+            if (cached != null) {
+                callback.onLoaded(cached);
+                return null;
+            }
+        }
+
+        Task task = new Task(image::readEncoded, null, reqWidth, reqHeight, 0, key,
+                ThumbnailStore.getInstance(context), callback);
+        task.pool = pool;
+        task.future = AppExecutors.imageDecode().submit(task);
+        return task::cancel;
+    }
+
+    /**
+     * Show whatever thumbnail was last stored for this entity, without its payload.
+     * Used to paint known avatars on cold start while the network request is in flight;
+     * a later load() into the same view replaces it.
+     */
+    public static void loadLastKnown(ImageOwner owner, Long entityId, ImageView target) {
+        if (entityId == null) return;
+        cancel(target);
+
+        int[] size = targetSize(target);
+        Task task = new Task(null, target, size[0], size[1], 0, null,
+                ThumbnailStore.getInstance(target.getContext()), null);
+        task.lastKnownOwner = owner;
+        task.lastKnownEntityId = entityId;
+        TASKS.put(target, task);
+        task.future = AppExecutors.imageDecode().submit(task);
+    }
+
+    /**
+     * Stop any pending load for this view. Call from onViewRecycled and before loading into
+     * the view by other means (Glide, setImageResource) so a late result can't overwrite it.
+     */
+    public static void cancel(ImageView target) {
+        Task task = TASKS.remove(target);
+        if (task != null) {
+            task.cancel();
+        }
+    }
+
+    private static void start(ImageOwner owner, Long entityId, long contentHash, EncodedSource source,
+                              ImageView target, int placeholderRes, Callback callback) {
+        if (source == null) {
+            start(null, null, target, placeholderRes, callback);
+            return;
+        }
+
+        int[] size = targetSize(target);
+        BitmapCache.Key key = new BitmapCache.Key(owner, idOf(entityId), contentHash, size[0], size[1]);
+        Bitmap cached = BitmapCache.getInstance().get(key);
+        if (cached != null) {
+            cancel(target);
+            target.setImageBitmap(cached);
+            if (callback != null) callback.onLoaded(cached);
+            return;
+        }
+        start(key, source, target, placeholderRes, callback);
+    }
+
+    private static void start(BitmapCache.Key key, EncodedSource source, ImageView target,
+                              int placeholderRes, Callback callback) {
+        cancel(target);
+
+        if (placeholderRes != 0) {
+            target.setImageResource(placeholderRes);
+        }
+        if (source == null) {
+            if (callback != null) callback.onFailed();
+            return;
+        }
+
+        int[] size = targetSize(target);
+        ThumbnailStore thumbnails = key != null ? ThumbnailStore.getInstance(target.getContext()) : null;
+        Task task = new Task(source, target, size[0], size[1], placeholderRes, key, thumbnails, callback);
+        TASKS.put(target, task);
+        task.future = AppExecutors.imageDecode().submit(task);
+    }
+
+    private static EncodedSource sourceOf(String base64) {
+        return base64 == null || base64.isEmpty() ? null : () -> base64.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * String caches its own hashCode, so rebinding the same payload doesn't rescan it
+     */
+    private static long hashOf(String base64) {
+        return ((long) base64.length() << 32) | (base64.hashCode() & 0xffffffffL);
+    }
+
+    private static long idOf(Long entityId) {
+        return entityId != null ? entityId : 0L;
+    }
+
+    /**
+     * Use the laid out size if there is one, then fixed layout params, then the screen
+     */
+    private static int[] targetSize(ImageView view) {
+        int width = view.getWidth();
+        int height = view.getHeight();
+        ViewGroup.LayoutParams params = view.getLayoutParams();
+        if (width <= 0 && params != null && params.width > 0) width = params.width;
+        if (height <= 0 && params != null && params.height > 0) height = params.height;
+
+        DisplayMetrics metrics = view.getResources().getDisplayMetrics();
+        if (width <= 0) width = metrics.widthPixels;
+        if (height <= 0) height = metrics.heightPixels;
+        return new int[]{width, height};
+    }
+
+    private static final class Task implements Runnable {
+        private final EncodedSource source;
+        private final ImageView target;
+        private final int reqWidth;
+        private final int reqHeight;
+        private final int placeholderRes;
+        private final BitmapCache.Key cacheKey;
+        private final ThumbnailStore thumbnails;
+        private final Callback callback;
+        private volatile boolean cancelled;
+        Future<?> future;
+        ImageOwner lastKnownOwner;
+        long lastKnownEntityId;
+        BitmapPool pool;
+        // The source gives image data rather than Base64
+        boolean binary;
+
+        Task(EncodedSource source, ImageView target, int reqWidth, int reqHeight,
+             int placeholderRes, BitmapCache.Key cacheKey, ThumbnailStore thumbnails, Callback callback) {
+            this.source = source;
+            this.target = target;
+            this.reqWidth = reqWidth;
+            this.reqHeight = reqHeight;
+            this.placeholderRes = placeholderRes;
+            this.cacheKey = cacheKey;
+            this.thumbnails = thumbnails;
+            this.callback = callback;
+        }
+
+        void cancel() {
+            cancelled = true;
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+
+        @Override
+        public void run() {
+            if (cancelled) return;
+
+            Bitmap bitmap;
+            if (source == null) {
+                bitmap = thumbnails.getLatest(lastKnownOwner, lastKnownEntityId, reqWidth, reqHeight);
+            } else {
+                bitmap = thumbnails != null ? thumbnails.get(cacheKey, pool) : null;
+            }
+            if (bitmap == null && source != null) {
+                try {
+                    byte[] data = source.read();
+                    if (data != null && !cancelled) {
+                        bitmap = binary
+                                ? BitmapDecoder.decodeSampled(data, reqWidth, reqHeight, pool)
+                                : BitmapDecoder.decode(data, reqWidth, reqHeight, pool);
+                    }
+                } catch (IOException | IllegalArgumentException e) {
+                    Log.e(TAG, "Failed to load image", e);
+                } catch (OutOfMemoryError e) {
+                    Log.e(TAG, "Out of memory decoding " + reqWidth + "x" + reqHeight + " image", e);
+                }
+                if (bitmap != null && thumbnails != null && !cancelled) {
+                    thumbnails.put(cacheKey, bitmap);
+                }
+            }
+
+            if (bitmap != null && cacheKey != null && pool == null) {
+                BitmapCache.getInstance().put(cacheKey, bitmap);
+            }
+
+            Bitmap result = bitmap;
+            AppExecutors.mainThread().execute(() -> deliver(result));
+        }
+
+        // On the main thread, so a cancel() made there before this runs is always seen
+        private void deliver(Bitmap bitmap) {
+            if (cancelled) {
+                if (pool != null && bitmap != null) {
+                    // Nobody else has seen it
+                    pool.put(bitmap);
+                }
+                return;
+            }
+            if (target != null) {
+                if (TASKS.get(target) != this) return;
+                TASKS.remove(target);
+                if (bitmap != null) {
+                    target.setImageBitmap(bitmap);
+                } else if (placeholderRes != 0) {
+                    target.setImageResource(placeholderRes);
+                }
+            }
+            if (callback != null) {
+                if (bitmap != null) {
+                    callback.onLoaded(bitmap);
+                } else {
+                    callback.onFailed();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.samajconnectfrontend.images;
+
+/**
+ * The kind of entity an image belongs to. User and event ids come from separate tables
+ * and overlap, so cache keys carry the kind as well as the id.
+ */
+public enum ImageOwner {
+    USER('u'),
+    EVENT('e');
+
+    // Leads the thumbnail file name
+    final char prefix;
+
+    ImageOwner(char prefix) {
+        this.prefix = prefix;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.samajconnectfrontend.images;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Build;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+
+/**
+ * Decoded, pre-scaled thumbnails persisted in the app cache dir, so images already shown once
+ * are not decoded from Base64 again after a restart. Backed by DiskThumbnailCache;
+ * all methods do disk I/O and must be called off the main thread.
+ */
+public final class ThumbnailStore {
+
+    private static final long MAX_BYTES = 32L * 1024 * 1024;
+    private static final int QUALITY = 85;
+
+    private static volatile ThumbnailStore instance;
+
+    private final DiskThumbnailCache cache;
+
+    private ThumbnailStore(Context context) {
+        cache = new DiskThumbnailCache(new File(context.getCacheDir(), "thumbnails"), MAX_BYTES);
+    }
+
+    public static ThumbnailStore getInstance(Context context) {
+        if (instance == null) {
+            synchronized (ThumbnailStore.class) {
+                if (instance == null) {
+                    instance = new ThumbnailStore(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    public Bitmap get(BitmapCache.Key key) {
+        return get(key, null);
+    }
+
+    /**
+     * @param pool buffers to decode into, see BitmapDecoder.decodeSampled
+     */
+    public Bitmap get(BitmapCache.Key key, BitmapPool pool) {
+        byte[] data = cache.get(fileName(key));
+        return data != null ? BitmapDecoder.decodeSampled(data, 0, 0, pool) : null;
+    }
+
+    /**
+     * The last thumbnail stored for an entity at this size, whatever its payload was.
+     * Lets a screen paint a known avatar before its network response arrives.
+     */
+    public Bitmap getLatest(ImageOwner owner, long entityId, int reqWidth, int reqHeight) {
+        String key = cache.mostRecentKeyWithPrefix(
+                prefix(owner, entityId, BitmapCache.sizeBucket(Math.max(reqWidth, reqHeight))));
+        return key != null ? decode(cache.get(key)) : null;
+    }
+
+    public void put(BitmapCache.Key key, Bitmap bitmap) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (bitmap.compress(format(bitmap), QUALITY, out)) {
+            cache.put(fileName(key), out.toByteArray());
+        }
+    }
+
+    public String stats() {
+        return cache.stats();
+    }
+
+    private static Bitmap decode(byte[] data) {
+        return data != null ? BitmapFactory.decodeByteArray(data, 0, data.length) : null;
+    }
+
+    @SuppressWarnings("deprecation")
+    private static Bitmap.CompressFormat format(Bitmap bitmap) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+            return Bitmap.CompressFormat.WEBP_LOSSY;
+        }
+        // Only the combined WEBP format exists before API 30; JPEG encodes faster when there is no alpha
+        return bitmap.hasAlpha() ? Bitmap.CompressFormat.WEBP : Bitmap.CompressFormat.JPEG;
+    }
+
+    /**
+     * {owner}entity_size_hash, so entries of one entity at one size share a prefix
+     */
+    static String fileName(BitmapCache.Key key) {
+        return prefix(key.owner, key.entityId, key.sizeBucket) + Long.toHexString(key.contentHash);
+    }
+
+    static String prefix(ImageOwner owner, long entityId, int sizeBucket) {
+        return owner.prefix + Long.toString(entityId) + "_" + sizeBucket + "_";
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.samajconnectfrontend.models;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * Common {success, message, data} envelope returned by most endpoints
+ */
+public class ApiResponse<T> {
+    @SerializedName("success")
+    private boolean success;
+
+    @SerializedName("message")
+    private String message;
+
+    @SerializedName("error")
+    private String error;
+
+    @SerializedName("data")
+    private T data;
+
+    // Constructors
+    public ApiResponse() {}
+
+    public ApiResponse(boolean success, String message, T data) {
+        this.success = success;
+        this.message = message;
+        this.data = data;
+    }
+
+    // Getters and Setters
+    public boolean isSuccess() { return success; }
+    public void setSuccess(boolean success) { this.success = success; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public T getData() { return data; }
+    public void setData(T data) { this.data = data; }
+}
@@ -0,0 +1,38 @@
+package com.example.samajconnectfrontend.models;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.List;
+
+/**
+ * Records created, updated or deleted since a watermark, returned by the changes endpoints
+ */
+public class ChangeSet<T> {
+    @SerializedName("changed")
+    private List<T> changed;
+
+    // Tombstones: ids deleted since the watermark
+    @SerializedName("deletedIds")
+    private List<Long> deletedIds;
+
+    // Server clock when the change set was taken; the watermark for the next request
+    @SerializedName("serverTime")
+    private String serverTime;
+
+    public ChangeSet() {}
+
+    public ChangeSet(List<T> changed, List<Long> deletedIds, String serverTime) {
+        this.changed = changed;
+        this.deletedIds = deletedIds;
+        this.serverTime = serverTime;
+    }
+
+    public List<T> getChanged() { return changed; }
+    public void setChanged(List<T> changed) { this.changed = changed; }
+
+    public List<Long> getDeletedIds() { return deletedIds; }
+    public void setDeletedIds(List<Long> deletedIds) { this.deletedIds = deletedIds; }
+
+    public String getServerTime() { return serverTime; }
+    public void setServerTime(String serverTime) { this.serverTime = serverTime; }
+}
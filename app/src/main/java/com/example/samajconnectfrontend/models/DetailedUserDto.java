@@ -1,5 +1,10 @@
 package com.example.samajconnectfrontend.models;
 
+import com.example.samajconnectfrontend.data.ImageBlobStore;
+import com.example.samajconnectfrontend.data.ImageRef;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.annotations.SerializedName;
+
 public class DetailedUserDto {
     private Long id;
     private String name;
@@ -7,7 +12,9 @@ public class DetailedUserDto {
     private String gender;
     private String phoneNumber;
     private String address;
-    private String profileImageBase64;
+    @SerializedName("profileImageBase64")
+    @JsonAdapter(ImageBlobStore.Base64Adapter.class)
+    private ImageRef profileImage;
     private Boolean isAdmin;
 
     // Getters and setters
@@ -29,8 +36,8 @@ public class DetailedUserDto {
     public String getAddress() { return address; }
     public void setAddress(String address) { this.address = address; }
 
-    public String getProfileImageBase64() { return profileImageBase64; }
-    public void setProfileImageBase64(String profileImageBase64) { this.profileImageBase64 = profileImageBase64; }
+    public ImageRef getProfileImage() { return profileImage; }
+    public void setProfileImage(ImageRef profileImage) { this.profileImage = profileImage; }
 
     public Boolean getIsAdmin() { return isAdmin; }
     public void setIsAdmin(Boolean isAdmin) { this.isAdmin = isAdmin; }
@@ -1,5 +1,8 @@
 package com.example.samajconnectfrontend.models;
 
+import com.example.samajconnectfrontend.data.ImageBlobStore;
+import com.example.samajconnectfrontend.data.ImageRef;
+import com.google.gson.annotations.JsonAdapter;
 import com.google.gson.annotations.SerializedName;
 
 public class Event {
@@ -23,8 +26,14 @@ public class Event {
     @SerializedName("samajId")
     private Long samajId;
 
+    // Full image; list endpoints leave it out and send thumbnailBase64 instead
     @SerializedName("imageBase64")
-    private String imageBase64;
+    @JsonAdapter(ImageBlobStore.Base64Adapter.class)
+    private ImageRef image;
+
+    @SerializedName("thumbnailBase64")
+    @JsonAdapter(ImageBlobStore.Base64Adapter.class)
+    private ImageRef thumbnail;
 
     // New fields from backend
     @SerializedName("updatedAt")
@@ -60,7 +69,7 @@ public class Event {
         this.createdAt = createdAt;
         this.createdBy = createdBy;
         this.samajId = samajId;
-        this.imageBase64 = imageBase64;
+        this.image = ImageBlobStore.getInstance().intern(imageBase64);
         this.title = title;
         this.description = description;
         this.location = location;
@@ -98,8 +107,11 @@ public class Event {
     public Long getSamajId() { return samajId; }
     public void setSamajId(Long samajId) { this.samajId = samajId; }
 
-    public String getImageBase64() { return imageBase64; }
-    public void setImageBase64(String imageBase64) { this.imageBase64 = imageBase64; }
+    public ImageRef getImage() { return image; }
+    public void setImage(ImageRef image) { this.image = image; }
+
+    public ImageRef getThumbnail() { return thumbnail; }
+    public void setThumbnail(ImageRef thumbnail) { this.thumbnail = thumbnail; }
 
     // New getters and setters for added fields
     public String getUpdatedAt() { return updatedAt; }
@@ -210,7 +222,8 @@ public class Event {
                 ", createdAt='" + createdAt + '\'' +
                 ", createdBy=" + createdBy +
                 ", samajId=" + samajId +
-                ", imageBase64='" + (imageBase64 != null ? "[BASE64_DATA]" : null) + '\'' +
+                ", image=" + (image != null ? image.length() + " bytes" : null) +
+                ", thumbnail=" + (thumbnail != null ? thumbnail.length() + " bytes" : null) +
                 ", updatedAt='" + updatedAt + '\'' +
                 ", likeCount=" + likeCount +
                 ", dislikeCount=" + dislikeCount +
@@ -1,5 +1,10 @@
 package com.example.samajconnectfrontend.models;
 
+import com.example.samajconnectfrontend.data.ImageBlobStore;
+import com.example.samajconnectfrontend.data.ImageRef;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.annotations.SerializedName;
+
 public class Member {
     private int id;
     private String name;
@@ -7,7 +12,9 @@ public class Member {
     private String gender;
     private String phoneNumber;
     private String address;
-    private String profileImageBase64;
+    @SerializedName("profileImageBase64")
+    @JsonAdapter(ImageBlobStore.Base64Adapter.class)
+    private ImageRef profileImage;
     private boolean isAdmin;
     private String createdAt;
     private String updatedAt;
@@ -26,7 +33,7 @@ public class Member {
         this.gender = gender;
         this.phoneNumber = phoneNumber;
         this.address = address;
-        this.profileImageBase64 = profileImageBase64;
+        this.profileImage = ImageBlobStore.getInstance().intern(profileImageBase64);
         this.isAdmin = isAdmin;
         this.createdAt = createdAt;
         this.updatedAt = updatedAt;
@@ -53,8 +60,8 @@ public class Member {
     public String getAddress() { return address; }
     public void setAddress(String address) { this.address = address; }
 
-    public String getProfileImageBase64() { return profileImageBase64; }
-    public void setProfileImageBase64(String profileImageBase64) { this.profileImageBase64 = profileImageBase64; }
+    public ImageRef getProfileImage() { return profileImage; }
+    public void setProfileImage(ImageRef profileImage) { this.profileImage = profileImage; }
 
     public boolean isAdmin() { return isAdmin; }
     public void setAdmin(boolean admin) { isAdmin = admin; }
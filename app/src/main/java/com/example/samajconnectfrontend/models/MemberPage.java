@@ -0,0 +1,56 @@
+package com.example.samajconnectfrontend.models;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.List;
+
+/**
+ * Paged member list returned by the samaj members and member search endpoints
+ */
+public class MemberPage<T> {
+    @SerializedName("samajName")
+    private String samajName;
+
+    @SerializedName("totalMembers")
+    private int totalMembers;
+
+    @SerializedName("currentPage")
+    private int currentPage;
+
+    @SerializedName("totalPages")
+    private int totalPages;
+
+    @SerializedName("hasNext")
+    private boolean hasNext;
+
+    @SerializedName("hasPrevious")
+    private boolean hasPrevious;
+
+    @SerializedName("members")
+    private List<T> members;
+
+    // Constructors
+    public MemberPage() {}
+
+    // Getters and Setters
+    public String getSamajName() { return samajName; }
+    public void setSamajName(String samajName) { this.samajName = samajName; }
+
+    public int getTotalMembers() { return totalMembers; }
+    public void setTotalMembers(int totalMembers) { this.totalMembers = totalMembers; }
+
+    public int getCurrentPage() { return currentPage; }
+    public void setCurrentPage(int currentPage) { this.currentPage = currentPage; }
+
+    public int getTotalPages() { return totalPages; }
+    public void setTotalPages(int totalPages) { this.totalPages = totalPages; }
+
+    public boolean hasNext() { return hasNext; }
+    public void setHasNext(boolean hasNext) { this.hasNext = hasNext; }
+
+    public boolean hasPrevious() { return hasPrevious; }
+    public void setHasPrevious(boolean hasPrevious) { this.hasPrevious = hasPrevious; }
+
+    public List<T> getMembers() { return members; }
+    public void setMembers(List<T> members) { this.members = members; }
+}
@@ -0,0 +1,20 @@
+package com.example.samajconnectfrontend.models;
+
+public class MemberSearchRequest {
+    private Long samajId;
+    private String query;
+    private int page;
+    private int size;
+
+    public MemberSearchRequest(Long samajId, String query, int page, int size) {
+        this.samajId = samajId;
+        this.query = query;
+        this.page = page;
+        this.size = size;
+    }
+
+    public Long getSamajId() { return samajId; }
+    public String getQuery() { return query; }
+    public int getPage() { return page; }
+    public int getSize() { return size; }
+}
@@ -121,6 +121,26 @@ public class ReactionStats {
                 userReaction.getReactionType().equalsIgnoreCase("DISLIKE");
     }
 
+    /**
+     * Copy of these stats as they will be once the user's reaction is set, for showing a
+     * reaction before the server has confirmed it
+     * @param reactionType "LIKE", "DISLIKE", or null to remove the user's reaction
+     */
+    public ReactionStats withUserReaction(Long userId, Long eventId, String reactionType) {
+        long likes = likeCount;
+        long dislikes = dislikeCount;
+        if (hasUserLiked()) likes--;
+        if (hasUserDisliked()) dislikes--;
+
+        EventReaction reaction = null;
+        if (reactionType != null) {
+            reaction = new EventReaction(userId, eventId, reactionType.toUpperCase());
+            if (reaction.isLike()) likes++;
+            if (reaction.isDislike()) dislikes++;
+        }
+        return new ReactionStats(Math.max(0, likes), Math.max(0, dislikes), reaction);
+    }
+
     public String getReactionSummary() {
         if (totalReactions == 0) {
             return "No reactions yet";
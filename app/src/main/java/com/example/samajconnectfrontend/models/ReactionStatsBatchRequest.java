@@ -0,0 +1,21 @@
+package com.example.samajconnectfrontend.models;
+
+import java.util.List;
+
+public class ReactionStatsBatchRequest {
+    private Long userId;
+    private List<Long> eventIds;
+
+    public ReactionStatsBatchRequest(Long userId, List<Long> eventIds) {
+        this.userId = userId;
+        this.eventIds = eventIds;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public List<Long> getEventIds() {
+        return eventIds;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.samajconnectfrontend.models;
+
+import com.example.samajconnectfrontend.data.ImageBlobStore;
+import com.example.samajconnectfrontend.data.ImageRef;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * A samaj member as returned by the family tree member search, with their relationship
+ * status towards the searching user
+ */
+public class SamajMember {
+    public Long userId;
+    public String name;
+    public String email;
+    public String gender;
+    public String phoneNumber;
+    public String relationshipStatus = "AVAILABLE";
+    public String relationshipStatusText = "Available";
+    @SerializedName("profileImageBase64")
+    @JsonAdapter(ImageBlobStore.Base64Adapter.class)
+    public ImageRef profileImage;
+    public boolean isSelected = false;
+}
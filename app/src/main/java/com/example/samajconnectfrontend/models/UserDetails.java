@@ -0,0 +1,84 @@
+package com.example.samajconnectfrontend.models;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * User record returned by GET /users/{id}
+ */
+public class UserDetails {
+    @SerializedName("id")
+    private Long id;
+
+    @SerializedName("name")
+    private String name;
+
+    @SerializedName("email")
+    private String email;
+
+    @SerializedName("gender")
+    private String gender;
+
+    @SerializedName("phoneNumber")
+    private String phoneNumber;
+
+    @SerializedName("address")
+    private String address;
+
+    @SerializedName("dateOfBirth")
+    private String dateOfBirth;
+
+    @SerializedName("bio")
+    private String bio;
+
+    @SerializedName("isAdmin")
+    private boolean isAdmin;
+
+    @SerializedName("profileImgBase64")
+    private String profileImgBase64;
+
+    @SerializedName("createdAt")
+    private String createdAt;
+
+    @SerializedName("samaj")
+    private Samaj samaj;
+
+    // Constructors
+    public UserDetails() {}
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+
+    public String getGender() { return gender; }
+    public void setGender(String gender) { this.gender = gender; }
+
+    public String getPhoneNumber() { return phoneNumber; }
+    public void setPhoneNumber(String phoneNumber) { this.phoneNumber = phoneNumber; }
+
+    public String getAddress() { return address; }
+    public void setAddress(String address) { this.address = address; }
+
+    public String getDateOfBirth() { return dateOfBirth; }
+    public void setDateOfBirth(String dateOfBirth) { this.dateOfBirth = dateOfBirth; }
+
+    public String getBio() { return bio; }
+    public void setBio(String bio) { this.bio = bio; }
+
+    public boolean isAdmin() { return isAdmin; }
+    public void setAdmin(boolean admin) { isAdmin = admin; }
+
+    public String getProfileImgBase64() { return profileImgBase64; }
+    public void setProfileImgBase64(String profileImgBase64) { this.profileImgBase64 = profileImgBase64; }
+
+    public String getCreatedAt() { return createdAt; }
+    public void setCreatedAt(String createdAt) { this.createdAt = createdAt; }
+
+    public Samaj getSamaj() { return samaj; }
+    public void setSamaj(Samaj samaj) { this.samaj = samaj; }
+}
@@ -0,0 +1,27 @@
+package com.example.samajconnectfrontend.models;
+
+import com.google.gson.annotations.SerializedName;
+
+public class UserResponse {
+    @SerializedName("success")
+    private boolean success;
+
+    @SerializedName("message")
+    private String message;
+
+    @SerializedName("user")
+    private UserDetails user;
+
+    // Constructors
+    public UserResponse() {}
+
+    // Getters and Setters
+    public boolean isSuccess() { return success; }
+    public void setSuccess(boolean success) { this.success = success; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public UserDetails getUser() { return user; }
+    public void setUser(UserDetails user) { this.user = user; }
+}
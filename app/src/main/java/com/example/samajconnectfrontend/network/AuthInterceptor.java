@@ -0,0 +1,35 @@
+package com.example.samajconnectfrontend.network;
+
+import android.content.SharedPreferences;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Adds the stored bearer token to API calls that don't already carry one
+ */
+public class AuthInterceptor implements Interceptor {
+
+    private final SharedPreferences sharedPrefs;
+
+    public AuthInterceptor(SharedPreferences sharedPrefs) {
+        this.sharedPrefs = sharedPrefs;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        String authToken = sharedPrefs.getString("auth_token", "");
+
+        if (authToken.isEmpty() || request.header("Authorization") != null) {
+            return chain.proceed(request);
+        }
+
+        return chain.proceed(request.newBuilder()
+                .header("Authorization", "Bearer " + authToken)
+                .build());
+    }
+}
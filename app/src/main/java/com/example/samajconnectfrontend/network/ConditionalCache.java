@@ -0,0 +1,123 @@
+package com.example.samajconnectfrontend.network;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+
+/**
+ * Conditional GETs for list endpoints. Remembers the ETag / Last-Modified of each URL together
+ * with the model parsed from its body, and sends them back as If-None-Match / If-Modified-Since.
+ * A 304 then carries no body and is answered from the remembered model, so an unchanged refresh
+ * costs neither the download nor the parse.
+ *
+ * Install as an interceptor on the Retrofit client, and pass responses of the calls that should
+ * benefit through {@link #resolve}. Only URLs whose model was handed to resolve are sent
+ * conditionally, so other callers never see a 304 they can't handle.
+ */
+public class ConditionalCache implements Interceptor {
+
+    // Parsed lists can be large; keep only the most recently used ones
+    static final int MAX_ENTRIES = 16;
+
+    private static class Entry {
+        String etag;
+        String lastModified;
+        Object model;
+    }
+
+    private final Map<String, Entry> entries = new LinkedHashMap<String, Entry>(MAX_ENTRIES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    @Override
+    public okhttp3.Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (!"GET".equals(request.method())
+                || request.header("If-None-Match") != null || request.header("If-Modified-Since") != null) {
+            return chain.proceed(request);
+        }
+
+        String key = request.url().toString();
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+        }
+        Request original = request;
+        if (entry != null && entry.model != null) {
+            Request.Builder conditional = request.newBuilder()
+                    // Lets resolve() answer the 304 with this model even if the entry is dropped meanwhile
+                    .tag(Entry.class, entry);
+            if (entry.etag != null) {
+                conditional.header("If-None-Match", entry.etag);
+            }
+            if (entry.lastModified != null) {
+                conditional.header("If-Modified-Since", entry.lastModified);
+            }
+            request = conditional.build();
+        } else {
+            entry = null;
+        }
+
+        okhttp3.Response response = chain.proceed(request);
+        if (response.code() == 304 && entry != null && !isRemembered(key, entry)) {
+            // Evicted, or replaced by a concurrent 200, while the request was out; ask once more
+            // without validators rather than answer from a model the cache has let go of
+            response.close();
+            response = chain.proceed(original);
+        }
+        if (response.code() == 200) {
+            String etag = response.header("ETag");
+            String lastModified = response.header("Last-Modified");
+            synchronized (this) {
+                if (etag == null && lastModified == null) {
+                    entries.remove(key);
+                } else {
+                    // The model arrives in resolve() once the body is parsed
+                    Entry fresh = new Entry();
+                    fresh.etag = etag;
+                    fresh.lastModified = lastModified;
+                    entries.put(key, fresh);
+                }
+            }
+        }
+        return response;
+    }
+
+    private synchronized boolean isRemembered(String key, Entry entry) {
+        return entries.get(key) == entry;
+    }
+
+    /**
+     * @return the parsed body of a 200, the model the validators were sent for on a 304, or null
+     * when the call failed or a 304 arrived for a request this cache did not make conditional
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T> T resolve(retrofit2.Response<T> response) {
+        if (isNotModified(response)) {
+            Entry validated = response.raw().request().tag(Entry.class);
+            return validated != null ? (T) validated.model : null;
+        }
+        if (!response.isSuccessful()) {
+            return null;
+        }
+        Entry entry = entries.get(response.raw().request().url().toString());
+        if (entry != null && entry.model == null) {
+            entry.model = response.body();
+        }
+        return response.body();
+    }
+
+    public static boolean isNotModified(retrofit2.Response<?> response) {
+        return response.code() == 304;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+}
@@ -0,0 +1,276 @@
+package com.example.samajconnectfrontend.network;
+
+import android.util.Log;
+
+import com.example.samajconnectfrontend.models.EventResponse;
+import com.example.samajconnectfrontend.models.SamajResponse;
+import com.example.samajconnectfrontend.models.UserResponse;
+
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Loads what the dashboard needs: the user, their samaj and its upcoming events. The samaj
+ * and events requests don't wait for the user; they go out together with it, for the samaj
+ * the user belonged to last session. If the user turns out to have moved, those two are
+ * cancelled and sent again for the new samaj. Only a first launch, with no samaj cached,
+ * pays for the user round trip before the other two.
+ */
+public class DashboardBootstrap {
+
+    private static final String TAG = "DashboardBootstrap";
+
+    /**
+     * Called on the callback executor. Failure status codes are HTTP codes, or -1 when the
+     * request never got a response.
+     */
+    public interface Listener {
+        void onUserLoaded(UserResponse response);
+        void onUserFailed(int statusCode);
+
+        /**
+         * The user belongs to a different samaj than the one asked for up front; samaj and
+         * events already delivered were for the old one and are being loaded again
+         */
+        void onSamajChanged(long samajId);
+
+        void onNoSamaj();
+
+        /**
+         * @param unchanged the server answered 304 and the model is the one delivered last time
+         */
+        void onSamajLoaded(SamajResponse response, boolean unchanged);
+        void onSamajFailed(int statusCode);
+        void onEventsLoaded(EventResponse response, boolean unchanged);
+        void onEventsFailed(int statusCode);
+
+        /**
+         * Every request has answered; called once per {@link #start}
+         */
+        void onFinished(Timings timings);
+    }
+
+    /**
+     * Milliseconds from start until each request answered, -1 for requests never made
+     */
+    public static class Timings {
+        public long userMs = -1;
+        public long samajMs = -1;
+        public long eventsMs = -1;
+        public long totalMs = -1;
+        // The samaj guessed up front was wrong and had to be requested again
+        public boolean reconciled = false;
+
+        @Override
+        public String toString() {
+            return "user " + userMs + "ms, samaj " + samajMs + "ms, events " + eventsMs
+                    + "ms, total " + totalMs + "ms" + (reconciled ? " (samaj changed)" : "");
+        }
+    }
+
+    private final SamajApi api;
+    private final ConditionalCache conditionalCache;
+    private final Executor callbackExecutor;
+
+    private Run current;
+
+    /**
+     * @param callbackExecutor where responses are handled and listeners called; all state is
+     *                         confined to it
+     */
+    public DashboardBootstrap(SamajApi api, ConditionalCache conditionalCache, Executor callbackExecutor) {
+        this.api = api;
+        this.conditionalCache = conditionalCache;
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    /**
+     * Start loading, cancelling a load still in progress
+     * @param cachedSamajId the user's samaj from last session, or null if unknown
+     */
+    public void start(long userId, Long cachedSamajId, Listener listener) {
+        cancel();
+        current = new Run(userId, listener);
+        current.begin(cachedSamajId != null && cachedSamajId > 0 ? cachedSamajId : null);
+    }
+
+    /**
+     * Drop the load in progress; its listener is not called again
+     */
+    public void cancel() {
+        if (current != null) {
+            current.cancel();
+            current = null;
+        }
+    }
+
+    private class Run {
+        private final long userId;
+        private final Listener listener;
+        private final long startedAt = System.nanoTime();
+        private final Timings timings = new Timings();
+
+        private Call<UserResponse> userCall;
+        private Call<SamajResponse> samajCall;
+        private Call<EventResponse> eventsCall;
+        // The samaj the samaj and events calls were sent for
+        private Long requestedSamajId;
+        private boolean userDone = false;
+        // Cancelled, or finished and reported
+        private boolean closed = false;
+
+        Run(long userId, Listener listener) {
+            this.userId = userId;
+            this.listener = listener;
+        }
+
+        void begin(Long cachedSamajId) {
+            userCall = api.getUser(userId);
+            userCall.enqueue(callback(this::onUser, this::onUserError));
+            if (cachedSamajId != null) {
+                requestSamaj(cachedSamajId);
+            }
+        }
+
+        void cancel() {
+            closed = true;
+            cancelCall(userCall);
+            cancelCall(samajCall);
+            cancelCall(eventsCall);
+        }
+
+        private void requestSamaj(long samajId) {
+            requestedSamajId = samajId;
+            timings.samajMs = -1;
+            timings.eventsMs = -1;
+
+            Call<SamajResponse> samaj = api.getSamaj(samajId);
+            samajCall = samaj;
+            samaj.enqueue(callback(response -> {
+                if (samajCall != samaj) return;
+                samajCall = null;
+                timings.samajMs = elapsedMs();
+                SamajResponse body = conditionalCache.resolve(response);
+                if (body != null) {
+                    listener.onSamajLoaded(body, ConditionalCache.isNotModified(response));
+                } else {
+                    listener.onSamajFailed(response.code());
+                }
+                finishIfDone();
+            }, failure -> {
+                if (samajCall != samaj) return;
+                samajCall = null;
+                timings.samajMs = elapsedMs();
+                listener.onSamajFailed(-1);
+                finishIfDone();
+            }));
+
+            Call<EventResponse> events = api.getUpcomingEvents(samajId);
+            eventsCall = events;
+            events.enqueue(callback(response -> {
+                if (eventsCall != events) return;
+                eventsCall = null;
+                timings.eventsMs = elapsedMs();
+                EventResponse body = conditionalCache.resolve(response);
+                if (body != null) {
+                    listener.onEventsLoaded(body, ConditionalCache.isNotModified(response));
+                } else {
+                    listener.onEventsFailed(response.code());
+                }
+                finishIfDone();
+            }, failure -> {
+                if (eventsCall != events) return;
+                eventsCall = null;
+                timings.eventsMs = elapsedMs();
+                listener.onEventsFailed(-1);
+                finishIfDone();
+            }));
+        }
+
+        private void onUser(Response<UserResponse> response) {
+            userDone = true;
+            timings.userMs = elapsedMs();
+            UserResponse body = response.body();
+            if (!response.isSuccessful() || body == null || !body.isSuccess() || body.getUser() == null) {
+                listener.onUserFailed(response.code());
+                finishIfDone();
+                return;
+            }
+            listener.onUserLoaded(body);
+
+            Long samajId = body.getUser().getSamaj() != null ? body.getUser().getSamaj().getId() : null;
+            if (samajId == null) {
+                // Whatever was guessed up front doesn't apply any more
+                cancelCall(samajCall);
+                cancelCall(eventsCall);
+                samajCall = null;
+                eventsCall = null;
+                listener.onNoSamaj();
+            } else if (requestedSamajId == null) {
+                requestSamaj(samajId);
+            } else if (!samajId.equals(requestedSamajId)) {
+                Log.d(TAG, "User moved from samaj " + requestedSamajId + " to " + samajId);
+                cancelCall(samajCall);
+                cancelCall(eventsCall);
+                timings.reconciled = true;
+                listener.onSamajChanged(samajId);
+                requestSamaj(samajId);
+            }
+            finishIfDone();
+        }
+
+        private void onUserError(Throwable t) {
+            userDone = true;
+            timings.userMs = elapsedMs();
+            Log.e(TAG, "Error loading user " + userId, t);
+            listener.onUserFailed(-1);
+            finishIfDone();
+        }
+
+        private void finishIfDone() {
+            if (closed || !userDone || samajCall != null || eventsCall != null) {
+                return;
+            }
+            closed = true;
+            timings.totalMs = elapsedMs();
+            Log.d(TAG, "Dashboard loaded: " + timings);
+            listener.onFinished(timings);
+        }
+
+        private long elapsedMs() {
+            return (System.nanoTime() - startedAt) / 1_000_000;
+        }
+
+        /**
+         * Hands the outcome to the callback executor, dropping it if this run was cancelled meanwhile
+         */
+        private <T> Callback<T> callback(Consumer<Response<T>> onResponse,
+                                         Consumer<Throwable> onFailure) {
+            return new Callback<T>() {
+                @Override
+                public void onResponse(Call<T> call, Response<T> response) {
+                    callbackExecutor.execute(() -> {
+                        if (!closed) onResponse.accept(response);
+                    });
+                }
+
+                @Override
+                public void onFailure(Call<T> call, Throwable t) {
+                    callbackExecutor.execute(() -> {
+                        if (!closed && !call.isCanceled()) onFailure.accept(t);
+                    });
+                }
+            };
+        }
+    }
+
+    private static void cancelCall(Call<?> call) {
+        if (call != null) {
+            call.cancel();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.samajconnectfrontend.network;
+
+import android.graphics.Bitmap;
+import android.widget.ImageView;
+
+import com.example.samajconnectfrontend.data.ImageRef;
+import com.example.samajconnectfrontend.images.ImageLoader;
+import com.example.samajconnectfrontend.images.ImageOwner;
+import com.example.samajconnectfrontend.models.Event;
+
+import java.io.IOException;
+
+import okhttp3.ResponseBody;
+import retrofit2.Response;
+
+/**
+ * Event images come in two sizes. List screens show the thumbnail that arrives inline with
+ * the event; the full image is only fetched from the server when a dialog shows it, so a list
+ * download never carries full images.
+ * Must be called on the main thread, like ImageLoader.
+ */
+public final class EventImages {
+
+    // Keeps the full image's cache entries apart from the thumbnail's
+    private static final long FULL_IMAGE = 0x46554c4c00000000L;
+
+    private EventImages() {
+    }
+
+    /**
+     * For list items. Falls back to the full payload for a server that still sends one.
+     */
+    public static void loadThumbnail(Event event, ImageView target, int placeholderRes, ImageLoader.Callback callback) {
+        ImageRef thumbnail = event.getThumbnail();
+        ImageLoader.load(ImageOwner.EVENT, event.getId(), thumbnail != null ? thumbnail : event.getImage(),
+                target, placeholderRes, callback);
+    }
+
+    /**
+     * For the detail and full screen dialogs. If the full image can't be fetched, the
+     * thumbnail is shown instead; onFailed is only called when there is neither.
+     */
+    public static void loadFull(SamajApi api, Event event, ImageView target, int placeholderRes,
+                                ImageLoader.Callback callback) {
+        ImageRef thumbnail = event.getThumbnail();
+        if (event.getImage() != null || thumbnail == null || event.getId() == null) {
+            // Already here in full, or there is no image at all
+            ImageLoader.load(ImageOwner.EVENT, event.getId(), event.getImage(), target, placeholderRes, callback);
+            return;
+        }
+
+        long eventId = event.getId();
+        ImageLoader.loadFetched(ImageOwner.EVENT, eventId, fullImageVersion(thumbnail), () -> fetchFull(api, eventId),
+                target, placeholderRes, new ImageLoader.Callback() {
+                    @Override
+                    public void onLoaded(Bitmap bitmap) {
+                        if (callback != null) callback.onLoaded(bitmap);
+                    }
+
+                    @Override
+                    public void onFailed() {
+                        ImageLoader.load(ImageOwner.EVENT, eventId, thumbnail, target, placeholderRes, callback);
+                    }
+                });
+    }
+
+    /**
+     * Blocking
+     * @return the image data, or null if the event has no image
+     */
+    static byte[] fetchFull(SamajApi api, long eventId) throws IOException {
+        Response<ResponseBody> response = api.getEventImage(eventId).execute();
+        try (ResponseBody body = response.isSuccessful() ? response.body() : response.errorBody()) {
+            if (response.code() == 404) {
+                return null;
+            }
+            if (!response.isSuccessful() || body == null) {
+                throw new IOException("Event image " + eventId + ": HTTP " + response.code());
+            }
+            return body.bytes();
+        }
+    }
+
+    /**
+     * A new image always comes with a new thumbnail, so the thumbnail identifies the version
+     */
+    static long fullImageVersion(ImageRef thumbnail) {
+        return FULL_IMAGE ^ thumbnail.contentHash();
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.samajconnectfrontend.network;
+
+import android.util.Log;
+
+import com.example.samajconnectfrontend.images.BudgetEncoder;
+import com.example.samajconnectfrontend.utils.AppExecutors;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.File;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.MediaType;
+import okhttp3.MultipartBody;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.Response;
+
+/**
+ * Creates and updates events as multipart requests: the event fields go as a small JSON part
+ * and the image and its thumbnail are streamed from files, so they are never held in memory
+ * as bytes or Base64.
+ * Network failures and 5xx answers are retried with a doubling delay, re-reading the same
+ * file; every attempt carries the same Idempotency-Key so the server can tell a retry from
+ * a new event. Listener calls arrive on the callback executor and stop once cancelled.
+ */
+public class EventUploader {
+
+    private static final String TAG = "EventUploader";
+
+    static final int MAX_ATTEMPTS = 3;
+    static final long RETRY_DELAY_MS = 1000;
+
+    public interface Listener {
+        /**
+         * How much of the full image has been sent; starts over if the upload is retried
+         */
+        void onProgress(long sent, long total);
+
+        void onUploaded(JsonObject response);
+
+        /**
+         * @param statusCode HTTP status code, or -1 when the request never got a response
+         * @param message the server's explanation, or null
+         */
+        void onFailed(int statusCode, String message);
+    }
+
+    // Retries are rare; one idle thread serves every uploader
+    private static final class Retries {
+        static final ScheduledExecutorService SCHEDULER =
+                Executors.newSingleThreadScheduledExecutor(AppExecutors.namedThreads("upload-retry"));
+    }
+
+    private final SamajApi api;
+    private final ScheduledExecutorService scheduler;
+    private final Executor callbackExecutor;
+    private final long retryDelayMs;
+
+    public EventUploader(SamajApi api, Executor callbackExecutor) {
+        this(api, Retries.SCHEDULER, callbackExecutor, RETRY_DELAY_MS);
+    }
+
+    EventUploader(SamajApi api, ScheduledExecutorService scheduler, Executor callbackExecutor, long retryDelayMs) {
+        this.api = api;
+        this.scheduler = scheduler;
+        this.callbackExecutor = callbackExecutor;
+        this.retryDelayMs = retryDelayMs;
+    }
+
+    /**
+     * @param uploadKey the same for every submission of the same form, so a resubmit after a
+     *                  lost response doesn't create the event twice
+     * @param image JPEG or WebP to attach, or null
+     * @param thumbnail small version of the image for list screens, or null
+     */
+    public Upload create(String uploadKey, JsonObject event, File image, File thumbnail, Listener listener) {
+        Upload upload = new Upload(listener);
+        upload.start(api.createEvent(uploadKey, event, upload.imagePart(image), thumbnailPart(thumbnail)));
+        return upload;
+    }
+
+    /**
+     * @param image replacement image, or null to keep the current image
+     * @param thumbnail its thumbnail, or null
+     */
+    public Upload update(String uploadKey, long eventId, JsonObject event, File image, File thumbnail,
+                         Listener listener) {
+        Upload upload = new Upload(listener);
+        upload.start(api.updateEvent(uploadKey, eventId, event, upload.imagePart(image), thumbnailPart(thumbnail)));
+        return upload;
+    }
+
+    private static MultipartBody.Part thumbnailPart(File thumbnail) {
+        if (thumbnail == null) {
+            return null;
+        }
+        // A few KB; not worth reporting progress for
+        MediaType type = MediaType.get(BudgetEncoder.Format.of(thumbnail).mimeType);
+        return MultipartBody.Part.createFormData("thumbnail", thumbnail.getName(), RequestBody.create(thumbnail, type));
+    }
+
+    public class Upload {
+
+        private final Listener listener;
+        private volatile Call<JsonObject> call;
+        private volatile boolean cancelled;
+        private int attempts;
+        private int reportedPercent = -1;
+
+        private Upload(Listener listener) {
+            this.listener = listener;
+        }
+
+        /**
+         * Stop sending and drop the outcome; no listener calls follow
+         */
+        public void cancel() {
+            cancelled = true;
+            Call<JsonObject> current = call;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        private MultipartBody.Part imagePart(File image) {
+            if (image == null) {
+                return null;
+            }
+            MediaType type = MediaType.get(BudgetEncoder.Format.of(image).mimeType);
+            return MultipartBody.Part.createFormData("image", image.getName(),
+                    new ProgressRequestBody(image, type, this::onProgress));
+        }
+
+        private void start(Call<JsonObject> first) {
+            call = first;
+            send();
+        }
+
+        private void send() {
+            if (cancelled) {
+                return;
+            }
+            attempts++;
+            reportedPercent = -1;
+            call.enqueue(new retrofit2.Callback<JsonObject>() {
+                @Override
+                public void onResponse(Call<JsonObject> c, Response<JsonObject> response) {
+                    if (cancelled) return;
+                    if (response.isSuccessful()) {
+                        JsonObject body = response.body() != null ? response.body() : new JsonObject();
+                        deliver(() -> listener.onUploaded(body));
+                        return;
+                    }
+                    int code = response.code();
+                    String message = serverMessage(response.errorBody());
+                    if ((code == 408 || code == 429 || code >= 500) && attempts < MAX_ATTEMPTS) {
+                        Log.w(TAG, "Upload answered HTTP " + code + ", retrying");
+                        retryLater();
+                        return;
+                    }
+                    Log.e(TAG, "Upload failed: HTTP " + code);
+                    deliver(() -> listener.onFailed(code, message));
+                }
+
+                @Override
+                public void onFailure(Call<JsonObject> c, Throwable t) {
+                    if (cancelled || c.isCanceled()) return;
+                    if (attempts < MAX_ATTEMPTS) {
+                        Log.w(TAG, "Upload interrupted, retrying", t);
+                        retryLater();
+                        return;
+                    }
+                    Log.e(TAG, "Upload failed", t);
+                    deliver(() -> listener.onFailed(-1, null));
+                }
+            });
+        }
+
+        private void retryLater() {
+            scheduler.schedule(() -> {
+                // A call runs once; its clone sends the same request, image re-read from the file
+                call = call.clone();
+                send();
+            }, retryDelayMs << (attempts - 1), TimeUnit.MILLISECONDS);
+        }
+
+        private void onProgress(long sent, long total) {
+            // Called per chunk; only pass on whole-percent steps
+            int percent = total > 0 ? (int) (sent * 100 / total) : 100;
+            if (percent == reportedPercent) return;
+            reportedPercent = percent;
+            deliver(() -> listener.onProgress(sent, total));
+        }
+
+        private void deliver(Runnable callback) {
+            callbackExecutor.execute(() -> {
+                if (!cancelled) {
+                    callback.run();
+                }
+            });
+        }
+    }
+
+    private static String serverMessage(ResponseBody errorBody) {
+        if (errorBody == null) {
+            return null;
+        }
+        try {
+            JsonObject json = JsonParser.parseString(errorBody.string()).getAsJsonObject();
+            return json.has("message") && !json.get("message").isJsonNull()
+                    ? json.get("message").getAsString() : null;
+        } catch (Exception e) {
+            return null;
+        } finally {
+            errorBody.close();
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.samajconnectfrontend.network;
+
+import android.util.Log;
+
+import com.example.samajconnectfrontend.models.ApiResponse;
+import com.example.samajconnectfrontend.models.Member;
+import com.example.samajconnectfrontend.models.MemberPage;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+import retrofit2.Call;
+import retrofit2.Response;
+
+/**
+ * Pages of a samaj's member list for one screen. Keeps the last few pages in memory and
+ * fetches the page after the one on screen in the background, so flipping forward or back
+ * usually needs no request at all. Used both by the Previous/Next buttons and, through
+ * {@link MemberPagingSource}, by continuous scrolling.
+ *
+ * Call everything on the callback executor (the main thread in the app). A page that is
+ * already in memory is delivered before {@link #load} returns.
+ */
+public class MemberPageLoader {
+
+    private static final String TAG = "MemberPageLoader";
+
+    // The page on screen, the one before and the one after, plus a little slack
+    static final int MAX_PAGES = 5;
+
+    public interface Callback {
+        void onLoaded(MemberPage<Member> page);
+
+        /**
+         * @param statusCode HTTP status code, or -1 when the request never got a response
+         */
+        void onFailed(int statusCode);
+    }
+
+    private final SamajApi api;
+    private final long samajId;
+    private final int pageSize;
+    private final Executor callbackExecutor;
+    private final Consumer<MemberPage<Member>> onFetched;
+
+    private final Map<Integer, MemberPage<Member>> pages = new LinkedHashMap<Integer, MemberPage<Member>>(MAX_PAGES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, MemberPage<Member>> eldest) {
+            return size() > MAX_PAGES;
+        }
+    };
+    // Page -> callbacks of the request that is on the wire; prefetches have none
+    private final Map<Integer, List<Callback>> inFlight = new HashMap<>();
+    private final Map<Integer, Call<?>> calls = new HashMap<>();
+
+    /**
+     * @param onFetched sees every page that arrives from the network, e.g. to save it; may be null
+     */
+    public MemberPageLoader(SamajApi api, long samajId, int pageSize, Executor callbackExecutor,
+                            Consumer<MemberPage<Member>> onFetched) {
+        this.api = api;
+        this.samajId = samajId;
+        this.pageSize = pageSize;
+        this.callbackExecutor = callbackExecutor;
+        this.onFetched = onFetched;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public boolean isCached(int page) {
+        return pages.containsKey(page);
+    }
+
+    public void load(int page, Callback callback) {
+        MemberPage<Member> cached = pages.get(page);
+        if (cached != null) {
+            callback.onLoaded(cached);
+            return;
+        }
+        fetch(page, callback);
+    }
+
+    /**
+     * Call once a page is on screen: fetches the next one and keeps the previous one around
+     */
+    public void prefetchAround(MemberPage<Member> shown) {
+        int page = shown.getCurrentPage();
+        // Touching it moves it to the young end of the cache
+        pages.get(page - 1);
+        pages.get(page);
+        if (shown.hasNext() && !pages.containsKey(page + 1)) {
+            fetch(page + 1, null);
+        }
+    }
+
+    /**
+     * Drop requests still out; their callbacks are not called
+     */
+    public void cancel() {
+        for (Call<?> call : calls.values()) {
+            call.cancel();
+        }
+        calls.clear();
+        inFlight.clear();
+    }
+
+    private void fetch(int page, Callback callback) {
+        List<Callback> waiting = inFlight.get(page);
+        if (waiting != null) {
+            if (callback != null) waiting.add(callback);
+            return;
+        }
+        waiting = new ArrayList<>();
+        if (callback != null) waiting.add(callback);
+        inFlight.put(page, waiting);
+
+        Call<ApiResponse<MemberPage<Member>>> call = api.getSamajMembers(samajId, page, pageSize);
+        calls.put(page, call);
+        call.enqueue(new retrofit2.Callback<ApiResponse<MemberPage<Member>>>() {
+            @Override
+            public void onResponse(Call<ApiResponse<MemberPage<Member>>> c, Response<ApiResponse<MemberPage<Member>>> response) {
+                callbackExecutor.execute(() -> {
+                    if (calls.get(page) != call) return;
+                    ApiResponse<MemberPage<Member>> body = response.body();
+                    if (!response.isSuccessful() || body == null || !body.isSuccess() || body.getData() == null) {
+                        Log.e(TAG, "Page " + page + " of samaj " + samajId + " failed: HTTP " + response.code());
+                        finish(page, null, response.code());
+                        return;
+                    }
+                    MemberPage<Member> loaded = body.getData();
+                    loaded.setCurrentPage(page);
+                    fillDefaults(loaded);
+                    pages.put(page, loaded);
+                    if (onFetched != null) {
+                        onFetched.accept(loaded);
+                    }
+                    finish(page, loaded, 0);
+                });
+            }
+
+            @Override
+            public void onFailure(Call<ApiResponse<MemberPage<Member>>> c, Throwable t) {
+                callbackExecutor.execute(() -> {
+                    if (calls.get(page) != call) return;
+                    Log.e(TAG, "Error loading page " + page + " of samaj " + samajId, t);
+                    finish(page, null, -1);
+                });
+            }
+        });
+    }
+
+    private void finish(int page, MemberPage<Member> loaded, int statusCode) {
+        calls.remove(page);
+        List<Callback> waiting = inFlight.remove(page);
+        if (waiting == null) return;
+        for (Callback callback : waiting) {
+            if (loaded != null) {
+                callback.onLoaded(loaded);
+            } else {
+                callback.onFailed(statusCode);
+            }
+        }
+    }
+
+    // The list shows these fields as they are, so give missing ones the placeholder it always used
+    private static void fillDefaults(MemberPage<Member> page) {
+        if (page.getMembers() == null) {
+            page.setMembers(new ArrayList<>());
+        }
+        for (Member member : page.getMembers()) {
+            if (member.getPhoneNumber() == null) member.setPhoneNumber("N/A");
+            if (member.getAddress() == null) member.setAddress("N/A");
+        }
+    }
+}
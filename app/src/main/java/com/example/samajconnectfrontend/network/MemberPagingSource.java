@@ -0,0 +1,74 @@
+package com.example.samajconnectfrontend.network;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.paging.ListenableFuturePagingSource;
+import androidx.paging.PagingSource;
+import androidx.paging.PagingState;
+
+import com.example.samajconnectfrontend.models.Member;
+import com.example.samajconnectfrontend.models.MemberPage;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+
+import java.io.IOException;
+import java.util.concurrent.Executor;
+
+/**
+ * Continuous scrolling over the member list, keyed by page number. Pages come from a
+ * {@link MemberPageLoader}, so they share its cache and prefetching with the paged view.
+ * Build the Pager with page size and initial load size both equal to the loader's page size.
+ */
+public class MemberPagingSource extends ListenableFuturePagingSource<Integer, Member> {
+
+    private final MemberPageLoader loader;
+    private final Executor loaderExecutor;
+
+    /**
+     * @param loaderExecutor the thread the loader is confined to
+     */
+    public MemberPagingSource(MemberPageLoader loader, Executor loaderExecutor) {
+        this.loader = loader;
+        this.loaderExecutor = loaderExecutor;
+    }
+
+    @NonNull
+    @Override
+    public ListenableFuture<LoadResult<Integer, Member>> loadFuture(@NonNull LoadParams<Integer> params) {
+        int page = params.getKey() != null ? params.getKey() : 0;
+        SettableFuture<LoadResult<Integer, Member>> result = SettableFuture.create();
+        loaderExecutor.execute(() -> loader.load(page, new MemberPageLoader.Callback() {
+            @Override
+            public void onLoaded(MemberPage<Member> loaded) {
+                loader.prefetchAround(loaded);
+                result.set(new PagingSource.LoadResult.Page<>(loaded.getMembers(),
+                        page > 0 ? page - 1 : null,
+                        loaded.hasNext() ? page + 1 : null));
+            }
+
+            @Override
+            public void onFailed(int statusCode) {
+                result.set(new PagingSource.LoadResult.Error<>(
+                        new IOException("Member page " + page + " failed, status " + statusCode)));
+            }
+        }));
+        return result;
+    }
+
+    @Nullable
+    @Override
+    public Integer getRefreshKey(@NonNull PagingState<Integer, Member> state) {
+        Integer anchor = state.getAnchorPosition();
+        if (anchor == null) {
+            return null;
+        }
+        LoadResult.Page<Integer, Member> page = state.closestPageToPosition(anchor);
+        if (page == null) {
+            return null;
+        }
+        if (page.getPrevKey() != null) {
+            return page.getPrevKey() + 1;
+        }
+        return page.getNextKey() != null ? page.getNextKey() - 1 : null;
+    }
+}
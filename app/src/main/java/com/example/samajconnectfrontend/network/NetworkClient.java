@@ -0,0 +1,131 @@
+package com.example.samajconnectfrontend.network;
+
+import android.content.Context;
+
+import com.android.volley.RequestQueue;
+import com.android.volley.toolbox.BasicNetwork;
+import com.android.volley.toolbox.NoCache;
+import com.example.samajconnectfrontend.ApiHelper;
+import com.google.gson.Gson;
+
+import okhttp3.OkHttpClient;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+/**
+ * Application-scoped networking layer.
+ * Every screen and adapter should use this instead of Volley.newRequestQueue(),
+ * so they all share one connection pool, one dispatcher and one disk cache.
+ */
+public final class NetworkClient {
+
+    private static volatile NetworkClient instance;
+
+    private final OkHttpClient okHttpClient;
+    private final RequestQueue requestQueue;
+    private final Gson gson;
+    private final ConditionalCache conditionalCache;
+    private final RequestCoalescer coalescer;
+    private final SamajApi api;
+
+    private NetworkClient(Context appContext) {
+        okHttpClient = OkHttpClientFactory.create(appContext.getCacheDir());
+
+        // One coalescer behind both Volley and Retrofit, so a screen on either joins the other's request
+        coalescer = new RequestCoalescer();
+
+        // OkHttp owns the HTTP disk cache, so Volley must not keep a second one
+        OkHttpClient volleyClient = okHttpClient.newBuilder()
+                .addInterceptor(coalescer)
+                .build();
+        requestQueue = new RequestQueue(new NoCache(), new BasicNetwork(new OkHttpStack(volleyClient)));
+        requestQueue.start();
+
+        gson = new Gson();
+
+        conditionalCache = new ConditionalCache();
+
+        // Derived client: same pool and cache, plus the auth header and validators for Retrofit calls.
+        // The coalescer goes last so it sees the same headers a Volley request carries.
+        OkHttpClient apiClient = okHttpClient.newBuilder()
+                .addInterceptor(new AuthInterceptor(
+                        appContext.getSharedPreferences("SamajConnect", Context.MODE_PRIVATE)))
+                .addInterceptor(conditionalCache)
+                .addInterceptor(coalescer)
+                .build();
+
+        api = new Retrofit.Builder()
+                .baseUrl(ApiHelper.getBaseUrl())
+                .client(apiClient)
+                .addConverterFactory(GsonConverterFactory.create(gson))
+                .build()
+                .create(SamajApi.class);
+    }
+
+    /**
+     * Get the shared client, creating it on first use
+     * @param context any context; only the application context is retained
+     * @return process-wide NetworkClient
+     */
+    public static NetworkClient getInstance(Context context) {
+        if (instance == null) {
+            synchronized (NetworkClient.class) {
+                if (instance == null) {
+                    instance = new NetworkClient(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Shorthand for getInstance(context).getRequestQueue()
+     * @param context any context
+     * @return shared Volley request queue
+     */
+    public static RequestQueue requestQueue(Context context) {
+        return getInstance(context).getRequestQueue();
+    }
+
+    /**
+     * Shorthand for getInstance(context).getApi()
+     * @param context any context
+     * @return typed Retrofit service
+     */
+    public static SamajApi api(Context context) {
+        return getInstance(context).getApi();
+    }
+
+    /**
+     * Shorthand for getInstance(context).getConditionalCache()
+     * @param context any context
+     * @return validators and parsed models of conditional GETs
+     */
+    public static ConditionalCache conditionalCache(Context context) {
+        return getInstance(context).getConditionalCache();
+    }
+
+    public OkHttpClient getOkHttpClient() {
+        return okHttpClient;
+    }
+
+    public RequestQueue getRequestQueue() {
+        return requestQueue;
+    }
+
+    public SamajApi getApi() {
+        return api;
+    }
+
+    public ConditionalCache getConditionalCache() {
+        return conditionalCache;
+    }
+
+    public RequestCoalescer getCoalescer() {
+        return coalescer;
+    }
+
+    public Gson getGson() {
+        return gson;
+    }
+}
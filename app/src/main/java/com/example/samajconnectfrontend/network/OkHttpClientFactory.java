@@ -0,0 +1,50 @@
+package com.example.samajconnectfrontend.network;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Cache;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+/**
+ * Builds the single OkHttpClient used by the whole app.
+ * Kept free of Android classes so it can be exercised from JVM tests.
+ */
+public final class OkHttpClientFactory {
+
+    static final int MAX_IDLE_CONNECTIONS = 8;
+    static final long KEEP_ALIVE_MINUTES = 5;
+    static final long DISK_CACHE_SIZE = 20L * 1024 * 1024; // 20MB
+
+    private static final long CONNECT_TIMEOUT_SECONDS = 15;
+    private static final long READ_TIMEOUT_SECONDS = 30;
+    private static final long WRITE_TIMEOUT_SECONDS = 30;
+
+    private OkHttpClientFactory() {
+    }
+
+    /**
+     * Create the shared client
+     * @param cacheDir directory for the HTTP disk cache, or null to run without one
+     * @return configured OkHttpClient
+     */
+    public static OkHttpClient create(File cacheDir) {
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+                // HTTP/2 is negotiated over TLS; cleartext hosts fall back to keep-alive HTTP/1.1
+                .protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                .connectTimeout(CONNECT_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .readTimeout(READ_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .writeTimeout(WRITE_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .retryOnConnectionFailure(true);
+
+        if (cacheDir != null) {
+            builder.cache(new Cache(new File(cacheDir, "http"), DISK_CACHE_SIZE));
+        }
+
+        return builder.build();
+    }
+}
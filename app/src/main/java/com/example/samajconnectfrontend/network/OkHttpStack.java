@@ -0,0 +1,122 @@
+package com.example.samajconnectfrontend.network;
+
+import com.android.volley.AuthFailureError;
+import com.android.volley.Header;
+import com.android.volley.Request;
+import com.android.volley.toolbox.BaseHttpStack;
+import com.android.volley.toolbox.HttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Volley transport that executes requests on the shared OkHttpClient,
+ * so existing JsonObjectRequest callers share its connection pool and cache.
+ */
+public class OkHttpStack extends BaseHttpStack {
+
+    private final OkHttpClient client;
+
+    public OkHttpStack(OkHttpClient client) {
+        this.client = client;
+    }
+
+    @Override
+    public HttpResponse executeRequest(Request<?> request, Map<String, String> additionalHeaders)
+            throws IOException, AuthFailureError {
+        int timeoutMs = request.getTimeoutMs();
+
+        // newBuilder() shares the pool, dispatcher and cache with the parent client
+        OkHttpClient callClient = client.newBuilder()
+                .connectTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .readTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .writeTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .build();
+
+        okhttp3.Request.Builder builder = new okhttp3.Request.Builder().url(request.getUrl());
+
+        for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+            builder.header(header.getKey(), header.getValue());
+        }
+        for (Map.Entry<String, String> header : additionalHeaders.entrySet()) {
+            builder.header(header.getKey(), header.getValue());
+        }
+
+        setMethodAndBody(builder, request);
+
+        Response response = callClient.newCall(builder.build()).execute();
+
+        List<Header> headers = new ArrayList<>();
+        for (int i = 0; i < response.headers().size(); i++) {
+            headers.add(new Header(response.headers().name(i), response.headers().value(i)));
+        }
+
+        ResponseBody body = response.body();
+        if (body == null) {
+            return new HttpResponse(response.code(), headers);
+        }
+
+        InputStream content = body.byteStream();
+        return new HttpResponse(response.code(), headers, (int) body.contentLength(), content);
+    }
+
+    private static void setMethodAndBody(okhttp3.Request.Builder builder, Request<?> request)
+            throws AuthFailureError {
+        switch (request.getMethod()) {
+            case Request.Method.DEPRECATED_GET_OR_POST:
+                byte[] postBody = request.getBody();
+                if (postBody != null) {
+                    builder.post(createBody(request, postBody));
+                } else {
+                    builder.get();
+                }
+                break;
+            case Request.Method.GET:
+                builder.get();
+                break;
+            case Request.Method.DELETE:
+                builder.delete(optionalBody(request));
+                break;
+            case Request.Method.POST:
+                builder.post(createBody(request, request.getBody()));
+                break;
+            case Request.Method.PUT:
+                builder.put(createBody(request, request.getBody()));
+                break;
+            case Request.Method.HEAD:
+                builder.head();
+                break;
+            case Request.Method.OPTIONS:
+                builder.method("OPTIONS", null);
+                break;
+            case Request.Method.TRACE:
+                builder.method("TRACE", null);
+                break;
+            case Request.Method.PATCH:
+                builder.patch(createBody(request, request.getBody()));
+                break;
+            default:
+                throw new IllegalStateException("Unknown method type: " + request.getMethod());
+        }
+    }
+
+    private static RequestBody optionalBody(Request<?> request) throws AuthFailureError {
+        byte[] body = request.getBody();
+        return body != null ? createBody(request, body) : null;
+    }
+
+    private static RequestBody createBody(Request<?> request, byte[] body) {
+        MediaType contentType = MediaType.parse(request.getBodyContentType());
+        return RequestBody.create(body != null ? body : new byte[0], contentType);
+    }
+}
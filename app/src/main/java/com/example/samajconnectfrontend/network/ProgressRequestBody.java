@@ -0,0 +1,61 @@
+package com.example.samajconnectfrontend.network;
+
+import java.io.File;
+import java.io.IOException;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Source;
+
+/**
+ * Request body streamed from a file a chunk at a time, reporting how much has gone out.
+ * Only one chunk is ever in memory, and the body can be written again for a retry.
+ */
+public class ProgressRequestBody extends RequestBody {
+
+    static final int CHUNK_BYTES = 8 * 1024;
+
+    public interface Listener {
+        /**
+         * Called on the thread writing the request; starts over from 0 on every attempt
+         */
+        void onProgress(long written, long total);
+    }
+
+    private final File file;
+    private final MediaType contentType;
+    private final Listener listener;
+
+    public ProgressRequestBody(File file, MediaType contentType, Listener listener) {
+        this.file = file;
+        this.contentType = contentType;
+        this.listener = listener;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return contentType;
+    }
+
+    @Override
+    public long contentLength() {
+        return file.length();
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        long total = contentLength();
+        long written = 0;
+        try (Source source = Okio.source(file)) {
+            long read;
+            while ((read = source.read(sink.getBuffer(), CHUNK_BYTES)) != -1) {
+                // Push each chunk to the socket so progress follows what was actually sent
+                sink.flush();
+                written += read;
+                listener.onProgress(written, total);
+            }
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.samajconnectfrontend.network;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.example.samajconnectfrontend.models.ApiResponse;
+import com.example.samajconnectfrontend.models.ReactionStats;
+import com.example.samajconnectfrontend.models.ReactionStatsBatchRequest;
+import com.example.samajconnectfrontend.models.UserIdRequest;
+import com.example.samajconnectfrontend.utils.AppExecutors;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import retrofit2.Call;
+import retrofit2.Response;
+
+/**
+ * Loads reaction stats for event list items. Ids requested within a short window are sent as
+ * one batch request, and an id already being fetched joins that request instead of sending
+ * another. If the server has no batch endpoint, falls back to one request per event.
+ */
+public class ReactionStatsLoader {
+
+    private static final String TAG = "ReactionStatsLoader";
+
+    // Long enough to collect the holders bound in one layout pass
+    static final long WINDOW_MS = 40;
+    static final int MAX_BATCH_SIZE = 50;
+
+    public interface Callback {
+        void onLoaded(long eventId, ReactionStats stats);
+        void onFailed(long eventId);
+    }
+
+    private static volatile ReactionStatsLoader instance;
+
+    private final SamajApi api;
+    private final ScheduledExecutorService scheduler;
+    private final Executor callbackExecutor;
+    private final long windowMs;
+
+    // Per user id (null when logged out): event id -> callbacks, waiting for the window to close
+    private final Map<Long, Map<Long, List<Callback>>> pending = new HashMap<>();
+    // Per user id: event id -> callbacks of the request that is on the wire
+    private final Map<Long, Map<Long, List<Callback>>> inFlight = new HashMap<>();
+    private boolean flushScheduled = false;
+    private volatile boolean batchUnsupported = false;
+
+    ReactionStatsLoader(SamajApi api, ScheduledExecutorService scheduler, Executor callbackExecutor, long windowMs) {
+        this.api = api;
+        this.scheduler = scheduler;
+        this.callbackExecutor = callbackExecutor;
+        this.windowMs = windowMs;
+    }
+
+    /**
+     * Get the shared loader; callbacks are delivered on the main thread
+     */
+    public static ReactionStatsLoader getInstance(Context context) {
+        if (instance == null) {
+            synchronized (ReactionStatsLoader.class) {
+                if (instance == null) {
+                    instance = new ReactionStatsLoader(NetworkClient.api(context),
+                            Executors.newSingleThreadScheduledExecutor(AppExecutors.namedThreads("reaction-stats")),
+                            AppExecutors.mainThread(), WINDOW_MS);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * @param userId the viewer, so the stats include their own reaction; null when logged out
+     */
+    public void load(long eventId, Long userId, Callback callback) {
+        List<Long> fullBatch = null;
+        synchronized (this) {
+            List<Callback> joined = callbacksFor(inFlight, userId, eventId, false);
+            if (joined != null) {
+                joined.add(callback);
+                return;
+            }
+
+            callbacksFor(pending, userId, eventId, true).add(callback);
+            if (pending.get(userId).size() >= MAX_BATCH_SIZE) {
+                // No point waiting for the window, the batch can't grow
+                fullBatch = moveToInFlight(userId);
+            } else if (!flushScheduled) {
+                flushScheduled = true;
+                scheduler.schedule(this::flush, windowMs, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (fullBatch != null) {
+            send(userId, fullBatch);
+        }
+    }
+
+    private void flush() {
+        Map<Long, List<Long>> batches = new HashMap<>();
+        synchronized (this) {
+            flushScheduled = false;
+            for (Long userId : new ArrayList<>(pending.keySet())) {
+                batches.put(userId, moveToInFlight(userId));
+            }
+        }
+
+        for (Map.Entry<Long, List<Long>> batch : batches.entrySet()) {
+            List<Long> eventIds = batch.getValue();
+            for (int start = 0; start < eventIds.size(); start += MAX_BATCH_SIZE) {
+                send(batch.getKey(), eventIds.subList(start, Math.min(start + MAX_BATCH_SIZE, eventIds.size())));
+            }
+        }
+    }
+
+    private void send(Long userId, List<Long> eventIds) {
+        if (eventIds.size() == 1 || batchUnsupported) {
+            for (Long eventId : eventIds) {
+                sendSingle(userId, eventId);
+            }
+            return;
+        }
+
+        List<Long> ids = new ArrayList<>(eventIds);
+        api.getReactionStatsBatch(new ReactionStatsBatchRequest(userId, ids)).enqueue(
+                new retrofit2.Callback<ApiResponse<Map<Long, ReactionStats>>>() {
+                    @Override
+                    public void onResponse(Call<ApiResponse<Map<Long, ReactionStats>>> call,
+                                           Response<ApiResponse<Map<Long, ReactionStats>>> response) {
+                        if (response.code() == 404 || response.code() == 405) {
+                            Log.w(TAG, "No batch stats endpoint, loading events one by one");
+                            batchUnsupported = true;
+                            for (Long eventId : ids) {
+                                sendSingle(userId, eventId);
+                            }
+                            return;
+                        }
+
+                        ApiResponse<Map<Long, ReactionStats>> body = response.body();
+                        if (!response.isSuccessful() || body == null || !body.isSuccess() || body.getData() == null) {
+                            Log.e(TAG, "Error loading reaction stats batch: HTTP " + response.code());
+                            for (Long eventId : ids) {
+                                fail(userId, eventId);
+                            }
+                            return;
+                        }
+
+                        Map<Long, ReactionStats> statsById = body.getData();
+                        for (Long eventId : ids) {
+                            ReactionStats stats = statsById.get(eventId);
+                            deliver(userId, eventId, stats != null ? stats : new ReactionStats(0, 0));
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(Call<ApiResponse<Map<Long, ReactionStats>>> call, Throwable t) {
+                        Log.e(TAG, "Error loading reaction stats batch", t);
+                        for (Long eventId : ids) {
+                            fail(userId, eventId);
+                        }
+                    }
+                });
+    }
+
+    private void sendSingle(Long userId, long eventId) {
+        api.getReactionStats(eventId, new UserIdRequest(userId)).enqueue(new retrofit2.Callback<ApiResponse<ReactionStats>>() {
+            @Override
+            public void onResponse(Call<ApiResponse<ReactionStats>> call, Response<ApiResponse<ReactionStats>> response) {
+                ApiResponse<ReactionStats> body = response.body();
+                if (response.isSuccessful() && body != null && body.isSuccess() && body.getData() != null) {
+                    deliver(userId, eventId, body.getData());
+                } else {
+                    // Not "no reactions": the holder keeps whatever counts it already shows
+                    Log.e(TAG, "Error loading reaction stats for event " + eventId + ": HTTP " + response.code());
+                    fail(userId, eventId);
+                }
+            }
+
+            @Override
+            public void onFailure(Call<ApiResponse<ReactionStats>> call, Throwable t) {
+                Log.e(TAG, "Error loading reaction stats", t);
+                fail(userId, eventId);
+            }
+        });
+    }
+
+    private void deliver(Long userId, long eventId, ReactionStats stats) {
+        List<Callback> callbacks = takeInFlight(userId, eventId);
+        callbackExecutor.execute(() -> {
+            for (Callback callback : callbacks) {
+                callback.onLoaded(eventId, stats);
+            }
+        });
+    }
+
+    private void fail(Long userId, long eventId) {
+        List<Callback> callbacks = takeInFlight(userId, eventId);
+        callbackExecutor.execute(() -> {
+            for (Callback callback : callbacks) {
+                callback.onFailed(eventId);
+            }
+        });
+    }
+
+    /**
+     * Caller holds the lock
+     * @return the event ids that were waiting for this user
+     */
+    private List<Long> moveToInFlight(Long userId) {
+        Map<Long, List<Callback>> waiting = pending.remove(userId);
+        if (waiting == null) {
+            return new ArrayList<>();
+        }
+        Map<Long, List<Callback>> sent = inFlight.get(userId);
+        if (sent == null) {
+            sent = new HashMap<>();
+            inFlight.put(userId, sent);
+        }
+        sent.putAll(waiting);
+        return new ArrayList<>(waiting.keySet());
+    }
+
+    private synchronized List<Callback> takeInFlight(Long userId, long eventId) {
+        Map<Long, List<Callback>> sent = inFlight.get(userId);
+        List<Callback> callbacks = sent != null ? sent.remove(eventId) : null;
+        return callbacks != null ? callbacks : new ArrayList<>();
+    }
+
+    private static List<Callback> callbacksFor(Map<Long, Map<Long, List<Callback>>> byUser, Long userId,
+                                               long eventId, boolean create) {
+        Map<Long, List<Callback>> byEvent = byUser.get(userId);
+        if (byEvent == null) {
+            if (!create) return null;
+            byEvent = new LinkedHashMap<>();
+            byUser.put(userId, byEvent);
+        }
+        List<Callback> callbacks = byEvent.get(eventId);
+        if (callbacks == null && create) {
+            callbacks = new ArrayList<>();
+            byEvent.put(eventId, callbacks);
+        }
+        return callbacks;
+    }
+}
@@ -0,0 +1,317 @@
+package com.example.samajconnectfrontend.network;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import com.example.samajconnectfrontend.models.ReactionRequest;
+import com.example.samajconnectfrontend.models.ReactionStats;
+import com.example.samajconnectfrontend.utils.AppExecutors;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.Response;
+
+/**
+ * Write-behind queue for event reactions. The UI shows a reaction as soon as it is tapped;
+ * the queue only remembers, per event, the reaction the server has and the one the user wants,
+ * and sends a single request once the taps settle. Like, dislike, like becomes one LIKE;
+ * like then unlike sends nothing. Pending entries are persisted and replayed on the next start.
+ * A write that fails for want of a network, or on a server error, stays pending and is retried
+ * with a growing delay; only when the server rejects it (4xx) are listeners told to roll the
+ * event back.
+ */
+public class ReactionWriteQueue {
+
+    private static final String TAG = "ReactionWriteQueue";
+
+    // Quiet time after the last tap before the reaction is sent
+    static final long SETTLE_MS = 600;
+    // Retries wait twice as long each time, up to this
+    static final long MAX_RETRY_MS = 5 * 60 * 1000L;
+
+    public interface Listener {
+        /**
+         * The reaction could not be saved; what the event shows is no longer what the server has
+         */
+        void onRolledBack(long eventId);
+    }
+
+    /**
+     * Where pending entries are persisted
+     */
+    interface Store {
+        String load();
+        void save(String json);
+    }
+
+    static class Entry {
+        long eventId;
+        long userId;
+        // Reaction the server has: "LIKE", "DISLIKE" or null
+        String serverReaction;
+        // Reaction the user last chose
+        String desiredReaction;
+        int attempts;
+
+        // Not persisted: the reaction being sent right now
+        transient boolean inFlight;
+        transient String sentReaction;
+    }
+
+    private static volatile ReactionWriteQueue instance;
+
+    private final SamajApi api;
+    private final Store store;
+    private final ScheduledExecutorService scheduler;
+    private final Executor callbackExecutor;
+    private final long settleMs;
+    private final Gson gson = new Gson();
+    private final Map<Long, Entry> entries = new LinkedHashMap<>();
+    private final Map<Long, ScheduledFuture<?>> scheduled = new LinkedHashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    ReactionWriteQueue(SamajApi api, Store store, ScheduledExecutorService scheduler,
+                       Executor callbackExecutor, long settleMs) {
+        this.api = api;
+        this.store = store;
+        this.scheduler = scheduler;
+        this.callbackExecutor = callbackExecutor;
+        this.settleMs = settleMs;
+        restore();
+    }
+
+    /**
+     * Get the shared queue, replaying writes left over from the previous run
+     */
+    public static ReactionWriteQueue getInstance(Context context) {
+        if (instance == null) {
+            synchronized (ReactionWriteQueue.class) {
+                if (instance == null) {
+                    SharedPreferences prefs = context.getApplicationContext()
+                            .getSharedPreferences("SamajConnectReactionQueue", Context.MODE_PRIVATE);
+                    Store store = new Store() {
+                        @Override
+                        public String load() {
+                            return prefs.getString("pending", null);
+                        }
+
+                        @Override
+                        public void save(String json) {
+                            prefs.edit().putString("pending", json).apply();
+                        }
+                    };
+                    instance = new ReactionWriteQueue(NetworkClient.api(context), store,
+                            Executors.newSingleThreadScheduledExecutor(AppExecutors.namedThreads("reaction-writes")),
+                            AppExecutors.mainThread(), SETTLE_MS);
+                }
+            }
+        }
+        return instance;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Record the user's choice for an event
+     * @param shownReaction the reaction the UI showed before this tap
+     * @param desiredReaction "LIKE", "DISLIKE", or null to remove the reaction
+     */
+    public synchronized void submit(long eventId, long userId, String shownReaction, String desiredReaction) {
+        Entry entry = entries.get(eventId);
+        if (entry == null) {
+            entry = new Entry();
+            entry.eventId = eventId;
+            entry.userId = userId;
+            // Nothing pending, so what was shown is what the server has
+            entry.serverReaction = shownReaction;
+            entries.put(eventId, entry);
+        }
+        entry.desiredReaction = desiredReaction;
+        entry.attempts = 0;
+        persist();
+        schedule(entry, settleMs);
+    }
+
+    /**
+     * Stats fetched from the server don't include writes still waiting here; apply them on top
+     */
+    public synchronized ReactionStats overlay(long eventId, ReactionStats stats) {
+        Entry entry = entries.get(eventId);
+        if (entry == null || stats == null) {
+            return stats;
+        }
+        return stats.withUserReaction(entry.userId, eventId, entry.desiredReaction);
+    }
+
+    public synchronized boolean isPending(long eventId) {
+        return entries.containsKey(eventId);
+    }
+
+    /**
+     * Drop every pending write, e.g. on logout so none is replayed under the next account
+     */
+    public synchronized void clear() {
+        for (ScheduledFuture<?> future : scheduled.values()) {
+            future.cancel(false);
+        }
+        scheduled.clear();
+        entries.clear();
+        persist();
+    }
+
+    /**
+     * The single request that moves the server from one reaction to another, given that
+     * posting the reaction the user already has removes it
+     * @return the reaction type to post, or null when no request is needed
+     */
+    static String requestFor(String serverReaction, String desiredReaction) {
+        if (Objects.equals(serverReaction, desiredReaction)) {
+            return null;
+        }
+        return desiredReaction != null ? desiredReaction : serverReaction;
+    }
+
+    private void schedule(Entry entry, long delayMs) {
+        ScheduledFuture<?> previous = scheduled.remove(entry.eventId);
+        if (previous != null) {
+            previous.cancel(false);
+        }
+        scheduled.put(entry.eventId, scheduler.schedule(() -> send(entry.eventId), delayMs, TimeUnit.MILLISECONDS));
+    }
+
+    private void send(long eventId) {
+        Entry entry;
+        String reactionType;
+        synchronized (this) {
+            scheduled.remove(eventId);
+            entry = entries.get(eventId);
+            if (entry == null || entry.inFlight) {
+                // A write still on the wire picks up the latest choice when it completes
+                return;
+            }
+            reactionType = requestFor(entry.serverReaction, entry.desiredReaction);
+            if (reactionType == null) {
+                // The taps cancelled out
+                entries.remove(eventId);
+                persist();
+                return;
+            }
+            entry.inFlight = true;
+            entry.sentReaction = entry.desiredReaction;
+        }
+
+        api.react(eventId, new ReactionRequest(entry.userId, reactionType)).enqueue(new retrofit2.Callback<ResponseBody>() {
+            @Override
+            public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
+                if (response.body() != null) {
+                    response.body().close();
+                }
+                if (response.isSuccessful()) {
+                    onSent(entry);
+                } else if (response.code() >= 500) {
+                    Log.e(TAG, "Server error saving reaction for event " + eventId + ": HTTP " + response.code());
+                    retryLater(entry);
+                } else {
+                    Log.e(TAG, "Reaction rejected for event " + eventId + ": HTTP " + response.code());
+                    rollBack(entry);
+                }
+            }
+
+            @Override
+            public void onFailure(Call<ResponseBody> call, Throwable t) {
+                Log.e(TAG, "Error sending reaction for event " + eventId, t);
+                retryLater(entry);
+            }
+        });
+    }
+
+    private synchronized void onSent(Entry entry) {
+        if (isStale(entry)) return;
+        entry.inFlight = false;
+        entry.serverReaction = entry.sentReaction;
+        entry.attempts = 0;
+        if (Objects.equals(entry.serverReaction, entry.desiredReaction)) {
+            entries.remove(entry.eventId);
+        } else {
+            // The user changed their mind while the request was out
+            schedule(entry, 0);
+        }
+        persist();
+    }
+
+    private synchronized void retryLater(Entry entry) {
+        if (isStale(entry)) return;
+        entry.inFlight = false;
+        entry.attempts++;
+        persist();
+        schedule(entry, retryDelay(entry.attempts));
+    }
+
+    private long retryDelay(int attempts) {
+        return Math.min(settleMs << Math.min(attempts, 20), MAX_RETRY_MS);
+    }
+
+    private synchronized void rollBack(Entry entry) {
+        if (isStale(entry)) return;
+        entries.remove(entry.eventId);
+        persist();
+        long eventId = entry.eventId;
+        callbackExecutor.execute(() -> {
+            for (Listener listener : listeners) {
+                listener.onRolledBack(eventId);
+            }
+        });
+    }
+
+    /**
+     * The entry was cleared while its request was on the wire
+     */
+    private boolean isStale(Entry entry) {
+        return entries.get(entry.eventId) != entry;
+    }
+
+    private void persist() {
+        store.save(gson.toJson(new ArrayList<>(entries.values())));
+    }
+
+    private synchronized void restore() {
+        String json = store.load();
+        if (json == null) return;
+
+        List<Entry> saved;
+        try {
+            saved = gson.fromJson(json, new TypeToken<List<Entry>>() {}.getType());
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Dropping unreadable reaction queue", e);
+            store.save(null);
+            return;
+        }
+        if (saved == null) return;
+
+        for (Entry entry : saved) {
+            entries.put(entry.eventId, entry);
+            schedule(entry, 0);
+        }
+    }
+}
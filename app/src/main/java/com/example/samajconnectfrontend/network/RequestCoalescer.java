@@ -0,0 +1,218 @@
+package com.example.samajconnectfrontend.network;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.MultipartBody;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+
+/**
+ * Collapses identical requests into one. Requests are identical when method, URL, body,
+ * credentials and validators all match. While one is on the wire the others wait and get a
+ * copy of its response; a GET that succeeded is also replayed to identical GETs for a few
+ * seconds afterwards, so going back and forth between screens doesn't refetch the same user.
+ *
+ * Only GETs and POSTs are coalesced; identical POSTs in flight together are a double submit.
+ * Anything but a GET clears the replayed responses once it completes, since it may have
+ * changed them. Send a GET with Cache-Control: no-cache to skip the replay. Responses bigger
+ * than {@link #MAX_SHARED_BYTES} aren't copied; waiting requests then go to the server themselves.
+ */
+public class RequestCoalescer implements Interceptor {
+
+    static final long MEMO_WINDOW_MS = 3000;
+    static final int MAX_SHARED_BYTES = 128 * 1024;
+    static final int MAX_MEMOS = 16;
+
+    // How often a waiting request checks whether its own call was cancelled
+    private static final long WAIT_SLICE_MS = 100;
+
+    /**
+     * A response without its body, plus the body bytes, so any number of copies can be made
+     */
+    private static class Shared {
+        final Response head;
+        final byte[] body;
+        final MediaType contentType;
+        final long receivedAt = System.nanoTime();
+
+        Shared(Response head, byte[] body, MediaType contentType) {
+            this.head = head;
+            this.body = body;
+            this.contentType = contentType;
+        }
+
+        Response copyFor(Request request) {
+            return head.newBuilder()
+                    .request(request)
+                    .body(ResponseBody.create(body, contentType))
+                    .build();
+        }
+    }
+
+    private static class InFlight {
+        final CountDownLatch done = new CountDownLatch(1);
+        // Null when the leader failed or its response couldn't be shared
+        Shared result;
+    }
+
+    private final long memoWindowMs;
+
+    private final Map<String, InFlight> inFlight = new HashMap<>();
+    private final Map<String, Shared> memos = new LinkedHashMap<String, Shared>(MAX_MEMOS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Shared> eldest) {
+            return size() > MAX_MEMOS;
+        }
+    };
+
+    public RequestCoalescer() {
+        this(MEMO_WINDOW_MS);
+    }
+
+    RequestCoalescer(long memoWindowMs) {
+        this.memoWindowMs = memoWindowMs;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        String method = request.method();
+        if (!"GET".equals(method)) {
+            try {
+                return coalesce(chain, request);
+            } finally {
+                clear();
+            }
+        }
+        return coalesce(chain, request);
+    }
+
+    /**
+     * Forget the replayable responses, e.g. on logout
+     */
+    public synchronized void clear() {
+        memos.clear();
+    }
+
+    private Response coalesce(Chain chain, Request request) throws IOException {
+        String method = request.method();
+        String key = "GET".equals(method) || "POST".equals(method) ? key(request) : null;
+        if (key == null) {
+            return chain.proceed(request);
+        }
+
+        boolean replayAllowed = "GET".equals(method) && !"no-cache".equals(request.header("Cache-Control"));
+        InFlight leading;
+        InFlight joined;
+        synchronized (this) {
+            Shared memo = memos.get(key);
+            if (memo != null && replayAllowed
+                    && System.nanoTime() - memo.receivedAt < TimeUnit.MILLISECONDS.toNanos(memoWindowMs)) {
+                return memo.copyFor(request);
+            }
+            joined = inFlight.get(key);
+            if (joined == null) {
+                leading = new InFlight();
+                inFlight.put(key, leading);
+            } else {
+                leading = null;
+            }
+        }
+
+        if (joined != null) {
+            Shared shared = await(chain, joined);
+            // The leader failed or its body was too big to copy; go on our own
+            return shared != null ? shared.copyFor(request) : chain.proceed(request);
+        }
+
+        Shared shared = null;
+        try {
+            Response response = chain.proceed(request);
+            try {
+                shared = share(response);
+            } catch (IOException e) {
+                response.close();
+                throw e;
+            }
+            if (shared == null) {
+                return response;
+            }
+            return shared.copyFor(request);
+        } finally {
+            synchronized (this) {
+                inFlight.remove(key);
+                if (shared != null && "GET".equals(method) && shared.head.isSuccessful()) {
+                    memos.put(key, shared);
+                }
+            }
+            leading.result = shared;
+            leading.done.countDown();
+        }
+    }
+
+    private static Shared share(Response response) throws IOException {
+        ResponseBody body = response.body();
+        if (body == null) {
+            return null;
+        }
+        long length = body.contentLength();
+        if (length > MAX_SHARED_BYTES) {
+            return null;
+        }
+        if (length < 0 && response.peekBody(MAX_SHARED_BYTES + 1).contentLength() > MAX_SHARED_BYTES) {
+            return null;
+        }
+        MediaType contentType = body.contentType();
+        byte[] bytes = body.bytes();
+        return new Shared(response.newBuilder().body(null).build(), bytes, contentType);
+    }
+
+    private static Shared await(Chain chain, InFlight joined) throws IOException {
+        try {
+            while (!joined.done.await(WAIT_SLICE_MS, TimeUnit.MILLISECONDS)) {
+                if (chain.call().isCanceled()) {
+                    throw new IOException("Canceled");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for an identical request", e);
+        }
+        return joined.result;
+    }
+
+    /**
+     * @return null for requests that shouldn't be coalesced, i.e. ones with big or one-shot bodies
+     */
+    static String key(Request request) throws IOException {
+        StringBuilder key = new StringBuilder()
+                .append(request.method()).append(' ').append(request.url())
+                .append('\n').append(request.header("Authorization"))
+                .append('\n').append(request.header("If-None-Match"))
+                .append('\n').append(request.header("If-Modified-Since"));
+
+        RequestBody body = request.body();
+        if (body != null) {
+            // Uploads never repeat verbatim (each has its own boundary), and reading a file part
+            // here would stream it twice
+            if (body instanceof MultipartBody || body.isOneShot() || body.isDuplex()
+                    || body.contentLength() < 0 || body.contentLength() > MAX_SHARED_BYTES) {
+                return null;
+            }
+            Buffer buffer = new Buffer();
+            body.writeTo(buffer);
+            key.append('\n').append(body.contentType()).append('\n').append(buffer.sha256().hex());
+        }
+        return key.toString();
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.samajconnectfrontend.network;
+
+import com.example.samajconnectfrontend.models.ApiResponse;
+import com.example.samajconnectfrontend.models.ChangeSet;
+import com.example.samajconnectfrontend.models.DetailedUserDto;
+import com.example.samajconnectfrontend.models.Event;
+import com.example.samajconnectfrontend.models.EventResponse;
+import com.example.samajconnectfrontend.models.Member;
+import com.example.samajconnectfrontend.models.MemberPage;
+import com.example.samajconnectfrontend.models.MemberSearchRequest;
+import com.example.samajconnectfrontend.models.ReactionRequest;
+import com.example.samajconnectfrontend.models.ReactionStats;
+import com.example.samajconnectfrontend.models.ReactionStatsBatchRequest;
+import com.example.samajconnectfrontend.models.SamajMember;
+import com.example.samajconnectfrontend.models.SamajResponse;
+import com.example.samajconnectfrontend.models.UserIdRequest;
+import com.example.samajconnectfrontend.models.UserResponse;
+import com.google.gson.JsonObject;
+
+import java.util.Map;
+
+import okhttp3.MultipartBody;
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.http.Body;
+import retrofit2.http.DELETE;
+import retrofit2.http.GET;
+import retrofit2.http.Header;
+import retrofit2.http.Multipart;
+import retrofit2.http.POST;
+import retrofit2.http.PUT;
+import retrofit2.http.Part;
+import retrofit2.http.Path;
+import retrofit2.http.Query;
+import retrofit2.http.Streaming;
+
+/**
+ * Typed description of the backend REST API, relative to ApiHelper.getBaseUrl().
+ * Responses are deserialized by Gson on OkHttp's dispatcher threads and
+ * Callbacks are delivered on the main thread.
+ */
+public interface SamajApi {
+
+    // Users
+
+    @GET("users/{userId}")
+    Call<UserResponse> getUser(@Path("userId") long userId);
+
+    @GET("users/samaj/{samajId}/members")
+    Call<ApiResponse<MemberPage<Member>>> getSamajMembers(@Path("samajId") long samajId,
+                                                          @Query("page") int page,
+                                                          @Query("size") int size);
+
+    // Members created, updated or deleted after the watermark; see SyncEngine
+    @GET("users/samaj/{samajId}/members/changes")
+    Call<ApiResponse<ChangeSet<Member>>> getMemberChanges(@Path("samajId") long samajId,
+                                                           @Query("since") String since);
+
+    @POST("users/samaj/search-members")
+    Call<ApiResponse<MemberPage<DetailedUserDto>>> searchMembers(@Body MemberSearchRequest request);
+
+    @POST("users/{userId}/search-samaj-members")
+    Call<ApiResponse<MemberPage<SamajMember>>> searchSamajMembersForTree(
+            @Path("userId") long userId, @Body MemberSearchRequest request);
+
+    // Samaj
+
+    @GET("samaj/{samajId}")
+    Call<SamajResponse> getSamaj(@Path("samajId") long samajId);
+
+    // Events
+
+    // Lists carry thumbnails only; the full image is fetched with getEventImage when shown
+    @GET("events/samaj/{samajId}?imageVariant=thumbnail")
+    Call<EventResponse> getEvents(@Path("samajId") long samajId);
+
+    // Events created, updated or deleted after the watermark; see SyncEngine
+    @GET("events/samaj/{samajId}/changes?imageVariant=thumbnail")
+    Call<ApiResponse<ChangeSet<Event>>> getEventChanges(@Path("samajId") long samajId,
+                                                         @Query("since") String since);
+
+    @GET("events/samaj/{samajId}/upcoming?imageVariant=thumbnail")
+    Call<EventResponse> getUpcomingEvents(@Path("samajId") long samajId);
+
+    // The full image as binary JPEG/WebP, 404 if the event has none; see EventImages
+    @GET("events/{eventId}/image")
+    Call<ResponseBody> getEventImage(@Path("eventId") long eventId);
+
+    // Event fields as a JSON part, the image and its thumbnail streamed as file parts; see EventUploader
+    @Multipart
+    @POST("events")
+    Call<JsonObject> createEvent(@Header("Idempotency-Key") String uploadKey,
+                                 @Part("event") JsonObject event,
+                                 @Part MultipartBody.Part image,
+                                 @Part MultipartBody.Part thumbnail);
+
+    @Multipart
+    @PUT("events/{eventId}")
+    Call<JsonObject> updateEvent(@Header("Idempotency-Key") String uploadKey,
+                                 @Path("eventId") long eventId,
+                                 @Part("event") JsonObject event,
+                                 @Part MultipartBody.Part image,
+                                 @Part MultipartBody.Part thumbnail);
+
+    @DELETE("events/{eventId}")
+    Call<ResponseBody> deleteEvent(@Path("eventId") long eventId);
+
+    // Reactions
+
+    @POST("events/{eventId}/reactions")
+    Call<ResponseBody> react(@Path("eventId") long eventId, @Body ReactionRequest request);
+
+    @POST("events/{eventId}/reactions/stats")
+    Call<ApiResponse<ReactionStats>> getReactionStats(@Path("eventId") long eventId, @Body UserIdRequest request);
+
+    // Stats of several events in one round trip, keyed by event id; see ReactionStatsLoader
+    @POST("events/reactions/stats/batch")
+    Call<ApiResponse<Map<Long, ReactionStats>>> getReactionStatsBatch(@Body ReactionStatsBatchRequest request);
+
+    // Family tree
+
+    // Streamed: decode with data.FamilyTreeDecoder off the main thread
+    @Streaming
+    @GET("family-tree/user/{userId}")
+    Call<ResponseBody> getFamilyTree(@Path("userId") long userId);
+
+    @POST("family-tree/relationship")
+    Call<JsonObject> sendRelationshipRequest(@Body JsonObject request);
+
+    @GET("family-tree/requests/pending/{userId}")
+    Call<JsonObject> getPendingRequests(@Path("userId") long userId);
+
+    @GET("family-tree/requests/sent/{userId}")
+    Call<JsonObject> getSentRequests(@Path("userId") long userId);
+
+    @POST("family-tree/requests/respond")
+    Call<JsonObject> respondToRequest(@Body JsonObject request);
+}
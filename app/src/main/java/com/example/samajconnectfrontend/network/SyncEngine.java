@@ -0,0 +1,307 @@
+package com.example.samajconnectfrontend.network;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.example.samajconnectfrontend.data.local.LocalStore;
+import com.example.samajconnectfrontend.data.local.SyncStateRecord;
+import com.example.samajconnectfrontend.models.ApiResponse;
+import com.example.samajconnectfrontend.models.ChangeSet;
+import com.example.samajconnectfrontend.models.Event;
+import com.example.samajconnectfrontend.models.EventResponse;
+import com.example.samajconnectfrontend.models.Member;
+import com.example.samajconnectfrontend.models.MemberPage;
+import com.example.samajconnectfrontend.utils.AppExecutors;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.LongSupplier;
+
+import retrofit2.Response;
+
+/**
+ * Keeps the local store's events and member roster in step with the server. Each samaj has
+ * a high-water mark per kind; after the first full download only records changed since it
+ * are requested and merged, and tombstones in the change set remove deleted ones. Falls back
+ * to full downloads if the server has no changes endpoints; that is remembered, and the full
+ * roster is then refreshed at most every ROSTER_REFRESH_MS. Writes go through the local
+ * store's single writer, so they stay in order with the screens' own writes.
+ */
+public class SyncEngine {
+
+    private static final String TAG = "SyncEngine";
+
+    // The roster is downloaded in pages this big on the first sync
+    static final int ROSTER_PAGE_SIZE = 100;
+    // Without a changes endpoint, a synced roster is downloaded again at most this often
+    static final long ROSTER_REFRESH_MS = 6 * 60 * 60 * 1000L;
+
+    public interface Callback<T> {
+        void onSynced(T result);
+
+        /**
+         * @param statusCode HTTP status code, or -1 when the request never got a response
+         */
+        void onFailed(int statusCode);
+    }
+
+    private static class HttpError extends Exception {
+        final int statusCode;
+
+        HttpError(int statusCode) {
+            super("HTTP " + statusCode);
+            this.statusCode = statusCode;
+        }
+    }
+
+    private interface Sync<T> {
+        T run(long samajId) throws IOException, HttpError;
+    }
+
+    private static volatile SyncEngine instance;
+
+    private final SamajApi api;
+    private final LocalStore store;
+    private final ConditionalCache conditionalCache;
+    private final Executor worker;
+    private final Executor callbackExecutor;
+    private final LongSupplier clock;
+
+    // Samaj id -> callbacks of the sync that is running, so concurrent calls share it
+    private final Map<Long, List<Callback<List<Event>>>> eventSyncs = new HashMap<>();
+    private final Map<Long, List<Callback<Integer>>> memberSyncs = new HashMap<>();
+
+    SyncEngine(SamajApi api, LocalStore store, ConditionalCache conditionalCache,
+               Executor worker, Executor callbackExecutor) {
+        this(api, store, conditionalCache, worker, callbackExecutor, System::currentTimeMillis);
+    }
+
+    SyncEngine(SamajApi api, LocalStore store, ConditionalCache conditionalCache,
+               Executor worker, Executor callbackExecutor, LongSupplier clock) {
+        this.api = api;
+        this.store = store;
+        this.conditionalCache = conditionalCache;
+        this.worker = worker;
+        this.callbackExecutor = callbackExecutor;
+        this.clock = clock;
+    }
+
+    /**
+     * Get the shared engine; callbacks are delivered on the main thread
+     */
+    public static SyncEngine getInstance(Context context) {
+        if (instance == null) {
+            synchronized (SyncEngine.class) {
+                if (instance == null) {
+                    instance = new SyncEngine(NetworkClient.api(context), LocalStore.getInstance(context),
+                            NetworkClient.conditionalCache(context), AppExecutors.networkIO(), AppExecutors.mainThread());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Bring the samaj's events up to date
+     * @param callback receives every cached event of the samaj, in list order
+     */
+    public void syncEvents(long samajId, Callback<List<Event>> callback) {
+        start(eventSyncs, samajId, callback, this::syncEventsNow);
+    }
+
+    /**
+     * Bring the samaj's member roster up to date
+     * @param callback receives the number of members in the roster; may be null
+     */
+    public void syncMembers(long samajId, Callback<Integer> callback) {
+        start(memberSyncs, samajId, callback, this::syncMembersNow);
+    }
+
+    private <T> void start(Map<Long, List<Callback<T>>> running, long samajId, Callback<T> callback, Sync<T> sync) {
+        synchronized (this) {
+            List<Callback<T>> callbacks = running.get(samajId);
+            if (callbacks != null) {
+                if (callback != null) callbacks.add(callback);
+                return;
+            }
+            callbacks = new ArrayList<>();
+            if (callback != null) callbacks.add(callback);
+            running.put(samajId, callbacks);
+        }
+
+        worker.execute(() -> {
+            T result = null;
+            int statusCode = 0;
+            try {
+                result = sync.run(samajId);
+            } catch (HttpError e) {
+                Log.e(TAG, "Sync of samaj " + samajId + " rejected: " + e.getMessage());
+                statusCode = e.statusCode;
+            } catch (IOException | RuntimeException e) {
+                Log.e(TAG, "Error syncing samaj " + samajId, e);
+                statusCode = -1;
+            }
+
+            List<Callback<T>> callbacks;
+            synchronized (this) {
+                callbacks = running.remove(samajId);
+            }
+            T synced = result;
+            int failure = statusCode;
+            callbackExecutor.execute(() -> {
+                for (Callback<T> each : callbacks) {
+                    if (failure == 0) {
+                        each.onSynced(synced);
+                    } else {
+                        each.onFailed(failure);
+                    }
+                }
+            });
+        });
+    }
+
+    private List<Event> syncEventsNow(long samajId) throws IOException, HttpError {
+        String since = store.watermark(SyncStateRecord.EVENTS, samajId);
+        if (since != null && !store.changesUnsupported(SyncStateRecord.EVENTS, samajId)) {
+            Response<ApiResponse<ChangeSet<Event>>> response = api.getEventChanges(samajId, since).execute();
+            if (isMissingEndpoint(response)) {
+                Log.w(TAG, "No event changes endpoint, downloading full lists");
+                store.writeInTransaction(() -> store.setChangesUnsupported(SyncStateRecord.EVENTS, samajId));
+            } else {
+                ChangeSet<Event> changes = changeSet(response);
+                List<Event> changed = orEmpty(changes.getChanged());
+                List<Long> deleted = orEmpty(changes.getDeletedIds());
+                String watermark = nextWatermark(since, changes.getServerTime(), eventStamps(changed));
+                store.writeInTransaction(() -> {
+                    store.mergeEvents(samajId, changed, deleted);
+                    store.setWatermark(SyncStateRecord.EVENTS, samajId, watermark);
+                });
+                Log.d(TAG, "Events of samaj " + samajId + ": " + changed.size() + " changed, "
+                        + deleted.size() + " deleted");
+                return store.events(samajId);
+            }
+        }
+
+        Response<EventResponse> response = api.getEvents(samajId).execute();
+        boolean unchanged = ConditionalCache.isNotModified(response);
+        EventResponse body = conditionalCache.resolve(response);
+        if (body == null || !body.isSuccess()) {
+            throw new HttpError(response.code());
+        }
+        if (unchanged) {
+            // Same list as the last full download, which the local store already holds
+            return store.events(samajId);
+        }
+        List<Event> events = orEmpty(body.getEvents());
+        String watermark = nextWatermark(null, null, eventStamps(events));
+        store.writeInTransaction(() -> {
+            store.saveEvents(samajId, events);
+            store.setWatermark(SyncStateRecord.EVENTS, samajId, watermark);
+        });
+        return store.events(samajId);
+    }
+
+    private Integer syncMembersNow(long samajId) throws IOException, HttpError {
+        String since = store.watermark(SyncStateRecord.MEMBERS, samajId);
+        if (since != null && !store.changesUnsupported(SyncStateRecord.MEMBERS, samajId)) {
+            Response<ApiResponse<ChangeSet<Member>>> response = api.getMemberChanges(samajId, since).execute();
+            if (isMissingEndpoint(response)) {
+                Log.w(TAG, "No member changes endpoint, downloading full rosters");
+                store.writeInTransaction(() -> store.setChangesUnsupported(SyncStateRecord.MEMBERS, samajId));
+            } else {
+                ChangeSet<Member> changes = changeSet(response);
+                List<Member> changed = orEmpty(changes.getChanged());
+                List<Long> deleted = orEmpty(changes.getDeletedIds());
+                String watermark = nextWatermark(since, changes.getServerTime(), memberStamps(changed));
+                store.writeInTransaction(() -> {
+                    store.mergeRoster(samajId, changed, deleted);
+                    store.setWatermark(SyncStateRecord.MEMBERS, samajId, watermark);
+                });
+                return store.rosterSize(samajId);
+            }
+        }
+
+        long now = clock.getAsLong();
+        if (since != null && now - store.downloadedAt(SyncStateRecord.MEMBERS, samajId) < ROSTER_REFRESH_MS) {
+            // Every page again, images included, is too much to fetch on each visit
+            Log.d(TAG, "Roster of samaj " + samajId + " downloaded recently, keeping it");
+            return store.rosterSize(samajId);
+        }
+
+        List<Member> members = new ArrayList<>();
+        int page = 0;
+        boolean hasNext = true;
+        while (hasNext) {
+            Response<ApiResponse<MemberPage<Member>>> response =
+                    api.getSamajMembers(samajId, page++, ROSTER_PAGE_SIZE).execute();
+            ApiResponse<MemberPage<Member>> body = response.body();
+            if (!response.isSuccessful() || body == null || !body.isSuccess() || body.getData() == null) {
+                throw new HttpError(response.code());
+            }
+            members.addAll(orEmpty(body.getData().getMembers()));
+            hasNext = body.getData().hasNext();
+        }
+        String watermark = nextWatermark(null, null, memberStamps(members));
+        store.writeInTransaction(() -> {
+            store.saveRoster(samajId, members);
+            store.setWatermark(SyncStateRecord.MEMBERS, samajId, watermark);
+            store.setDownloadedAt(SyncStateRecord.MEMBERS, samajId, now);
+        });
+        return members.size();
+    }
+
+    private static boolean isMissingEndpoint(Response<?> response) {
+        return response.code() == 404 || response.code() == 405;
+    }
+
+    private static <T> ChangeSet<T> changeSet(Response<ApiResponse<ChangeSet<T>>> response) throws HttpError {
+        ApiResponse<ChangeSet<T>> body = response.body();
+        if (!response.isSuccessful() || body == null || !body.isSuccess() || body.getData() == null) {
+            throw new HttpError(response.code());
+        }
+        return body.getData();
+    }
+
+    /**
+     * The server's own clock is preferred; otherwise the newest timestamp seen. Timestamps are
+     * ISO style strings, so the newest is the greatest. The server treats since as inclusive,
+     * so records stamped in the same second as the watermark are sent again, never missed.
+     */
+    static String nextWatermark(String current, String serverTime, List<String> stamps) {
+        if (serverTime != null && !serverTime.isEmpty()) {
+            return serverTime;
+        }
+        String newest = current;
+        for (String stamp : stamps) {
+            if (stamp != null && (newest == null || stamp.compareTo(newest) > 0)) {
+                newest = stamp;
+            }
+        }
+        return newest;
+    }
+
+    private static List<String> eventStamps(List<Event> events) {
+        List<String> stamps = new ArrayList<>(events.size());
+        for (Event event : events) {
+            stamps.add(event.getUpdatedAt() != null ? event.getUpdatedAt() : event.getCreatedAt());
+        }
+        return stamps;
+    }
+
+    private static List<String> memberStamps(List<Member> members) {
+        List<String> stamps = new ArrayList<>(members.size());
+        for (Member member : members) {
+            stamps.add(member.getUpdatedAt() != null ? member.getUpdatedAt() : member.getCreatedAt());
+        }
+        return stamps;
+    }
+
+    private static <T> List<T> orEmpty(List<T> list) {
+        return list != null ? list : Collections.emptyList();
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.samajconnectfrontend.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared executors so screens don't each spin up their own threads
+ */
+public final class AppExecutors {
+
+    private static final ExecutorService BACKGROUND = Executors.newFixedThreadPool(
+            Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors())),
+            namedThreads("app-bg"));
+
+    // Blocking network calls mostly wait, so they get their own threads and can't starve
+    // diffs, database reads and decodes on the pools above and below
+    private static final ExecutorService NETWORK_IO = networkPool();
+
+    // Bitmap decodes are memory heavy, keep at most two in flight
+    private static final ExecutorService IMAGE_DECODE = Executors.newFixedThreadPool(2,
+            namedThreads("image-decode"));
+
+    private static final Executor MAIN_THREAD = new Executor() {
+        private final Handler handler = new Handler(Looper.getMainLooper());
+
+        @Override
+        public void execute(Runnable command) {
+            handler.post(command);
+        }
+    };
+
+    private AppExecutors() {
+    }
+
+    /**
+     * Executor for parsing, disk and other work that must stay off the UI thread
+     */
+    public static ExecutorService background() {
+        return BACKGROUND;
+    }
+
+    /**
+     * Executor reserved for decoding images, so list scrolling never waits behind network parsing
+     */
+    public static ExecutorService imageDecode() {
+        return IMAGE_DECODE;
+    }
+
+    /**
+     * Executor for blocking network calls such as Retrofit execute() and multi-page downloads
+     */
+    public static ExecutorService networkIO() {
+        return NETWORK_IO;
+    }
+
+    public static Executor mainThread() {
+        return MAIN_THREAD;
+    }
+
+    private static ExecutorService networkPool() {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(4, 4, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), namedThreads("net-io"));
+        // Idle between syncs, so don't keep the threads around
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    public static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + count.incrementAndGet());
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        };
+    }
+}
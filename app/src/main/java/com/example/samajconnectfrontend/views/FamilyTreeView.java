@@ -10,9 +10,12 @@ import android.view.ScaleGestureDetector;
 import android.view.View;
 import androidx.core.content.ContextCompat;
 import com.example.samajconnectfrontend.R;
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
+import com.example.samajconnectfrontend.data.FamilyTreeData;
+import com.example.samajconnectfrontend.data.ImageRef;
+import com.example.samajconnectfrontend.data.TreeMemberRecord;
+import com.example.samajconnectfrontend.images.BitmapPool;
+import com.example.samajconnectfrontend.images.ImageLoader;
+import com.example.samajconnectfrontend.images.ImageOwner;
 import java.util.*;
 
 public class FamilyTreeView extends View {
@@ -34,6 +37,18 @@ public class FamilyTreeView extends View {
     private static final int MIN_TEXT_SPACING = 60;
     private static final int MAX_TEXT_WIDTH = 300;
     private static final int TEXT_LINE_SPACING = 8;
+    private static final int INDEX_CELL_SIZE = 512;
+    private static final int LEVEL_LABEL_X = 80;
+    // Above this many nodes the tree is drawn directly with culling instead of from the cached picture
+    private static final int STATIC_LAYER_MAX_NODES = 400;
+    // Avatars arriving within this long of each other share one re-record of the picture
+    private static final long AVATAR_REFRESH_MS = 200;
+    private static final int PILL_CORNER_RADIUS = 12;
+    private static final float PILL_SHADOW_RADIUS = 6;
+    private static final float PILL_SHADOW_DY = 3;
+    // Pill shadow sprite: room for the blur around the pill, and the corner region inside it
+    private static final int PILL_SPRITE_MARGIN = 16;
+    private static final int PILL_SPRITE_INSET = 28;
 
     // Enhanced colors
     private static final int NODE_COLOR = Color.parseColor("#FFFFFF");
@@ -44,6 +59,7 @@ public class FamilyTreeView extends View {
     private static final int ROOT_NODE_BORDER_COLOR = Color.parseColor("#4CAF50");
     private static final int RELATIONSHIP_TEXT_COLOR = Color.parseColor("#333333");
     private static final int LEVEL_TEXT_COLOR = Color.parseColor("#666666");
+    private static final int NODE_SHADOW_COLOR = Color.parseColor("#40000000");
 
     // Paint objects
     private Paint nodePaint;
@@ -54,13 +70,48 @@ public class FamilyTreeView extends View {
     private Paint rootNodePaint;
     private Paint rootNodeBorderPaint;
     private Paint levelPaint;
-    private Paint textBackgroundPaint;
+    private Paint avatarPaint;
+    private Paint spritePaint;
+
+    // Avatar buffers are owned by this view and recycled across tree loads
+    private final BitmapPool avatarPool = new BitmapPool(8L * 1024 * 1024);
+    private final List<ImageLoader.Pending> pendingAvatarDecodes = new ArrayList<>();
 
     // Data structures
     private List<FamilyNode> familyNodes;
     private Map<Integer, List<FamilyNode>> generationMap;
     private FamilyNode rootNode;
 
+    // Lookup structures rebuilt whenever node positions change
+    private final Map<Long, FamilyNode> nodesByUserId = new HashMap<>();
+    private final SpatialGrid<FamilyNode> nodeIndex = new SpatialGrid<>(INDEX_CELL_SIZE);
+    // Resolved connection endpoints, four floats (startX, startY, endX, endY) per line
+    private float[] connectionSegments = new float[0];
+
+    // Union of all node bounds and level labels, in tree coordinates
+    private final RectF treeBounds = new RectF();
+
+    // Static tree recorded once and replayed under the pan/zoom transform; null when stale
+    private Picture staticLayer;
+    private boolean staticLayerEnabled = true;
+    // Node discs with their drop shadow pre-rendered, so no shadow layer is drawn per node
+    private Bitmap nodeShadowSprite;
+    private Bitmap rootShadowSprite;
+    // A label pill with its drop shadow, stretched to each pill's size in nine slices
+    private Bitmap pillSprite;
+    private final Runnable avatarRefresh = () -> {
+        avatarRefreshPosted = false;
+        invalidateStaticLayer();
+    };
+    private boolean avatarRefreshPosted;
+
+    // Reused every frame
+    private final Rect clipBounds = new Rect();
+    private final RectF cullBounds = new RectF();
+    private final Rect sliceSource = new Rect();
+    private final RectF sliceTarget = new RectF();
+    private final List<FamilyNode> visibleNodes = new ArrayList<>();
+
     // NEW: Store actual relationships from database
     private List<DatabaseRelationship> databaseRelationships;
 
@@ -102,7 +153,6 @@ public class FamilyTreeView extends View {
         nodePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
         nodePaint.setColor(NODE_COLOR);
         nodePaint.setStyle(Paint.Style.FILL);
-        nodePaint.setShadowLayer(10, 0, 6, Color.parseColor("#40000000"));
 
         nodeBorderPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
         nodeBorderPaint.setColor(NODE_BORDER_COLOR);
@@ -112,7 +162,6 @@ public class FamilyTreeView extends View {
         rootNodePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
         rootNodePaint.setColor(ROOT_NODE_COLOR);
         rootNodePaint.setStyle(Paint.Style.FILL);
-        rootNodePaint.setShadowLayer(12, 0, 8, Color.parseColor("#40000000"));
 
         rootNodeBorderPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
         rootNodeBorderPaint.setColor(ROOT_NODE_BORDER_COLOR);
@@ -126,7 +175,6 @@ public class FamilyTreeView extends View {
         textPaint.setTypeface(Typeface.create(Typeface.DEFAULT, Typeface.BOLD));
         textPaint.setSubpixelText(true);
         textPaint.setLinearText(true);
-        textPaint.setShadowLayer(2, 1, 1, Color.parseColor("#80FFFFFF"));
 
         relationshipTextPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
         relationshipTextPaint.setColor(RELATIONSHIP_TEXT_COLOR);
@@ -135,7 +183,7 @@ public class FamilyTreeView extends View {
         relationshipTextPaint.setTypeface(Typeface.create(Typeface.DEFAULT, Typeface.NORMAL));
         relationshipTextPaint.setSubpixelText(true);
         relationshipTextPaint.setLinearText(true);
-        relationshipTextPaint.setShadowLayer(2, 1, 1, Color.parseColor("#80FFFFFF"));
+        // No text shadows: labels sit on white pills, where their white halo never showed
 
         levelPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
         levelPaint.setColor(LEVEL_TEXT_COLOR);
@@ -143,16 +191,18 @@ public class FamilyTreeView extends View {
         levelPaint.setTextAlign(Paint.Align.LEFT);
         levelPaint.setTypeface(Typeface.create(Typeface.DEFAULT, Typeface.BOLD));
 
-        textBackgroundPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        textBackgroundPaint.setColor(Color.parseColor("#FFFFFF"));
-        textBackgroundPaint.setAlpha(240);
-        textBackgroundPaint.setShadowLayer(6, 0, 3, Color.parseColor("#30000000"));
+        avatarPaint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.FILTER_BITMAP_FLAG | Paint.DITHER_FLAG);
+        spritePaint = new Paint(Paint.FILTER_BITMAP_FLAG);
 
         linePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
         linePaint.setColor(LINE_COLOR);
         linePaint.setStrokeWidth(LINE_WIDTH);
         linePaint.setStrokeCap(Paint.Cap.ROUND);
 
+        nodeShadowSprite = createShadowSprite(NODE_COLOR, 10, 6);
+        rootShadowSprite = createShadowSprite(ROOT_NODE_COLOR, 12, 8);
+        pillSprite = createPillSprite();
+
         // Initialize gesture detectors
         gestureDetector = new GestureDetector(getContext(), new GestureListener());
         scaleGestureDetector = new ScaleGestureDetector(getContext(), new ScaleListener());
@@ -167,81 +217,77 @@ public class FamilyTreeView extends View {
         this.nodeLongClickListener = listener;
     }
 
-    public void loadFamilyTreeData(JSONObject treeData) {
-        try {
-            Log.d(TAG, "=== LOADING FAMILY TREE DATA ===");
-            Log.d(TAG, "Raw tree data: " + treeData.toString());
+    /**
+     * Draw pan and zoom frames from a recorded picture of the tree (the default) instead of
+     * issuing every node and line again. Trees above STATIC_LAYER_MAX_NODES are always drawn
+     * directly, culled to the screen.
+     */
+    public void setStaticLayerEnabled(boolean enabled) {
+        if (staticLayerEnabled != enabled) {
+            staticLayerEnabled = enabled;
+            invalidateStaticLayer();
+        }
+    }
 
-            familyNodes.clear();
-            generationMap.clear();
-            databaseRelationships.clear();
+    public void loadFamilyTreeData(FamilyTreeData treeData) {
+        Log.d(TAG, "=== LOADING FAMILY TREE DATA ===");
 
-            // Parse root user
-            if (treeData.has("rootUser")) {
-                JSONObject rootUserData = treeData.getJSONObject("rootUser");
-                Log.d(TAG, "Root user data: " + rootUserData.toString());
-                rootNode = createNodeFromJson(rootUserData, true);
-                familyNodes.add(rootNode);
-                Log.d(TAG, "Root node created: " + rootNode.name + " (ID: " + rootNode.userId + ")");
-            } else {
-                Log.e(TAG, "No rootUser found in tree data!");
-            }
+        releaseAvatars();
+        familyNodes.clear();
+        generationMap.clear();
+        databaseRelationships.clear();
 
-            // Parse generations and extract relationships
-            if (treeData.has("generations")) {
-                JSONArray generations = treeData.getJSONArray("generations");
-                Log.d(TAG, "Found " + generations.length() + " generations");
-
-                for (int i = 0; i < generations.length(); i++) {
-                    JSONObject generation = generations.getJSONObject(i);
-                    int level = generation.getInt("level");
-                    JSONArray allMembers = generation.getJSONArray("allMembers");
-                    List<FamilyNode> levelNodes = new ArrayList<>();
-
-                    Log.d(TAG, "Generation " + level + " has " + allMembers.length() + " members");
-
-                    for (int j = 0; j < allMembers.length(); j++) {
-                        JSONObject member = allMembers.getJSONObject(j);
-                        Log.d(TAG, "Processing member: " + member.toString());
-                        FamilyNode node = createNodeFromJson(member, false);
-                        familyNodes.add(node);
-                        levelNodes.add(node);
-
-                        // IMPORTANT: Store the actual database relationship
-                        DatabaseRelationship dbRel = new DatabaseRelationship();
-                        dbRel.fromUserId = rootNode.userId; // Root user
-                        dbRel.toUserId = node.userId; // Related user
-                        dbRel.relationshipType = node.relationshipDisplayName;
-                        dbRel.generationLevel = node.generationLevel;
-                        databaseRelationships.add(dbRel);
-
-                        Log.d(TAG, "Added relationship: " + rootNode.userId + " -> " + node.userId + " (" + node.relationshipDisplayName + ")");
-                        Log.d(TAG, "Added node: " + node.name + " (ID: " + node.userId + ") (" + node.relationshipDisplayName + ") at level " + level + " side: " + node.relationshipSide);
-                    }
-                    generationMap.put(level, levelNodes);
+        // Root user
+        if (treeData.rootUser != null) {
+            rootNode = createNode(treeData.rootUser, true);
+            familyNodes.add(rootNode);
+            Log.d(TAG, "Root node created: " + rootNode.name + " (ID: " + rootNode.userId + ")");
+        } else {
+            rootNode = null;
+            Log.e(TAG, "No rootUser found in tree data!");
+        }
+
+        // Generations and their relationships to the root
+        Log.d(TAG, "Found " + treeData.generations.size() + " generations");
+        for (Map.Entry<Integer, List<TreeMemberRecord>> generation : treeData.generations.entrySet()) {
+            int level = generation.getKey();
+            List<FamilyNode> levelNodes = new ArrayList<>();
+
+            Log.d(TAG, "Generation " + level + " has " + generation.getValue().size() + " members");
+
+            for (TreeMemberRecord member : generation.getValue()) {
+                FamilyNode node = createNode(member, false);
+                familyNodes.add(node);
+                levelNodes.add(node);
+
+                if (rootNode != null) {
+                    // IMPORTANT: Store the actual database relationship
+                    DatabaseRelationship dbRel = new DatabaseRelationship();
+                    dbRel.fromUserId = rootNode.userId; // Root user
+                    dbRel.toUserId = node.userId; // Related user
+                    dbRel.relationshipType = node.relationshipDisplayName;
+                    dbRel.generationLevel = node.generationLevel;
+                    databaseRelationships.add(dbRel);
                 }
-            } else {
-                Log.e(TAG, "No generations found in tree data!");
             }
+            generationMap.put(level, levelNodes);
+        }
 
-            Log.d(TAG, "Total nodes created: " + familyNodes.size());
-            Log.d(TAG, "Total database relationships: " + databaseRelationships.size());
-            Log.d(TAG, "Root node: " + (rootNode != null ? rootNode.name + " (ID: " + rootNode.userId + ")" : "NULL"));
+        Log.d(TAG, "Total nodes created: " + familyNodes.size());
+        Log.d(TAG, "Total database relationships: " + databaseRelationships.size());
 
-            // Log all database relationships
-            logDatabaseRelationships();
+        // Log all database relationships
+        logDatabaseRelationships();
 
-            // Calculate positions
-            calculateOptimizedNodePositions();
+        // Calculate positions
+        calculateOptimizedNodePositions();
+        rebuildNodeIndex();
 
-            // Center the view on root node
-            centerOnRoot();
-            invalidate();
+        // Center the view on root node
+        centerOnRoot();
+        invalidateStaticLayer();
 
-            Log.d(TAG, "=== FAMILY TREE DATA LOADED ===");
-        } catch (JSONException e) {
-            Log.e(TAG, "Error parsing family tree data", e);
-        }
+        Log.d(TAG, "=== FAMILY TREE DATA LOADED ===");
     }
 
     private void logDatabaseRelationships() {
@@ -252,62 +298,93 @@ public class FamilyTreeView extends View {
         Log.d(TAG, "===============================");
     }
 
-    private FamilyNode createNodeFromJson(JSONObject jsonData, boolean isRoot) throws JSONException {
+    private FamilyNode createNode(TreeMemberRecord record, boolean isRoot) {
         FamilyNode node = new FamilyNode();
-        node.userId = jsonData.getLong("userId");
-        node.name = jsonData.getString("name");
-        node.email = jsonData.optString("email", "");
+        node.userId = record.userId;
+        node.name = record.name;
+        node.email = record.email;
         node.isRoot = isRoot;
-
-        Log.d(TAG, "Creating node: " + node.name + " (ID: " + node.userId + ") isRoot: " + isRoot);
+        node.profileImage = record.profileImage;
 
         if (!isRoot) {
-            node.relationshipDisplayName = jsonData.optString("relationshipDisplayName", "");
-            node.generationLevel = jsonData.optInt("generationLevel", 0);
-            node.generationName = jsonData.optString("generationName", "");
-            node.relationshipSide = jsonData.optString("relationshipSide", "");
-            Log.d(TAG, " - Relationship: " + node.relationshipDisplayName);
-            Log.d(TAG, " - Generation Level: " + node.generationLevel);
-            Log.d(TAG, " - Generation Name: " + node.generationName);
-            Log.d(TAG, " - Relationship Side: " + node.relationshipSide);
+            node.relationshipDisplayName = record.relationshipDisplayName;
+            node.generationLevel = record.generationLevel;
+            node.generationName = record.generationName;
+            node.relationshipSide = record.relationshipSide;
         } else {
             node.generationLevel = 0;
-            Log.d(TAG, " - This is the ROOT user");
-        }
-
-        // Handle profile image
-        if (jsonData.has("profileImageBase64") && !jsonData.isNull("profileImageBase64")) {
-            String base64Image = jsonData.getString("profileImageBase64");
-            if (!base64Image.isEmpty()) {
-                try {
-                    byte[] decodedString = android.util.Base64.decode(base64Image, android.util.Base64.DEFAULT);
-                    Bitmap originalBitmap = BitmapFactory.decodeByteArray(decodedString, 0, decodedString.length);
-                    if (originalBitmap != null) {
-                        node.profileBitmap = createHighQualityCircularBitmap(originalBitmap);
-                        Log.d(TAG, " - Profile image loaded successfully");
-                    }
-                } catch (Exception e) {
-                    Log.e(TAG, "Error decoding profile image for " + node.name, e);
-                }
+        }
+
+        // Handle profile image; decoded in the background, the node is drawn without it until then
+        if (record.profileImage != null) {
+            int imageSize = (NODE_RADIUS - PROFILE_MARGIN) * 2;
+            ImageLoader.Pending decode = ImageLoader.decode(getContext(), ImageOwner.USER, record.userId,
+                    record.profileImage, imageSize, imageSize, avatarPool, new ImageLoader.Callback() {
+                        @Override
+                        public void onLoaded(Bitmap bitmap) {
+                            setNodeAvatar(node, bitmap);
+                            scheduleAvatarRefresh();
+                        }
+
+                        @Override
+                        public void onFailed() {
+                            Log.e(TAG, "Error decoding profile image for " + node.name);
+                        }
+                    });
+            if (decode != null) {
+                pendingAvatarDecodes.add(decode);
             }
         }
 
         return node;
     }
 
-    private Bitmap createHighQualityCircularBitmap(Bitmap bitmap) {
-        int desiredSize = (NODE_RADIUS - PROFILE_MARGIN) * 2;
-        Bitmap scaledBitmap = Bitmap.createScaledBitmap(bitmap, desiredSize, desiredSize, true);
-        Bitmap output = Bitmap.createBitmap(desiredSize, desiredSize, Bitmap.Config.ARGB_8888);
-        Canvas canvas = new Canvas(output);
-        Paint paint = new Paint();
-        paint.setAntiAlias(true);
-        paint.setFilterBitmap(true);
-        paint.setDither(true);
-        canvas.drawCircle(desiredSize / 2f, desiredSize / 2f, desiredSize / 2f, paint);
-        paint.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.SRC_IN));
-        canvas.drawBitmap(scaledBitmap, 0, 0, paint);
-        return output;
+    /**
+     * Clip the avatar to a circle at draw time: the shader center-crops the bitmap
+     * into a circle of the avatar radius around (0, 0), so no per-node bitmap is baked.
+     */
+    private void setNodeAvatar(FamilyNode node, Bitmap bitmap) {
+        float diameter = (NODE_RADIUS - PROFILE_MARGIN) * 2f;
+        float scale = diameter / Math.min(bitmap.getWidth(), bitmap.getHeight());
+
+        Matrix matrix = new Matrix();
+        matrix.setScale(scale, scale);
+        matrix.postTranslate(-bitmap.getWidth() * scale / 2f, -bitmap.getHeight() * scale / 2f);
+
+        BitmapShader shader = new BitmapShader(bitmap, Shader.TileMode.CLAMP, Shader.TileMode.CLAMP);
+        shader.setLocalMatrix(matrix);
+
+        node.profileBitmap = bitmap;
+        node.profileShader = shader;
+    }
+
+    /**
+     * Hand the current nodes' avatars back to the pool and drop decodes still in flight
+     */
+    private void releaseAvatars() {
+        for (ImageLoader.Pending decode : pendingAvatarDecodes) {
+            decode.cancel();
+        }
+        pendingAvatarDecodes.clear();
+
+        // The recorded picture references the avatar bitmaps; drop it before they are reused
+        staticLayer = null;
+        for (FamilyNode node : familyNodes) {
+            if (node.profileBitmap != null) {
+                avatarPool.put(node.profileBitmap);
+                node.profileBitmap = null;
+                node.profileShader = null;
+            }
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        removeCallbacks(avatarRefresh);
+        avatarRefreshPosted = false;
+        releaseAvatars();
+        avatarPool.clear();
     }
 
     private void calculateOptimizedNodePositions() {
@@ -396,24 +473,7 @@ public class FamilyTreeView extends View {
     private int calculateMinimumSpacing(List<FamilyNode> nodes) {
         int maxTextWidth = 0;
         for (FamilyNode node : nodes) {
-            String fullName = node.name != null ? node.name : "";
-            List<String> nameLines = wrapText(fullName, textPaint, MAX_TEXT_WIDTH);
-            int maxLineWidth = 0;
-            for (String line : nameLines) {
-                int lineWidth = (int) textPaint.measureText(line);
-                maxLineWidth = Math.max(maxLineWidth, lineWidth);
-            }
-
-            int relationshipWidth = 0;
-            if (!node.isRoot && node.relationshipDisplayName != null && !node.relationshipDisplayName.isEmpty()) {
-                List<String> relationshipLines = wrapText(node.relationshipDisplayName, relationshipTextPaint, MAX_TEXT_WIDTH);
-                for (String line : relationshipLines) {
-                    int lineWidth = (int) relationshipTextPaint.measureText(line);
-                    relationshipWidth = Math.max(relationshipWidth, lineWidth);
-                }
-            }
-
-            int totalTextWidth = Math.max(maxLineWidth, relationshipWidth) + (TEXT_PADDING * 2);
+            int totalTextWidth = (int) labelLayout(node).maxLineWidth + (TEXT_PADDING * 2);
             maxTextWidth = Math.max(maxTextWidth, totalTextWidth);
         }
 
@@ -487,6 +547,50 @@ public class FamilyTreeView extends View {
         Log.d(TAG, "======================");
     }
 
+    /**
+     * Index nodes by user id and by their drawn bounds (circle plus labels), and resolve the
+     * connection lines, so drawing and hit testing only touch what is on screen
+     */
+    private void rebuildNodeIndex() {
+        nodesByUserId.clear();
+        nodeIndex.clear();
+        treeBounds.setEmpty();
+
+        RectF bounds = new RectF();
+        for (FamilyNode node : familyNodes) {
+            nodesByUserId.put(node.userId, node);
+            computeNodeBounds(node, bounds);
+            nodeIndex.insert(node, bounds.left, bounds.top, bounds.right, bounds.bottom);
+            treeBounds.union(bounds);
+        }
+        if (!treeBounds.isEmpty()) {
+            // Level labels sit left of the nodes
+            treeBounds.union(0, treeBounds.top);
+            treeBounds.union(LEVEL_LABEL_X + MAX_TEXT_WIDTH, treeBounds.top);
+        }
+
+        float[] segments = new float[databaseRelationships.size() * 4];
+        int count = 0;
+        for (DatabaseRelationship dbRel : databaseRelationships) {
+            FamilyNode fromNode = findNodeByUserId(dbRel.fromUserId);
+            FamilyNode toNode = findNodeByUserId(dbRel.toUserId);
+            if (fromNode == null || toNode == null) {
+                Log.w(TAG, "Could not find nodes for relationship: " + dbRel.fromUserId + " -> " + dbRel.toUserId);
+                continue;
+            }
+            if (edgeToEdgeSegment(fromNode, toNode, segments, count * 4)) {
+                count++;
+            }
+        }
+        connectionSegments = Arrays.copyOf(segments, count * 4);
+    }
+
+    private void computeNodeBounds(FamilyNode node, RectF out) {
+        LabelLayout layout = labelLayout(node);
+        float halfWidth = Math.max(NODE_RADIUS, layout.maxLineWidth / 2 + TEXT_PADDING);
+        out.set(node.x - halfWidth, node.y - NODE_RADIUS, node.x + halfWidth, node.y + Math.max(NODE_RADIUS, layout.bottom));
+    }
+
     private void centerOnRoot() {
         if (rootNode != null && getWidth() > 0 && getHeight() > 0) {
             translateX = getWidth() / 2f - rootNode.x * scaleFactor;
@@ -502,13 +606,121 @@ public class FamilyTreeView extends View {
         canvas.translate(translateX, translateY);
         canvas.scale(scaleFactor, scaleFactor);
 
+        if (useStaticLayer()) {
+            if (staticLayer == null) {
+                staticLayer = recordStaticLayer();
+            }
+            canvas.translate(treeBounds.left, treeBounds.top);
+            canvas.drawPicture(staticLayer);
+        } else if (canvas.getClipBounds(clipBounds)) {
+            // The clip is now in tree coordinates, i.e. the part of the tree on screen
+            cullBounds.set(clipBounds);
+            drawTree(canvas);
+        }
+        canvas.restore();
+    }
+
+    private void drawTree(Canvas canvas) {
         drawLevelIndicators(canvas);
 
         // CORRECTED: Draw connections based ONLY on database relationships
         drawDatabaseRelationshipConnections(canvas);
 
         drawNodes(canvas);
-        canvas.restore();
+    }
+
+    private boolean useStaticLayer() {
+        return staticLayerEnabled && !treeBounds.isEmpty() && familyNodes.size() <= STATIC_LAYER_MAX_NODES;
+    }
+
+    /**
+     * Record the whole tree once; gesture frames then only replay it under a new transform
+     */
+    private Picture recordStaticLayer() {
+        Picture picture = new Picture();
+        Canvas recording = picture.beginRecording((int) Math.ceil(treeBounds.width()), (int) Math.ceil(treeBounds.height()));
+        recording.translate(-treeBounds.left, -treeBounds.top);
+        cullBounds.set(treeBounds);
+        drawTree(recording);
+        picture.endRecording();
+        return picture;
+    }
+
+    /**
+     * Tree content changed (data, avatars or mode): re-record it on the next frame
+     */
+    private void invalidateStaticLayer() {
+        staticLayer = null;
+        invalidate();
+    }
+
+    /**
+     * An avatar arrived. While a tree loads they come one after another, and re-recording the
+     * whole picture for each would cost O(N) per avatar; collect them into one re-record instead.
+     */
+    private void scheduleAvatarRefresh() {
+        if (!useStaticLayer()) {
+            // Drawn directly every frame anyway
+            invalidate();
+            return;
+        }
+        if (!avatarRefreshPosted) {
+            avatarRefreshPosted = true;
+            postOnAnimationDelayed(avatarRefresh, AVATAR_REFRESH_MS);
+        }
+    }
+
+    /**
+     * A node disc with its drop shadow, rendered once in software where shadow layers are exact
+     */
+    private static Bitmap createShadowSprite(int fillColor, float shadowRadius, float shadowDy) {
+        int half = (int) Math.ceil(NODE_RADIUS + shadowRadius + shadowDy);
+        Bitmap sprite = Bitmap.createBitmap(half * 2, half * 2, Bitmap.Config.ARGB_8888);
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        paint.setColor(fillColor);
+        paint.setShadowLayer(shadowRadius, 0, shadowDy, NODE_SHADOW_COLOR);
+        new Canvas(sprite).drawCircle(half, half, NODE_RADIUS, paint);
+        return sprite;
+    }
+
+    /**
+     * A label pill with its drop shadow, rendered once in software like the node sprites.
+     * Its center row and column are uniform, so it stretches to any pill size in nine slices.
+     */
+    private static Bitmap createPillSprite() {
+        int size = 2 * (PILL_SPRITE_MARGIN + PILL_SPRITE_INSET) + 1;
+        Bitmap sprite = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        paint.setColor(Color.parseColor("#FFFFFF"));
+        paint.setAlpha(240);
+        paint.setShadowLayer(PILL_SHADOW_RADIUS, 0, PILL_SHADOW_DY, Color.parseColor("#30000000"));
+        new Canvas(sprite).drawRoundRect(PILL_SPRITE_MARGIN, PILL_SPRITE_MARGIN, size - PILL_SPRITE_MARGIN,
+                size - PILL_SPRITE_MARGIN, PILL_CORNER_RADIUS, PILL_CORNER_RADIUS, paint);
+        return sprite;
+    }
+
+    /**
+     * Draw the pill sprite stretched over a label background: corners as they are,
+     * edges stretched along their length, the center stretched both ways
+     */
+    private void drawPill(Canvas canvas, RectF pill) {
+        int size = pillSprite.getWidth();
+        int[] sourceX = {0, PILL_SPRITE_MARGIN + PILL_SPRITE_INSET, size - PILL_SPRITE_MARGIN - PILL_SPRITE_INSET, size};
+        // Only a label with no text is narrower than two corners; squeeze them to fit
+        float insetX = Math.min(PILL_SPRITE_INSET, pill.width() / 2);
+        float insetY = Math.min(PILL_SPRITE_INSET, pill.height() / 2);
+        float[] targetX = {pill.left - PILL_SPRITE_MARGIN, pill.left + insetX,
+                pill.right - insetX, pill.right + PILL_SPRITE_MARGIN};
+        float[] targetY = {pill.top - PILL_SPRITE_MARGIN, pill.top + insetY,
+                pill.bottom - insetY, pill.bottom + PILL_SPRITE_MARGIN};
+        for (int row = 0; row < 3; row++) {
+            for (int column = 0; column < 3; column++) {
+                // The sprite is square, so rows use the same source boundaries as columns
+                sliceSource.set(sourceX[column], sourceX[row], sourceX[column + 1], sourceX[row + 1]);
+                sliceTarget.set(targetX[column], targetY[row], targetX[column + 1], targetY[row + 1]);
+                canvas.drawBitmap(pillSprite, sliceSource, sliceTarget, spritePaint);
+            }
+        }
     }
 
     private void drawLevelIndicators(Canvas canvas) {
@@ -517,7 +729,7 @@ public class FamilyTreeView extends View {
         List<Integer> sortedLevels = new ArrayList<>(generationMap.keySet());
         Collections.sort(sortedLevels);
 
-        int leftMargin = 80;
+        int leftMargin = LEVEL_LABEL_X;
         canvas.drawText("You", leftMargin, rootNode.y + 10, levelPaint);
 
         for (int level : sortedLevels) {
@@ -550,82 +762,71 @@ public class FamilyTreeView extends View {
     }
 
     /**
-     * CORRECTED: Draw connections based ONLY on actual database relationships
+     * CORRECTED: Draw connections based ONLY on actual database relationships.
+     * Endpoints are resolved in rebuildNodeIndex; lines missing the screen are skipped.
      */
     private void drawDatabaseRelationshipConnections(Canvas canvas) {
-        if (rootNode == null || databaseRelationships.isEmpty()) return;
-
-        Log.d(TAG, "=== DRAWING DATABASE RELATIONSHIP CONNECTIONS ===");
-
-        // Draw connections ONLY for relationships that exist in the database
-        for (DatabaseRelationship dbRel : databaseRelationships) {
-            FamilyNode fromNode = findNodeByUserId(dbRel.fromUserId);
-            FamilyNode toNode = findNodeByUserId(dbRel.toUserId);
-
-            if (fromNode != null && toNode != null) {
-                drawStraightLine(canvas, fromNode, toNode);
-                Log.d(TAG, "Drew database relationship connection: " + fromNode.name + " -> " + toNode.name + " (" + dbRel.relationshipType + ")");
-            } else {
-                Log.w(TAG, "Could not find nodes for relationship: " + dbRel.fromUserId + " -> " + dbRel.toUserId);
+        float[] segments = connectionSegments;
+        for (int i = 0; i < segments.length; i += 4) {
+            float startX = segments[i];
+            float startY = segments[i + 1];
+            float endX = segments[i + 2];
+            float endY = segments[i + 3];
+            if (Math.max(startX, endX) < cullBounds.left || Math.min(startX, endX) > cullBounds.right
+                    || Math.max(startY, endY) < cullBounds.top || Math.min(startY, endY) > cullBounds.bottom) {
+                continue;
             }
+            canvas.drawLine(startX, startY, endX, endY, linePaint);
         }
-
-        Log.d(TAG, "=== DATABASE RELATIONSHIP CONNECTIONS DRAWN ===");
     }
 
     /**
      * Find a node by user ID
      */
     private FamilyNode findNodeByUserId(Long userId) {
-        if (rootNode != null && rootNode.userId.equals(userId)) {
-            return rootNode;
-        }
-
-        for (List<FamilyNode> levelNodes : generationMap.values()) {
-            for (FamilyNode node : levelNodes) {
-                if (node.userId.equals(userId)) {
-                    return node;
-                }
-            }
-        }
-        return null;
+        return nodesByUserId.get(userId);
     }
 
     /**
-     * Draw a simple straight line between two nodes
+     * Straight line between two nodes, from circle edge to circle edge
+     *
+     * @return false if the nodes share a position and there is nothing to draw
      */
-    private void drawStraightLine(Canvas canvas, FamilyNode from, FamilyNode to) {
+    private boolean edgeToEdgeSegment(FamilyNode from, FamilyNode to, float[] out, int offset) {
         // Calculate connection points on the edge of the circles
         float dx = to.x - from.x;
         float dy = to.y - from.y;
         float distance = (float) Math.sqrt(dx * dx + dy * dy);
 
-        if (distance == 0) return; // Same position
+        if (distance == 0) return false; // Same position
 
         // Normalize direction
         float dirX = dx / distance;
         float dirY = dy / distance;
 
-        // Calculate start and end points on circle edges
-        float startX = from.x + dirX * NODE_RADIUS;
-        float startY = from.y + dirY * NODE_RADIUS;
-        float endX = to.x - dirX * NODE_RADIUS;
-        float endY = to.y - dirY * NODE_RADIUS;
-
-        // Draw the line
-        canvas.drawLine(startX, startY, endX, endY, linePaint);
+        out[offset] = from.x + dirX * NODE_RADIUS;
+        out[offset + 1] = from.y + dirY * NODE_RADIUS;
+        out[offset + 2] = to.x - dirX * NODE_RADIUS;
+        out[offset + 3] = to.y - dirY * NODE_RADIUS;
+        return true;
     }
 
     private void drawNodes(Canvas canvas) {
+        visibleNodes.clear();
+        nodeIndex.query(cullBounds.left, cullBounds.top, cullBounds.right, cullBounds.bottom, visibleNodes);
+
         // Draw non-root nodes first
-        for (List<FamilyNode> levelNodes : generationMap.values()) {
-            for (FamilyNode node : levelNodes) {
+        boolean rootVisible = false;
+        for (FamilyNode node : visibleNodes) {
+            if (node == rootNode) {
+                rootVisible = true;
+            } else {
                 drawNode(canvas, node);
             }
         }
 
         // Draw root node last (on top)
-        if (rootNode != null) {
+        if (rootVisible) {
             drawNode(canvas, rootNode);
         }
     }
@@ -633,84 +834,111 @@ public class FamilyTreeView extends View {
     private void drawNode(Canvas canvas, FamilyNode node) {
         Paint backgroundPaint = node.isRoot ? rootNodePaint : nodePaint;
         Paint borderPaint = node.isRoot ? rootNodeBorderPaint : nodeBorderPaint;
+        Bitmap shadow = node.isRoot ? rootShadowSprite : nodeShadowSprite;
 
+        canvas.drawBitmap(shadow, node.x - shadow.getWidth() / 2f, node.y - shadow.getHeight() / 2f, null);
+        // Crisp edge on top of the sprite, which is blurred when zoomed in
         canvas.drawCircle(node.x, node.y, NODE_RADIUS, backgroundPaint);
         canvas.drawCircle(node.x, node.y, NODE_RADIUS, borderPaint);
 
-        if (node.profileBitmap != null) {
-            float imageSize = NODE_RADIUS - PROFILE_MARGIN;
-            Rect destRect = new Rect(
-                    (int) (node.x - imageSize),
-                    (int) (node.y - imageSize),
-                    (int) (node.x + imageSize),
-                    (int) (node.y + imageSize)
-            );
-            canvas.drawBitmap(node.profileBitmap, null, destRect, null);
+        if (node.profileShader != null) {
+            avatarPaint.setShader(node.profileShader);
+            canvas.save();
+            canvas.translate(node.x, node.y);
+            canvas.drawCircle(0, 0, NODE_RADIUS - PROFILE_MARGIN, avatarPaint);
+            canvas.restore();
         }
 
         drawEnhancedNodeText(canvas, node);
     }
 
     private void drawEnhancedNodeText(Canvas canvas, FamilyNode node) {
-        // Draw name with multi-line support
-        String fullName = node.name != null ? node.name : "";
-        List<String> nameLines = wrapText(fullName, textPaint, MAX_TEXT_WIDTH);
-        float nameStartY = node.y + NODE_RADIUS + NAME_MARGIN;
-        float lineHeight = textPaint.getTextSize() + TEXT_LINE_SPACING;
-
-        // Calculate total name height
-        float totalNameHeight = nameLines.size() * lineHeight;
-
-        // Draw background for all name lines
-        if (!nameLines.isEmpty()) {
-            float maxWidth = 0;
-            for (String line : nameLines) {
-                maxWidth = Math.max(maxWidth, textPaint.measureText(line));
-            }
-            drawMultiLineTextBackground(canvas, nameLines, node.x, nameStartY, lineHeight, maxWidth, textPaint);
+        LabelLayout layout = labelLayout(node);
+        canvas.save();
+        canvas.translate(node.x, node.y);
+
+        // Name with multi-line support
+        if (layout.nameBackground != null) {
+            drawPill(canvas, layout.nameBackground);
+        }
+        for (int i = 0; i < layout.nameLines.length; i++) {
+            canvas.drawText(layout.nameLines[i], 0, layout.nameStartY + (i * layout.nameLineHeight), textPaint);
         }
 
-        // Draw each line of the name
-        for (int i = 0; i < nameLines.size(); i++) {
-            float lineY = nameStartY + (i * lineHeight);
-            canvas.drawText(nameLines.get(i), node.x, lineY, textPaint);
+        // Relationship text below the name
+        if (layout.relationshipBackground != null) {
+            drawPill(canvas, layout.relationshipBackground);
+        }
+        for (int i = 0; i < layout.relationshipLines.length; i++) {
+            canvas.drawText(layout.relationshipLines[i], 0, layout.relationshipStartY + (i * layout.relationshipLineHeight), relationshipTextPaint);
         }
 
-        // Draw relationship text with proper spacing
-        if (!node.isRoot && node.relationshipDisplayName != null && !node.relationshipDisplayName.isEmpty()) {
-            List<String> relationshipLines = wrapText(node.relationshipDisplayName, relationshipTextPaint, MAX_TEXT_WIDTH);
-            float relationshipStartY = nameStartY + totalNameHeight + 20;
-            float relationshipLineHeight = relationshipTextPaint.getTextSize() + TEXT_LINE_SPACING;
+        canvas.restore();
+    }
 
-            // Draw background for relationship lines
-            if (!relationshipLines.isEmpty()) {
-                float maxWidth = 0;
-                for (String line : relationshipLines) {
-                    maxWidth = Math.max(maxWidth, relationshipTextPaint.measureText(line));
-                }
-                drawMultiLineTextBackground(canvas, relationshipLines, node.x, relationshipStartY, relationshipLineHeight, maxWidth, relationshipTextPaint);
-            }
+    /**
+     * The node's cached label layout, rebuilt only when its text or the text sizes changed
+     */
+    private LabelLayout labelLayout(FamilyNode node) {
+        String relationship = node.isRoot ? null : node.relationshipDisplayName;
+        LabelLayout layout = node.labelLayout;
+        if (layout == null || !layout.isValidFor(node.name, relationship, textPaint.getTextSize(), relationshipTextPaint.getTextSize())) {
+            layout = buildLabelLayout(node.name, relationship);
+            node.labelLayout = layout;
+        }
+        return layout;
+    }
 
-            // Draw each line of the relationship
-            for (int i = 0; i < relationshipLines.size(); i++) {
-                float lineY = relationshipStartY + (i * relationshipLineHeight);
-                canvas.drawText(relationshipLines.get(i), node.x, lineY, relationshipTextPaint);
-            }
+    private LabelLayout buildLabelLayout(String name, String relationship) {
+        LabelLayout layout = new LabelLayout(name, relationship, textPaint.getTextSize(), relationshipTextPaint.getTextSize());
+
+        List<String> nameLines = wrapText(name != null ? name : "", textPaint, MAX_TEXT_WIDTH);
+        layout.nameLines = nameLines.toArray(new String[0]);
+        layout.nameStartY = NODE_RADIUS + NAME_MARGIN;
+        layout.nameLineHeight = textPaint.getTextSize() + TEXT_LINE_SPACING;
+        float nameWidth = maxLineWidth(nameLines, textPaint);
+        layout.nameBackground = textBackground(nameLines.size(), layout.nameStartY, layout.nameLineHeight, nameWidth);
+        layout.bottom = layout.nameStartY + nameLines.size() * layout.nameLineHeight;
+
+        float relationshipWidth = 0;
+        if (relationship != null && !relationship.isEmpty()) {
+            List<String> relationshipLines = wrapText(relationship, relationshipTextPaint, MAX_TEXT_WIDTH);
+            layout.relationshipLines = relationshipLines.toArray(new String[0]);
+            layout.relationshipStartY = layout.nameStartY + nameLines.size() * layout.nameLineHeight + 20;
+            layout.relationshipLineHeight = relationshipTextPaint.getTextSize() + TEXT_LINE_SPACING;
+            relationshipWidth = maxLineWidth(relationshipLines, relationshipTextPaint);
+            layout.relationshipBackground = textBackground(relationshipLines.size(), layout.relationshipStartY,
+                    layout.relationshipLineHeight, relationshipWidth);
+            layout.bottom = layout.relationshipStartY + relationshipLines.size() * layout.relationshipLineHeight;
         }
+
+        layout.maxLineWidth = Math.max(nameWidth, relationshipWidth);
+        layout.bottom += TEXT_PADDING;
+        return layout;
     }
 
-    private void drawMultiLineTextBackground(Canvas canvas, List<String> lines, float centerX, float startY, float lineHeight, float maxWidth, Paint textPaint) {
-        if (lines.isEmpty()) return;
+    private static float maxLineWidth(List<String> lines, Paint paint) {
+        float maxWidth = 0;
+        for (String line : lines) {
+            maxWidth = Math.max(maxWidth, paint.measureText(line));
+        }
+        return maxWidth;
+    }
+
+    /**
+     * Rounded background behind a block of centered lines, relative to the node center
+     */
+    private static RectF textBackground(int lineCount, float startY, float lineHeight, float maxWidth) {
+        if (lineCount == 0) return null;
 
         float padding = TEXT_PADDING;
-        float totalHeight = lines.size() * lineHeight;
-        RectF backgroundRect = new RectF(
-                centerX - maxWidth/2 - padding,
+        float totalHeight = lineCount * lineHeight;
+        return new RectF(
+                -maxWidth/2 - padding,
                 startY - lineHeight/2 - padding,
-                centerX + maxWidth/2 + padding,
+                maxWidth/2 + padding,
                 startY + totalHeight - lineHeight/2 + padding
         );
-        canvas.drawRoundRect(backgroundRect, 12, 12, textBackgroundPaint);
     }
 
     @Override
@@ -773,11 +1001,11 @@ public class FamilyTreeView extends View {
         if (rootNode != null && isPointInNode(x, y, rootNode)) {
             return rootNode;
         }
-        for (List<FamilyNode> levelNodes : generationMap.values()) {
-            for (FamilyNode node : levelNodes) {
-                if (isPointInNode(x, y, node)) {
-                    return node;
-                }
+        List<FamilyNode> candidates = new ArrayList<>();
+        nodeIndex.query(x, y, x, y, candidates);
+        for (FamilyNode node : candidates) {
+            if (isPointInNode(x, y, node)) {
+                return node;
             }
         }
         return null;
@@ -805,8 +1033,50 @@ public class FamilyTreeView extends View {
         public String generationName;
         public String relationshipSide;
         public boolean isRoot = false;
+        public ImageRef profileImage;
         public Bitmap profileBitmap;
+        public BitmapShader profileShader;
         public float x;
         public float y;
+        LabelLayout labelLayout;
+    }
+
+    /**
+     * Wrapped label lines, their widths and background rects, relative to the node center.
+     * Built once per node so pan and zoom frames do no text splitting or measuring.
+     */
+    static class LabelLayout {
+        // What the layout was built from
+        final String name;
+        final String relationship;
+        final float nameTextSize;
+        final float relationshipTextSize;
+
+        String[] nameLines = new String[0];
+        float nameStartY;
+        float nameLineHeight;
+        RectF nameBackground;
+
+        String[] relationshipLines = new String[0];
+        float relationshipStartY;
+        float relationshipLineHeight;
+        RectF relationshipBackground;
+
+        float maxLineWidth;
+        float bottom;
+
+        LabelLayout(String name, String relationship, float nameTextSize, float relationshipTextSize) {
+            this.name = name;
+            this.relationship = relationship;
+            this.nameTextSize = nameTextSize;
+            this.relationshipTextSize = relationshipTextSize;
+        }
+
+        boolean isValidFor(String name, String relationship, float nameTextSize, float relationshipTextSize) {
+            return Objects.equals(this.name, name)
+                    && Objects.equals(this.relationship, relationship)
+                    && this.nameTextSize == nameTextSize
+                    && this.relationshipTextSize == relationshipTextSize;
+        }
     }
 }
@@ -0,0 +1,96 @@
+package com.example.samajconnectfrontend.views;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Uniform grid over axis aligned bounds, for finding the items that intersect a rectangle
+ * without scanning all of them. Each item is filed under the cell holding the center of its
+ * bounds; queries widen the rectangle by the largest half extent seen, so an item is
+ * reported exactly once. Not thread safe.
+ */
+public class SpatialGrid<T> {
+
+    private static final class Entry<T> {
+        final T item;
+        final float left, top, right, bottom;
+
+        Entry(T item, float left, float top, float right, float bottom) {
+            this.item = item;
+            this.left = left;
+            this.top = top;
+            this.right = right;
+            this.bottom = bottom;
+        }
+    }
+
+    private final float cellSize;
+    private final Map<Long, List<Entry<T>>> cells = new HashMap<>();
+    private float maxHalfWidth = 0;
+    private float maxHalfHeight = 0;
+    private int size = 0;
+
+    public SpatialGrid(float cellSize) {
+        this.cellSize = cellSize;
+    }
+
+    public void insert(T item, float left, float top, float right, float bottom) {
+        float centerX = (left + right) / 2f;
+        float centerY = (top + bottom) / 2f;
+        maxHalfWidth = Math.max(maxHalfWidth, (right - left) / 2f);
+        maxHalfHeight = Math.max(maxHalfHeight, (bottom - top) / 2f);
+
+        long key = key(cell(centerX), cell(centerY));
+        List<Entry<T>> cell = cells.get(key);
+        if (cell == null) {
+            cell = new ArrayList<>();
+            cells.put(key, cell);
+        }
+        cell.add(new Entry<>(item, left, top, right, bottom));
+        size++;
+    }
+
+    /**
+     * Add every item whose bounds intersect the rectangle to out
+     */
+    public void query(float left, float top, float right, float bottom, List<T> out) {
+        int minCellX = cell(left - maxHalfWidth);
+        int maxCellX = cell(right + maxHalfWidth);
+        int minCellY = cell(top - maxHalfHeight);
+        int maxCellY = cell(bottom + maxHalfHeight);
+
+        for (int cellY = minCellY; cellY <= maxCellY; cellY++) {
+            for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+                List<Entry<T>> cell = cells.get(key(cellX, cellY));
+                if (cell == null) continue;
+                for (Entry<T> entry : cell) {
+                    if (entry.left <= right && entry.right >= left
+                            && entry.top <= bottom && entry.bottom >= top) {
+                        out.add(entry.item);
+                    }
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        cells.clear();
+        maxHalfWidth = 0;
+        maxHalfHeight = 0;
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int cell(float coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    private static long key(int cellX, int cellY) {
+        return ((long) cellX << 32) | (cellY & 0xffffffffL);
+    }
+}
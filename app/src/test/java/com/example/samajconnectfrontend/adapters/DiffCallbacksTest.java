@@ -0,0 +1,153 @@
+package com.example.samajconnectfrontend.adapters;
+
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListUpdateCallback;
+
+import com.example.samajconnectfrontend.data.ImageRef;
+import com.example.samajconnectfrontend.models.Event;
+import com.example.samajconnectfrontend.models.Member;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Counts the rows a list update would rebind, i.e. what ListAdapter dispatches after its diff.
+ */
+public class DiffCallbacksTest {
+
+    @Test
+    public void oneEditedEvent_rebindsOneRow() {
+        List<Event> before = events(20);
+        List<Event> after = events(20);
+        after.get(7).setEventTitle("Renamed");
+
+        Updates updates = diff(before, after, DiffCallbacks.EVENTS);
+
+        assertEquals(1, updates.changed);
+        assertEquals(0, updates.inserted);
+        assertEquals(0, updates.removed);
+        assertEquals(0, updates.moved);
+    }
+
+    @Test
+    public void refreshWithSameContent_rebindsNothing() {
+        // A refresh returns new objects with the same data
+        Updates updates = diff(events(20), events(20), DiffCallbacks.EVENTS);
+
+        assertEquals(0, updates.rebinds());
+    }
+
+    @Test
+    public void nextPage_onlyBindsNewRows() {
+        List<Event> after = events(20);
+        after.addAll(events(20, 10));
+
+        Updates updates = diff(events(20), after, DiffCallbacks.EVENTS);
+
+        assertEquals(0, updates.changed);
+        assertEquals(10, updates.inserted);
+    }
+
+    @Test
+    public void filteringMembers_removesWithoutRebinding() {
+        List<Member> all = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            all.add(member(i));
+        }
+        List<Member> filtered = new ArrayList<>();
+        for (int i = 1; i <= 10; i += 2) {
+            filtered.add(member(i));
+        }
+
+        Updates updates = diff(all, filtered, DiffCallbacks.MEMBERS);
+
+        assertEquals(0, updates.changed);
+        assertEquals(5, updates.removed);
+    }
+
+    private static List<Event> events(int count) {
+        return events(0, count);
+    }
+
+    private static List<Event> events(int firstId, int count) {
+        List<Event> events = new ArrayList<>();
+        for (long id = firstId + 1; id <= firstId + count; id++) {
+            Event event = new Event();
+            event.setId(id);
+            event.setEventTitle("Event " + id);
+            event.setEventDate("2025-01-" + (id % 28 + 1));
+            event.setImage(ImageRef.ofBase64("image-" + id));
+            event.setUpdatedAt("2025-01-01T00:00:00");
+            events.add(event);
+        }
+        return events;
+    }
+
+    private static Member member(int id) {
+        return new Member(id, "Member " + id, "m" + id + "@example.com", "F", "99999" + id,
+                "Address", "", false, "2025-01-01", "2025-01-01", 6, "Samaj");
+    }
+
+    private static <T> Updates diff(List<T> before, List<T> after, DiffUtil.ItemCallback<T> callback) {
+        DiffUtil.DiffResult result = DiffUtil.calculateDiff(new DiffUtil.Callback() {
+            @Override
+            public int getOldListSize() {
+                return before.size();
+            }
+
+            @Override
+            public int getNewListSize() {
+                return after.size();
+            }
+
+            @Override
+            public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+                return callback.areItemsTheSame(before.get(oldItemPosition), after.get(newItemPosition));
+            }
+
+            @Override
+            public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+                return callback.areContentsTheSame(before.get(oldItemPosition), after.get(newItemPosition));
+            }
+        });
+        Updates updates = new Updates();
+        result.dispatchUpdatesTo(updates);
+        return updates;
+    }
+
+    private static class Updates implements ListUpdateCallback {
+        int changed;
+        int inserted;
+        int removed;
+        int moved;
+
+        int rebinds() {
+            return changed + inserted;
+        }
+
+        @Override
+        public void onInserted(int position, int count) {
+            inserted += count;
+        }
+
+        @Override
+        public void onRemoved(int position, int count) {
+            removed += count;
+        }
+
+        @Override
+        public void onMoved(int fromPosition, int toPosition) {
+            moved++;
+        }
+
+        @Override
+        public void onChanged(int position, int count, @Nullable Object payload) {
+            changed += count;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.samajconnectfrontend.adapters;
+
+import android.content.Context;
+import android.view.ContextThemeWrapper;
+import android.widget.FrameLayout;
+import android.widget.TextView;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.samajconnectfrontend.R;
+import com.example.samajconnectfrontend.models.Event;
+import com.example.samajconnectfrontend.models.ReactionStats;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * What the event rows show when loading their reaction stats fails.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ReactionStatsDisplayTest {
+
+    private Context context;
+
+    @Before
+    public void setUp() {
+        // The rows use MaterialButton, so inflate them under the event screens' theme
+        context = new ContextThemeWrapper(ApplicationProvider.getApplicationContext(), R.style.AppTheme_NoActionBar);
+    }
+
+    @Test
+    public void failureAfterStatsLoaded_keepsTheShownCounts() {
+        EventAdapter.EventViewHolder holder = eventHolder(event(7));
+
+        holder.showStats(7, new ReactionStats(5, 2));
+        holder.showStatsUnavailable(7);
+
+        assertEquals("5", text(holder.itemView, R.id.likeCountText));
+        assertEquals("2", text(holder.itemView, R.id.dislikeCountText));
+    }
+
+    @Test
+    public void failureBeforeAnyStats_showsUnknownRatherThanZero() {
+        EventAdapter.EventViewHolder holder = eventHolder(event(8));
+
+        holder.showStatsUnavailable(8);
+
+        assertNotEquals("0", text(holder.itemView, R.id.likeCountText));
+        assertNotEquals("0", text(holder.itemView, R.id.dislikeCountText));
+    }
+
+    @Test
+    public void failureForAnEarlierBinding_isIgnored() {
+        EventAdapter.EventViewHolder holder = eventHolder(event(9));
+        holder.showStats(9, new ReactionStats(3, 1));
+
+        holder.bind(event(10));
+        holder.showStats(10, new ReactionStats(4, 0));
+        holder.showStatsUnavailable(9);
+
+        assertEquals("4", text(holder.itemView, R.id.likeCountText));
+    }
+
+    @Test
+    public void sliderFailureAfterStatsLoaded_keepsTheShownCounts() {
+        EventSliderAdapter adapter = new EventSliderAdapter(context, Collections.emptyList());
+        EventSliderAdapter.EventViewHolder holder = adapter.onCreateViewHolder(new FrameLayout(context), 0);
+        holder.bind(event(11));
+
+        holder.showStats(11, new ReactionStats(6, 1));
+        holder.showStatsUnavailable(11);
+
+        assertEquals("6", text(holder.itemView, R.id.likeCountText));
+        assertEquals("1", text(holder.itemView, R.id.dislikeCountText));
+    }
+
+    private EventAdapter.EventViewHolder eventHolder(Event event) {
+        EventAdapter adapter = new EventAdapter(context, Collections.emptyList(), false, null);
+        EventAdapter.EventViewHolder holder = adapter.onCreateViewHolder(new FrameLayout(context), 0);
+        holder.bind(event);
+        return holder;
+    }
+
+    private static Event event(long id) {
+        Event event = new Event();
+        event.setId(id);
+        event.setEventTitle("Event " + id);
+        return event;
+    }
+
+    private static String text(android.view.View row, int id) {
+        return ((TextView) row.findViewById(id)).getText().toString();
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.samajconnectfrontend.data;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class FamilyTreeDecoderTest {
+
+    private static final String TREE = "{\"success\":true,\"message\":\"ok\",\"data\":{"
+            + "\"rootUser\":{\"userId\":1,\"name\":\"Root\",\"email\":\"root@example.com\",\"profileImageBase64\":\"QUJD\"},"
+            + "\"generations\":["
+            + "{\"level\":1,\"allMembers\":[{\"userId\":2,\"name\":\"Parent\",\"relationshipDisplayName\":\"Father\","
+            + "\"generationLevel\":1,\"generationName\":\"Parents\",\"relationshipSide\":\"PATERNAL\",\"profileImageBase64\":null}]},"
+            + "{\"allMembers\":[{\"userId\":3,\"name\":\"Child\",\"email\":null,\"unknown\":[1,2]}],\"level\":-1}"
+            + "]}}";
+
+    private File dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("tree-spool").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) file.delete();
+        }
+        dir.delete();
+    }
+
+    @Test
+    public void decode_buildsRootAndGenerations() throws IOException {
+        FamilyTreeData data = new FamilyTreeDecoder(null).decode(new StringReader(TREE));
+
+        assertTrue(data.success);
+        assertEquals("ok", data.message);
+        assertEquals(Long.valueOf(1), data.rootUser.userId);
+        assertEquals(0, data.rootUser.generationLevel);
+
+        List<TreeMemberRecord> parents = data.generations.get(1);
+        assertEquals(1, parents.size());
+        assertEquals("Father", parents.get(0).relationshipDisplayName);
+        assertEquals("PATERNAL", parents.get(0).relationshipSide);
+        assertNull(parents.get(0).profileImage);
+    }
+
+    @Test
+    public void decode_levelAfterMembers_stillAssignsGeneration() throws IOException {
+        FamilyTreeData data = new FamilyTreeDecoder(null).decode(new StringReader(TREE));
+
+        List<TreeMemberRecord> children = data.generations.get(-1);
+        assertEquals(1, children.size());
+        assertEquals("Child", children.get(0).name);
+        assertEquals("", children.get(0).email);
+        assertEquals(2, data.allMembers().size());
+    }
+
+    @Test
+    public void decode_withSpool_keepsImagesOnDisk() throws IOException {
+        ImageSpool spool = new ImageSpool(dir, "tree");
+        FamilyTreeData data = new FamilyTreeDecoder(spool).decode(new StringReader(TREE));
+
+        ImageRef image = data.rootUser.profileImage;
+        assertEquals(4, image.length());
+        assertEquals("QUJD", new String(image.readEncoded(), StandardCharsets.US_ASCII));
+        assertEquals(ImageRef.ofBase64("QUJD").contentHash(), image.contentHash());
+        assertEquals(4, spool.size());
+
+        data.release();
+        assertEquals(0, dir.listFiles().length);
+    }
+
+    @Test
+    public void deleteLeftovers_clearsEarlierFilesOnlyOnce() throws IOException {
+        File leftover = new File(dir, "tree-1-123");
+        Files.write(leftover.toPath(), new byte[]{1, 2, 3});
+
+        ImageSpool.deleteLeftovers(dir);
+        ImageSpool spool = new ImageSpool(dir, "tree-1-456");
+        spool.write("QUJD");
+        ImageSpool.deleteLeftovers(dir);
+
+        assertFalse(leftover.exists());
+        assertEquals(1, dir.listFiles().length);
+        spool.close();
+    }
+
+    @Test
+    public void decode_withSpool_streamsLargeImagesInPieces() throws IOException {
+        StringBuilder large = new StringBuilder();
+        for (int i = 0; i < 5000; i++) large.append("QUJD");
+        String json = "{\"data\":{\"rootUser\":{\"profileImageBase64\" : \"" + large + "\",\"name\":\"Root\"},"
+                + "\"generations\":[{\"level\":1,\"allMembers\":[{\"name\":\"profileImageBase64\","
+                + "\"profileImageBase64\":\"QU\\/C\\u0044\"},{\"profileImageBase64\":\"\"}]}]}}";
+        ImageSpool spool = new ImageSpool(dir, "tree");
+
+        FamilyTreeData data = new FamilyTreeDecoder(spool).decode(new StringReader(json));
+
+        ImageRef root = data.rootUser.profileImage;
+        assertEquals("Root", data.rootUser.name);
+        assertEquals(large.length(), root.length());
+        assertTrue(ImageRef.sameContent(ImageRef.ofBase64(large.toString()), root));
+
+        List<TreeMemberRecord> members = data.generations.get(1);
+        assertEquals("profileImageBase64", members.get(0).name);
+        // Escapes are undone before the payload reaches the spool
+        assertEquals("QU/CD", new String(members.get(0).profileImage.readEncoded(), StandardCharsets.US_ASCII));
+        assertNull(members.get(1).profileImage);
+        assertEquals(large.length() + 5, spool.size());
+
+        data.release();
+    }
+}
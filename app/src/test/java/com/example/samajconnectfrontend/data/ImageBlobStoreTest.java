@@ -0,0 +1,89 @@
+package com.example.samajconnectfrontend.data;
+
+import com.example.samajconnectfrontend.models.Event;
+import com.google.gson.Gson;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class ImageBlobStoreTest {
+
+    private final ImageBlobStore store = new ImageBlobStore(7);
+
+    @Test
+    public void samePayload_isHeldOnce() {
+        ImageRef first = store.intern("QUJD");
+        ImageRef second = store.intern(new String("QUJD"));
+
+        assertSame(first, second);
+        assertNotSame(first, store.intern("QUJE"));
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    public void emptyPayload_hasNoImage() {
+        assertNull(store.intern(""));
+        assertNull(store.intern((String) null));
+        assertEquals(ImageBlobStore.NO_HANDLE, store.handleOf(null));
+    }
+
+    @Test
+    public void handle_resolvesToTheSamePayload() {
+        ImageRef image = store.intern("QUJD");
+
+        long handle = store.handleOf(image);
+
+        assertNotEquals(ImageBlobStore.NO_HANDLE, handle);
+        assertEquals(handle, store.handleOf(image));
+        assertSame(image, store.resolve(handle));
+    }
+
+    @Test
+    public void otherReferences_canBeSharedToo() {
+        ImageRef image = ImageRef.ofBase64("QUJD");
+
+        assertSame(image, store.resolve(store.handleOf(image)));
+    }
+
+    @Test
+    public void handleFromAnotherProcess_doesNotResolve() {
+        long handle = new ImageBlobStore(8).handleOf(ImageRef.ofBase64("QUJD"));
+        ImageRef image = store.intern("QUJD");
+
+        assertNotEquals(handle, store.handleOf(image));
+        assertNull(store.resolve(handle));
+        assertNull(store.resolve(ImageBlobStore.NO_HANDLE));
+    }
+
+    @Test
+    public void payload_isDroppedOnceNothingRefersToIt() throws InterruptedException {
+        long handle = store.handleOf(store.intern("QUJD"));
+
+        for (int i = 0; i < 50 && store.resolve(handle) != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertNull(store.resolve(handle));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    public void jsonFields_roundTripThroughTheStore() throws Exception {
+        Gson gson = new Gson();
+        String json = "{\"id\":3,\"thumbnailBase64\":\"dGh1bWI=\",\"imageBase64\":null}";
+
+        Event first = gson.fromJson(json, Event.class);
+        Event second = gson.fromJson(json, Event.class);
+
+        assertNull(first.getImage());
+        assertEquals("dGh1bWI=", new String(first.getThumbnail().readEncoded(), StandardCharsets.US_ASCII));
+        // Two copies of the same event share one payload
+        assertSame(first.getThumbnail(), second.getThumbnail());
+        // Written back as the same String, so stored JSON reads as before
+        assertSame(first.getThumbnail(), gson.fromJson(gson.toJson(first), Event.class).getThumbnail());
+    }
+}
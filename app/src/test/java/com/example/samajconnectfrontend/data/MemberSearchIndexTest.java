@@ -0,0 +1,132 @@
+package com.example.samajconnectfrontend.data;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+public class MemberSearchIndexTest {
+
+    private static final String[] FIRST = {"Aarav", "Vivaan", "Aditya", "Ishaan", "Diya", "Ananya", "Kavya",
+            "Priya", "Rohan", "Meera", "Nikhil", "Pooja", "Sanjay", "Heena", "Jignesh", "Komal"};
+    private static final String[] LAST = {"Patel", "Shah", "Mehta", "Desai", "Joshi", "Trivedi", "Parikh",
+            "Modi", "Gandhi", "Bhatt", "Chauhan", "Thakkar"};
+    // What people type: bits of names, an email and a phone number
+    private static final String[] QUERIES = {"pat", "patel", "aarav", "ishaan tri", "vivaan.mehta",
+            "jignesh.thakkar4", "98251", "0042", "example", "xyz", "ann", "meera bh"};
+
+    @Test
+    public void search_matchesNameEmailAndPhone() {
+        MemberSearchIndex index = new MemberSearchIndex(1, Arrays.asList(
+                user(1, "Ravi Patel", "ravi@example.com", "98250 11111"),
+                user(2, "Sita Shah", "sita.s@mail.com", "9925022222"),
+                user(3, "Raj Mehta", "rmehta@example.com", null)));
+
+        assertEquals(ids(1), index.search("patel", 10));
+        assertEquals(ids(2), index.search("A.S@MAIL", 10));
+        assertEquals(ids(1, 3), index.search("example", 10));
+        // Spaces in the stored number don't stop a digits-only query
+        assertEquals(ids(1), index.search("5011", 10));
+        assertEquals(ids(2), index.search("99250", 10));
+        assertTrue(index.search("zzz", 10).isEmpty());
+        assertTrue(index.search("  ", 10).isEmpty());
+    }
+
+    @Test
+    public void shortQuery_matchesWordStarts() {
+        MemberSearchIndex index = new MemberSearchIndex(1, Arrays.asList(
+                user(1, "Ravi Patel", "ravi@example.com", null),
+                user(2, "Aarav Shah", "aarav@example.com", null),
+                user(3, "Pa", "x@example.com", null)));
+
+        // "ra" is inside Aarav but starts no word of it
+        assertEquals(ids(1), index.search("ra", 10));
+        assertEquals(ids(3, 1), index.search("pa", 10));
+        assertEquals(ids(1, 2, 3), index.search("e", 10));
+    }
+
+    @Test
+    public void search_putsNamePrefixFirstAndRespectsLimit() {
+        MemberSearchIndex index = new MemberSearchIndex(1, Arrays.asList(
+                user(1, "Kiran Shah", "shahfamily@example.com", null),
+                user(2, "Shahid Khan", "k@example.com", null),
+                user(3, "Amit Shah", "a@example.com", null)));
+
+        assertEquals(ids(2, 1, 3), index.search("shah", 10));
+        assertEquals(ids(2, 1), index.search("shah", 2));
+    }
+
+    @Test
+    public void tenThousandMembers_indexAgreesWithScan() {
+        List<MemberSearchIndex.Entry> roster = roster(10_000);
+        MemberSearchIndex index = new MemberSearchIndex(1, roster);
+
+        for (String query : QUERIES) {
+            List<Long> expected = MemberSearchIndex.scan(roster, query);
+            assertEquals(query, new HashSet<>(expected), new HashSet<>(index.search(query, Integer.MAX_VALUE)));
+        }
+    }
+
+    /**
+     * Timings only, never a pass/fail on speed; skipped unless run with ./gradlew test -Pbenchmark
+     */
+    @Test
+    public void benchmark_tenThousandMembers() {
+        assumeTrue(Boolean.getBoolean("benchmark"));
+        List<MemberSearchIndex.Entry> roster = roster(10_000);
+        long buildStart = System.nanoTime();
+        MemberSearchIndex index = new MemberSearchIndex(1, roster);
+        long buildMs = (System.nanoTime() - buildStart) / 1_000_000;
+
+        int rounds = 50;
+        long scanNanos = 0;
+        long indexNanos = 0;
+        // Alternate the two so warm-up and GC pauses hit both alike
+        for (int round = 0; round < rounds; round++) {
+            long start = System.nanoTime();
+            for (String query : QUERIES) {
+                MemberSearchIndex.scan(roster, query);
+            }
+            scanNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (String query : QUERIES) {
+                index.search(query, 20);
+            }
+            indexNanos += System.nanoTime() - start;
+        }
+
+        double scanMs = scanNanos / 1e6 / (rounds * QUERIES.length);
+        double indexMs = indexNanos / 1e6 / (rounds * QUERIES.length);
+        System.out.printf("10k members: build %d ms, scan %.3f ms/query, index %.3f ms/query%n",
+                buildMs, scanMs, indexMs);
+    }
+
+    private static List<MemberSearchIndex.Entry> roster(int size) {
+        Random random = new Random(42);
+        List<MemberSearchIndex.Entry> users = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String first = FIRST[random.nextInt(FIRST.length)];
+            String last = LAST[random.nextInt(LAST.length)];
+            users.add(user(i, first + " " + last, (first + "." + last + i).toLowerCase() + "@example.com",
+                    String.valueOf(9825000000L + random.nextInt(1_000_000))));
+        }
+        return users;
+    }
+
+    private static MemberSearchIndex.Entry user(long id, String name, String email, String phone) {
+        return new MemberSearchIndex.Entry(id, name, email, phone);
+    }
+
+    private static List<Long> ids(long... ids) {
+        List<Long> list = new ArrayList<>();
+        for (long id : ids) list.add(id);
+        return list;
+    }
+}
@@ -0,0 +1,257 @@
+package com.example.samajconnectfrontend.data.local;
+
+import android.content.Context;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.samajconnectfrontend.models.DetailedUserDto;
+import com.example.samajconnectfrontend.models.Event;
+import com.example.samajconnectfrontend.models.Member;
+import com.example.samajconnectfrontend.models.MemberPage;
+import com.example.samajconnectfrontend.models.Samaj;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(RobolectricTestRunner.class)
+public class LocalStoreDaoTest {
+
+    private AppDatabase db;
+    private LocalStore store;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        db = Room.inMemoryDatabaseBuilder(context, AppDatabase.class)
+                .allowMainThreadQueries()
+                .build();
+        store = new LocalStore(db, Runnable::run);
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void forSamaj_keepsServerOrderAndOnlyThatSamaj() {
+        db.events().insertAll(Arrays.asList(
+                eventRecord(1, 6, "2030-01-05 10:00:00", 1),
+                eventRecord(2, 6, "2030-01-01 10:00:00", 0),
+                eventRecord(3, 7, "2030-01-02 10:00:00", 0)));
+
+        List<EventRecord> events = db.events().forSamaj(6);
+
+        assertEquals(2, events.size());
+        assertEquals(2, events.get(0).id);
+        assertEquals(1, events.get(1).id);
+    }
+
+    @Test
+    public void upcoming_filtersAndSortsByEventDate() {
+        db.events().insertAll(Arrays.asList(
+                eventRecord(1, 6, "2030-03-01 10:00:00", 0),
+                eventRecord(2, 6, "2020-01-01 10:00:00", 1),
+                eventRecord(3, 6, "2030-02-01 10:00:00", 2)));
+
+        List<EventRecord> upcoming = db.events().upcoming(6, "2025-01-01");
+
+        assertEquals(2, upcoming.size());
+        assertEquals(3, upcoming.get(0).id);
+        assertEquals(1, upcoming.get(1).id);
+    }
+
+    @Test
+    public void replaceForSamaj_dropsEventsTheServerNoLongerHas() {
+        db.events().insertAll(Arrays.asList(
+                eventRecord(1, 6, "2030-01-01 10:00:00", 0),
+                eventRecord(2, 6, "2030-01-02 10:00:00", 1),
+                eventRecord(3, 7, "2030-01-03 10:00:00", 0)));
+
+        db.events().replaceForSamaj(6, Arrays.asList(eventRecord(2, 6, "2030-01-02 10:00:00", 0)));
+
+        assertEquals(1, db.events().forSamaj(6).size());
+        assertEquals(2, db.events().forSamaj(6).get(0).id);
+        assertEquals(1, db.events().forSamaj(7).size());
+    }
+
+    @Test
+    public void replaceUpcoming_keepsPastEvents() {
+        db.events().insertAll(Arrays.asList(
+                eventRecord(1, 6, "2020-01-01 10:00:00", 0),
+                eventRecord(2, 6, "2030-01-01 10:00:00", 1)));
+
+        db.events().replaceUpcoming(6, "2025-01-01", Arrays.asList(eventRecord(4, 6, "2030-06-01 10:00:00", 0)));
+
+        List<EventRecord> all = db.events().forSamaj(6);
+        assertEquals(2, all.size());
+        assertNotNull(findEvent(all, 1));
+        assertNotNull(findEvent(all, 4));
+        assertNull(findEvent(all, 2));
+    }
+
+    @Test
+    public void saveEvents_roundTripsThroughJson() {
+        Event event = new Event();
+        event.setId(11L);
+        event.setEventTitle("Diwali Milan");
+        event.setEventDate("2030-11-01 18:00:00");
+        event.setLikeCount(4);
+
+        store.saveEvents(6, Arrays.asList(event));
+        List<Event> cached = store.events(6);
+
+        assertEquals(1, cached.size());
+        assertEquals("Diwali Milan", cached.get(0).getEventTitle());
+        assertEquals(4, (int) cached.get(0).getLikeCount());
+    }
+
+    @Test
+    public void replacePage_onlyTouchesItsOwnPositions() {
+        store.saveMembersPage(6, 2, memberPage(0, 1, 2));
+        store.saveMembersPage(6, 2, memberPage(1, 3, 4));
+
+        // Member 2 left; page 0 now holds 1 and 3 is unchanged on page 1
+        store.saveMembersPage(6, 2, memberPage(0, 1, 5));
+
+        MemberPage<Member> first = store.membersPage(6, 0, 2);
+        MemberPage<Member> second = store.membersPage(6, 1, 2);
+        assertEquals(Arrays.asList(1, 5), memberIds(first));
+        assertEquals(Arrays.asList(3, 4), memberIds(second));
+        assertEquals("Patel Samaj", first.getSamajName());
+        assertEquals(2, first.getTotalPages());
+        assertEquals(4, db.members().count(6));
+    }
+
+    @Test
+    public void membersPage_missesWhenNotCachedOrPageSizeChanged() {
+        store.saveMembersPage(6, 2, memberPage(0, 1, 2));
+
+        assertNull(store.membersPage(6, 1, 2));
+        assertNull(store.membersPage(6, 0, 20));
+        assertNull(store.membersPage(7, 0, 2));
+    }
+
+    @Test
+    public void samaj_roundTrips() {
+        store.saveSamaj(new Samaj(6L, "Patel Samaj"));
+
+        assertEquals("Patel Samaj", store.samaj(6).getName());
+        assertNull(store.samaj(7));
+    }
+
+    @Test
+    public void users_areIndexedBySamaj() {
+        UserRecord first = userRecord(1, 6L);
+        UserRecord second = userRecord(2, 6L);
+        UserRecord outsider = userRecord(3, null);
+        db.users().insertAll(Arrays.asList(first, second, outsider));
+
+        assertEquals(2, db.users().forSamaj(6).size());
+        assertEquals(Long.valueOf(6), store.samajIdOfUser(1));
+        assertNull(store.samajIdOfUser(3));
+        assertNull(store.samajIdOfUser(4));
+    }
+
+    @Test
+    public void searchRoster_loadsTheMatchesWithTheirImages() {
+        UserRecord ravi = userRecord(1, 6L);
+        ravi.json = "{\"id\":1,\"name\":\"Ravi Patel\",\"profileImageBase64\":\"QUJD\"}";
+        UserRecord sita = userRecord(2, 6L);
+        sita.json = "{\"id\":2,\"name\":\"Sita Patel\",\"email\":\"sita@example.com\"}";
+        UserRecord other = userRecord(3, 7L);
+        other.json = "{\"id\":3,\"name\":\"Raj Patel\"}";
+        db.users().insertAll(Arrays.asList(ravi, sita, other));
+
+        List<DetailedUserDto> found = store.searchRoster(6, "patel", 10);
+
+        assertEquals(2, found.size());
+        assertEquals(Long.valueOf(1), found.get(0).getId());
+        assertEquals(4, found.get(0).getProfileImage().length());
+        assertEquals("sita@example.com", found.get(1).getEmail());
+        assertTrue(store.searchRoster(6, "zzz", 10).isEmpty());
+        // Nothing synced for that samaj
+        assertNull(store.searchRoster(8, "patel", 10));
+    }
+
+    @Test
+    public void clear_forgetsTheCacheAndTheSearchIndex() {
+        Event event = new Event();
+        event.setId(11L);
+        store.saveEvents(6, Arrays.asList(event));
+        UserRecord ravi = userRecord(1, 6L);
+        ravi.json = "{\"id\":1,\"name\":\"Ravi Patel\"}";
+        db.users().insertAll(Arrays.asList(ravi));
+        store.saveSamaj(new Samaj(6L, "Patel Samaj"));
+        assertEquals(1, store.searchRoster(6, "ravi", 10).size());
+
+        store.clear();
+
+        assertTrue(store.events(6).isEmpty());
+        assertNull(store.samaj(6));
+        assertNull(store.searchRoster(6, "ravi", 10));
+    }
+
+    private static EventRecord eventRecord(long id, long samajId, String eventDate, int position) {
+        EventRecord record = new EventRecord();
+        record.id = id;
+        record.samajId = samajId;
+        record.eventDate = eventDate;
+        record.position = position;
+        record.json = "{\"id\":" + id + "}";
+        return record;
+    }
+
+    private static UserRecord userRecord(long id, Long samajId) {
+        UserRecord record = new UserRecord();
+        record.id = id;
+        record.samajId = samajId;
+        record.json = "{\"id\":" + id + "}";
+        return record;
+    }
+
+    private static EventRecord findEvent(List<EventRecord> events, long id) {
+        for (EventRecord event : events) {
+            if (event.id == id) return event;
+        }
+        return null;
+    }
+
+    private static MemberPage<Member> memberPage(int page, int... ids) {
+        List<Member> members = new ArrayList<>();
+        for (int id : ids) {
+            Member member = new Member();
+            member.setId(id);
+            member.setName("Member " + id);
+            member.setSamajId(6);
+            members.add(member);
+        }
+        MemberPage<Member> result = new MemberPage<>();
+        result.setSamajName("Patel Samaj");
+        result.setTotalMembers(4);
+        result.setCurrentPage(page);
+        result.setTotalPages(2);
+        result.setHasNext(page == 0);
+        result.setHasPrevious(page == 1);
+        result.setMembers(members);
+        return result;
+    }
+
+    private static List<Integer> memberIds(MemberPage<Member> page) {
+        List<Integer> ids = new ArrayList<>();
+        for (Member member : page.getMembers()) {
+            ids.add(member.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.samajconnectfrontend.images;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BitmapCacheKeyTest {
+
+    @Test
+    public void sizeBucket_roundsUpToPowerOfTwo() {
+        assertEquals(1, BitmapCache.sizeBucket(0));
+        assertEquals(128, BitmapCache.sizeBucket(96));
+        assertEquals(128, BitmapCache.sizeBucket(128));
+        assertEquals(256, BitmapCache.sizeBucket(129));
+    }
+
+    @Test
+    public void key_sharesEntriesAcrossSimilarViewSizes() {
+        // 96px list avatar and 120px dialog avatar decode to the same sample size
+        assertEquals(new BitmapCache.Key(ImageOwner.USER, 7, 0xabcL, 96, 96), new BitmapCache.Key(ImageOwner.USER, 7, 0xabcL, 120, 120));
+        assertEquals(new BitmapCache.Key(ImageOwner.USER, 7, 0xabcL, 96, 96).hashCode(),
+                new BitmapCache.Key(ImageOwner.USER, 7, 0xabcL, 120, 120).hashCode());
+    }
+
+    @Test
+    public void key_changesWithPayloadOrSize() {
+        BitmapCache.Key key = new BitmapCache.Key(ImageOwner.USER, 7, 0xabcL, 96, 96);
+        assertNotEquals(key, new BitmapCache.Key(ImageOwner.USER, 7, 0xabdL, 96, 96));
+        assertNotEquals(key, new BitmapCache.Key(ImageOwner.USER, 8, 0xabcL, 96, 96));
+        assertNotEquals(key, new BitmapCache.Key(ImageOwner.USER, 7, 0xabcL, 1080, 400));
+    }
+
+    @Test
+    public void userAndEvent_withTheSameId_doNotShareEntries() {
+        BitmapCache.Key user = new BitmapCache.Key(ImageOwner.USER, 7, 0xabcL, 96, 96);
+        BitmapCache.Key event = new BitmapCache.Key(ImageOwner.EVENT, 7, 0xabcL, 96, 96);
+
+        assertNotEquals(user, event);
+        assertNotEquals(ThumbnailStore.fileName(user), ThumbnailStore.fileName(event));
+        // The last known avatar of user 7 can't be an event's thumbnail, nor user 70's
+        String latestForUser = ThumbnailStore.prefix(ImageOwner.USER, 7, user.sizeBucket);
+        assertTrue(ThumbnailStore.fileName(user).startsWith(latestForUser));
+        assertFalse(ThumbnailStore.fileName(event).startsWith(latestForUser));
+        assertFalse(ThumbnailStore.fileName(new BitmapCache.Key(ImageOwner.USER, 70, 0xabcL, 96, 96))
+                .startsWith(latestForUser));
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.samajconnectfrontend.images;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class BitmapDecoderTest {
+
+    @Test
+    public void inSampleSize_keepsBothSidesAtLeastRequested() {
+        // 4000x3000 photo into a 120px avatar
+        assertEquals(16, BitmapDecoder.calculateInSampleSize(4000, 3000, 120, 120));
+        // 1080 wide banner at 1200x800 source: no downsampling possible
+        assertEquals(1, BitmapDecoder.calculateInSampleSize(1200, 800, 1080, 400));
+        // Limited by the height
+        assertEquals(2, BitmapDecoder.calculateInSampleSize(2000, 500, 100, 200));
+    }
+
+    @Test
+    public void inSampleSize_withoutTarget_isOne() {
+        assertEquals(1, BitmapDecoder.calculateInSampleSize(4000, 3000, 0, 0));
+        assertEquals(4, BitmapDecoder.calculateInSampleSize(4000, 3000, 1000, 0));
+    }
+
+    @Test
+    public void sampledByteCount_roundsSidesUp() {
+        // 4000x3000 at 1/16 is 250x187.5, the decoder may produce 188 rows
+        assertEquals(250 * 188 * 4, BitmapDecoder.sampledByteCount(4000, 3000, 16));
+        assertEquals(190 * 190 * 4, BitmapDecoder.sampledByteCount(190, 190, 1));
+    }
+
+    @Test
+    public void dataUriPrefix_isSkipped() {
+        byte[] withPrefix = "data:image/jpeg;base64,/9j/4AAQ".getBytes(StandardCharsets.US_ASCII);
+        assertEquals("data:image/jpeg;base64,".length(), BitmapDecoder.dataUriPrefixLength(withPrefix));
+
+        byte[] plain = "/9j/4AAQ".getBytes(StandardCharsets.US_ASCII);
+        assertEquals(0, BitmapDecoder.dataUriPrefixLength(plain));
+
+        byte[] noComma = "data:image/jpeg".getBytes(StandardCharsets.US_ASCII);
+        assertEquals(0, BitmapDecoder.dataUriPrefixLength(noComma));
+    }
+}
@@ -0,0 +1,253 @@
+package com.example.samajconnectfrontend.images;
+
+import org.junit.Test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Random;
+import java.util.Set;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+import static org.junit.Assert.*;
+
+public class BudgetEncoderTest {
+
+    private static final int BUDGET = 300 * 1024;
+
+    private final JpegCodec codec = new JpegCodec();
+    private final BudgetEncoder<BufferedImage> encoder =
+            new BudgetEncoder<>(codec, BudgetEncoder.Format.JPEG, 1024, 480, BUDGET);
+
+    @Test
+    public void simpleImage_keepsTopQualityAndSize() throws IOException {
+        BufferedImage poster = poster(1024, 768);
+
+        BudgetEncoder.Encoded<BufferedImage> encoded = encoder.encode(poster);
+
+        assertTrue(encoded.withinBudget);
+        assertEquals(BudgetEncoder.MAX_QUALITY, encoded.quality);
+        assertSame(poster, encoded.image);
+        assertEquals(1, codec.encodes);
+        assertDecodes(encoded, 1024, 768);
+    }
+
+    @Test
+    public void largeSource_isScaledToMaxSideFirst() throws IOException {
+        BudgetEncoder.Encoded<BufferedImage> encoded = encoder.encode(poster(3000, 2000));
+
+        assertTrue(encoded.withinBudget);
+        assertEquals(1024, encoded.width);
+        assertEquals(683, encoded.height);
+        assertDecodes(encoded, 1024, 683);
+    }
+
+    @Test
+    public void photo_lowersQualityToFitAtFullSize() throws IOException {
+        BufferedImage photo = photo(1024, 768, 30);
+        int atTopQuality = codec.size(photo, BudgetEncoder.MAX_QUALITY);
+        int atLowQuality = codec.size(photo, BudgetEncoder.MIN_QUALITY);
+        // The sample has to need the search for this test to mean anything
+        assertTrue(atTopQuality > BUDGET);
+        assertTrue(atLowQuality <= BUDGET);
+        codec.encodes = 0;
+
+        BudgetEncoder.Encoded<BufferedImage> encoded = encoder.encode(photo);
+
+        assertTrue(encoded.withinBudget);
+        assertTrue(encoded.size() <= BUDGET);
+        assertEquals(1024, encoded.width);
+        assertTrue(encoded.quality >= BudgetEncoder.MIN_QUALITY && encoded.quality < BudgetEncoder.MAX_QUALITY);
+        // Nothing a step higher would still have fitted
+        assertTrue(codec.size(photo, encoded.quality + BudgetEncoder.QUALITY_STEP + 1) > BUDGET);
+        assertDecodes(encoded, 1024, 768);
+    }
+
+    @Test
+    public void noisyImage_shrinksUntilItFits() throws IOException {
+        BufferedImage noise = photo(1024, 1024, 60);
+        assertTrue(codec.size(noise, BudgetEncoder.MIN_QUALITY) > BUDGET);
+        codec.encodes = 0;
+
+        BudgetEncoder.Encoded<BufferedImage> encoded = encoder.encode(noise);
+
+        assertTrue(encoded.withinBudget);
+        assertTrue(encoded.size() <= BUDGET);
+        assertTrue(encoded.width < 1024 && encoded.width >= 480);
+        assertEquals(encoded.width, encoded.height);
+        assertNotSame(noise, encoded.image);
+        // Bounded work: a few sizes, a handful of qualities each
+        assertTrue("took " + codec.encodes + " encodes", codec.encodes <= 16);
+        assertDecodes(encoded, encoded.width, encoded.height);
+    }
+
+    @Test
+    public void unreachableBudget_returnsTheSmallestTryAtMinSide() throws IOException {
+        BudgetEncoder<BufferedImage> tiny = new BudgetEncoder<>(codec, BudgetEncoder.Format.JPEG, 1024, 480, 4 * 1024);
+
+        BudgetEncoder.Encoded<BufferedImage> encoded = tiny.encode(photo(1024, 768, 40));
+
+        assertFalse(encoded.withinBudget);
+        // Shrunk as far as allowed; the smallest encoding wins even if a slightly larger size made it
+        assertTrue(encoded.width >= 480 && encoded.width <= 512);
+        assertEquals(BudgetEncoder.MIN_QUALITY, encoded.quality);
+        assertDecodes(encoded, encoded.width, encoded.height);
+    }
+
+    @Test
+    public void everySampleLandsWithinBudget() throws IOException {
+        BufferedImage[] samples = {
+                poster(800, 600), poster(4000, 3000), photo(1024, 768, 4),
+                photo(2048, 1536, 12), photo(1500, 2000, 25), photo(1024, 1024, 60)
+        };
+        for (int budget : new int[]{48 * 1024, 120 * 1024, BUDGET}) {
+            BudgetEncoder<BufferedImage> sized = new BudgetEncoder<>(codec, BudgetEncoder.Format.JPEG, 1024, 160, budget);
+            for (BufferedImage sample : samples) {
+                BudgetEncoder.Encoded<BufferedImage> encoded = sized.encode(sample);
+                String name = sample.getWidth() + "x" + sample.getHeight() + " at " + budget;
+                assertTrue(name, encoded.withinBudget);
+                assertTrue(name + ": " + encoded.size(), encoded.size() <= budget);
+                assertTrue(name, Math.max(encoded.width, encoded.height) <= 1024);
+            }
+        }
+    }
+
+    @Test
+    public void scaledCopiesThatAreNotKept_areReleased() throws IOException {
+        BufferedImage noise = photo(1024, 1024, 60);
+
+        BudgetEncoder.Encoded<BufferedImage> encoded = encoder.encode(noise);
+
+        // Every copy made is either the result or was handed back
+        assertEquals(codec.scaled - 1, codec.released);
+        assertFalse(codec.releasedImages.contains(encoded.image));
+        assertFalse(codec.releasedImages.contains(noise));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void minSideAboveMaxSide_isRejected() {
+        new BudgetEncoder<>(codec, BudgetEncoder.Format.JPEG, 400, 800, BUDGET);
+    }
+
+    @Test
+    public void format_isTakenFromTheFileName() {
+        assertEquals(BudgetEncoder.Format.WEBP, BudgetEncoder.Format.of(new File("upload-1.webp")));
+        assertEquals(BudgetEncoder.Format.JPEG, BudgetEncoder.Format.of(new File("upload-1.jpg")));
+    }
+
+    private static void assertDecodes(BudgetEncoder.Encoded<BufferedImage> encoded, int width, int height) throws IOException {
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(encoded.toByteArray()));
+        assertNotNull(decoded);
+        assertEquals(width, decoded.getWidth());
+        assertEquals(height, decoded.getHeight());
+    }
+
+    /**
+     * Flat shapes, like a flyer or screenshot: compresses very well
+     */
+    private static BufferedImage poster(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(new Color(0xF5E6C8));
+        g.fillRect(0, 0, width, height);
+        g.setColor(new Color(0xB0413E));
+        g.fillRect(width / 10, height / 10, width / 2, height / 3);
+        g.setColor(new Color(0x2E4A62));
+        g.fillOval(width / 2, height / 2, width / 3, height / 3);
+        g.dispose();
+        return image;
+    }
+
+    /**
+     * Smooth gradients with sensor-like noise; more noise means a bigger encoding
+     */
+    private static BufferedImage photo(int width, int height, int noise) {
+        Random random = new Random(width * 31L + height + noise);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int r = clamp(x * 255 / width + (int) (random.nextGaussian() * noise));
+                int g = clamp(y * 255 / height + (int) (random.nextGaussian() * noise));
+                int b = clamp((x + y) * 127 / (width + height) + 64 + (int) (random.nextGaussian() * noise));
+                image.setRGB(x, y, (r << 16) | (g << 8) | b);
+            }
+        }
+        return image;
+    }
+
+    private static int clamp(int value) {
+        return Math.max(0, Math.min(255, value));
+    }
+
+    /**
+     * The same kind of lossy JPEG encoder as Bitmap.compress, available on the JVM
+     */
+    private static class JpegCodec implements BudgetEncoder.Codec<BufferedImage> {
+        int encodes;
+        int scaled;
+        int released;
+        final Set<BufferedImage> releasedImages = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        @Override
+        public int width(BufferedImage image) {
+            return image.getWidth();
+        }
+
+        @Override
+        public int height(BufferedImage image) {
+            return image.getHeight();
+        }
+
+        @Override
+        public BufferedImage scaled(BufferedImage image, int width, int height) {
+            scaled++;
+            BufferedImage copy = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = copy.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(image, 0, 0, width, height, null);
+            g.dispose();
+            return copy;
+        }
+
+        @Override
+        public boolean encode(BufferedImage image, BudgetEncoder.Format format, int quality, OutputStream out) throws IOException {
+            encodes++;
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality / 100f);
+            try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+                writer.setOutput(stream);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            return true;
+        }
+
+        @Override
+        public void release(BufferedImage image) {
+            released++;
+            releasedImages.add(image);
+        }
+
+        int size(BufferedImage image, int quality) throws IOException {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            encode(image, BudgetEncoder.Format.JPEG, quality, out);
+            return out.size();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.samajconnectfrontend.images;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class DiskThumbnailCacheTest {
+
+    // 16 byte header + 100 byte payload per entry, room for three
+    private static final int PAYLOAD = 100;
+    private static final long MAX_BYTES = 3 * (16 + PAYLOAD);
+
+    private File dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("thumbnails").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) file.delete();
+        }
+        dir.delete();
+    }
+
+    @Test
+    public void put_overCapacity_evictsLeastRecentlyUsed() {
+        DiskThumbnailCache cache = new DiskThumbnailCache(dir, MAX_BYTES);
+        cache.put("a", payload(1));
+        cache.put("b", payload(2));
+        cache.put("c", payload(3));
+
+        // Touch a, so b becomes the eldest
+        assertNotNull(cache.get("a"));
+        cache.put("d", payload(4));
+
+        assertEquals(Arrays.asList("c", "a", "d"), cache.keys());
+        assertNull(cache.get("b"));
+        assertFalse(new File(dir, "b").exists());
+        assertEquals(MAX_BYTES, cache.size());
+    }
+
+    @Test
+    public void put_sameKey_replacesWithoutGrowing() {
+        DiskThumbnailCache cache = new DiskThumbnailCache(dir, MAX_BYTES);
+        cache.put("a", payload(1));
+        cache.put("a", payload(9));
+
+        assertArrayEquals(payload(9), cache.get("a"));
+        assertEquals(16 + PAYLOAD, cache.size());
+    }
+
+    @Test
+    public void reopen_keepsEntries() {
+        DiskThumbnailCache cache = new DiskThumbnailCache(dir, MAX_BYTES);
+        cache.put("a", payload(1));
+        cache.put("b", payload(2));
+
+        DiskThumbnailCache reopened = new DiskThumbnailCache(dir, MAX_BYTES);
+        assertArrayEquals(payload(1), reopened.get("a"));
+        assertArrayEquals(payload(2), reopened.get("b"));
+    }
+
+    @Test
+    public void get_corruptedPayload_isDroppedAndMisses() throws IOException {
+        DiskThumbnailCache cache = new DiskThumbnailCache(dir, MAX_BYTES);
+        cache.put("a", payload(1));
+
+        // Flip a payload byte behind the cache's back
+        try (RandomAccessFile file = new RandomAccessFile(new File(dir, "a"), "rw")) {
+            file.seek(16 + 10);
+            file.write(0x7f);
+        }
+
+        assertNull(cache.get("a"));
+        assertFalse(new File(dir, "a").exists());
+        assertEquals(0, cache.size());
+
+        // And the key is usable again
+        cache.put("a", payload(1));
+        assertArrayEquals(payload(1), cache.get("a"));
+    }
+
+    @Test
+    public void get_truncatedFile_isDroppedAndMisses() throws IOException {
+        DiskThumbnailCache cache = new DiskThumbnailCache(dir, MAX_BYTES);
+        cache.put("a", payload(1));
+
+        try (RandomAccessFile file = new RandomAccessFile(new File(dir, "a"), "rw")) {
+            file.setLength(40);
+        }
+
+        assertNull(cache.get("a"));
+        assertFalse(new File(dir, "a").exists());
+    }
+
+    @Test
+    public void open_removesInterruptedWrites() throws IOException {
+        assertTrue(new File(dir, "a.tmp").createNewFile());
+        Files.write(new File(dir, "b").toPath(), new byte[]{1, 2, 3});
+
+        DiskThumbnailCache cache = new DiskThumbnailCache(dir, MAX_BYTES);
+
+        assertTrue(cache.keys().isEmpty());
+        assertFalse(new File(dir, "a.tmp").exists());
+        assertFalse(new File(dir, "b").exists());
+    }
+
+    private static byte[] payload(int seed) {
+        byte[] data = new byte[PAYLOAD];
+        Arrays.fill(data, (byte) seed);
+        return data;
+    }
+}
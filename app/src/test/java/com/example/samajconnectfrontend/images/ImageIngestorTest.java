@@ -0,0 +1,113 @@
+package com.example.samajconnectfrontend.images;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ImageIngestorTest {
+
+    @After
+    public void tearDown() {
+        ImageIngestor.PooledBuffer.clearPool();
+    }
+
+    @Test
+    public void sampleSize_decodesNoSmallerThanTheTarget() {
+        // 12 MP phone photo: decoded at 2000x1500, then scaled to 1024
+        assertEquals(2, ImageIngestor.sampleSizeToFit(4000, 3000, 1024));
+        // Portrait works off the long side too
+        assertEquals(2, ImageIngestor.sampleSizeToFit(3000, 4000, 1024));
+        assertEquals(4, ImageIngestor.sampleSizeToFit(8000, 6000, 1024));
+        assertEquals(1, ImageIngestor.sampleSizeToFit(1024, 768, 1024));
+        assertEquals(1, ImageIngestor.sampleSizeToFit(640, 480, 1024));
+    }
+
+    @Test
+    public void fitScale_onlyShrinks() {
+        assertEquals(1024f / 2000, ImageIngestor.fitScale(2000, 1500, 1024), 1e-6);
+        assertEquals(1024f / 2000, ImageIngestor.fitScale(1500, 2000, 1024), 1e-6);
+        assertEquals(1f, ImageIngestor.fitScale(800, 600, 1024), 0);
+    }
+
+    @Test
+    public void pooledBuffer_readsTheWholeStreamInOnePass() throws IOException {
+        byte[] photo = new byte[3 * 1024 * 1024 + 17];
+        new Random(3).nextBytes(photo);
+        CountingStream in = new CountingStream(photo);
+
+        ImageIngestor.PooledBuffer buffer = ImageIngestor.PooledBuffer.read(in);
+
+        assertEquals(photo.length, buffer.length);
+        assertArrayEquals(photo, Arrays.copyOf(buffer.data, buffer.length));
+        assertEquals(photo.length, in.bytesRead);
+        buffer.release();
+    }
+
+    @Test
+    public void pooledBuffer_isReusedForTheNextPhoto() throws IOException {
+        ImageIngestor.PooledBuffer first = ImageIngestor.PooledBuffer.read(new ByteArrayInputStream(new byte[500 * 1024]));
+        byte[] array = first.data;
+        first.release();
+
+        ImageIngestor.PooledBuffer second = ImageIngestor.PooledBuffer.read(new ByteArrayInputStream(new byte[400 * 1024]));
+
+        assertSame(array, second.data);
+        assertEquals(400 * 1024, second.length);
+        second.release();
+    }
+
+    @Test
+    public void pooledBuffer_dropsOversizedArrays() throws IOException {
+        int size = ImageIngestor.PooledBuffer.MAX_POOLED_BYTES + 1;
+        ImageIngestor.PooledBuffer huge = ImageIngestor.PooledBuffer.read(new ByteArrayInputStream(new byte[size]));
+        byte[] array = huge.data;
+        huge.release();
+
+        ImageIngestor.PooledBuffer next = ImageIngestor.PooledBuffer.read(new ByteArrayInputStream(new byte[1024]));
+
+        assertNotSame(array, next.data);
+        next.release();
+    }
+
+    @Test
+    public void releasePooledMemory_dropsThePooledArray() throws IOException {
+        ImageIngestor.PooledBuffer first = ImageIngestor.PooledBuffer.read(new ByteArrayInputStream(new byte[500 * 1024]));
+        byte[] array = first.data;
+        first.release();
+
+        ImageIngestor.releasePooledMemory();
+        ImageIngestor.PooledBuffer next = ImageIngestor.PooledBuffer.read(new ByteArrayInputStream(new byte[400 * 1024]));
+
+        assertNotSame(array, next.data);
+        next.release();
+    }
+
+    private static class CountingStream extends FilterInputStream {
+        int bytesRead;
+
+        CountingStream(byte[] data) {
+            super(new ByteArrayInputStream(data));
+        }
+
+        @Override
+        public int available() {
+            // Content providers often can't tell
+            return 0;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) bytesRead += read;
+            return read;
+        }
+    }
+}
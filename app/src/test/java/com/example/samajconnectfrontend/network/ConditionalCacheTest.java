@@ -0,0 +1,217 @@
+package com.example.samajconnectfrontend.network;
+
+import com.example.samajconnectfrontend.models.EventResponse;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.OkHttpClient;
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Converter;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.junit.Assert.*;
+
+/**
+ * Refreshes a list endpoint against a stub server that honours If-None-Match, counting the
+ * bodies parsed and the bytes received.
+ */
+public class ConditionalCacheTest {
+
+    private static final String EVENTS = "{\"success\":true,\"events\":[{\"id\":1,\"eventTitle\":\"Navratri\"}],\"count\":1}";
+
+    @Rule
+    public TemporaryFolder cacheDir = new TemporaryFolder();
+
+    private final AtomicInteger parses = new AtomicInteger();
+    // Drops everything the cache remembers while the next request is on the wire
+    private final AtomicBoolean clearDuringNextRequest = new AtomicBoolean();
+
+    private MockWebServer server;
+    private ConditionalCache cache;
+    private SamajApi api;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        cache = new ConditionalCache();
+        api = api(OkHttpClientFactory.create(null));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void unchangedRefresh_reusesParsedModelWithoutBodyOrParse() throws Exception {
+        server.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setBody(EVENTS));
+        server.enqueue(new MockResponse().setResponseCode(304).setHeader("ETag", "\"v1\""));
+
+        EventResponse first = cache.resolve(api.getUpcomingEvents(6).execute());
+        server.takeRequest();
+
+        Response<EventResponse> refresh = api.getUpcomingEvents(6).execute();
+        RecordedRequest conditional = server.takeRequest();
+        EventResponse second = cache.resolve(refresh);
+
+        assertEquals("\"v1\"", conditional.getHeader("If-None-Match"));
+        assertTrue(ConditionalCache.isNotModified(refresh));
+        assertEquals(0, refresh.errorBody().contentLength());
+        assertSame(first, second);
+        assertEquals(1, parses.get());
+    }
+
+    @Test
+    public void changedContent_isParsedAndRemembered() throws Exception {
+        server.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setBody(EVENTS));
+        server.enqueue(new MockResponse().setHeader("ETag", "\"v2\"")
+                .setBody("{\"success\":true,\"events\":[],\"count\":0}"));
+        server.enqueue(new MockResponse().setResponseCode(304));
+
+        cache.resolve(api.getUpcomingEvents(6).execute());
+        EventResponse changed = cache.resolve(api.getUpcomingEvents(6).execute());
+        EventResponse unchanged = cache.resolve(api.getUpcomingEvents(6).execute());
+
+        server.takeRequest();
+        assertEquals("\"v1\"", server.takeRequest().getHeader("If-None-Match"));
+        assertEquals("\"v2\"", server.takeRequest().getHeader("If-None-Match"));
+        assertEquals(0, changed.getCount());
+        assertSame(changed, unchanged);
+        assertEquals(2, parses.get());
+    }
+
+    @Test
+    public void lastModified_isSentBackAsIfModifiedSince() throws Exception {
+        String lastModified = "Sat, 01 Jun 2030 10:00:00 GMT";
+        server.enqueue(new MockResponse().setHeader("Last-Modified", lastModified).setBody(EVENTS));
+        server.enqueue(new MockResponse().setResponseCode(304));
+
+        EventResponse first = cache.resolve(api.getEvents(6).execute());
+        EventResponse second = cache.resolve(api.getEvents(6).execute());
+
+        server.takeRequest();
+        assertEquals(lastModified, server.takeRequest().getHeader("If-Modified-Since"));
+        assertSame(first, second);
+    }
+
+    @Test
+    public void notModified_forAnEntryDroppedMeanwhile_isFetchedAgainWithoutValidators() throws Exception {
+        server.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setBody(EVENTS));
+        server.enqueue(new MockResponse().setResponseCode(304).setHeader("ETag", "\"v1\""));
+        server.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setBody(EVENTS));
+
+        cache.resolve(api.getUpcomingEvents(6).execute());
+        clearDuringNextRequest.set(true);
+        Response<EventResponse> refresh = api.getUpcomingEvents(6).execute();
+        EventResponse body = cache.resolve(refresh);
+
+        server.takeRequest();
+        assertEquals("\"v1\"", server.takeRequest().getHeader("If-None-Match"));
+        assertNull(server.takeRequest().getHeader("If-None-Match"));
+        assertFalse(ConditionalCache.isNotModified(refresh));
+        assertNotNull(body);
+        assertEquals(1, body.getCount());
+        assertEquals(2, parses.get());
+    }
+
+    @Test
+    public void notModified_isAnsweredEvenIfTheEntryIsDroppedBeforeResolve() throws Exception {
+        server.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setBody(EVENTS));
+        server.enqueue(new MockResponse().setResponseCode(304).setHeader("ETag", "\"v1\""));
+
+        EventResponse first = cache.resolve(api.getUpcomingEvents(6).execute());
+        Response<EventResponse> refresh = api.getUpcomingEvents(6).execute();
+        cache.clear();
+
+        assertTrue(ConditionalCache.isNotModified(refresh));
+        assertSame(first, cache.resolve(refresh));
+    }
+
+    @Test
+    public void urlNeverResolved_isNotSentConditionally() throws Exception {
+        server.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setBody(EVENTS));
+        server.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setBody(EVENTS));
+
+        // A caller that reads the body itself would not know what to do with a 304
+        api.getUpcomingEvents(6).execute();
+        api.getUpcomingEvents(6).execute();
+
+        server.takeRequest();
+        assertNull(server.takeRequest().getHeader("If-None-Match"));
+    }
+
+    @Test
+    public void otherUrls_keepTheirOwnValidators() throws Exception {
+        server.enqueue(new MockResponse().setHeader("ETag", "\"six\"").setBody(EVENTS));
+        server.enqueue(new MockResponse().setHeader("ETag", "\"seven\"").setBody(EVENTS));
+        server.enqueue(new MockResponse().setResponseCode(304));
+
+        cache.resolve(api.getUpcomingEvents(6).execute());
+        cache.resolve(api.getUpcomingEvents(7).execute());
+        cache.resolve(api.getUpcomingEvents(6).execute());
+
+        server.takeRequest();
+        assertNull(server.takeRequest().getHeader("If-None-Match"));
+        assertEquals("\"six\"", server.takeRequest().getHeader("If-None-Match"));
+    }
+
+    @Test
+    public void diskCache_letsThe304ThroughToTheModel() throws Exception {
+        // The production client keeps its own HTTP cache; it must not answer for us
+        api = api(OkHttpClientFactory.create(cacheDir.getRoot()));
+        server.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setBody(EVENTS));
+        server.enqueue(new MockResponse().setResponseCode(304).setHeader("ETag", "\"v1\""));
+
+        EventResponse first = cache.resolve(api.getUpcomingEvents(6).execute());
+        Response<EventResponse> refresh = api.getUpcomingEvents(6).execute();
+
+        assertTrue(ConditionalCache.isNotModified(refresh));
+        assertSame(first, cache.resolve(refresh));
+        assertEquals(1, parses.get());
+    }
+
+    private SamajApi api(OkHttpClient client) {
+        return new Retrofit.Builder()
+                .baseUrl(server.url("/api/"))
+                .client(client.newBuilder()
+                        .addInterceptor(cache)
+                        .addInterceptor(chain -> {
+                            if (clearDuringNextRequest.getAndSet(false)) {
+                                cache.clear();
+                            }
+                            return chain.proceed(chain.request());
+                        })
+                        .build())
+                .addConverterFactory(new CountingConverterFactory())
+                .addConverterFactory(GsonConverterFactory.create())
+                .build()
+                .create(SamajApi.class);
+    }
+
+    private class CountingConverterFactory extends Converter.Factory {
+        @Override
+        public Converter<ResponseBody, ?> responseBodyConverter(Type type, Annotation[] annotations, Retrofit retrofit) {
+            Converter<ResponseBody, ?> gson = retrofit.nextResponseBodyConverter(this, type, annotations);
+            return body -> {
+                parses.incrementAndGet();
+                return gson.convert(body);
+            };
+        }
+    }
+}
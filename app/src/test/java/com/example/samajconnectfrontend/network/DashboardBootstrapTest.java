@@ -0,0 +1,214 @@
+package com.example.samajconnectfrontend.network;
+
+import com.example.samajconnectfrontend.models.EventResponse;
+import com.example.samajconnectfrontend.models.SamajResponse;
+import com.example.samajconnectfrontend.models.UserResponse;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.junit.Assert.*;
+
+/**
+ * Boots the dashboard against a stub server that can hold back responses, to see which
+ * requests wait for which.
+ */
+public class DashboardBootstrapTest {
+
+    private MockWebServer server;
+    private ExecutorService callbacks;
+    private DashboardBootstrap bootstrap;
+    private final List<String> paths = Collections.synchronizedList(new ArrayList<>());
+    // Released when the user response may be sent
+    private final CountDownLatch releaseUser = new CountDownLatch(1);
+    // Released by tearDown; holds requests for samaj 6 when the test wants them to hang
+    private final CountDownLatch releaseSamaj6 = new CountDownLatch(1);
+    private volatile boolean holdSamaj6 = false;
+    private volatile long userSamajId = 6;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                String path = request.getPath();
+                paths.add(path);
+                if (path.startsWith("/api/users/")) {
+                    releaseUser.await(5, TimeUnit.SECONDS);
+                    return new MockResponse().setBody("{\"success\":true,\"user\":{\"id\":5,\"name\":\"Asha\","
+                            + "\"samaj\":{\"id\":" + userSamajId + ",\"name\":\"Samaj " + userSamajId + "\"}}}");
+                }
+                if (holdSamaj6 && path.contains("/6")) {
+                    releaseSamaj6.await(5, TimeUnit.SECONDS);
+                }
+                String samajId = path.replaceAll("\\D+", " ").trim().split(" ")[0];
+                if (path.contains("/upcoming")) {
+                    return new MockResponse().setBody("{\"success\":true,\"events\":[{\"id\":"
+                            + samajId + ",\"eventTitle\":\"Event\"}],\"count\":1}");
+                }
+                return new MockResponse().setBody("{\"success\":true,\"samaj\":{\"id\":" + samajId
+                        + ",\"name\":\"Samaj " + samajId + "\"}}");
+            }
+        });
+        server.start();
+        SamajApi api = new Retrofit.Builder()
+                .baseUrl(server.url("/api/"))
+                .addConverterFactory(GsonConverterFactory.create())
+                .build()
+                .create(SamajApi.class);
+
+        callbacks = Executors.newSingleThreadExecutor();
+        bootstrap = new DashboardBootstrap(api, new ConditionalCache(), callbacks);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        releaseUser.countDown();
+        releaseSamaj6.countDown();
+        callbacks.shutdownNow();
+        server.shutdown();
+    }
+
+    @Test
+    public void cachedSamaj_eventsArriveWithoutWaitingForTheUser() throws Exception {
+        RecordingListener listener = start(6L);
+
+        // The user response is held back, yet the samaj and events come in
+        assertTrue(listener.loaded.await(5, TimeUnit.SECONDS));
+        assertEquals(Long.valueOf(6), listener.eventResponse.getEvents().get(0).getId());
+        assertEquals(Long.valueOf(6), listener.samajResponse.getSamaj().getId());
+        assertFalse(listener.finished.await(100, TimeUnit.MILLISECONDS));
+
+        releaseUser.countDown();
+        assertTrue(listener.finished.await(5, TimeUnit.SECONDS));
+        assertNotNull(listener.userResponse);
+        assertNull(listener.changedTo);
+        assertEquals(3, paths.size());
+        assertFalse(listener.timings.reconciled);
+        assertTrue(listener.timings.eventsMs <= listener.timings.userMs);
+    }
+
+    @Test
+    public void noCachedSamaj_waitsForTheUser() throws Exception {
+        releaseUser.countDown();
+        RecordingListener listener = start(null);
+
+        assertTrue(listener.finished.await(5, TimeUnit.SECONDS));
+        assertEquals("/api/users/5", paths.get(0));
+        assertEquals(3, paths.size());
+        assertEquals(Long.valueOf(6), listener.eventResponse.getEvents().get(0).getId());
+        assertTrue(listener.timings.userMs <= listener.timings.eventsMs);
+    }
+
+    @Test
+    public void movedUser_isReconciledToTheNewSamaj() throws Exception {
+        userSamajId = 7;
+        holdSamaj6 = true;
+        releaseUser.countDown();
+        RecordingListener listener = start(6L);
+
+        assertTrue(listener.finished.await(5, TimeUnit.SECONDS));
+        assertEquals(Long.valueOf(7), listener.changedTo);
+        assertEquals(Long.valueOf(7), listener.samajResponse.getSamaj().getId());
+        assertEquals(Long.valueOf(7), listener.eventResponse.getEvents().get(0).getId());
+        assertTrue(listener.timings.reconciled);
+        assertTrue(paths.contains("/api/samaj/7"));
+        assertTrue(paths.contains("/api/events/samaj/7/upcoming?imageVariant=thumbnail"));
+        assertEquals(0, listener.failures);
+    }
+
+    @Test
+    public void cancel_silencesTheListener() throws Exception {
+        RecordingListener listener = start(null);
+        callbacks.submit(bootstrap::cancel).get();
+        releaseUser.countDown();
+
+        assertFalse(listener.finished.await(300, TimeUnit.MILLISECONDS));
+        assertNull(listener.userResponse);
+        assertEquals(0, listener.failures);
+    }
+
+    private RecordingListener start(Long cachedSamajId) throws Exception {
+        RecordingListener listener = new RecordingListener();
+        callbacks.submit(() -> bootstrap.start(5, cachedSamajId, listener)).get();
+        return listener;
+    }
+
+    private static class RecordingListener implements DashboardBootstrap.Listener {
+        // Samaj and events both delivered
+        final CountDownLatch loaded = new CountDownLatch(2);
+        final CountDownLatch finished = new CountDownLatch(1);
+        volatile UserResponse userResponse;
+        volatile SamajResponse samajResponse;
+        volatile EventResponse eventResponse;
+        volatile Long changedTo;
+        volatile int failures;
+        volatile DashboardBootstrap.Timings timings;
+
+        @Override
+        public void onUserLoaded(UserResponse response) {
+            userResponse = response;
+        }
+
+        @Override
+        public void onUserFailed(int statusCode) {
+            failures++;
+        }
+
+        @Override
+        public void onSamajChanged(long samajId) {
+            changedTo = samajId;
+        }
+
+        @Override
+        public void onNoSamaj() {
+            failures++;
+        }
+
+        @Override
+        public void onSamajLoaded(SamajResponse response, boolean unchanged) {
+            samajResponse = response;
+            loaded.countDown();
+        }
+
+        @Override
+        public void onSamajFailed(int statusCode) {
+            failures++;
+        }
+
+        @Override
+        public void onEventsLoaded(EventResponse response, boolean unchanged) {
+            eventResponse = response;
+            loaded.countDown();
+        }
+
+        @Override
+        public void onEventsFailed(int statusCode) {
+            failures++;
+        }
+
+        @Override
+        public void onFinished(DashboardBootstrap.Timings result) {
+            timings = result;
+            finished.countDown();
+        }
+    }
+}
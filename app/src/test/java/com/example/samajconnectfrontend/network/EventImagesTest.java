@@ -0,0 +1,82 @@
+package com.example.samajconnectfrontend.network;
+
+import com.example.samajconnectfrontend.data.ImageRef;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okio.Buffer;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.junit.Assert.*;
+
+public class EventImagesTest {
+
+    private MockWebServer server;
+    private SamajApi api;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        api = new Retrofit.Builder()
+                .baseUrl(server.url("/api/"))
+                .addConverterFactory(GsonConverterFactory.create())
+                .build()
+                .create(SamajApi.class);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void fetchFull_returnsTheBinaryImage() throws Exception {
+        byte[] jpeg = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, 0x00, 0x42, (byte) 0xFF, (byte) 0xD9};
+        server.enqueue(new MockResponse().setHeader("Content-Type", "image/jpeg").setBody(new Buffer().write(jpeg)));
+
+        assertArrayEquals(jpeg, EventImages.fetchFull(api, 12));
+        assertEquals("/api/events/12/image", server.takeRequest().getPath());
+    }
+
+    @Test
+    public void fetchFull_isNullWhenTheEventHasNoImage() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(404));
+
+        assertNull(EventImages.fetchFull(api, 12));
+    }
+
+    @Test(expected = IOException.class)
+    public void fetchFull_failsOnServerError() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(500));
+
+        EventImages.fetchFull(api, 12);
+    }
+
+    @Test
+    public void listEndpoints_askForThumbnailsOnly() throws Exception {
+        server.enqueue(new MockResponse().setBody("{\"success\":true,\"events\":[{\"id\":3,"
+                + "\"thumbnailBase64\":\"dGh1bWI=\"}]}"));
+
+        ImageRef thumbnail = api.getEvents(6).execute().body().getEvents().get(0).getThumbnail();
+
+        assertEquals("dGh1bWI=", new String(thumbnail.readEncoded(), StandardCharsets.US_ASCII));
+        assertEquals("/api/events/samaj/6?imageVariant=thumbnail", server.takeRequest().getPath());
+    }
+
+    @Test
+    public void fullImageVersion_followsTheThumbnail() {
+        assertEquals(EventImages.fullImageVersion(ImageRef.ofBase64("abc")),
+                EventImages.fullImageVersion(ImageRef.ofBase64("abc")));
+        assertNotEquals(EventImages.fullImageVersion(ImageRef.ofBase64("abc")),
+                EventImages.fullImageVersion(ImageRef.ofBase64("abd")));
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.samajconnectfrontend.network;
+
+import com.google.gson.JsonObject;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
+import okio.ByteString;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.junit.Assert.*;
+
+public class EventUploaderTest {
+
+    private static final int IMAGE_BYTES = 300 * 1024;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private MockWebServer server;
+    private ScheduledExecutorService scheduler;
+    private EventUploader uploader;
+    private File image;
+    private byte[] imageBytes;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        // OkHttp's own silent retries would blur which attempts the uploader made
+        OkHttpClient client = new OkHttpClient.Builder().retryOnConnectionFailure(false).build();
+        SamajApi api = new Retrofit.Builder()
+                .baseUrl(server.url("/api/"))
+                .client(client)
+                .addConverterFactory(GsonConverterFactory.create())
+                .build()
+                .create(SamajApi.class);
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        uploader = new EventUploader(api, scheduler, Runnable::run, 10);
+
+        imageBytes = new byte[IMAGE_BYTES];
+        new Random(7).nextBytes(imageBytes);
+        image = folder.newFile("event.jpg");
+        Files.write(image.toPath(), imageBytes);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        scheduler.shutdownNow();
+        server.shutdown();
+    }
+
+    @Test
+    public void create_sendsSmallJsonPartAndRawImagePart() throws Exception {
+        server.enqueue(new MockResponse().setBody("{\"success\":true,\"message\":\"Created\"}"));
+        Recorder recorder = new Recorder();
+
+        File thumbnail = folder.newFile("thumb.jpg");
+        Files.write(thumbnail.toPath(), "small-jpeg".getBytes(StandardCharsets.ISO_8859_1));
+
+        uploader.create("key-1", event("Navratri"), image, thumbnail, recorder);
+
+        assertTrue(recorder.done.await(5, TimeUnit.SECONDS));
+        assertEquals("Created", recorder.uploaded.get().get("message").getAsString());
+
+        RecordedRequest request = server.takeRequest();
+        assertEquals("POST", request.getMethod());
+        assertEquals("/api/events", request.getPath());
+        assertEquals("key-1", request.getHeader("Idempotency-Key"));
+        assertTrue(request.getHeader("Content-Type").startsWith("multipart/form-data"));
+
+        ByteString body = request.getBody().readByteString();
+        String text = body.string(StandardCharsets.ISO_8859_1);
+        assertTrue(text.contains("name=\"event\""));
+        assertTrue(text.contains("\"eventTitle\":\"Navratri\""));
+        assertFalse(text.contains("imageBase64"));
+        assertTrue(text.contains("name=\"image\"; filename=\"event.jpg\""));
+        assertTrue(text.contains("name=\"thumbnail\"; filename=\"thumb.jpg\""));
+        assertTrue(text.contains("small-jpeg"));
+        // The image travels as raw bytes: no Base64 growth, only a few hundred bytes of framing
+        assertTrue(body.indexOf(ByteString.of(imageBytes)) > 0);
+        assertTrue(body.size() < IMAGE_BYTES + 1024);
+
+        // Progress covers the full image only, ends on it and is reported in steps, not per chunk
+        long[] last = recorder.progress.get(recorder.progress.size() - 1);
+        assertEquals(IMAGE_BYTES, last[0]);
+        assertEquals(IMAGE_BYTES, last[1]);
+        assertTrue(recorder.progress.size() <= 101);
+    }
+
+    @Test
+    public void update_withoutImage_sendsOnlyTheEventPart() throws Exception {
+        server.enqueue(new MockResponse().setBody("{\"success\":true}"));
+        Recorder recorder = new Recorder();
+
+        uploader.update("key-2", 42, event("Garba"), null, null, recorder);
+
+        assertTrue(recorder.done.await(5, TimeUnit.SECONDS));
+        assertNotNull(recorder.uploaded.get());
+        RecordedRequest request = server.takeRequest();
+        assertEquals("PUT", request.getMethod());
+        assertEquals("/api/events/42", request.getPath());
+        String text = request.getBody().readUtf8();
+        assertFalse(text.contains("name=\"image\""));
+        assertFalse(text.contains("name=\"thumbnail\""));
+        assertTrue(recorder.progress.isEmpty());
+    }
+
+    @Test
+    public void serverError_isRetriedFromTheFileWithTheSameKey() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setBody("{\"success\":true}"));
+        Recorder recorder = new Recorder();
+
+        uploader.create("key-3", event("Diwali"), image, null, recorder);
+
+        assertTrue(recorder.done.await(5, TimeUnit.SECONDS));
+        assertNotNull(recorder.uploaded.get());
+        assertEquals(2, server.getRequestCount());
+        for (int i = 0; i < 2; i++) {
+            RecordedRequest request = server.takeRequest();
+            assertEquals("key-3", request.getHeader("Idempotency-Key"));
+            assertTrue(request.getBody().readByteString().indexOf(ByteString.of(imageBytes)) > 0);
+        }
+    }
+
+    @Test
+    public void droppedConnections_areRetriedUntilAttemptsRunOut() throws Exception {
+        for (int i = 0; i < EventUploader.MAX_ATTEMPTS; i++) {
+            server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AFTER_REQUEST));
+        }
+        Recorder recorder = new Recorder();
+
+        uploader.create("key-4", event("Holi"), image, null, recorder);
+
+        assertTrue(recorder.done.await(5, TimeUnit.SECONDS));
+        assertEquals(-1, recorder.failedStatus);
+        assertEquals(EventUploader.MAX_ATTEMPTS, server.getRequestCount());
+    }
+
+    @Test
+    public void clientError_isNotRetriedAndCarriesTheServerMessage() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(400)
+                .setBody("{\"success\":false,\"message\":\"Event date must be in the future\"}"));
+        Recorder recorder = new Recorder();
+
+        uploader.create("key-5", event("Uttarayan"), image, null, recorder);
+
+        assertTrue(recorder.done.await(5, TimeUnit.SECONDS));
+        assertEquals(400, recorder.failedStatus);
+        assertEquals("Event date must be in the future", recorder.failedMessage);
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void cancel_stopsTheUploadAndReportsNothing() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                // Hold the answer so the cancel lands while the upload is still open
+                release.await(5, TimeUnit.SECONDS);
+                return new MockResponse().setBody("{\"success\":true}");
+            }
+        });
+        AtomicReference<EventUploader.Upload> upload = new AtomicReference<>();
+        CountDownLatch started = new CountDownLatch(1);
+        Recorder cancelling = new Recorder() {
+            @Override
+            public void onProgress(long sent, long total) {
+                super.onProgress(sent, total);
+                started.countDown();
+            }
+        };
+
+        upload.set(uploader.create("key-6", event("Janmashtami"), image, null, cancelling));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        upload.get().cancel();
+        release.countDown();
+
+        assertFalse(cancelling.done.await(300, TimeUnit.MILLISECONDS));
+        assertTrue(upload.get().isCancelled());
+        // Not retried either
+        assertTrue(server.getRequestCount() <= 1);
+        assertNull(cancelling.uploaded.get());
+    }
+
+    private static JsonObject event(String title) {
+        JsonObject event = new JsonObject();
+        event.addProperty("eventTitle", title);
+        event.addProperty("samajId", 3);
+        return event;
+    }
+
+    private static class Recorder implements EventUploader.Listener {
+        final List<long[]> progress = new CopyOnWriteArrayList<>();
+        final AtomicReference<JsonObject> uploaded = new AtomicReference<>();
+        final CountDownLatch done = new CountDownLatch(1);
+        volatile int failedStatus;
+        volatile String failedMessage;
+
+        @Override
+        public void onProgress(long sent, long total) {
+            progress.add(new long[]{sent, total});
+        }
+
+        @Override
+        public void onUploaded(JsonObject response) {
+            uploaded.set(response);
+            done.countDown();
+        }
+
+        @Override
+        public void onFailed(int statusCode, String message) {
+            failedStatus = statusCode;
+            failedMessage = message;
+            done.countDown();
+        }
+    }
+}
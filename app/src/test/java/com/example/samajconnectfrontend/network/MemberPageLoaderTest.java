@@ -0,0 +1,244 @@
+package com.example.samajconnectfrontend.network;
+
+import com.example.samajconnectfrontend.models.Member;
+import com.example.samajconnectfrontend.models.MemberPage;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.junit.Assert.*;
+
+/**
+ * Flips through member pages served by a stub server, checking which flips needed a request.
+ */
+public class MemberPageLoaderTest {
+
+    private static final int PAGES = 10;
+
+    private MockWebServer server;
+    // The loader is confined to this thread, like the main thread in the app
+    private ExecutorService main;
+    private MemberPageLoader loader;
+    private final List<String> requested = new ArrayList<>();
+    private final List<MemberPage<Member>> fetched = new ArrayList<>();
+    private volatile int failWith = 0;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                synchronized (requested) {
+                    requested.add(request.getRequestUrl().queryParameter("page"));
+                    requested.notifyAll();
+                }
+                if (failWith != 0) {
+                    return new MockResponse().setResponseCode(failWith);
+                }
+                int page = Integer.parseInt(request.getRequestUrl().queryParameter("page"));
+                return new MockResponse().setBody("{\"success\":true,\"data\":{\"samajName\":\"Patel Samaj\","
+                        + "\"currentPage\":" + page + ",\"totalPages\":" + PAGES + ",\"hasNext\":" + (page + 1 < PAGES)
+                        + ",\"hasPrevious\":" + (page > 0) + ",\"members\":[{\"id\":" + (page * 100 + 1)
+                        + ",\"name\":\"Member\",\"email\":\"m@example.com\"}]}}");
+            }
+        });
+        server.start();
+        SamajApi api = new Retrofit.Builder()
+                .baseUrl(server.url("/api/"))
+                .addConverterFactory(GsonConverterFactory.create())
+                .build()
+                .create(SamajApi.class);
+
+        main = Executors.newSingleThreadExecutor();
+        loader = new MemberPageLoader(api, 6, 20, main, fetched::add);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        main.shutdownNow();
+        server.shutdown();
+    }
+
+    @Test
+    public void shownPage_prefetchesTheNextOne() throws Exception {
+        MemberPage<Member> first = show(0);
+        waitForRequests(2);
+        waitUntil(() -> loader.isCached(1));
+
+        // The flip is answered before load() returns
+        AtomicReference<MemberPage<Member>> flipped = new AtomicReference<>();
+        onMain(() -> {
+            loader.load(1, callback(flipped));
+            return null;
+        });
+
+        assertEquals(0, first.getCurrentPage());
+        assertNotNull(flipped.get());
+        assertEquals(1, flipped.get().getCurrentPage());
+        assertEquals("N/A", flipped.get().getMembers().get(0).getPhoneNumber());
+        assertEquals(2, fetched.size());
+        synchronized (requested) {
+            assertEquals("0", requested.get(0));
+            assertEquals("1", requested.get(1));
+        }
+    }
+
+    @Test
+    public void previousPage_staysCachedWhileMovingForward() throws Exception {
+        for (int page = 0; page < PAGES - 1; page++) {
+            show(page);
+            int next = page + 1;
+            waitUntil(() -> loader.isCached(next));
+            int previous = page - 1;
+            assertTrue(previous < 0 || onMain(() -> loader.isCached(previous)));
+        }
+
+        // Pages far behind were dropped to keep the cache bounded
+        assertFalse(onMain(() -> loader.isCached(0)));
+        assertTrue(onMain(() -> loader.isCached(PAGES - 3)));
+    }
+
+    @Test
+    public void lastPage_prefetchesNothing() throws Exception {
+        MemberPage<Member> last = show(PAGES - 1);
+        Thread.sleep(200);
+
+        assertFalse(last.hasNext());
+        synchronized (requested) {
+            assertEquals(1, requested.size());
+        }
+    }
+
+    @Test
+    public void concurrentLoads_shareOneRequest() throws Exception {
+        CountDownLatch both = new CountDownLatch(2);
+        MemberPageLoader.Callback counting = new MemberPageLoader.Callback() {
+            @Override
+            public void onLoaded(MemberPage<Member> page) {
+                both.countDown();
+            }
+
+            @Override
+            public void onFailed(int statusCode) {
+                fail("Load failed with " + statusCode);
+            }
+        };
+        onMain(() -> {
+            loader.load(3, counting);
+            loader.load(3, counting);
+            return null;
+        });
+
+        assertTrue(both.await(5, TimeUnit.SECONDS));
+        synchronized (requested) {
+            assertEquals(1, requested.size());
+        }
+    }
+
+    @Test
+    public void failedLoad_reportsStatusAndCachesNothing() throws Exception {
+        failWith = 503;
+        AtomicInteger status = new AtomicInteger();
+        CountDownLatch failed = new CountDownLatch(1);
+        onMain(() -> {
+            loader.load(2, new MemberPageLoader.Callback() {
+                @Override
+                public void onLoaded(MemberPage<Member> page) {
+                    fail("Load should have failed");
+                }
+
+                @Override
+                public void onFailed(int statusCode) {
+                    status.set(statusCode);
+                    failed.countDown();
+                }
+            });
+            return null;
+        });
+
+        assertTrue(failed.await(5, TimeUnit.SECONDS));
+        assertEquals(503, status.get());
+        assertFalse(onMain(() -> loader.isCached(2)));
+    }
+
+    /**
+     * Load a page like the screen does: wait for it, then prefetch around it
+     */
+    private MemberPage<Member> show(int page) throws Exception {
+        AtomicReference<MemberPage<Member>> shown = new AtomicReference<>();
+        CountDownLatch loaded = new CountDownLatch(1);
+        onMain(() -> {
+            loader.load(page, new MemberPageLoader.Callback() {
+                @Override
+                public void onLoaded(MemberPage<Member> result) {
+                    shown.set(result);
+                    loader.prefetchAround(result);
+                    loaded.countDown();
+                }
+
+                @Override
+                public void onFailed(int statusCode) {
+                    fail("Load failed with " + statusCode);
+                }
+            });
+            return null;
+        });
+        assertTrue(loaded.await(5, TimeUnit.SECONDS));
+        return shown.get();
+    }
+
+    private <T> T onMain(Callable<T> work) throws Exception {
+        return main.submit(work).get(5, TimeUnit.SECONDS);
+    }
+
+    private void waitUntil(Callable<Boolean> condition) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!onMain(condition)) {
+            assertTrue("Timed out", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private void waitForRequests(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        synchronized (requested) {
+            while (requested.size() < count && System.currentTimeMillis() < deadline) {
+                requested.wait(100);
+            }
+        }
+    }
+
+    private static MemberPageLoader.Callback callback(AtomicReference<MemberPage<Member>> result) {
+        return new MemberPageLoader.Callback() {
+            @Override
+            public void onLoaded(MemberPage<Member> page) {
+                result.set(page);
+            }
+
+            @Override
+            public void onFailed(int statusCode) {
+                fail("Load failed with " + statusCode);
+            }
+        };
+    }
+}
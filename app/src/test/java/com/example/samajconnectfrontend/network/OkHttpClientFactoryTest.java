@@ -0,0 +1,86 @@
+package com.example.samajconnectfrontend.network;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifies that requests issued from different screens reuse the shared client's connections.
+ */
+public class OkHttpClientFactoryTest {
+
+    private MockWebServer server;
+    private OkHttpClient client;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        client = OkHttpClientFactory.create(null);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void requestsFromDifferentScreens_reuseOneConnection() throws Exception {
+        server.enqueue(new MockResponse().setBody("{\"user\":{}}"));
+        server.enqueue(new MockResponse().setBody("{\"events\":[]}"));
+        server.enqueue(new MockResponse().setBody("{\"data\":{}}"));
+
+        // Dashboard, EventActivity and MemberListActivity all go through the same client
+        execute("/api/users/1");
+        execute("/api/events/samaj/6/upcoming");
+        execute("/api/users/samaj/6/members?page=0&size=20");
+
+        RecordedRequest first = server.takeRequest();
+        RecordedRequest second = server.takeRequest();
+        RecordedRequest third = server.takeRequest();
+
+        // Sequence number counts requests served on the same socket
+        assertEquals(0, first.getSequenceNumber());
+        assertEquals(1, second.getSequenceNumber());
+        assertEquals(2, third.getSequenceNumber());
+        assertEquals(1, client.connectionPool().connectionCount());
+    }
+
+    @Test
+    public void derivedClients_shareTheConnectionPool() throws Exception {
+        server.enqueue(new MockResponse().setBody("{}"));
+        server.enqueue(new MockResponse().setBody("{}"));
+
+        execute("/api/samaj/6");
+
+        // OkHttpStack derives a per-request client for Volley timeouts
+        OkHttpClient perRequest = client.newBuilder().build();
+        try (Response response = perRequest.newCall(new Request.Builder()
+                .url(server.url("/api/samaj/6")).build()).execute()) {
+            response.body().string();
+        }
+
+        server.takeRequest();
+        assertEquals(1, server.takeRequest().getSequenceNumber());
+        assertSame(client.connectionPool(), perRequest.connectionPool());
+    }
+
+    private void execute(String path) throws IOException {
+        Request request = new Request.Builder().url(server.url(path)).build();
+        try (Response response = client.newCall(request).execute()) {
+            assertTrue(response.isSuccessful());
+            response.body().string();
+        }
+    }
+}
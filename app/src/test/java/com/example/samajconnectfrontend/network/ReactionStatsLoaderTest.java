@@ -0,0 +1,211 @@
+package com.example.samajconnectfrontend.network;
+
+import com.example.samajconnectfrontend.models.ReactionStats;
+import com.example.samajconnectfrontend.models.ReactionStatsBatchRequest;
+import com.google.gson.Gson;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.junit.Assert.*;
+
+/**
+ * Counts the requests a stub server receives while event list holders ask for reaction stats.
+ */
+public class ReactionStatsLoaderTest {
+
+    private static final Pattern SINGLE_PATH = Pattern.compile("/api/events/(\\d+)/reactions/stats");
+
+    private final Gson gson = new Gson();
+    private final AtomicInteger batchRequests = new AtomicInteger();
+    private final AtomicInteger singleRequests = new AtomicInteger();
+    private volatile boolean batchSupported = true;
+    private volatile int singleStatus = 200;
+
+    private MockWebServer server;
+    private ScheduledExecutorService scheduler;
+    private ReactionStatsLoader loader;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String path = request.getPath();
+                if ("/api/events/reactions/stats/batch".equals(path)) {
+                    batchRequests.incrementAndGet();
+                    if (!batchSupported) {
+                        return new MockResponse().setResponseCode(404);
+                    }
+                    ReactionStatsBatchRequest body = gson.fromJson(request.getBody().clone().readUtf8(), ReactionStatsBatchRequest.class);
+                    StringBuilder data = new StringBuilder();
+                    for (Long eventId : body.getEventIds()) {
+                        if (data.length() > 0) data.append(',');
+                        data.append('"').append(eventId).append("\":").append(statsJson(eventId));
+                    }
+                    return new MockResponse().setBody("{\"success\":true,\"data\":{" + data + "}}");
+                }
+                Matcher single = SINGLE_PATH.matcher(path);
+                if (single.matches()) {
+                    singleRequests.incrementAndGet();
+                    if (singleStatus != 200) {
+                        return new MockResponse().setResponseCode(singleStatus);
+                    }
+                    long eventId = Long.parseLong(single.group(1));
+                    return new MockResponse().setBody("{\"success\":true,\"data\":" + statsJson(eventId) + "}");
+                }
+                return new MockResponse().setResponseCode(500);
+            }
+        });
+        server.start();
+
+        SamajApi api = new Retrofit.Builder()
+                .baseUrl(server.url("/api/"))
+                .addConverterFactory(GsonConverterFactory.create(gson))
+                .build()
+                .create(SamajApi.class);
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        loader = new ReactionStatsLoader(api, scheduler, Runnable::run, 50);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        scheduler.shutdownNow();
+        server.shutdown();
+    }
+
+    @Test
+    public void idsWithinWindow_areSentAsOneBatch() throws Exception {
+        Map<Long, ReactionStats> results = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(20);
+
+        for (long eventId = 1; eventId <= 20; eventId++) {
+            loader.load(eventId, 7L, collect(results, done));
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(1, batchRequests.get());
+        assertEquals(0, singleRequests.get());
+        assertEquals(20, results.size());
+        assertEquals(13, results.get(13L).getLikeCount());
+    }
+
+    @Test
+    public void sameIdRequestedTwice_isFetchedOnceForBothHolders() throws Exception {
+        Map<Long, ReactionStats> results = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(3);
+
+        // A holder rebinding to an event that is still loading
+        loader.load(5, 7L, collect(results, done));
+        loader.load(5, 7L, collect(results, done));
+        loader.load(6, 7L, collect(results, done));
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        RecordedRequest request = server.takeRequest();
+        assertEquals("{\"userId\":7,\"eventIds\":[5,6]}", request.getBody().readUtf8());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void moreIdsThanBatchSize_areSplit() throws Exception {
+        Map<Long, ReactionStats> results = new ConcurrentHashMap<>();
+        int count = ReactionStatsLoader.MAX_BATCH_SIZE + 10;
+        CountDownLatch done = new CountDownLatch(count);
+
+        for (long eventId = 1; eventId <= count; eventId++) {
+            loader.load(eventId, 7L, collect(results, done));
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(2, batchRequests.get());
+        assertEquals(count, results.size());
+    }
+
+    @Test
+    public void serverWithoutBatchEndpoint_fallsBackToSingleRequests() throws Exception {
+        batchSupported = false;
+        Map<Long, ReactionStats> results = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(3);
+
+        loader.load(1, 7L, collect(results, done));
+        loader.load(2, 7L, collect(results, done));
+        loader.load(3, 7L, collect(results, done));
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(1, batchRequests.get());
+        assertEquals(3, singleRequests.get());
+        assertEquals(2, results.get(2L).getLikeCount());
+
+        // Later windows don't try the batch endpoint again
+        CountDownLatch again = new CountDownLatch(2);
+        loader.load(4, 7L, collect(results, again));
+        loader.load(5, 7L, collect(results, again));
+        assertTrue(again.await(5, TimeUnit.SECONDS));
+        assertEquals(1, batchRequests.get());
+        assertEquals(5, singleRequests.get());
+    }
+
+    @Test
+    public void singleRequestError_isReportedAsFailure() throws Exception {
+        batchSupported = false;
+        singleStatus = 500;
+        Map<Long, Boolean> failed = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        loader.load(1, 7L, new ReactionStatsLoader.Callback() {
+            @Override
+            public void onLoaded(long eventId, ReactionStats stats) {
+                fail("An HTTP error must not read as zero reactions");
+            }
+
+            @Override
+            public void onFailed(long eventId) {
+                failed.put(eventId, true);
+                done.countDown();
+            }
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(failed.containsKey(1L));
+        assertEquals(1, singleRequests.get());
+    }
+
+    private static String statsJson(long eventId) {
+        return "{\"likeCount\":" + eventId + ",\"dislikeCount\":0,\"totalReactions\":" + eventId + "}";
+    }
+
+    private static ReactionStatsLoader.Callback collect(Map<Long, ReactionStats> results, CountDownLatch done) {
+        return new ReactionStatsLoader.Callback() {
+            @Override
+            public void onLoaded(long eventId, ReactionStats stats) {
+                results.put(eventId, stats);
+                done.countDown();
+            }
+
+            @Override
+            public void onFailed(long eventId) {
+                fail("Stats for event " + eventId + " failed");
+            }
+        };
+    }
+}
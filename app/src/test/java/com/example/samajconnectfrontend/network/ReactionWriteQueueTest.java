@@ -0,0 +1,190 @@
+package com.example.samajconnectfrontend.network;
+
+import com.example.samajconnectfrontend.models.ReactionStats;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.junit.Assert.*;
+
+public class ReactionWriteQueueTest {
+
+    private static final long SETTLE_MS = 50;
+
+    private MockWebServer server;
+    private SamajApi api;
+    private ScheduledExecutorService scheduler;
+    private final MemoryStore store = new MemoryStore();
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        api = new Retrofit.Builder()
+                .baseUrl(server.url("/api/"))
+                .addConverterFactory(GsonConverterFactory.create())
+                .build()
+                .create(SamajApi.class);
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        scheduler.shutdownNow();
+        server.shutdown();
+    }
+
+    @Test
+    public void requestFor_collapsesToOneToggle() {
+        assertNull(ReactionWriteQueue.requestFor(null, null));
+        assertNull(ReactionWriteQueue.requestFor("LIKE", "LIKE"));
+        assertEquals("LIKE", ReactionWriteQueue.requestFor(null, "LIKE"));
+        assertEquals("DISLIKE", ReactionWriteQueue.requestFor("LIKE", "DISLIKE"));
+        // Posting the current reaction removes it
+        assertEquals("LIKE", ReactionWriteQueue.requestFor("LIKE", null));
+    }
+
+    @Test
+    public void rapidToggles_sendOnlyTheFinalReaction() throws Exception {
+        server.enqueue(new MockResponse().setBody("{}"));
+        ReactionWriteQueue queue = newQueue();
+
+        queue.submit(9, 7, null, "LIKE");
+        queue.submit(9, 7, "LIKE", "DISLIKE");
+        queue.submit(9, 7, "DISLIKE", "LIKE");
+
+        awaitSettled(queue, 9);
+        RecordedRequest request = server.takeRequest();
+        assertEquals("/api/events/9/reactions", request.getPath());
+        assertEquals("{\"userId\":7,\"reactionType\":\"LIKE\"}", request.getBody().readUtf8());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void tapsThatCancelOut_sendNothing() throws Exception {
+        ReactionWriteQueue queue = newQueue();
+
+        queue.submit(9, 7, null, "LIKE");
+        queue.submit(9, 7, "LIKE", null);
+
+        awaitSettled(queue, 9);
+        assertEquals(0, server.getRequestCount());
+        assertEquals("[]", store.json);
+    }
+
+    @Test
+    public void rejectedWrite_rollsBack() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(403));
+        ReactionWriteQueue queue = newQueue();
+        CountDownLatch rolledBack = new CountDownLatch(1);
+        queue.addListener(eventId -> {
+            assertEquals(9, eventId);
+            rolledBack.countDown();
+        });
+
+        queue.submit(9, 7, null, "DISLIKE");
+
+        assertTrue(rolledBack.await(5, TimeUnit.SECONDS));
+        assertFalse(queue.isPending(9));
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void serverErrorsAndNetworkFailures_stayPendingAndAreRetried() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AT_START));
+        server.enqueue(new MockResponse().setResponseCode(500));
+        server.enqueue(new MockResponse().setBody("{}"));
+        ReactionWriteQueue queue = newQueue();
+        queue.addListener(eventId -> fail("Rolled back event " + eventId));
+
+        queue.submit(9, 7, null, "LIKE");
+
+        awaitSettled(queue, 9);
+        // A dropped connection may not be counted as a request
+        assertTrue(server.getRequestCount() >= 3);
+        assertEquals("[]", store.json);
+    }
+
+    @Test
+    public void clear_dropsPendingWrites() throws Exception {
+        ReactionWriteQueue queue = newQueue();
+        queue.submit(9, 7, null, "LIKE");
+
+        queue.clear();
+
+        assertFalse(queue.isPending(9));
+        assertEquals("[]", store.json);
+        Thread.sleep(SETTLE_MS * 4);
+        assertEquals(0, server.getRequestCount());
+    }
+
+    @Test
+    public void pendingWrites_areReplayedAfterRestart() throws Exception {
+        server.enqueue(new MockResponse().setBody("{}"));
+
+        // Process dies before the settle delay runs out
+        ScheduledExecutorService dead = Executors.newSingleThreadScheduledExecutor();
+        ReactionWriteQueue first = new ReactionWriteQueue(api, store, dead, Runnable::run, TimeUnit.MINUTES.toMillis(1));
+        first.submit(9, 7, "LIKE", "DISLIKE");
+        dead.shutdownNow();
+
+        ReactionWriteQueue restarted = newQueue();
+        awaitSettled(restarted, 9);
+        assertEquals("{\"userId\":7,\"reactionType\":\"DISLIKE\"}", server.takeRequest().getBody().readUtf8());
+    }
+
+    @Test
+    public void overlay_showsPendingReactionOverServerStats() {
+        ReactionWriteQueue queue = newQueue();
+        queue.submit(9, 7, null, "LIKE");
+
+        ReactionStats fetched = new ReactionStats(3, 2);
+        ReactionStats shown = queue.overlay(9, fetched);
+
+        assertEquals(4, shown.getLikeCount());
+        assertEquals(2, shown.getDislikeCount());
+        assertTrue(shown.hasUserLiked());
+        assertSame(fetched, queue.overlay(10, fetched));
+    }
+
+    private ReactionWriteQueue newQueue() {
+        return new ReactionWriteQueue(api, store, scheduler, Runnable::run, SETTLE_MS);
+    }
+
+    private static void awaitSettled(ReactionWriteQueue queue, long eventId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (queue.isPending(eventId)) {
+            assertTrue("Write for event " + eventId + " never settled", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private static class MemoryStore implements ReactionWriteQueue.Store {
+        volatile String json;
+
+        @Override
+        public String load() {
+            return json;
+        }
+
+        @Override
+        public void save(String json) {
+            this.json = json;
+        }
+    }
+}
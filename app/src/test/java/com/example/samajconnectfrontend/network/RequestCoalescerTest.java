@@ -0,0 +1,211 @@
+package com.example.samajconnectfrontend.network;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static org.junit.Assert.*;
+
+/**
+ * Fires identical requests at a stub server that counts what actually reaches it.
+ */
+public class RequestCoalescerTest {
+
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+
+    private MockWebServer server;
+    private ExecutorService screens;
+    private final AtomicInteger served = new AtomicInteger();
+    // Holds every response back until released, so requests pile up in flight
+    private final CountDownLatch release = new CountDownLatch(1);
+    private volatile String body = "{\"success\":true,\"user\":{\"id\":5}}";
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                served.incrementAndGet();
+                release.await(5, TimeUnit.SECONDS);
+                return new MockResponse().setBody(body);
+            }
+        });
+        server.start();
+        screens = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        release.countDown();
+        screens.shutdownNow();
+        server.shutdown();
+    }
+
+    @Test
+    public void concurrentIdenticalGets_shareOneResponse() throws Exception {
+        OkHttpClient client = client(new RequestCoalescer(0));
+
+        List<Future<String>> calls = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            calls.add(screens.submit(() -> get(client, "/api/users/5")));
+        }
+        waitForServed(1);
+        Thread.sleep(200);
+        release.countDown();
+
+        for (Future<String> call : calls) {
+            assertEquals(body, call.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, served.get());
+    }
+
+    @Test
+    public void repeatWithinWindow_isReplayed() throws Exception {
+        release.countDown();
+        OkHttpClient client = client(new RequestCoalescer(60_000));
+
+        String first = get(client, "/api/users/5");
+        String second = get(client, "/api/users/5");
+
+        assertEquals(first, second);
+        assertEquals(1, served.get());
+    }
+
+    @Test
+    public void repeatAfterWindow_goesToTheServer() throws Exception {
+        release.countDown();
+        OkHttpClient client = client(new RequestCoalescer(0));
+
+        get(client, "/api/users/5");
+        get(client, "/api/users/5");
+
+        assertEquals(2, served.get());
+    }
+
+    @Test
+    public void noCache_skipsTheReplay() throws Exception {
+        release.countDown();
+        OkHttpClient client = client(new RequestCoalescer(60_000));
+
+        get(client, "/api/users/5");
+        try (Response response = client.newCall(new Request.Builder()
+                .url(server.url("/api/users/5"))
+                .header("Cache-Control", "no-cache")
+                .build()).execute()) {
+            assertTrue(response.isSuccessful());
+        }
+
+        assertEquals(2, served.get());
+    }
+
+    @Test
+    public void differentCredentialsOrBodies_areNotShared() throws Exception {
+        release.countDown();
+        OkHttpClient client = client(new RequestCoalescer(60_000));
+
+        get(client, "/api/users/5");
+        execute(client, new Request.Builder().url(server.url("/api/users/5"))
+                .header("Authorization", "Bearer other").build());
+        post(client, "/api/users/samaj/search-members", "{\"query\":\"a\"}");
+        post(client, "/api/users/samaj/search-members", "{\"query\":\"b\"}");
+
+        assertEquals(4, served.get());
+    }
+
+    @Test
+    public void concurrentIdenticalPosts_shareOneResponse() throws Exception {
+        OkHttpClient client = client(new RequestCoalescer(0));
+
+        Future<String> first = screens.submit(() -> post(client, "/api/family-tree/relationship", "{\"to\":7}"));
+        Future<String> second = screens.submit(() -> post(client, "/api/family-tree/relationship", "{\"to\":7}"));
+        waitForServed(1);
+        Thread.sleep(200);
+        release.countDown();
+
+        assertEquals(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, served.get());
+    }
+
+    @Test
+    public void write_clearsReplayedResponses() throws Exception {
+        release.countDown();
+        OkHttpClient client = client(new RequestCoalescer(60_000));
+
+        get(client, "/api/users/5");
+        execute(client, new Request.Builder().url(server.url("/api/users/5/profile"))
+                .put(RequestBody.create("{\"name\":\"Asha\"}", JSON)).build());
+        get(client, "/api/users/5");
+
+        assertEquals(3, served.get());
+    }
+
+    @Test
+    public void largeResponse_isNotCopied() throws Exception {
+        StringBuilder big = new StringBuilder();
+        while (big.length() <= RequestCoalescer.MAX_SHARED_BYTES) {
+            big.append("0123456789");
+        }
+        body = big.toString();
+        OkHttpClient client = client(new RequestCoalescer(60_000));
+
+        Future<String> first = screens.submit(() -> get(client, "/api/family-tree/user/5"));
+        Future<String> second = screens.submit(() -> get(client, "/api/family-tree/user/5"));
+        waitForServed(1);
+        Thread.sleep(200);
+        release.countDown();
+
+        // Both complete with the full body, the second by going to the server itself
+        assertEquals(body, first.get(5, TimeUnit.SECONDS));
+        assertEquals(body, second.get(5, TimeUnit.SECONDS));
+        assertEquals(2, served.get());
+    }
+
+    private OkHttpClient client(RequestCoalescer coalescer) {
+        return OkHttpClientFactory.create(null).newBuilder()
+                .addInterceptor(coalescer)
+                .build();
+    }
+
+    private String get(OkHttpClient client, String path) throws IOException {
+        return execute(client, new Request.Builder().url(server.url(path)).build());
+    }
+
+    private String post(OkHttpClient client, String path, String json) throws IOException {
+        return execute(client, new Request.Builder().url(server.url(path))
+                .post(RequestBody.create(json, JSON)).build());
+    }
+
+    private static String execute(OkHttpClient client, Request request) throws IOException {
+        try (Response response = client.newCall(request).execute()) {
+            return response.body().string();
+        }
+    }
+
+    private void waitForServed(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (served.get() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
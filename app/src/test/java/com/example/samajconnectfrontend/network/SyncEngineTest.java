@@ -0,0 +1,258 @@
+package com.example.samajconnectfrontend.network;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.samajconnectfrontend.data.local.AppDatabase;
+import com.example.samajconnectfrontend.data.local.LocalStore;
+import com.example.samajconnectfrontend.data.local.SyncStateRecord;
+import com.example.samajconnectfrontend.models.DetailedUserDto;
+import com.example.samajconnectfrontend.models.Event;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs syncs against a stub server and an in-memory database, checking what is requested
+ * and what ends up in the local store.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class SyncEngineTest {
+
+    private MockWebServer server;
+    private SamajApi api;
+    private AppDatabase db;
+    private LocalStore store;
+    private SyncEngine engine;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        api = new Retrofit.Builder()
+                .baseUrl(server.url("/api/"))
+                .addConverterFactory(GsonConverterFactory.create())
+                .build()
+                .create(SamajApi.class);
+
+        db = Room.inMemoryDatabaseBuilder(ApplicationProvider.getApplicationContext(), AppDatabase.class)
+                .allowMainThreadQueries()
+                .build();
+        store = new LocalStore(db, Runnable::run);
+        engine = new SyncEngine(api, store, new ConditionalCache(), Runnable::run, Runnable::run);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        db.close();
+        server.shutdown();
+    }
+
+    @Test
+    public void firstSync_downloadsEverythingAndSetsWatermark() throws Exception {
+        server.enqueue(new MockResponse().setBody("{\"success\":true,\"events\":["
+                + event(1, "2030-01-01 10:00:00") + "," + event(2, "2030-01-03 10:00:00") + "]}"));
+
+        List<Event> events = syncEvents();
+
+        assertEquals("/api/events/samaj/6?imageVariant=thumbnail", server.takeRequest().getPath());
+        assertEquals(2, events.size());
+        assertEquals("2030-01-03 10:00:00", store.watermark(SyncStateRecord.EVENTS, 6));
+    }
+
+    @Test
+    public void laterSync_mergesChangesAndTombstones() throws Exception {
+        server.enqueue(new MockResponse().setBody("{\"success\":true,\"events\":["
+                + event(1, "2030-01-01 10:00:00") + "," + event(2, "2030-01-02 10:00:00") + "]}"));
+        syncEvents();
+        server.takeRequest();
+
+        server.enqueue(new MockResponse().setBody("{\"success\":true,\"data\":{\"changed\":["
+                + event(3, "2030-01-04 09:00:00") + "," + event(1, "2030-01-04 10:00:00")
+                + "],\"deletedIds\":[2],\"serverTime\":\"2030-01-04 11:00:00\"}}"));
+        List<Event> events = syncEvents();
+
+        RecordedRequest request = server.takeRequest();
+        assertEquals("/api/events/samaj/6/changes?imageVariant=thumbnail&since=2030-01-02%2010:00:00", request.getPath());
+        // New event on top, the edited one keeps its place, the deleted one is gone
+        assertEquals(2, events.size());
+        assertEquals(Long.valueOf(3), events.get(0).getId());
+        assertEquals(Long.valueOf(1), events.get(1).getId());
+        assertEquals("Event 1 v2030-01-04 10:00:00", events.get(1).getEventTitle());
+        assertEquals("2030-01-04 11:00:00", store.watermark(SyncStateRecord.EVENTS, 6));
+    }
+
+    @Test
+    public void missingChangesEndpoint_fallsBackToFullList() throws Exception {
+        store.setWatermark(SyncStateRecord.EVENTS, 6, "2030-01-01 00:00:00");
+        server.enqueue(new MockResponse().setResponseCode(404));
+        server.enqueue(new MockResponse().setBody("{\"success\":true,\"events\":["
+                + event(5, "2030-02-01 10:00:00") + "]}"));
+
+        List<Event> events = syncEvents();
+
+        assertTrue(server.takeRequest().getPath().startsWith("/api/events/samaj/6/changes"));
+        assertEquals("/api/events/samaj/6?imageVariant=thumbnail", server.takeRequest().getPath());
+        assertEquals(1, events.size());
+        assertEquals(Long.valueOf(5), events.get(0).getId());
+    }
+
+    @Test
+    public void failedSync_keepsTheCacheAndReportsStatus() {
+        store.saveEvents(6, new ArrayList<>());
+        server.enqueue(new MockResponse().setResponseCode(500));
+        AtomicReference<Integer> failure = new AtomicReference<>();
+
+        engine.syncEvents(6, new SyncEngine.Callback<List<Event>>() {
+            @Override
+            public void onSynced(List<Event> result) {
+                fail("Sync should have failed");
+            }
+
+            @Override
+            public void onFailed(int statusCode) {
+                failure.set(statusCode);
+            }
+        });
+
+        assertEquals(Integer.valueOf(500), failure.get());
+        assertNull(store.watermark(SyncStateRecord.EVENTS, 6));
+    }
+
+    @Test
+    public void memberRoster_pagesOnceThenAppliesDeltas() throws Exception {
+        server.enqueue(new MockResponse().setBody(memberPage(true, member(1, "2030-01-01 10:00:00"))));
+        server.enqueue(new MockResponse().setBody(memberPage(false, member(2, "2030-01-02 10:00:00"))));
+        assertEquals(Integer.valueOf(2), syncMembers());
+        assertEquals("/api/users/samaj/6/members?page=0&size=" + SyncEngine.ROSTER_PAGE_SIZE, server.takeRequest().getPath());
+        assertEquals("/api/users/samaj/6/members?page=1&size=" + SyncEngine.ROSTER_PAGE_SIZE, server.takeRequest().getPath());
+
+        server.enqueue(new MockResponse().setBody("{\"success\":true,\"data\":{\"changed\":["
+                + member(3, "2030-01-03 10:00:00") + "],\"deletedIds\":[1]}}"));
+        assertEquals(Integer.valueOf(2), syncMembers());
+
+        assertEquals("/api/users/samaj/6/members/changes?since=2030-01-02%2010:00:00", server.takeRequest().getPath());
+        List<Long> ids = new ArrayList<>();
+        for (DetailedUserDto user : store.roster(6)) {
+            ids.add(user.getId());
+        }
+        assertTrue(ids.contains(2L));
+        assertTrue(ids.contains(3L));
+        assertFalse(ids.contains(1L));
+        assertEquals("2030-01-03 10:00:00", store.watermark(SyncStateRecord.MEMBERS, 6));
+    }
+
+    @Test
+    public void missingMemberChangesEndpoint_isRememberedAndRefreshesAreSpacedOut() throws Exception {
+        AtomicLong now = new AtomicLong(1_000_000L);
+        engine = new SyncEngine(api, store, new ConditionalCache(), Runnable::run, Runnable::run, now::get);
+        server.enqueue(new MockResponse().setBody(memberPage(false, member(1, "2030-01-01 10:00:00"))));
+        syncMembers();
+        server.takeRequest();
+
+        // The first later sync finds out there are no deltas, and the roster is still fresh
+        server.enqueue(new MockResponse().setResponseCode(404));
+        assertEquals(Integer.valueOf(1), syncMembers());
+        assertTrue(server.takeRequest().getPath().startsWith("/api/users/samaj/6/members/changes"));
+
+        // A new engine, as after a restart, neither probes again nor downloads the roster
+        engine = new SyncEngine(api, store, new ConditionalCache(), Runnable::run, Runnable::run, now::get);
+        assertEquals(Integer.valueOf(1), syncMembers());
+        assertEquals(2, server.getRequestCount());
+
+        now.addAndGet(SyncEngine.ROSTER_REFRESH_MS);
+        server.enqueue(new MockResponse().setBody(memberPage(false,
+                member(1, "2030-01-01 10:00:00"), member(2, "2030-01-05 10:00:00"))));
+        assertEquals(Integer.valueOf(2), syncMembers());
+        assertEquals("/api/users/samaj/6/members?page=0&size=" + SyncEngine.ROSTER_PAGE_SIZE, server.takeRequest().getPath());
+    }
+
+    @Test
+    public void eventDeletedLocally_isNotBroughtBackByAnOlderList() throws Exception {
+        store.deleteEvent(2);
+        // Fetched before the server had processed the delete
+        server.enqueue(new MockResponse().setBody("{\"success\":true,\"events\":["
+                + event(1, "2030-01-01 10:00:00") + "," + event(2, "2030-01-02 10:00:00") + "]}"));
+
+        List<Event> events = syncEvents();
+
+        assertEquals(1, events.size());
+        assertEquals(Long.valueOf(1), events.get(0).getId());
+    }
+
+    @Test
+    public void nextWatermark_prefersServerTimeThenNewestStamp() {
+        List<String> stamps = new ArrayList<>();
+        stamps.add("2030-01-02 10:00:00");
+        stamps.add(null);
+        stamps.add("2030-01-03 10:00:00");
+
+        assertEquals("2030-02-01 00:00:00", SyncEngine.nextWatermark("2030-01-01 00:00:00", "2030-02-01 00:00:00", stamps));
+        assertEquals("2030-01-03 10:00:00", SyncEngine.nextWatermark("2030-01-01 00:00:00", null, stamps));
+        assertEquals("2030-01-01 00:00:00", SyncEngine.nextWatermark("2030-01-01 00:00:00", null, new ArrayList<>()));
+    }
+
+    private List<Event> syncEvents() {
+        AtomicReference<List<Event>> result = new AtomicReference<>();
+        engine.syncEvents(6, new SyncEngine.Callback<List<Event>>() {
+            @Override
+            public void onSynced(List<Event> events) {
+                result.set(events);
+            }
+
+            @Override
+            public void onFailed(int statusCode) {
+                fail("Sync failed with " + statusCode);
+            }
+        });
+        return result.get();
+    }
+
+    private Integer syncMembers() {
+        AtomicReference<Integer> result = new AtomicReference<>();
+        engine.syncMembers(6, new SyncEngine.Callback<Integer>() {
+            @Override
+            public void onSynced(Integer size) {
+                result.set(size);
+            }
+
+            @Override
+            public void onFailed(int statusCode) {
+                fail("Sync failed with " + statusCode);
+            }
+        });
+        return result.get();
+    }
+
+    private static String event(long id, String updatedAt) {
+        return "{\"id\":" + id + ",\"samajId\":6,\"eventTitle\":\"Event " + id + " v" + updatedAt
+                + "\",\"eventDate\":\"2030-06-01 10:00:00\",\"updatedAt\":\"" + updatedAt + "\"}";
+    }
+
+    private static String member(int id, String updatedAt) {
+        return "{\"id\":" + id + ",\"name\":\"Member " + id + "\",\"email\":\"m" + id + "@example.com\",\"updatedAt\":\""
+                + updatedAt + "\"}";
+    }
+
+    private static String memberPage(boolean hasNext, String... members) {
+        return "{\"success\":true,\"data\":{\"samajName\":\"Patel Samaj\",\"hasNext\":" + hasNext
+                + ",\"members\":[" + String.join(",", members) + "]}}";
+    }
+}
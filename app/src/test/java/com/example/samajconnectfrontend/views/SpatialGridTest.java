@@ -0,0 +1,77 @@
+package com.example.samajconnectfrontend.views;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SpatialGridTest {
+
+    @Test
+    public void query_returnsOnlyIntersectingItems() {
+        SpatialGrid<String> grid = new SpatialGrid<>(100);
+        grid.insert("a", 0, 0, 50, 50);
+        grid.insert("b", 1000, 1000, 1050, 1050);
+        grid.insert("c", -500, 20, -450, 70);
+
+        List<String> found = new ArrayList<>();
+        grid.query(-10, -10, 200, 200, found);
+
+        assertEquals(Collections.singletonList("a"), found);
+    }
+
+    @Test
+    public void query_findsItemFiledInDistantCell() {
+        // Centered far below the query, but its bounds reach up into it
+        SpatialGrid<String> grid = new SpatialGrid<>(100);
+        grid.insert("tall", 0, 0, 40, 900);
+
+        List<String> found = new ArrayList<>();
+        grid.query(10, 10, 20, 20, found);
+
+        assertEquals(Collections.singletonList("tall"), found);
+    }
+
+    @Test
+    public void query_reportsEachItemOnce() {
+        SpatialGrid<String> grid = new SpatialGrid<>(10);
+        grid.insert("wide", -95, -5, 95, 5);
+        grid.insert("dot", 3, 3, 4, 4);
+
+        List<String> found = new ArrayList<>();
+        grid.query(-1000, -1000, 1000, 1000, found);
+        Collections.sort(found);
+
+        assertEquals(Arrays.asList("dot", "wide"), found);
+    }
+
+    @Test
+    public void query_point_hitsContainingBounds() {
+        SpatialGrid<Integer> grid = new SpatialGrid<>(512);
+        for (int i = 0; i < 100; i++) {
+            grid.insert(i, i * 600, 0, i * 600 + 240, 240);
+        }
+
+        List<Integer> found = new ArrayList<>();
+        grid.query(42 * 600 + 100, 100, 42 * 600 + 100, 100, found);
+
+        assertEquals(Collections.singletonList(42), found);
+    }
+
+    @Test
+    public void clear_removesEverything() {
+        SpatialGrid<String> grid = new SpatialGrid<>(100);
+        grid.insert("a", 0, 0, 50, 50);
+        grid.clear();
+
+        List<String> found = new ArrayList<>();
+        grid.query(-1000, -1000, 1000, 1000, found);
+
+        assertTrue(found.isEmpty());
+        assertEquals(0, grid.size());
+    }
+}